@@ -9,6 +9,8 @@ import java.awt.geom.AffineTransform;
 import java.awt.image.BufferedImage;
 import java.util.*;
 import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 /**
  * Adjacency matrix heatmap visualization for graphs.
@@ -21,7 +23,25 @@ import java.util.List;
  * - Node reordering by degree, name, or community
  * - Tooltip on hover showing node pair and Edge details
  * - Export to PNG
- * 
+ *
+ * <h3>Rendering</h3>
+ * <p>The matrix is not painted cell by cell on every repaint. It is drawn
+ * from the sparse adjacency into {@value #TILE_SIZE}-pixel
+ * {@link BufferedImage} tiles, which are rendered on a background thread
+ * the first time they become visible. Repaints for panning and hovering
+ * only blit finished tiles; tiles still in flight show the background until
+ * they arrive. The tiles are discarded only when the zoom level or the
+ * node order changes, or least recently used first once the cache holds
+ * twice the tiles the current view size can show. A tile costs O(tile area + non-zero cells in it), so
+ * empty regions of large sparse matrices are cheap.</p>
+ *
+ * <p>Zooming out past one pixel per cell aggregates blocks of cells into
+ * one pixel. In {@link BlockMode#SUM} mode a pixel shows the mean colour
+ * of its block's entries, at an opacity proportional to their summed
+ * opacity; it saturates once the block holds as many entries as its side
+ * length. In {@link BlockMode#MAX} mode a pixel shows its most opaque
+ * entry, so isolated edges stay visible at any zoom.</p>
+ *
  * @author sauravbhattacharya001
  */
 public class AdjacencyMatrixHeatmap extends JPanel {
@@ -39,6 +59,40 @@ public class AdjacencyMatrixHeatmap extends JPanel {
     private String hoveredCol = null;
     private String sortMode = "degree";
 
+    /** Side of a cached matrix tile, in pixels. */
+    static final int TILE_SIZE = 256;
+    /** Fewest tiles kept for the current zoom level before the least recent is dropped. */
+    static final int MIN_CACHED_TILES = 96;
+    /** The matrix is zoomed out past 3 px cells only while wider than this. */
+    private static final int FIT_PIXELS = 600;
+
+    /** How a pixel summarises the block of cells it covers when zoomed out. */
+    public enum BlockMode {
+        /** Mean entry colour, opacity proportional to the summed entry opacity. */
+        SUM,
+        /** The most opaque entry of the block. */
+        MAX
+    }
+
+    /** Matrix cells per pixel side; above 1 only when {@code cellSize} is 1. */
+    private int cellsPerPixel = 1;
+    private BlockMode blockMode = BlockMode.SUM;
+    private Matrix matrix;
+    private final Map<Long, BufferedImage> tiles =
+            new LinkedHashMap<Long, BufferedImage>(16, 0.75f, true) {
+                private static final long serialVersionUID = 1L;
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<Long, BufferedImage> eldest) {
+                    return size() > tileCapacity(getWidth(), getHeight());
+                }
+            };
+    private final Set<Long> pendingTiles = new HashSet<>();
+    /** Bumped whenever cached tiles become stale; in-flight renders check it. */
+    private volatile int tileGeneration;
+    private transient ExecutorService tileExecutor;
+    /** Renders missing tiles on the calling thread, for export. */
+    private boolean paintSynchronously;
+
     // Edge type colors matching the main visualization
     private static final Color FRIEND_COLOR = new Color(0, 200, 0);
     private static final Color CLASSMATE_COLOR = new Color(0, 150, 255);
@@ -87,6 +141,8 @@ public class AdjacencyMatrixHeatmap extends JPanel {
             default:
                 Collections.sort(nodeOrder);
         }
+        matrix = Matrix.build(nodeOrder, graph, adjacency);
+        invalidateTiles();
     }
 
     private void sortByCommunity() {
@@ -125,13 +181,11 @@ public class AdjacencyMatrixHeatmap extends JPanel {
     private void setupInteraction() {
         // Zoom with mouse wheel
         addMouseWheelListener(e -> {
-            int oldSize = cellSize;
             if (e.getWheelRotation() < 0) {
-                cellSize = Math.min(60, cellSize + 2);
+                zoomIn();
             } else {
-                cellSize = Math.max(3, cellSize - 2);
+                zoomOut();
             }
-            if (cellSize != oldSize) repaint();
         });
 
         // Pan with drag
@@ -174,9 +228,10 @@ public class AdjacencyMatrixHeatmap extends JPanel {
         int n = nodeOrder.size();
 
         String oldRow = hoveredRow, oldCol = hoveredCol;
-        if (x >= 0 && y >= 0 && x < n * cellSize && y < n * cellSize) {
-            int col = x / cellSize;
-            int row = y / cellSize;
+        int size = matrixPixels();
+        if (x >= 0 && y >= 0 && x < size && y < size) {
+            int col = (int) ((long) x * cellsPerPixel / cellSize);
+            int row = (int) ((long) y * cellsPerPixel / cellSize);
             hoveredRow = (row < n) ? nodeOrder.get(row) : null;
             hoveredCol = (col < n) ? nodeOrder.get(col) : null;
         } else {
@@ -211,7 +266,7 @@ public class AdjacencyMatrixHeatmap extends JPanel {
         return EdgeTypeRegistry.getName(type);
     }
 
-    private Color getEdgeColor(Edge e) {
+    private static Color getEdgeColor(Edge e) {
         if (e == null) return DEFAULT_COLOR;
         String type = e.getType();
         if (type == null) return DEFAULT_COLOR;
@@ -229,6 +284,139 @@ public class AdjacencyMatrixHeatmap extends JPanel {
         return Math.min(100, Math.max(30, cellSize * 3));
     }
 
+    // ── Zoom ────────────────────────────────────────────────────────
+
+    private void zoomIn() {
+        if (cellsPerPixel > 1) {
+            cellsPerPixel /= 2;
+        } else if (cellSize < 3) {
+            cellSize = 3;
+        } else if (cellSize < 60) {
+            cellSize = Math.min(60, cellSize + 2);
+        } else {
+            return;
+        }
+        invalidateTiles();
+        repaint();
+    }
+
+    private void zoomOut() {
+        if (cellSize > 3) {
+            cellSize = Math.max(3, cellSize - 2);
+        } else if (matrixPixels() <= FIT_PIXELS) {
+            return;
+        } else if (cellSize > 1) {
+            cellSize = 1;
+        } else {
+            cellsPerPixel *= 2;
+        }
+        invalidateTiles();
+        repaint();
+    }
+
+    private void resetZoom() {
+        offsetX = 0;
+        offsetY = 0;
+        cellSize = 12;
+        cellsPerPixel = 1;
+        invalidateTiles();
+        repaint();
+    }
+
+    /** Sets how zoomed-out pixels summarise their block of cells. */
+    public void setBlockMode(BlockMode mode) {
+        if (mode == null) throw new IllegalArgumentException("mode must not be null");
+        if (mode == blockMode) return;
+        blockMode = mode;
+        invalidateTiles();
+        repaint();
+    }
+
+    /** Pixel offset of row/column {@code i} from the matrix origin. */
+    private int pixelOf(int i) {
+        return (int) ((long) i * cellSize / cellsPerPixel);
+    }
+
+    /** Side of the whole matrix in pixels. */
+    private int matrixPixels() {
+        return (int) (((long) nodeOrder.size() * cellSize + cellsPerPixel - 1) / cellsPerPixel);
+    }
+
+    // ── Tiles ───────────────────────────────────────────────────────
+
+    /**
+     * Returns how many tiles to cache for a component of the given size:
+     * twice the tiles an unaligned view of that size can touch, so panning
+     * back and forth never evicts a visible tile, and at least
+     * {@value #MIN_CACHED_TILES}.
+     */
+    static int tileCapacity(int width, int height) {
+        long across = (Math.max(0, width) + TILE_SIZE - 1) / TILE_SIZE + 1;
+        long down = (Math.max(0, height) + TILE_SIZE - 1) / TILE_SIZE + 1;
+        return (int) Math.min(Integer.MAX_VALUE, Math.max(MIN_CACHED_TILES, 2 * across * down));
+    }
+
+    private void invalidateTiles() {
+        tileGeneration++;
+        tiles.clear();
+        pendingTiles.clear();
+    }
+
+    /**
+     * Returns the tile at (tx, ty) if it is ready. Otherwise queues it on
+     * the tile thread, or renders it right away when painting
+     * synchronously.
+     */
+    private BufferedImage tile(int tx, int ty, int size) {
+        long key = ((long) ty << 32) | tx;
+        BufferedImage img = tiles.get(key);
+        if (img != null) return img;
+        int x0 = tx * TILE_SIZE;
+        int y0 = ty * TILE_SIZE;
+        int w = Math.min(TILE_SIZE, size - x0);
+        int h = Math.min(TILE_SIZE, size - y0);
+        Matrix m = matrix;
+        int cs = cellSize;
+        int c = cellsPerPixel;
+        BlockMode mode = blockMode;
+        if (paintSynchronously) {
+            img = m.renderTile(x0, y0, w, h, cs, c, mode);
+            tiles.put(key, img);
+            return img;
+        }
+        if (pendingTiles.add(key)) {
+            int generation = tileGeneration;
+            if (tileExecutor == null) {
+                tileExecutor = Executors.newSingleThreadExecutor(r -> {
+                    Thread t = new Thread(r, "AdjacencyMatrixHeatmap-tiles");
+                    t.setDaemon(true);
+                    return t;
+                });
+            }
+            tileExecutor.execute(() -> {
+                if (generation != tileGeneration) return;
+                BufferedImage done = m.renderTile(x0, y0, w, h, cs, c, mode);
+                SwingUtilities.invokeLater(() -> {
+                    if (generation != tileGeneration) return;
+                    pendingTiles.remove(key);
+                    tiles.put(key, done);
+                    repaint(offsetX + getLabelMargin() + x0, offsetY + getLabelMargin() + y0, w, h);
+                });
+            });
+        }
+        return null;
+    }
+
+    @Override
+    public void removeNotify() {
+        super.removeNotify();
+        if (tileExecutor != null) {
+            tileExecutor.shutdownNow();
+            tileExecutor = null;
+        }
+        invalidateTiles();
+    }
+
     @Override
     protected void paintComponent(Graphics g2) {
         super.paintComponent(g2);
@@ -245,44 +433,36 @@ public class AdjacencyMatrixHeatmap extends JPanel {
         }
 
         int labelMargin = getLabelMargin();
-        int matrixSize = n * cellSize;
+        int matrixSize = matrixPixels();
+        Rectangle clip = g.getClipBounds();
+        if (clip == null) clip = new Rectangle(0, 0, getWidth(), getHeight());
 
         g.translate(offsetX, offsetY);
 
-        // Draw cells
-        for (int row = 0; row < n; row++) {
-            for (int col = 0; col < n; col++) {
-                int cx = labelMargin + col * cellSize;
-                int cy = labelMargin + row * cellSize;
-
-                String nodeR = nodeOrder.get(row);
-                String nodeC = nodeOrder.get(col);
-
-                if (row == col) {
-                    // Diagonal - show degree as brightness
-                    int deg = graph.degree(nodeR);
-                    int brightness = Math.min(255, 40 + deg * 15);
-                    g.setColor(new Color(brightness, brightness, brightness));
-                } else {
-                    Map<String, Edge> rowMap = adjacency.get(nodeR);
-                    if (rowMap != null && rowMap.containsKey(nodeC)) {
-                        Edge e = rowMap.get(nodeC);
-                        Color base = getEdgeColor(e);
-                        float alpha = e.getWeight() > 0 ? Math.min(1f, 0.4f + e.getWeight() * 0.1f) : 0.85f;
-                        g.setColor(new Color(base.getRed(), base.getGreen(), base.getBlue(),
-                                (int)(alpha * 255)));
-                    } else {
-                        g.setColor(BG_COLOR);
-                    }
+        // Visible part of the matrix, in matrix pixels
+        int vx0 = Math.max(0, clip.x - offsetX - labelMargin);
+        int vy0 = Math.max(0, clip.y - offsetY - labelMargin);
+        int vx1 = Math.min(matrixSize, clip.x + clip.width - offsetX - labelMargin);
+        int vy1 = Math.min(matrixSize, clip.y + clip.height - offsetY - labelMargin);
+
+        // Draw cells from the tile cache
+        for (int ty = vy0 / TILE_SIZE; ty * TILE_SIZE < vy1; ty++) {
+            for (int tx = vx0 / TILE_SIZE; tx * TILE_SIZE < vx1; tx++) {
+                BufferedImage img = tile(tx, ty, matrixSize);
+                if (img != null) {
+                    g.drawImage(img, labelMargin + tx * TILE_SIZE, labelMargin + ty * TILE_SIZE, null);
                 }
-                g.fillRect(cx, cy, cellSize, cellSize);
             }
         }
 
+        // Visible rows/columns (cellsPerPixel is 1 whenever grid or labels show)
+        int first = Math.max(0, Math.min(vx0, vy0) / cellSize);
+        int last = Math.min(n, Math.max(vx1, vy1) / cellSize + 1);
+
         // Draw grid if cells are large enough
         if (cellSize >= 6) {
             g.setColor(GRID_COLOR);
-            for (int i = 0; i <= n; i++) {
+            for (int i = first; i <= last; i++) {
                 g.drawLine(labelMargin + i * cellSize, labelMargin,
                            labelMargin + i * cellSize, labelMargin + matrixSize);
                 g.drawLine(labelMargin, labelMargin + i * cellSize,
@@ -295,12 +475,14 @@ public class AdjacencyMatrixHeatmap extends JPanel {
             int rowIdx = nodeOrder.indexOf(hoveredRow);
             int colIdx = nodeOrder.indexOf(hoveredCol);
             if (rowIdx >= 0) {
+                int y = pixelOf(rowIdx);
                 g.setColor(HIGHLIGHT_COLOR);
-                g.fillRect(labelMargin, labelMargin + rowIdx * cellSize, matrixSize, cellSize);
+                g.fillRect(labelMargin, labelMargin + y, matrixSize, Math.max(1, pixelOf(rowIdx + 1) - y));
             }
             if (colIdx >= 0) {
+                int x = pixelOf(colIdx);
                 g.setColor(HIGHLIGHT_COLOR);
-                g.fillRect(labelMargin + colIdx * cellSize, labelMargin, cellSize, matrixSize);
+                g.fillRect(labelMargin + x, labelMargin, Math.max(1, pixelOf(colIdx + 1) - x), matrixSize);
             }
         }
 
@@ -311,7 +493,7 @@ public class AdjacencyMatrixHeatmap extends JPanel {
             g.setFont(new Font("SansSerif", Font.PLAIN, fontSize));
             FontMetrics fm = g.getFontMetrics();
 
-            for (int i = 0; i < n; i++) {
+            for (int i = first; i < last; i++) {
                 String label = nodeOrder.get(i);
                 if (label.length() > 8) label = label.substring(0, 7) + "…";
 
@@ -352,7 +534,8 @@ public class AdjacencyMatrixHeatmap extends JPanel {
         // Info
         g.setFont(new Font("SansSerif", Font.PLAIN, 10));
         g.setColor(new Color(120, 120, 120));
-        g.drawString("Sort: " + sortMode + " | Scroll to zoom | Right-drag to pan", labelMargin, labelMargin + matrixSize + 18);
+        String zoom = cellsPerPixel > 1 ? " | " + cellsPerPixel + "x" + cellsPerPixel + " cells/pixel (" + blockMode + ")" : "";
+        g.drawString("Sort: " + sortMode + zoom + " | Scroll to zoom | Right-drag to pan", labelMargin, labelMargin + matrixSize + 18);
         g.drawString("Nodes: " + n + " | Edges: " + graph.getEdgeCount(), labelMargin, labelMargin + matrixSize + 32);
 
         g.translate(-offsetX, -offsetY);
@@ -386,14 +569,17 @@ public class AdjacencyMatrixHeatmap extends JPanel {
         controls.add(sortBox);
 
         JButton resetBtn = new JButton("Reset View");
-        resetBtn.addActionListener(e -> {
-            heatmap.offsetX = 0;
-            heatmap.offsetY = 0;
-            heatmap.cellSize = 12;
-            heatmap.repaint();
-        });
+        resetBtn.addActionListener(e -> heatmap.resetZoom());
         controls.add(resetBtn);
 
+        JLabel blockLabel = new JLabel("Blocks:");
+        blockLabel.setForeground(Color.WHITE);
+        controls.add(blockLabel);
+
+        JComboBox<BlockMode> blockBox = new JComboBox<>(BlockMode.values());
+        blockBox.addActionListener(e -> heatmap.setBlockMode((BlockMode) blockBox.getSelectedItem()));
+        controls.add(blockBox);
+
         JButton exportBtn = new JButton("Export PNG");
         exportBtn.addActionListener(e -> {
             JFileChooser fc = new JFileChooser();
@@ -404,8 +590,13 @@ public class AdjacencyMatrixHeatmap extends JPanel {
                     int h = heatmap.getHeight();
                     BufferedImage img = new BufferedImage(w, h, BufferedImage.TYPE_INT_ARGB);
                     Graphics2D ig = img.createGraphics();
-                    heatmap.paint(ig);
-                    ig.dispose();
+                    heatmap.paintSynchronously = true;
+                    try {
+                        heatmap.paint(ig);
+                    } finally {
+                        heatmap.paintSynchronously = false;
+                        ig.dispose();
+                    }
                     javax.imageio.ImageIO.write(img, "PNG", fc.getSelectedFile());
                     JOptionPane.showMessageDialog(dialog, "Exported to " + fc.getSelectedFile().getName());
                 } catch (Exception ex) {
@@ -432,4 +623,164 @@ public class AdjacencyMatrixHeatmap extends JPanel {
         sortNodes();
         repaint();
     }
+
+    // ── Sparse matrix snapshot ──────────────────────────────────────
+
+    /**
+     * Immutable snapshot of the ordered adjacency matrix in compressed
+     * sparse row form, safe to read from the tile thread. Entry colours
+     * carry the cell's opacity in their alpha channel; the diagonal holds
+     * the degree-shaded node cells.
+     */
+    static final class Matrix {
+
+        final int n;
+        final int[] rowStart;
+        final int[] cols;
+        final int[] argb;
+
+        private Matrix(int n, int[] rowStart, int[] cols, int[] argb) {
+            this.n = n;
+            this.rowStart = rowStart;
+            this.cols = cols;
+            this.argb = argb;
+        }
+
+        static Matrix build(List<String> order, Graph<String, Edge> graph,
+                            Map<String, Map<String, Edge>> adjacency) {
+            int n = order.size();
+            Map<String, Integer> index = new HashMap<>(n * 2);
+            for (int i = 0; i < n; i++) index.put(order.get(i), i);
+            int[] rowStart = new int[n + 1];
+            for (int r = 0; r < n; r++) {
+                Map<String, Edge> row = adjacency.get(order.get(r));
+                rowStart[r + 1] = rowStart[r] + 1 + (row == null ? 0 : row.size());
+            }
+            int[] cols = new int[rowStart[n]];
+            int[] argb = new int[rowStart[n]];
+            long[] packed = new long[n];
+            for (int r = 0; r < n; r++) {
+                String node = order.get(r);
+                int brightness = Math.min(255, 40 + graph.degree(node) * 15);
+                int count = 0;
+                packed[count++] = pack(r, new Color(brightness, brightness, brightness).getRGB());
+                Map<String, Edge> row = adjacency.get(node);
+                if (row != null) {
+                    for (Map.Entry<String, Edge> entry : row.entrySet()) {
+                        Integer c = index.get(entry.getKey());
+                        if (c == null || c == r) continue;
+                        Edge e = entry.getValue();
+                        Color base = getEdgeColor(e);
+                        float alpha = e.getWeight() > 0 ? Math.min(1f, 0.4f + e.getWeight() * 0.1f) : 0.85f;
+                        packed[count++] = pack(c, new Color(base.getRed(), base.getGreen(), base.getBlue(),
+                                (int) (alpha * 255)).getRGB());
+                    }
+                }
+                Arrays.sort(packed, 0, count);
+                int k = rowStart[r];
+                for (int j = 0; j < count; j++, k++) {
+                    cols[k] = (int) (packed[j] >>> 32);
+                    argb[k] = (int) packed[j];
+                }
+                // Entries skipped above leave a gap; pad it with an out-of-range column
+                for (; k < rowStart[r + 1]; k++) cols[k] = Integer.MAX_VALUE;
+            }
+            return new Matrix(n, rowStart, cols, argb);
+        }
+
+        private static long pack(int col, int argb) {
+            return ((long) col << 32) | (argb & 0xFFFFFFFFL);
+        }
+
+        /** First entry of {@code row} with column &ge; {@code col}. */
+        private int lowerBound(int row, int col) {
+            int lo = rowStart[row];
+            int hi = rowStart[row + 1];
+            while (lo < hi) {
+                int mid = (lo + hi) >>> 1;
+                if (cols[mid] < col) lo = mid + 1; else hi = mid;
+            }
+            return lo;
+        }
+
+        /**
+         * Renders the {@code w × h} pixel tile whose top-left corner is
+         * matrix pixel (x0, y0), at {@code cellSize} pixels per cell or,
+         * when {@code cellsPerPixel} &gt; 1, that many cells per pixel side.
+         */
+        BufferedImage renderTile(int x0, int y0, int w, int h,
+                                 int cellSize, int cellsPerPixel, BlockMode mode) {
+            int bg = BG_COLOR.getRGB();
+            int[] pixels = new int[w * h];
+            Arrays.fill(pixels, bg);
+            if (cellsPerPixel == 1) {
+                int rowLast = Math.min(n - 1, (y0 + h - 1) / cellSize);
+                int colFirst = x0 / cellSize;
+                int colLast = Math.min(n - 1, (x0 + w - 1) / cellSize);
+                for (int r = y0 / cellSize; r <= rowLast; r++) {
+                    int ya = Math.max(0, r * cellSize - y0);
+                    int yb = Math.min(h, (r + 1) * cellSize - y0);
+                    int end = rowStart[r + 1];
+                    for (int k = lowerBound(r, colFirst); k < end && cols[k] <= colLast; k++) {
+                        int xa = Math.max(0, cols[k] * cellSize - x0);
+                        int xb = Math.min(w, (cols[k] + 1) * cellSize - x0);
+                        int rgb = over(argb[k], 1.0);
+                        for (int y = ya; y < yb; y++) Arrays.fill(pixels, y * w + xa, y * w + xb, rgb);
+                    }
+                }
+            } else {
+                aggregate(pixels, x0, y0, w, h, cellsPerPixel, mode);
+            }
+            BufferedImage img = new BufferedImage(w, h, BufferedImage.TYPE_INT_RGB);
+            img.setRGB(0, 0, w, h, pixels, 0, w);
+            return img;
+        }
+
+        private void aggregate(int[] pixels, int x0, int y0, int w, int h, int c, BlockMode mode) {
+            float[] sumA = new float[w * h];
+            float[] sumR = new float[w * h];
+            float[] sumG = new float[w * h];
+            float[] sumB = new float[w * h];
+            int[] best = new int[w * h];
+            int rowLast = (int) Math.min(n - 1, (long) (y0 + h) * c - 1);
+            int colFirst = (int) Math.min(Integer.MAX_VALUE, (long) x0 * c);
+            int colLast = (int) Math.min(n - 1, (long) (x0 + w) * c - 1);
+            for (int r = y0 * c; r <= rowLast; r++) {
+                int row = (r / c - y0) * w;
+                int end = rowStart[r + 1];
+                for (int k = lowerBound(r, colFirst); k < end && cols[k] <= colLast; k++) {
+                    int p = row + cols[k] / c - x0;
+                    int e = argb[k];
+                    float a = (e >>> 24) / 255f;
+                    sumA[p] += a;
+                    sumR[p] += a * ((e >> 16) & 0xFF);
+                    sumG[p] += a * ((e >> 8) & 0xFF);
+                    sumB[p] += a * (e & 0xFF);
+                    if ((e >>> 24) > (best[p] >>> 24)) best[p] = e;
+                }
+            }
+            for (int p = 0; p < pixels.length; p++) {
+                if (sumA[p] == 0) continue;
+                if (mode == BlockMode.MAX) {
+                    pixels[p] = over(best[p], 1.0);
+                } else {
+                    int mean = 0xFF000000
+                            | Math.round(sumR[p] / sumA[p]) << 16
+                            | Math.round(sumG[p] / sumA[p]) << 8
+                            | Math.round(sumB[p] / sumA[p]);
+                    pixels[p] = over(mean, Math.min(1.0, sumA[p] / c));
+                }
+            }
+        }
+
+        /** Composites {@code argb}, scaled by {@code opacity}, over the background. */
+        private static int over(int argb, double opacity) {
+            double a = (argb >>> 24) / 255.0 * opacity;
+            int bg = BG_COLOR.getRGB();
+            int r = (int) Math.round(a * ((argb >> 16) & 0xFF) + (1 - a) * ((bg >> 16) & 0xFF));
+            int g = (int) Math.round(a * ((argb >> 8) & 0xFF) + (1 - a) * ((bg >> 8) & 0xFF));
+            int b = (int) Math.round(a * (argb & 0xFF) + (1 - a) * (bg & 0xFF));
+            return 0xFF000000 | r << 16 | g << 8 | b;
+        }
+    }
 }
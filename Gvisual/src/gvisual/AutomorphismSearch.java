@@ -0,0 +1,701 @@
+package gvisual;
+
+import edu.uci.ics.jung.graph.Graph;
+import java.math.BigInteger;
+import java.util.*;
+
+/**
+ * Exact automorphism group computation by individualization–refinement,
+ * in the style of nauty and bliss.
+ *
+ * <h3>Algorithm</h3>
+ * <ol>
+ *   <li><b>Equitable refinement</b> — an ordered partition of the vertices
+ *       is split until every vertex in a cell has the same number of
+ *       neighbours in every other cell. Splitting is driven by a queue of
+ *       splitter cells (all fragments but the largest are re-queued), and
+ *       each split is recorded on a trail so it can be undone in time
+ *       proportional to the vertices that moved.</li>
+ *   <li><b>First path</b> — starting from the refined unit partition, the
+ *       first non-singleton cell is repeatedly split by individualizing one
+ *       of its vertices and refining, until the partition is discrete. The
+ *       resulting leaf is the reference labelling ζ.</li>
+ *   <li><b>Stabilizer chain</b> — working from the deepest level of the
+ *       first path up to the root, every other vertex {@code w} of the
+ *       level's target cell is individualized in turn and its subtree is
+ *       searched for a leaf λ whose refinement trace matches ζ. If the map
+ *       ζ → λ preserves adjacency it is an automorphism that fixes the
+ *       first-path prefix and sends {@code v_i} to {@code w}; it is kept as
+ *       a generator. Vertices already known to be in {@code v_i}'s orbit, or
+ *       in the orbit of a vertex whose subtree failed, are skipped
+ *       (automorphism pruning).</li>
+ *   <li><b>Group order</b> — by the orbit–stabilizer theorem,
+ *       {@code |Aut(G)|} is the product over levels of the size of
+ *       {@code v_i}'s orbit under the generators found at that level or
+ *       deeper.</li>
+ * </ol>
+ *
+ * <p>Subtree nodes are compared against ζ using a running hash of the
+ * refinement trace (positions, fragment sizes and neighbour counts of every
+ * split), which is isomorphism-invariant and therefore safe for pruning;
+ * leaves are always confirmed with an explicit adjacency check.</p>
+ *
+ * <p>The search is exact unless the node budget
+ * ({@link #withNodeLimit(long)}) is exhausted, which can only happen on
+ * pathological highly regular inputs. In that case {@link #isComplete()}
+ * returns false and the orbits are those of the subgroup generated so
+ * far (each reported orbit is then a subset of a true orbit).</p>
+ *
+ * <p>The graph is treated as simple and undirected; edge direction,
+ * multiplicity and self-loops are ignored.</p>
+ *
+ * @author sauravbhattacharya001
+ */
+public final class AutomorphismSearch {
+
+    /** Packing limit for sort keys (21 bits each for cell, count, vertex). */
+    private static final int MAX_VERTICES = (1 << 21) - 1;
+
+    private final List<String> labels;
+    private final int n;
+    private final int[][] adj;
+    private long nodeLimit = 2_000_000L;
+
+    // ── Results ──
+    private boolean computed;
+    private boolean complete = true;
+    private final List<int[]> generators = new ArrayList<int[]>();
+    private BigInteger groupSize = BigInteger.ONE;
+    private int[] parent;
+    private int[] rank;
+    /** Orbit roots whose subtree search failed at the current level (by epoch). */
+    private int[] failedAt;
+    private int epoch;
+
+    // ── Partition state ──
+    private int[] lab;
+    private int[] pos;
+    private int[] cellStart;
+    private int[] cellEnd;
+    private int numCells;
+    private long trace;
+
+    // ── Trail (triples: start, old end, cells added) ──
+    private int[] trail = new int[48];
+    private int trailSize;
+
+    // ── Refinement scratch ──
+    private int[] count;
+    private int[] touched;
+    private long[] keys;
+    private int[] queue;
+    private boolean[] inQueue;
+
+    // ── Reference leaf and first path ──
+    private int[] zeta;
+    private long[] zetaTrace;
+    private int[] zetaCells;
+    private int[] zetaTarget;
+    private int[] zetaTargetEnd;
+    private int[] zetaChoice;
+    private int[] zetaMark;
+    private int depth;
+
+    // ── Subtree search frames ──
+    private int[] frameMark;
+    private long[] frameTrace;
+    private int[] frameFirst;
+    private int[][] frameMembers;
+    private int[] frameNext;
+    private long nodes;
+
+    /**
+     * Creates a search over the given graph.
+     *
+     * @param graph the graph
+     * @throws IllegalArgumentException if graph is null or too large
+     */
+    public AutomorphismSearch(Graph<String, Edge> graph) {
+        if (graph == null) {
+            throw new IllegalArgumentException("Graph must not be null");
+        }
+        if (graph.getVertexCount() > MAX_VERTICES) {
+            throw new IllegalArgumentException(
+                    "Graph too large for automorphism search: " + graph.getVertexCount());
+        }
+        GraphUtils.IndexedGraph ig = new GraphUtils.IndexedGraph(graph);
+        this.labels = ig.vertexList;
+        this.n = ig.n;
+        this.adj = new int[n][];
+        for (int v = 0; v < n; v++) {
+            int[] nb = ig.adjLists[v];
+            int[] clean = new int[nb.length];
+            int c = 0;
+            for (int u : nb) {
+                if (u != v) clean[c++] = u;
+            }
+            clean = Arrays.copyOf(clean, c);
+            Arrays.sort(clean);
+            // Drop duplicates from parallel/antiparallel edges
+            int m = 0;
+            for (int i = 0; i < c; i++) {
+                if (m == 0 || clean[m - 1] != clean[i]) clean[m++] = clean[i];
+            }
+            adj[v] = m == c ? clean : Arrays.copyOf(clean, m);
+        }
+    }
+
+    /**
+     * Sets the maximum number of search-tree nodes to visit before giving
+     * up on exactness. Default: 2,000,000.
+     *
+     * @param limit node budget (must be positive)
+     * @return this search for chaining
+     */
+    public AutomorphismSearch withNodeLimit(long limit) {
+        if (limit < 1) {
+            throw new IllegalArgumentException("Node limit must be positive");
+        }
+        this.nodeLimit = limit;
+        return this;
+    }
+
+    // ── Public API ──────────────────────────────────────────────
+
+    /**
+     * Runs the search. Idempotent.
+     *
+     * @return this search for chaining
+     */
+    public AutomorphismSearch compute() {
+        if (computed) return this;
+        computed = true;
+        parent = new int[n];
+        rank = new int[n];
+        failedAt = new int[n];
+        for (int i = 0; i < n; i++) parent[i] = i;
+        if (n == 0) return this;
+
+        initPartition();
+        refine(0);
+        firstPath();
+
+        for (int level = depth - 1; level >= 0 && complete; level--) {
+            undo(zetaMark[level]);
+            long traceAtLevel = zetaTrace[level];
+            trace = traceAtLevel;
+
+            epoch++;
+            int v = zetaChoice[level];
+            int t = zetaTarget[level];
+            int[] members = Arrays.copyOfRange(lab, t, zetaTargetEnd[level]);
+            for (int w : members) {
+                if (w == v || find(w) == find(v) || failedAt[find(w)] == epoch) continue;
+                int mark = trailSize;
+                enter(w);
+                boolean found = searchEquivalent(level + 1);
+                undo(mark);
+                trace = traceAtLevel;
+                if (!complete) break;
+                if (!found) failedAt[find(w)] = epoch;
+            }
+            int orbit = 0;
+            int root = find(v);
+            for (int x : members) {
+                if (find(x) == root) orbit++;
+            }
+            groupSize = groupSize.multiply(BigInteger.valueOf(orbit));
+        }
+        return this;
+    }
+
+    /**
+     * Whether the search finished within the node budget. When true, the
+     * orbits, generators and group size are exact.
+     */
+    public boolean isComplete() {
+        compute();
+        return complete;
+    }
+
+    /**
+     * Order of the automorphism group. When the search is incomplete this
+     * is the order of the subgroup verified so far along the completed
+     * levels, and is a lower bound.
+     *
+     * @return |Aut(G)|
+     */
+    public BigInteger getGroupSize() {
+        compute();
+        return groupSize;
+    }
+
+    /**
+     * Returns a generating set of the automorphism group. Each generator
+     * lists only the vertices it moves.
+     *
+     * @return generators as vertex → image maps
+     */
+    public List<Map<String, String>> getGenerators() {
+        compute();
+        List<Map<String, String>> result = new ArrayList<Map<String, String>>(generators.size());
+        for (int[] g : generators) {
+            Map<String, String> map = new LinkedHashMap<String, String>(g.length);
+            for (int i = 0; i < g.length; i += 2) {
+                map.put(labels.get(g[i]), labels.get(g[i + 1]));
+            }
+            result.add(Collections.unmodifiableMap(map));
+        }
+        return Collections.unmodifiableList(result);
+    }
+
+    /**
+     * Returns the automorphism orbits, each as a set of vertex IDs. Orbits
+     * are ordered by their smallest vertex ID; members are sorted.
+     *
+     * @return vertex orbits
+     */
+    public List<Set<String>> getOrbits() {
+        compute();
+        Map<Integer, List<String>> byRoot = new HashMap<Integer, List<String>>();
+        for (int v = 0; v < n; v++) {
+            byRoot.computeIfAbsent(find(v), k -> new ArrayList<String>()).add(labels.get(v));
+        }
+        List<List<String>> groups = new ArrayList<List<String>>(byRoot.values());
+        for (List<String> g : groups) Collections.sort(g);
+        groups.sort((a, b) -> a.get(0).compareTo(b.get(0)));
+        List<Set<String>> result = new ArrayList<Set<String>>(groups.size());
+        for (List<String> g : groups) result.add(new LinkedHashSet<String>(g));
+        return result;
+    }
+
+    /**
+     * Applies every generator to the given edge list and returns the edge
+     * orbit id for each edge (ids are contiguous, in order of first
+     * appearance).
+     *
+     * @param edges edges as {@code {u, v}} vertex-ID pairs
+     * @return orbit id per edge
+     */
+    public int[] edgeOrbitIds(List<String[]> edges) {
+        compute();
+        Map<String, Integer> index = new HashMap<String, Integer>(n * 2);
+        for (int i = 0; i < n; i++) index.put(labels.get(i), i);
+
+        Map<Long, Integer> edgeId = new HashMap<Long, Integer>(edges.size() * 2);
+        int[] ends = new int[edges.size() * 2];
+        for (int e = 0; e < edges.size(); e++) {
+            Integer a = index.get(edges.get(e)[0]);
+            Integer b = index.get(edges.get(e)[1]);
+            ends[2 * e] = a == null ? -1 : a;
+            ends[2 * e + 1] = b == null ? -1 : b;
+            if (a != null && b != null) edgeId.putIfAbsent(pairKey(a, b), e);
+        }
+
+        int[] ep = new int[edges.size()];
+        for (int e = 0; e < ep.length; e++) ep[e] = e;
+        int[] perm = new int[n];
+        for (int[] g : generators) {
+            for (int v = 0; v < n; v++) perm[v] = v;
+            for (int i = 0; i < g.length; i += 2) perm[g[i]] = g[i + 1];
+            for (int e = 0; e < ep.length; e++) {
+                int a = ends[2 * e];
+                int b = ends[2 * e + 1];
+                if (a < 0 || b < 0) continue;
+                Integer img = edgeId.get(pairKey(perm[a], perm[b]));
+                if (img != null) unionInto(ep, e, img);
+            }
+        }
+
+        int[] ids = new int[ep.length];
+        Map<Integer, Integer> remap = new HashMap<Integer, Integer>();
+        for (int e = 0; e < ep.length; e++) {
+            int root = findIn(ep, e);
+            Integer id = remap.get(root);
+            if (id == null) {
+                id = remap.size();
+                remap.put(root, id);
+            }
+            ids[e] = id;
+        }
+        return ids;
+    }
+
+    // ── Search ──────────────────────────────────────────────────
+
+    /** Follows the leftmost path to a discrete partition, recording ζ. */
+    private void firstPath() {
+        int cap = 16;
+        zetaTrace = new long[cap];
+        zetaCells = new int[cap];
+        zetaTarget = new int[cap];
+        zetaTargetEnd = new int[cap];
+        zetaChoice = new int[cap];
+        zetaMark = new int[cap];
+
+        int level = 0;
+        int ptr = 0;
+        while (true) {
+            if (level >= zetaTrace.length - 1) growZeta();
+            zetaTrace[level] = trace;
+            zetaCells[level] = numCells;
+            if (numCells == n) break;
+            while (cellEnd[ptr] - ptr == 1) ptr = cellEnd[ptr];
+            zetaTarget[level] = ptr;
+            zetaTargetEnd[level] = cellEnd[ptr];
+            zetaChoice[level] = lab[ptr];
+            zetaMark[level] = trailSize;
+            enter(lab[ptr]);
+            level++;
+        }
+        depth = level;
+        zeta = lab.clone();
+
+        frameMark = new int[depth + 1];
+        frameTrace = new long[depth + 1];
+        frameFirst = new int[depth + 1];
+        frameMembers = new int[depth + 1][];
+        frameNext = new int[depth + 1];
+    }
+
+    private void growZeta() {
+        int cap = zetaTrace.length * 2;
+        zetaTrace = Arrays.copyOf(zetaTrace, cap);
+        zetaCells = Arrays.copyOf(zetaCells, cap);
+        zetaTarget = Arrays.copyOf(zetaTarget, cap);
+        zetaTargetEnd = Arrays.copyOf(zetaTargetEnd, cap);
+        zetaChoice = Arrays.copyOf(zetaChoice, cap);
+        zetaMark = Arrays.copyOf(zetaMark, cap);
+    }
+
+    /**
+     * Depth-first search (iterative, so deep first paths cannot overflow
+     * the stack) below the current node at {@code base} for a leaf
+     * equivalent to ζ. Records the automorphism and returns true on
+     * success. The caller undoes partition changes.
+     */
+    private boolean searchEquivalent(int base) {
+        int j = base;
+        while (true) {
+            if (++nodes > nodeLimit) {
+                complete = false;
+                return false;
+            }
+            boolean ok = trace == zetaTrace[j] && numCells == zetaCells[j];
+            if (ok && numCells == n) {
+                if (recordIfAutomorphism()) return true;
+                ok = false;
+            }
+            if (ok) {
+                int t = zetaTarget[j];
+                ok = cellStart[lab[t]] == t && cellEnd[t] == zetaTargetEnd[j];
+            }
+            if (ok) {
+                int t = zetaTarget[j];
+                frameMark[j] = trailSize;
+                frameTrace[j] = trace;
+                frameFirst[j] = lab[t];
+                frameMembers[j] = null;
+                frameNext[j] = 0;
+                enter(lab[t]);
+                j++;
+                continue;
+            }
+            // Backtrack to the nearest level with an untried candidate
+            while (true) {
+                j--;
+                if (j < base) return false;
+                undo(frameMark[j]);
+                trace = frameTrace[j];
+                int x = nextCandidate(j);
+                if (x >= 0) {
+                    enter(x);
+                    j++;
+                    break;
+                }
+            }
+        }
+    }
+
+    private int nextCandidate(int j) {
+        if (frameMembers[j] == null) {
+            int t = zetaTarget[j];
+            int end = zetaTargetEnd[j];
+            int[] rest = new int[end - t - 1];
+            int c = 0;
+            for (int p = t; p < end; p++) {
+                if (lab[p] != frameFirst[j]) rest[c++] = lab[p];
+            }
+            frameMembers[j] = rest;
+        }
+        int[] rest = frameMembers[j];
+        return frameNext[j] < rest.length ? rest[frameNext[j]++] : -1;
+    }
+
+    /** Tests ζ[p] → lab[p] for adjacency preservation; records it if so. */
+    private boolean recordIfAutomorphism() {
+        int[] perm = new int[n];
+        for (int p = 0; p < n; p++) perm[zeta[p]] = lab[p];
+        for (int u = 0; u < n; u++) {
+            int[] target = adj[perm[u]];
+            if (target.length != adj[u].length) return false;
+            for (int v : adj[u]) {
+                if (Arrays.binarySearch(target, perm[v]) < 0) return false;
+            }
+        }
+        int moved = 0;
+        for (int v = 0; v < n; v++) {
+            if (perm[v] != v) moved++;
+        }
+        int[] sparse = new int[moved * 2];
+        int c = 0;
+        for (int v = 0; v < n; v++) {
+            if (perm[v] != v) {
+                sparse[c++] = v;
+                sparse[c++] = perm[v];
+                union(v, perm[v]);
+            }
+        }
+        generators.add(sparse);
+        return true;
+    }
+
+    // ── Partition refinement ────────────────────────────────────
+
+    private void initPartition() {
+        lab = new int[n];
+        pos = new int[n];
+        cellStart = new int[n];
+        cellEnd = new int[n];
+        for (int i = 0; i < n; i++) {
+            lab[i] = i;
+            pos[i] = i;
+        }
+        cellEnd[0] = n;
+        numCells = 1;
+        trace = 0x243F6A8885A308D3L;
+        count = new int[n];
+        touched = new int[n];
+        keys = new long[n];
+        queue = new int[n];
+        inQueue = new boolean[n];
+    }
+
+    /** Individualizes x (moves it to the end of its cell) and refines. */
+    private void enter(int x) {
+        int s = cellStart[x];
+        int e = cellEnd[s];
+        if (e - s == 1) return;
+        swap(pos[x], e - 1);
+        cellEnd[s] = e - 1;
+        cellStart[x] = e - 1;
+        cellEnd[e - 1] = e;
+        pushTrail(s, e, 1);
+        numCells++;
+        trace = mix(trace ^ ((long) s << 32 | (e - s)));
+        refine(e - 1);
+    }
+
+    /**
+     * Refines to an equitable partition, starting from one splitter cell.
+     * Fragments of a split cell are ordered untouched-first, then by
+     * ascending neighbour count, which depends only on cell positions and
+     * counts and so commutes with automorphisms.
+     */
+    private void refine(int firstSplitter) {
+        int head = 0;
+        int size = 0;
+        queue[0] = firstSplitter;
+        inQueue[firstSplitter] = true;
+        size = 1;
+
+        while (size > 0) {
+            int w = queue[head];
+            head = head + 1 == n ? 0 : head + 1;
+            size--;
+            inQueue[w] = false;
+
+            // Count neighbours in the splitter
+            int t = 0;
+            for (int p = w, end = cellEnd[w]; p < end; p++) {
+                for (int u : adj[lab[p]]) {
+                    if (count[u]++ == 0) touched[t++] = u;
+                }
+            }
+            if (t == 0) continue;
+            for (int i = 0; i < t; i++) {
+                int u = touched[i];
+                keys[i] = ((long) cellStart[u] << 42) | ((long) count[u] << 21) | u;
+            }
+            Arrays.sort(keys, 0, t);
+            for (int i = 0; i < t; i++) count[touched[i]] = 0;
+
+            // Split each touched cell
+            int i = 0;
+            while (i < t) {
+                int s = (int) (keys[i] >>> 42);
+                int j = i;
+                while (j < t && (int) (keys[j] >>> 42) == s) j++;
+                int e = cellEnd[s];
+                int groupSize = j - i;
+                int firstCount = (int) ((keys[i] >>> 21) & MAX_VERTICES);
+                int lastCount = (int) ((keys[j - 1] >>> 21) & MAX_VERTICES);
+                if (e - s > 1 && (groupSize < e - s || firstCount != lastCount)) {
+                    size = splitCell(s, e, i, j, size, head);
+                }
+                i = j;
+            }
+        }
+    }
+
+    /**
+     * Splits cell [s, e) whose touched members are keys[i..j). Returns the
+     * new queue size.
+     */
+    private int splitCell(int s, int e, int i, int j, int qsize, int qhead) {
+        int groupSize = j - i;
+        // Move touched vertices to the back of the cell, in count order
+        int back = e;
+        for (int k = i; k < j; k++) {
+            int u = (int) (keys[k] & MAX_VERTICES);
+            back--;
+            swap(pos[u], back);
+        }
+        for (int k = i; k < j; k++) {
+            int u = (int) (keys[k] & MAX_VERTICES);
+            int p = e - groupSize + (k - i);
+            lab[p] = u;
+            pos[u] = p;
+        }
+
+        // Fragment boundaries
+        int fragments = 0;
+        int largestStart = s;
+        int largestSize = 0;
+        int firstEnd;
+        int fragStart;
+        long h = trace ^ ((long) s << 32 | (e - s));
+        if (groupSize < e - s) {
+            firstEnd = e - groupSize;
+            fragments = 1;
+            largestSize = firstEnd - s;
+            fragStart = firstEnd;
+        } else {
+            firstEnd = -1;
+            fragStart = s;
+        }
+        int k = i;
+        while (k < j) {
+            int c = (int) ((keys[k] >>> 21) & MAX_VERTICES);
+            int m = k;
+            while (m < j && (int) ((keys[m] >>> 21) & MAX_VERTICES) == c) m++;
+            int fragEnd = fragStart + (m - k);
+            if (fragStart == s) {
+                firstEnd = fragEnd;
+            } else {
+                cellEnd[fragStart] = fragEnd;
+                for (int p = fragStart; p < fragEnd; p++) cellStart[lab[p]] = fragStart;
+            }
+            if (fragEnd - fragStart > largestSize) {
+                largestSize = fragEnd - fragStart;
+                largestStart = fragStart;
+            }
+            h = mix(h * 31 + ((long) c << 32 | (fragEnd - fragStart)));
+            fragments++;
+            fragStart = fragEnd;
+            k = m;
+        }
+        cellEnd[s] = firstEnd;
+        pushTrail(s, e, fragments - 1);
+        numCells += fragments - 1;
+        trace = mix(h);
+
+        // Enqueue: everything new if s was queued, else all but the largest
+        boolean sQueued = inQueue[s];
+        for (int p = s; p < e; p = cellEnd[p]) {
+            if (p == s && sQueued) continue;
+            if (!sQueued && p == largestStart) continue;
+            if (!inQueue[p]) {
+                queue[(qhead + qsize) % n] = p;
+                qsize++;
+                inQueue[p] = true;
+            }
+        }
+        return qsize;
+    }
+
+    private void swap(int p, int q) {
+        int a = lab[p];
+        int b = lab[q];
+        lab[p] = b;
+        lab[q] = a;
+        pos[b] = p;
+        pos[a] = q;
+    }
+
+    private void pushTrail(int s, int oldEnd, int added) {
+        if (trailSize + 3 > trail.length) trail = Arrays.copyOf(trail, trail.length * 2);
+        trail[trailSize++] = s;
+        trail[trailSize++] = oldEnd;
+        trail[trailSize++] = added;
+    }
+
+    /** Merges cells back until the trail is at {@code mark}. */
+    private void undo(int mark) {
+        while (trailSize > mark) {
+            int added = trail[--trailSize];
+            int oldEnd = trail[--trailSize];
+            int s = trail[--trailSize];
+            for (int p = cellEnd[s]; p < oldEnd; p++) cellStart[lab[p]] = s;
+            cellEnd[s] = oldEnd;
+            numCells -= added;
+        }
+    }
+
+    // ── Union-find over vertex orbits ───────────────────────────
+
+    private int find(int x) {
+        while (parent[x] != x) {
+            parent[x] = parent[parent[x]];
+            x = parent[x];
+        }
+        return x;
+    }
+
+    private void union(int a, int b) {
+        int ra = find(a);
+        int rb = find(b);
+        if (ra == rb) return;
+        if (rank[ra] < rank[rb]) {
+            int tmp = ra; ra = rb; rb = tmp;
+        }
+        parent[rb] = ra;
+        if (rank[ra] == rank[rb]) rank[ra]++;
+        // A failed orbit can only merge with another failed orbit
+        if (failedAt[rb] == epoch) failedAt[ra] = epoch;
+    }
+
+    private static int findIn(int[] p, int x) {
+        while (p[x] != x) {
+            p[x] = p[p[x]];
+            x = p[x];
+        }
+        return x;
+    }
+
+    private static void unionInto(int[] p, int a, int b) {
+        int ra = findIn(p, a);
+        int rb = findIn(p, b);
+        if (ra != rb) p[Math.max(ra, rb)] = Math.min(ra, rb);
+    }
+
+    private static long pairKey(int a, int b) {
+        return a < b ? ((long) a << 32) | b : ((long) b << 32) | a;
+    }
+
+    private static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+}
@@ -0,0 +1,49 @@
+package gvisual;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.function.IntConsumer;
+
+/**
+ * Fork/join task that runs a body over a range of block indices by
+ * recursive halving, shared by the layouts that split their per-iteration
+ * work into independent blocks.
+ *
+ * <p>Blocks must write disjoint state: the body is called at most once
+ * per index, in no particular order. Without a pool (or with a single
+ * block) the blocks run in index order on the calling thread.</p>
+ *
+ * @author sauravbhattacharya001
+ */
+final class BlockRange extends RecursiveAction {
+
+    private static final long serialVersionUID = 1L;
+    private final transient IntConsumer body;
+    private final int lo;
+    private final int hi;
+
+    private BlockRange(IntConsumer body, int lo, int hi) {
+        this.body = body;
+        this.lo = lo;
+        this.hi = hi;
+    }
+
+    /** Runs {@code body} for blocks 0..count-1, forked on the pool when there is one. */
+    static void forEachBlock(ForkJoinPool pool, int count, IntConsumer body) {
+        if (pool == null || count == 1) {
+            for (int b = 0; b < count; b++) body.accept(b);
+        } else {
+            pool.invoke(new BlockRange(body, 0, count));
+        }
+    }
+
+    @Override
+    protected void compute() {
+        if (hi - lo > 1 && inForkJoinPool()) {
+            int mid = (lo + hi) >>> 1;
+            invokeAll(new BlockRange(body, lo, mid), new BlockRange(body, mid, hi));
+            return;
+        }
+        for (int b = lo; b < hi; b++) body.accept(b);
+    }
+}
@@ -2,6 +2,10 @@ package gvisual;
 
 import edu.uci.ics.jung.graph.Graph;
 import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
 
 /**
  * Maximal Clique Finder — Bron-Kerbosch algorithm with pivot selection
@@ -23,6 +27,19 @@ import java.util.*;
  *     X := X ∪ {v}
  * </pre>
  *
+ * <h3>Degeneracy ordering and bitset subproblems</h3>
+ * <p>The outer level follows Eppstein–Löffler–Strash: vertices are taken in
+ * degeneracy order, and each vertex {@code v} seeds an independent
+ * subproblem with {@code P = N(v) ∩ later(v)} and
+ * {@code X = N(v) ∩ earlier(v)}. Within a subproblem P, X and the
+ * adjacency of P are {@code long[]} bitsets, so intersections and pivot
+ * scoring are word-wide AND/popcount operations. The square adjacency
+ * covers only P, at most the degeneracy in size; X is linked to it by a
+ * rectangular P × X bitset, so memory stays bounded on high-degree hubs. Subproblems run in
+ * parallel on a work-stealing {@link ForkJoinPool}; see
+ * {@link #withParallelism(int)}. Use {@link #forEachClique(Consumer)} to
+ * stream cliques instead of collecting them.</p>
+ *
  * <p>Clique detection is fundamental in social network analysis (finding
  * tight-knit groups), bioinformatics (protein complexes), and graph theory.</p>
  *
@@ -31,13 +48,13 @@ import java.util.*;
 public class CliqueAnalyzer {
 
     private final Graph<String, Edge> graph;
-    private Map<String, Set<String>> neighborCache;
     private List<Set<String>> cliques;
     private Map<String, List<Integer>> vertexToCliquesIndex;
     private boolean computed;
     private int maxCliques = 100_000;
     private int maxDepth = 1_000;
     private boolean truncated = false;
+    private int parallelism = Runtime.getRuntime().availableProcessors();
 
     /**
      * Creates a new CliqueAnalyzer for the given graph.
@@ -50,7 +67,6 @@ public class CliqueAnalyzer {
             throw new IllegalArgumentException("Graph must not be null");
         }
         this.graph = graph;
-        this.neighborCache = new HashMap<String, Set<String>>();
         this.cliques = new ArrayList<Set<String>>();
         this.vertexToCliquesIndex = null;
         this.computed = false;
@@ -59,8 +75,8 @@ public class CliqueAnalyzer {
     // ── Core Algorithm ──────────────────────────────────────────────
 
     /**
-     * Runs the Bron-Kerbosch algorithm with Tomita pivot selection.
-     * Idempotent — repeated calls are no-ops.
+     * Enumerates all maximal cliques and stores them sorted by size
+     * descending. Idempotent — repeated calls are no-ops.
      *
      * @return this analyzer for chaining
      */
@@ -70,149 +86,360 @@ public class CliqueAnalyzer {
         cliques = new ArrayList<Set<String>>();
         vertexToCliquesIndex = null; // invalidate cached index
 
-        Collection<String> vertices = graph.getVertices();
-        if (vertices.isEmpty()) {
+        if (graph.getVertexCount() == 0) {
             computed = true;
             return this;
         }
 
-        // Pre-build neighbor sets once so the recursive hot-path never
-        // allocates temporary collections.  Uses shared GraphUtils method
-        // instead of duplicating adjacency construction logic.
-        neighborCache = GraphUtils.buildAdjacencyMap(graph);
-
-        // For isolated vertices (no neighbors), each is a trivial maximal clique
-        Set<String> P = new HashSet<String>(vertices);
-        Set<String> R = new HashSet<String>();
-        Set<String> X = new HashSet<String>();
+        List<Set<String>> found = new ArrayList<Set<String>>();
+        enumerate(found::add);
 
-        truncated = false;
-        bronKerbosch(R, P, X, 0);
-
-        // Sort cliques by size descending, then by first element for stability
-        Collections.sort(cliques, (Set<String> a, Set<String> b) -> {
-                int cmp = Integer.compare(b.size(), a.size());
-                if (cmp != 0) return cmp;
-                String minA = Collections.min(a);
-                String minB = Collections.min(b);
-                return minA.compareTo(minB);
-            });
+        // Size descending, then lexicographic on the (sorted) members so
+        // the order is deterministic regardless of worker scheduling
+        Collections.sort(found, CLIQUE_ORDER);
+        cliques = found;
 
         computed = true;
         return this;
     }
 
     /**
-     * Recursive Bron-Kerbosch with pivot selection.
+     * Streams every maximal clique to {@code consumer} without retaining
+     * them, so graphs with millions of cliques can be processed in constant
+     * memory. Cliques arrive in no particular order; members of each clique
+     * are in ascending vertex-ID order.
+     *
+     * <p>The search runs on the configured worker pool, but calls to the
+     * consumer are serialized, so it need not be thread-safe. The
+     * {@link #withMaxCliques} and {@link #withMaxDepth} limits apply and
+     * {@link #wasTruncated()} reflects this run. Stored results from
+     * {@link #compute()} are not affected.</p>
      *
-     * @param depth current recursion depth (for safety bound)
+     * @param consumer receives each maximal clique
+     * @return number of cliques delivered
+     * @throws IllegalArgumentException if consumer is null
      */
-    private void bronKerbosch(Set<String> R, Set<String> P, Set<String> X, int depth) {
-        if (cliques.size() >= maxCliques) {
-            truncated = true;
-            return;
-        }
-        if (depth > maxDepth) {
-            truncated = true;
-            return;
+    public int forEachClique(Consumer<Set<String>> consumer) {
+        if (consumer == null) {
+            throw new IllegalArgumentException("Consumer must not be null");
         }
+        if (graph.getVertexCount() == 0) return 0;
+        return enumerate(consumer);
+    }
 
-        if (P.isEmpty() && X.isEmpty()) {
-            cliques.add(new LinkedHashSet<String>(R));
-            return;
+    private static final Comparator<Set<String>> CLIQUE_ORDER = (a, b) -> {
+        int cmp = Integer.compare(b.size(), a.size());
+        if (cmp != 0) return cmp;
+        Iterator<String> ia = a.iterator();
+        Iterator<String> ib = b.iterator();
+        while (ia.hasNext()) {
+            cmp = ia.next().compareTo(ib.next());
+            if (cmp != 0) return cmp;
         }
+        return 0;
+    };
 
-        if (P.isEmpty()) {
-            return;
+    /**
+     * Runs the degeneracy-ordered search. Vertex {@code v} at position
+     * {@code i} of the degeneracy order owns every maximal clique whose
+     * earliest vertex is {@code v}; its subproblem has
+     * {@code P = later neighbours} and {@code X = earlier neighbours}, so
+     * |P| never exceeds the degeneracy and subproblems are independent.
+     */
+    private int enumerate(Consumer<Set<String>> consumer) {
+        GraphUtils.IndexedGraph ig = new GraphUtils.IndexedGraph(graph);
+        int n = ig.n;
+        int[][] adj = new int[n][];
+        for (int i = 0; i < n; i++) {
+            adj[i] = ig.adjLists[i].clone();
+            Arrays.sort(adj[i]);
         }
+        int[] order = KCoreDecomposition.degeneracyOrder(adj, n);
+        int[] rank = new int[n];
+        for (int i = 0; i < n; i++) rank[order[i]] = i;
 
-        // Choose pivot u in P ∪ X that maximizes |P ∩ N(u)|
-        String pivot = choosePivot(P, X);
-        Set<String> pivotNeighbors = getNeighbors(pivot);
-
-        // P \ N(pivot)
-        Set<String> candidates = new HashSet<String>(P);
-        candidates.removeAll(pivotNeighbors);
+        String[] labels = ig.vertexList.toArray(new String[0]);
+        SearchContext ctx = new SearchContext(adj, order, rank, labels, consumer);
+        truncated = false;
 
-        for (String v : candidates) {
-            Set<String> neighborsV = getNeighbors(v);
+        if (parallelism == 1 || n < PARALLEL_THRESHOLD) {
+            new RootRange(ctx, 0, n).compute();
+        } else {
+            ForkJoinPool pool = new ForkJoinPool(parallelism);
+            try {
+                pool.invoke(new RootRange(ctx, 0, n));
+            } finally {
+                pool.shutdown();
+            }
+        }
+        truncated = ctx.truncated;
+        return Math.min(ctx.emitted.get(), maxCliques);
+    }
 
-            // Reuse R with backtracking instead of allocating a copy per branch.
-            R.add(v);
+    /** Graphs smaller than this are searched on the calling thread. */
+    private static final int PARALLEL_THRESHOLD = 512;
+    /** Roots per leaf task; work stealing rebalances skewed subproblems. */
+    private static final int ROOTS_PER_TASK = 16;
+
+    /** Shared read-only state for one enumeration run. */
+    private final class SearchContext {
+        final int[][] adj;
+        final int[] order;
+        final int[] rank;
+        final String[] labels;
+        final Consumer<Set<String>> consumer;
+        final AtomicInteger emitted = new AtomicInteger();
+        final int limit = maxCliques;
+        final int depthLimit = maxDepth;
+        volatile boolean stop;
+        volatile boolean truncated;
+
+        SearchContext(int[][] adj, int[] order, int[] rank, String[] labels,
+                      Consumer<Set<String>> consumer) {
+            this.adj = adj;
+            this.order = order;
+            this.rank = rank;
+            this.labels = labels;
+            this.consumer = consumer;
+        }
 
-            // Build intersections P ∩ N(v) and X ∩ N(v) without copying
-            // the full sets first — only add elements that pass the filter.
-            Set<String> newP = new HashSet<String>(Math.min(P.size(), neighborsV.size()));
-            for (String u : P) {
-                if (neighborsV.contains(u)) newP.add(u);
+        void emit(int[] members, int size) {
+            if (emitted.incrementAndGet() > limit) {
+                truncated = true;
+                stop = true;
+                return;
             }
-
-            Set<String> newX = new HashSet<String>(Math.min(X.size(), neighborsV.size()));
-            for (String u : X) {
-                if (neighborsV.contains(u)) newX.add(u);
+            String[] names = new String[size];
+            for (int i = 0; i < size; i++) names[i] = labels[members[i]];
+            Arrays.sort(names);
+            Set<String> clique = new LinkedHashSet<String>(Arrays.asList(names));
+            synchronized (this) {
+                consumer.accept(clique);
             }
+        }
+    }
 
-            bronKerbosch(R, newP, newX, depth + 1);
-
-            R.remove(v);
-
-            if (truncated) return;
+    /** Fork-join task over a contiguous range of the degeneracy order. */
+    private static final class RootRange extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+        private final transient SearchContext ctx;
+        private final int lo;
+        private final int hi;
+
+        RootRange(SearchContext ctx, int lo, int hi) {
+            this.ctx = ctx;
+            this.lo = lo;
+            this.hi = hi;
+        }
 
-            P.remove(v);
-            X.add(v);
+        @Override
+        protected void compute() {
+            if (hi - lo > ROOTS_PER_TASK && inForkJoinPool()) {
+                int mid = (lo + hi) >>> 1;
+                invokeAll(new RootRange(ctx, lo, mid), new RootRange(ctx, mid, hi));
+                return;
+            }
+            BitsetSearch search = new BitsetSearch(ctx);
+            for (int i = lo; i < hi && !ctx.stop; i++) {
+                search.solve(ctx.order[i]);
+            }
         }
     }
 
     /**
-     * Choose pivot vertex from P ∪ X that maximizes |P ∩ N(u)|.
+     * Tomita-pivoted Bron–Kerbosch over one root's neighbourhood, with
+     * sets held as {@code long[]} bitsets. Only P — the root's later
+     * neighbours, at most the degeneracy — gets a square local adjacency.
+     * The earlier neighbours X₀ are indexed separately and linked to P by
+     * a |P| × |X₀| bitset, so a hub of degree Δ costs O(d·Δ) bits instead
+     * of O(Δ²). X is split into X₀ and the P vertices already moved to X.
+     * Level buffers are reused across roots handled by the same task.
      */
-    private String choosePivot(Set<String> P, Set<String> X) {
-        String bestPivot = null;
-        int bestCount = -1;
-
-        // Check all vertices in P ∪ X
-        for (String u : P) {
-            int count = countIntersection(P, getNeighbors(u));
-            if (count > bestCount) {
-                bestCount = count;
-                bestPivot = u;
+    private static final class BitsetSearch {
+        private static final int P = 0;
+        private static final int XP = 1;
+        private static final int XO = 2;
+        private static final int CAND = 3;
+
+        private final SearchContext ctx;
+        private int[] pv = new int[0];
+        private int[] xv = new int[0];
+        /** Bit j of pNbr[i] iff pv[i] ~ pv[j]. */
+        private long[][] pNbr = new long[0][];
+        /** Bit k of pToX[i] iff pv[i] ~ xv[k]. */
+        private long[][] pToX = new long[0][];
+        /** Bit i of xToP[k] iff xv[k] ~ pv[i]. */
+        private long[][] xToP = new long[0][];
+        private int wordsP;
+        private int wordsX;
+        private final long[][][] levels = {new long[0][], new long[0][], new long[0][], new long[0][]};
+        private int[] r = new int[8];
+
+        BitsetSearch(SearchContext ctx) {
+            this.ctx = ctx;
+        }
+
+        void solve(int root) {
+            int[] nb = ctx.adj[root];
+            int rootRank = ctx.rank[root];
+            if (pv.length < nb.length) {
+                pv = new int[nb.length];
+                xv = new int[nb.length];
+            }
+            int dp = 0;
+            int dx = 0;
+            for (int u : nb) {
+                if (u == root) continue;
+                if (ctx.rank[u] > rootRank) pv[dp++] = u;
+                else xv[dx++] = u;
+            }
+            wordsP = Math.max(1, (dp + 63) >>> 6);
+            wordsX = Math.max(1, (dx + 63) >>> 6);
+            pNbr = rows(pNbr, dp, wordsP);
+            pToX = rows(pToX, dp, wordsX);
+            xToP = rows(xToP, dx, wordsP);
+
+            // Only P's adjacency lists are scanned; X₀'s rows are the transpose
+            for (int i = 0; i < dp; i++) {
+                int u = pv[i];
+                for (int w : ctx.adj[u]) {
+                    if (w == u) continue;
+                    int j = Arrays.binarySearch(pv, 0, dp, w);
+                    if (j >= 0) {
+                        pNbr[i][j >>> 6] |= 1L << j;
+                    } else {
+                        int k = Arrays.binarySearch(xv, 0, dx, w);
+                        if (k >= 0) {
+                            pToX[i][k >>> 6] |= 1L << k;
+                            xToP[k][i >>> 6] |= 1L << i;
+                        }
+                    }
+                }
             }
+
+            long[] p = level(P, 0, wordsP);
+            long[] xo = level(XO, 0, wordsX);
+            level(XP, 0, wordsP);
+            for (int i = 0; i < dp; i++) p[i >>> 6] |= 1L << i;
+            for (int k = 0; k < dx; k++) xo[k >>> 6] |= 1L << k;
+            r[0] = root;
+            expand(0, 1);
         }
-        for (String u : X) {
-            int count = countIntersection(P, getNeighbors(u));
-            if (count > bestCount) {
-                bestCount = count;
-                bestPivot = u;
+
+        private void expand(int level, int size) {
+            if (ctx.stop) return;
+            if (size > ctx.depthLimit) {
+                ctx.truncated = true;
+                ctx.stop = true;
+                return;
+            }
+            long[] p = levels[P][level];
+            long[] xp = levels[XP][level];
+            long[] xo = levels[XO][level];
+
+            if (isEmpty(p, wordsP)) {
+                if (isEmpty(xp, wordsP) && isEmpty(xo, wordsX)) ctx.emit(r, size);
+                return;
+            }
+
+            // Pivot u ∈ P ∪ X maximizing |P ∩ N(u)|
+            long[] pivotNbr = null;
+            int best = -1;
+            for (int wi = 0; wi < wordsP; wi++) {
+                long bits = p[wi] | xp[wi];
+                while (bits != 0) {
+                    int u = (wi << 6) + Long.numberOfTrailingZeros(bits);
+                    bits &= bits - 1;
+                    int c = intersectionCount(p, pNbr[u]);
+                    if (c > best) {
+                        best = c;
+                        pivotNbr = pNbr[u];
+                    }
+                }
+            }
+            for (int wi = 0; wi < wordsX; wi++) {
+                long bits = xo[wi];
+                while (bits != 0) {
+                    int k = (wi << 6) + Long.numberOfTrailingZeros(bits);
+                    bits &= bits - 1;
+                    int c = intersectionCount(p, xToP[k]);
+                    if (c > best) {
+                        best = c;
+                        pivotNbr = xToP[k];
+                    }
+                }
+            }
+
+            long[] cand = level(CAND, level, wordsP);
+            for (int wi = 0; wi < wordsP; wi++) cand[wi] = p[wi] & ~pivotNbr[wi];
+
+            long[] nextP = level(P, level + 1, wordsP);
+            long[] nextXp = level(XP, level + 1, wordsP);
+            long[] nextXo = level(XO, level + 1, wordsX);
+            if (size >= r.length) r = Arrays.copyOf(r, r.length * 2);
+            for (int wi = 0; wi < wordsP; wi++) {
+                long bits = cand[wi];
+                while (bits != 0) {
+                    long bit = bits & -bits;
+                    int v = (wi << 6) + Long.numberOfTrailingZeros(bits);
+                    bits ^= bit;
+
+                    long[] nv = pNbr[v];
+                    for (int k = 0; k < wordsP; k++) {
+                        nextP[k] = p[k] & nv[k];
+                        nextXp[k] = xp[k] & nv[k];
+                    }
+                    long[] nx = pToX[v];
+                    for (int k = 0; k < wordsX; k++) nextXo[k] = xo[k] & nx[k];
+                    r[size] = pv[v];
+                    expand(level + 1, size + 1);
+                    if (ctx.stop) return;
+
+                    p[wi] &= ~bit;
+                    xp[wi] |= bit;
+                }
             }
         }
 
-        return bestPivot;
-    }
+        /** Returns {@code count} zeroed rows of at least {@code words} words. */
+        private static long[][] rows(long[][] rows, int count, int words) {
+            if (rows.length < count) rows = Arrays.copyOf(rows, Math.max(count, rows.length * 2));
+            for (int i = 0; i < count; i++) {
+                if (rows[i] == null || rows[i].length < words) rows[i] = new long[words];
+                else Arrays.fill(rows[i], 0, words, 0L);
+            }
+            return rows;
+        }
 
-    /**
-     * Count elements in the intersection of two sets.
-     * Iterates the smaller set and probes the larger one for O(min(|a|,|b|))
-     * instead of always O(|a|). In choosePivot this is called O(|P|+|X|)
-     * times with P potentially much larger than individual neighbor sets,
-     * so iterating the smaller side can cut pivot selection time significantly.
-     */
-    private int countIntersection(Set<String> a, Set<String> b) {
-        // Always iterate the smaller set, probe the larger
-        if (a.size() > b.size()) {
-            Set<String> tmp = a; a = b; b = tmp;
+        /** Returns the zeroed level buffer, growing the level stack as needed. */
+        private long[] level(int kind, int level, int words) {
+            long[][] stack = levels[kind];
+            if (level >= stack.length) {
+                stack = Arrays.copyOf(stack, Math.max(level + 1, stack.length * 2));
+                levels[kind] = stack;
+            }
+            long[] buf = stack[level];
+            if (buf == null || buf.length < words) {
+                buf = new long[words];
+                stack[level] = buf;
+            } else {
+                Arrays.fill(buf, 0, words, 0L);
+            }
+            return buf;
         }
-        int count = 0;
-        for (String s : a) {
-            if (b.contains(s)) count++;
+
+        private static boolean isEmpty(long[] bits, int words) {
+            for (int wi = 0; wi < words; wi++) {
+                if (bits[wi] != 0) return false;
+            }
+            return true;
         }
-        return count;
-    }
 
-    private Set<String> getNeighbors(String vertex) {
-        Set<String> cached = neighborCache.get(vertex);
-        if (cached != null) return cached;
-        // Fallback: should not happen after compute() builds the cache.
-        return Collections.<String>emptySet();
+        private int intersectionCount(long[] a, long[] b) {
+            int c = 0;
+            for (int wi = 0; wi < wordsP; wi++) c += Long.bitCount(a[wi] & b[wi]);
+            return c;
+        }
     }
 
     // ── Configuration ────────────────────────────────────────────────
@@ -241,6 +468,24 @@ public class CliqueAnalyzer {
         return this;
     }
 
+    /**
+     * Set the number of worker threads used to solve subproblems.
+     * Default: available processors. Small graphs always run on the
+     * calling thread.
+     *
+     * @param threads worker count (must be at least 1)
+     * @return this analyzer for chaining
+     * @throws IllegalArgumentException if threads &lt; 1
+     */
+    public CliqueAnalyzer withParallelism(int threads) {
+        if (threads < 1) {
+            throw new IllegalArgumentException(
+                    "parallelism must be >= 1, got: " + threads);
+        }
+        this.parallelism = threads;
+        return this;
+    }
+
     /**
      * Whether the computation was truncated due to hitting maxCliques
      * or maxDepth limits.
@@ -0,0 +1,305 @@
+package gvisual;
+
+import edu.uci.ics.jung.graph.Graph;
+import java.util.*;
+
+/**
+ * Colour Refinement (1-dimensional Weisfeiler–Lehman) — iteratively
+ * recolours every vertex by its own colour plus the multiset of its
+ * neighbours' colours until the partition stops splitting.
+ *
+ * <h3>Uses</h3>
+ * <ul>
+ *   <li><b>Isomorphism prefilter</b> — isomorphic graphs always produce the
+ *       same colour histogram, so differing histograms reject a pair
+ *       immediately. Used by {@link GraphIsomorphismChecker} and
+ *       {@link GraphIsomorphismAnalyzer}.</li>
+ *   <li><b>Refined partition</b> — a vertex can only map to a vertex of the
+ *       same stable colour, which is a far stronger candidate filter than
+ *       degree alone.</li>
+ *   <li><b>Graph fingerprint</b> — a 64-bit hash of the stable colour
+ *       histogram. Isomorphic graphs always share a fingerprint, so it can
+ *       bucket large collections (e.g. daily snapshots) before any pairwise
+ *       check; see {@link #isomorphismClasses(Map)}.</li>
+ * </ul>
+ *
+ * <h3>Algorithm</h3>
+ * <p>Colours are 64-bit hashes rather than dense ids, so colours from
+ * separate runs on different graphs are directly comparable. Each round
+ * computes {@code c'(v) = H(c(v), Σ h(c(u)) for u ∈ N(v))}; the sum is
+ * order-independent, so no per-vertex sort is needed. Class counts and
+ * histogram comparisons are hash passes, so a round costs expected
+ * O(V + E). Refinement stops once the number of colour classes no longer
+ * grows (at most V rounds, usually a handful).</p>
+ *
+ * <p>1-WL cannot separate every non-isomorphic pair (regular graphs of
+ * equal size and degree all look alike), so equal fingerprints mean
+ * "possibly isomorphic" and must be confirmed by a full check.</p>
+ *
+ * @author sauravbhattacharya001
+ */
+public final class ColorRefinement {
+
+    private ColorRefinement() {
+        // Utility class
+    }
+
+    // ── Public API ──────────────────────────────────────────────
+
+    /**
+     * Returns a structural fingerprint of the graph. Isomorphic graphs
+     * always have equal fingerprints; distinct fingerprints prove the
+     * graphs are not isomorphic.
+     *
+     * @param graph the graph
+     * @return 64-bit fingerprint
+     * @throws IllegalArgumentException if graph is null
+     */
+    public static long fingerprint(Graph<String, Edge> graph) {
+        if (graph == null) {
+            throw new IllegalArgumentException("Graph must not be null");
+        }
+        GraphUtils.IndexedGraph ig = new GraphUtils.IndexedGraph(graph);
+        return fingerprint(stableColors(ig.adjLists), graph.getEdgeCount());
+    }
+
+    /**
+     * Returns the stable colour of every vertex. Vertices with different
+     * colours can never be mapped onto each other by an automorphism.
+     *
+     * @param graph the graph
+     * @return map: vertex → stable colour
+     * @throws IllegalArgumentException if graph is null
+     */
+    public static Map<String, Long> vertexColors(Graph<String, Edge> graph) {
+        if (graph == null) {
+            throw new IllegalArgumentException("Graph must not be null");
+        }
+        GraphUtils.IndexedGraph ig = new GraphUtils.IndexedGraph(graph);
+        long[] colors = stableColors(ig.adjLists);
+        Map<String, Long> result = new LinkedHashMap<String, Long>(ig.n * 2);
+        for (int i = 0; i < ig.n; i++) {
+            result.put(ig.vertexList.get(i), colors[i]);
+        }
+        return result;
+    }
+
+    /**
+     * Partitions a collection of graphs into isomorphism classes.
+     * Fingerprints are computed in parallel; graphs that share a
+     * fingerprint are then confirmed pairwise with
+     * {@link GraphIsomorphismChecker} against each class representative.
+     *
+     * <p>Typical use: collapse a month of daily snapshots to the handful of
+     * structurally distinct ones before running expensive analyses.</p>
+     *
+     * @param graphs graphs keyed by caller-defined id (e.g. snapshot time);
+     *               iteration order determines representative choice
+     * @param <K>    key type
+     * @return isomorphism classes, each listing keys in input order; classes
+     *         are ordered by their first key's input position
+     * @throws IllegalArgumentException if graphs is null or contains a null graph
+     */
+    public static <K> List<List<K>> isomorphismClasses(Map<K, Graph<String, Edge>> graphs) {
+        if (graphs == null) {
+            throw new IllegalArgumentException("Graphs must not be null");
+        }
+        final List<K> keys = new ArrayList<K>(graphs.keySet());
+        final List<Graph<String, Edge>> list = new ArrayList<Graph<String, Edge>>(keys.size());
+        for (K k : keys) {
+            Graph<String, Edge> g = graphs.get(k);
+            if (g == null) {
+                throw new IllegalArgumentException("Graph for key " + k + " is null");
+            }
+            list.add(g);
+        }
+
+        final long[] prints = new long[list.size()];
+        java.util.stream.IntStream.range(0, list.size()).parallel()
+                .forEach(i -> prints[i] = fingerprint(list.get(i)));
+
+        // Bucket by fingerprint, then split buckets by exact isomorphism
+        Map<Long, List<List<Integer>>> buckets = new HashMap<Long, List<List<Integer>>>();
+        List<List<Integer>> classes = new ArrayList<List<Integer>>();
+        for (int i = 0; i < list.size(); i++) {
+            List<List<Integer>> bucket = buckets.get(prints[i]);
+            if (bucket == null) {
+                bucket = new ArrayList<List<Integer>>();
+                buckets.put(prints[i], bucket);
+            }
+            List<Integer> home = null;
+            for (List<Integer> cls : bucket) {
+                GraphIsomorphismChecker checker =
+                        new GraphIsomorphismChecker(list.get(cls.get(0)), list.get(i));
+                checker.compute();
+                if (checker.isIsomorphic()) {
+                    home = cls;
+                    break;
+                }
+            }
+            if (home == null) {
+                home = new ArrayList<Integer>();
+                bucket.add(home);
+                classes.add(home);
+            }
+            home.add(i);
+        }
+
+        List<List<K>> result = new ArrayList<List<K>>(classes.size());
+        for (List<Integer> cls : classes) {
+            List<K> ks = new ArrayList<K>(cls.size());
+            for (int i : cls) ks.add(keys.get(i));
+            result.add(ks);
+        }
+        return result;
+    }
+
+    // ── Package-level engine ────────────────────────────────────
+
+    /**
+     * Refines a single graph to its stable colouring.
+     *
+     * @param adj adjacency lists in integer-index space
+     * @return stable colour per vertex index
+     */
+    static long[] stableColors(int[][] adj) {
+        int n = adj.length;
+        long[] colors = initialColors(adj);
+        long[] next = new long[n];
+        int classes = countDistinct(colors);
+        while (true) {
+            refineRound(adj, colors, next);
+            int nextClasses = countDistinct(next);
+            long[] tmp = colors; colors = next; next = tmp;
+            if (nextClasses == classes) return colors;
+            classes = nextClasses;
+        }
+    }
+
+    /**
+     * Refines two graphs in lockstep, comparing colour histograms after
+     * every round.
+     *
+     * @param adjA adjacency of the first graph
+     * @param adjB adjacency of the second graph (same vertex count)
+     * @return {@code {colorsA, colorsB}} with comparable stable colours, or
+     *         {@code null} if some round's histograms differ (the graphs
+     *         are then certainly not isomorphic)
+     */
+    static long[][] jointStableColors(int[][] adjA, int[][] adjB) {
+        int n = adjA.length;
+        long[] a = initialColors(adjA);
+        long[] b = initialColors(adjB);
+        if (!sameHistogram(a, b)) return null;
+        long[] nextA = new long[n];
+        long[] nextB = new long[n];
+        int classes = countDistinct(a);
+        while (true) {
+            refineRound(adjA, a, nextA);
+            refineRound(adjB, b, nextB);
+            if (!sameHistogram(nextA, nextB)) return null;
+            int nextClasses = countDistinct(nextA);
+            long[] tmp = a; a = nextA; nextA = tmp;
+            tmp = b; b = nextB; nextB = tmp;
+            if (nextClasses == classes) return new long[][] {a, b};
+            classes = nextClasses;
+        }
+    }
+
+    /** Fingerprint of a stable colouring: hash of its sorted histogram. */
+    static long fingerprint(long[] stableColors, int edgeCount) {
+        long[] sorted = stableColors.clone();
+        Arrays.sort(sorted);
+        long h = mix(sorted.length * 0x9E3779B97F4A7C15L + edgeCount);
+        for (long c : sorted) {
+            h = mix(h * 31 + c);
+        }
+        return h;
+    }
+
+    // ── Internals ───────────────────────────────────────────────
+
+    private static long[] initialColors(int[][] adj) {
+        long[] colors = new long[adj.length];
+        for (int v = 0; v < adj.length; v++) {
+            colors[v] = mix(adj[v].length + 1L);
+        }
+        return colors;
+    }
+
+    private static void refineRound(int[][] adj, long[] colors, long[] out) {
+        for (int v = 0; v < adj.length; v++) {
+            long sum = 0;
+            for (int u : adj[v]) sum += mix(colors[u] ^ 0x5851F42D4C957F2DL);
+            out[v] = mix(colors[v] * 0xBF58476D1CE4E5B9L + sum);
+        }
+    }
+
+    private static int countDistinct(long[] colors) {
+        ColorHistogram h = new ColorHistogram(colors.length);
+        for (long c : colors) h.add(c);
+        return h.distinct;
+    }
+
+    private static boolean sameHistogram(long[] a, long[] b) {
+        if (a.length != b.length) return false;
+        ColorHistogram h = new ColorHistogram(a.length);
+        for (long c : a) h.add(c);
+        for (long c : b) {
+            if (!h.remove(c)) return false;
+        }
+        return true;
+    }
+
+    /**
+     * Open-addressing colour multiset, so per-round class counts and
+     * histogram comparisons are linear hash passes instead of sorts.
+     */
+    private static final class ColorHistogram {
+        private final long[] keys;
+        private final int[] counts;
+        private final boolean[] used;
+        private final int mask;
+        int distinct;
+
+        ColorHistogram(int n) {
+            int capacity = Integer.highestOneBit(Math.max(2, n) * 2 - 1) << 1;
+            keys = new long[capacity];
+            counts = new int[capacity];
+            used = new boolean[capacity];
+            mask = capacity - 1;
+        }
+
+        private int slot(long c) {
+            // Colours are already well-mixed hashes
+            int i = (int) (c ^ (c >>> 32)) & mask;
+            while (used[i] && keys[i] != c) i = (i + 1) & mask;
+            return i;
+        }
+
+        void add(long c) {
+            int i = slot(c);
+            if (!used[i]) {
+                used[i] = true;
+                keys[i] = c;
+                distinct++;
+            }
+            counts[i]++;
+        }
+
+        /** Removes one occurrence of c; false if none is left. */
+        boolean remove(long c) {
+            int i = slot(c);
+            if (!used[i] || counts[i] == 0) return false;
+            counts[i]--;
+            return true;
+        }
+    }
+
+    /** SplitMix64 finalizer. */
+    private static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+}
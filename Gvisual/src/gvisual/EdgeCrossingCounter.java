@@ -0,0 +1,290 @@
+package gvisual;
+
+import java.awt.geom.Line2D;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Counts pairwise crossings among straight-line edge segments with a
+ * uniform grid, in near-linear time on typical drawings instead of the
+ * O(E²) of testing every pair.
+ *
+ * <h3>Algorithm</h3>
+ * <ol>
+ *   <li>The bounding box of all segments is cut into square cells about
+ *       one mean edge length wide, with at most four cells per segment.</li>
+ *   <li>Each segment is registered in every cell it passes through: for
+ *       each row of cells it spans, the segment is clipped to the row and
+ *       the columns of the clipped piece are added. The cell lists are
+ *       built as one compressed array by a count / prefix-sum / fill
+ *       pass.</li>
+ *   <li>Within each cell every pair of segments is tested. A pair that
+ *       shares several cells is counted only in the first of them in
+ *       row-major order, so every crossing is counted exactly once
+ *       without a hash set of seen pairs.</li>
+ * </ol>
+ *
+ * <p>Intersection is decided by a caller-supplied {@link SegmentTest}, so
+ * each caller keeps its own definition of a crossing (touching endpoints,
+ * collinear overlap). Segments sharing an endpoint vertex never count, and
+ * zero-length segments (self-loops, or edges between vertices drawn at the
+ * same point) are ignored: they have no extent to cross, and
+ * {@link Line2D#linesIntersect} reports any two of them as intersecting
+ * however far apart they are. With those exclusions the count equals
+ * testing every remaining pair with the same {@code SegmentTest}. Cell
+ * ranges are widened by a small epsilon, so a crossing that lands on a cell
+ * boundary is still seen by both segments.</p>
+ *
+ * <p>Running time is O(E + K + P), where P is the number of same-cell
+ * pairs. P stays close to E on drawings with evenly spread edges. It
+ * degrades towards E² only when many long edges pile up in the same
+ * cells, and then the crossing count K is usually of that order anyway.
+ * Cells are processed in fixed blocks on a {@link ForkJoinPool} when the
+ * parallelism is above 1. Counts are summed per block, so the result does
+ * not depend on the thread count.</p>
+ *
+ * @author sauravbhattacharya001
+ */
+final class EdgeCrossingCounter {
+
+    /** Decides whether segments a = (ax1, ay1)–(ax2, ay2) and b intersect. */
+    @FunctionalInterface
+    interface SegmentTest {
+        boolean intersects(double ax1, double ay1, double ax2, double ay2,
+                           double bx1, double by1, double bx2, double by2);
+    }
+
+    /** {@link Line2D#linesIntersect}: touching and collinear overlap count. */
+    static final SegmentTest LINE2D = Line2D::linesIntersect;
+
+    /** Cells per parallel work block. */
+    private static final int CELL_BLOCK = 1024;
+    /** Segment count below which the grid is processed sequentially. */
+    private static final int PARALLEL_THRESHOLD = 4096;
+    /** Upper bound on cells per segment. */
+    private static final int MAX_CELLS_PER_SEGMENT = 4;
+
+    private final int parallelism;
+
+    /**
+     * @param parallelism worker threads (1 = sequential)
+     * @throws IllegalArgumentException if parallelism &lt; 1
+     */
+    EdgeCrossingCounter(int parallelism) {
+        if (parallelism < 1) {
+            throw new IllegalArgumentException("parallelism must be >= 1, got: " + parallelism);
+        }
+        this.parallelism = parallelism;
+    }
+
+    // ── Grid state of one count ──
+    private double[] x1, y1, x2, y2;
+    private int[] u, v;
+    private SegmentTest test;
+    private double gx, gy, cell, eps;
+    private int cols, rows;
+    private int[] cellStart;
+    private int[] cellItems;
+
+    /**
+     * Counts crossing pairs among segments {@code 0..m-1}. Segment i runs
+     * from (x1[i], y1[i]) to (x2[i], y2[i]) between vertices u[i] and v[i].
+     *
+     * @return number of intersecting pairs that share no endpoint vertex,
+     *         ignoring zero-length segments
+     */
+    long count(double[] x1, double[] y1, double[] x2, double[] y2,
+               int[] u, int[] v, int m, SegmentTest test) {
+        if (m < 2) return 0;
+        this.x1 = x1;
+        this.y1 = y1;
+        this.x2 = x2;
+        this.y2 = y2;
+        this.u = u;
+        this.v = v;
+        this.test = test;
+        try {
+            if (buildGrid(m) < 2) return 0;
+            int cellCount = cols * rows;
+            int blocks = (cellCount + CELL_BLOCK - 1) / CELL_BLOCK;
+            if (parallelism == 1 || m < PARALLEL_THRESHOLD || blocks == 1) {
+                return countCells(0, cellCount);
+            }
+            ForkJoinPool pool = new ForkJoinPool(parallelism);
+            try {
+                return pool.invoke(new BlockSum(this, 0, blocks, cellCount));
+            } finally {
+                pool.shutdown();
+            }
+        } finally {
+            this.x1 = this.y1 = this.x2 = this.y2 = null;
+            this.u = this.v = null;
+            this.test = null;
+            this.cellStart = this.cellItems = null;
+        }
+    }
+
+    /** Whether segment i has zero length. */
+    private boolean degenerate(int i) {
+        return x1[i] == x2[i] && y1[i] == y2[i];
+    }
+
+    /** Buckets the non-degenerate segments; returns how many there are. */
+    private int buildGrid(int m) {
+        double minX = Double.POSITIVE_INFINITY, minY = Double.POSITIVE_INFINITY;
+        double maxX = Double.NEGATIVE_INFINITY, maxY = Double.NEGATIVE_INFINITY;
+        double totalLength = 0;
+        int live = 0;
+        for (int i = 0; i < m; i++) {
+            if (degenerate(i)) continue;
+            live++;
+            minX = Math.min(minX, Math.min(x1[i], x2[i]));
+            maxX = Math.max(maxX, Math.max(x1[i], x2[i]));
+            minY = Math.min(minY, Math.min(y1[i], y2[i]));
+            maxY = Math.max(maxY, Math.max(y1[i], y2[i]));
+            totalLength += Math.hypot(x2[i] - x1[i], y2[i] - y1[i]);
+        }
+        if (live < 2) return live;
+        double extent = Math.max(maxX - minX, maxY - minY);
+        if (!(extent > 0)) extent = 1;
+        eps = extent * 1e-9;
+        // About one mean edge length per cell, but no more cells than the segments can fill
+        double area = Math.max(maxX - minX, eps) * Math.max(maxY - minY, eps);
+        cell = Math.max(totalLength / live, Math.sqrt(area / ((double) MAX_CELLS_PER_SEGMENT * live)));
+        if (!(cell > 0)) cell = extent;
+        gx = minX - eps;
+        gy = minY - eps;
+        cols = Math.max(1, (int) Math.min(1 << 15, Math.floor((maxX + eps - gx) / cell) + 1));
+        rows = Math.max(1, (int) Math.min(1 << 15, Math.floor((maxY + eps - gy) / cell) + 1));
+        while ((long) cols * rows > (long) MAX_CELLS_PER_SEGMENT * live + 1) {
+            cell *= 2;
+            cols = Math.max(1, (int) Math.floor((maxX + eps - gx) / cell) + 1);
+            rows = Math.max(1, (int) Math.floor((maxY + eps - gy) / cell) + 1);
+        }
+
+        int cellCount = cols * rows;
+        cellStart = new int[cellCount + 1];
+        int[] range = new int[2];
+        for (int i = 0; i < m; i++) {
+            if (degenerate(i)) continue;
+            for (int r = rowOf(Math.min(y1[i], y2[i]) - eps), last = rowOf(Math.max(y1[i], y2[i]) + eps);
+                 r <= last; r++) {
+                columns(i, r, range);
+                for (int c = range[0]; c <= range[1]; c++) cellStart[r * cols + c + 1]++;
+            }
+        }
+        for (int c = 0; c < cellCount; c++) cellStart[c + 1] += cellStart[c];
+        cellItems = new int[cellStart[cellCount]];
+        int[] fill = new int[cellCount];
+        for (int i = 0; i < m; i++) {
+            if (degenerate(i)) continue;
+            for (int r = rowOf(Math.min(y1[i], y2[i]) - eps), last = rowOf(Math.max(y1[i], y2[i]) + eps);
+                 r <= last; r++) {
+                columns(i, r, range);
+                for (int c = range[0]; c <= range[1]; c++) {
+                    int cellIndex = r * cols + c;
+                    cellItems[cellStart[cellIndex] + fill[cellIndex]++] = i;
+                }
+            }
+        }
+        return live;
+    }
+
+    private int rowOf(double y) {
+        return Math.max(0, Math.min(rows - 1, (int) Math.floor((y - gy) / cell)));
+    }
+
+    private int colOf(double x) {
+        return Math.max(0, Math.min(cols - 1, (int) Math.floor((x - gx) / cell)));
+    }
+
+    /** Columns [range[0], range[1]] that segment i covers in row r. */
+    private void columns(int i, int r, int[] range) {
+        double ax = x1[i], ay = y1[i], bx = x2[i], by = y2[i];
+        double lo = Math.max(Math.min(ay, by), gy + r * cell - eps);
+        double hi = Math.min(Math.max(ay, by), gy + (r + 1) * cell + eps);
+        double dy = by - ay;
+        double xa, xb;
+        if (Math.abs(dy) <= eps || hi < lo) {
+            xa = Math.min(ax, bx);
+            xb = Math.max(ax, bx);
+        } else {
+            double slope = (bx - ax) / dy;
+            double p = ax + (lo - ay) * slope;
+            double q = ax + (hi - ay) * slope;
+            xa = Math.max(Math.min(ax, bx), Math.min(p, q));
+            xb = Math.min(Math.max(ax, bx), Math.max(p, q));
+        }
+        range[0] = colOf(xa - eps);
+        range[1] = colOf(xb + eps);
+    }
+
+    /** Whether {@code cellIndex} is the first cell, in row-major order, shared by i and j. */
+    private boolean firstSharedCell(int i, int j, int cellIndex) {
+        int row = cellIndex / cols;
+        int[] ri = new int[2];
+        int[] rj = new int[2];
+        int from = Math.max(rowOf(Math.min(y1[i], y2[i]) - eps), rowOf(Math.min(y1[j], y2[j]) - eps));
+        for (int r = from; r <= row; r++) {
+            columns(i, r, ri);
+            columns(j, r, rj);
+            int c = Math.max(ri[0], rj[0]);
+            if (c <= Math.min(ri[1], rj[1])) return r * cols + c == cellIndex;
+        }
+        return false;
+    }
+
+    private long countCells(int from, int to) {
+        long crossings = 0;
+        for (int cellIndex = from; cellIndex < to; cellIndex++) {
+            int start = cellStart[cellIndex];
+            int end = cellStart[cellIndex + 1];
+            for (int a = start; a < end; a++) {
+                int i = cellItems[a];
+                double iMinX = Math.min(x1[i], x2[i]), iMaxX = Math.max(x1[i], x2[i]);
+                double iMinY = Math.min(y1[i], y2[i]), iMaxY = Math.max(y1[i], y2[i]);
+                for (int b = a + 1; b < end; b++) {
+                    int j = cellItems[b];
+                    if (Math.max(x1[j], x2[j]) < iMinX || Math.min(x1[j], x2[j]) > iMaxX
+                            || Math.max(y1[j], y2[j]) < iMinY || Math.min(y1[j], y2[j]) > iMaxY) {
+                        continue;
+                    }
+                    if (u[i] == u[j] || u[i] == v[j] || v[i] == u[j] || v[i] == v[j]) continue;
+                    if (!test.intersects(x1[i], y1[i], x2[i], y2[i], x1[j], y1[j], x2[j], y2[j])) {
+                        continue;
+                    }
+                    if (firstSharedCell(i, j, cellIndex)) crossings++;
+                }
+            }
+        }
+        return crossings;
+    }
+
+    /** Sums {@link #countCells} over fixed blocks of cells. */
+    private static final class BlockSum extends RecursiveTask<Long> {
+        private static final long serialVersionUID = 1L;
+        private final transient EdgeCrossingCounter counter;
+        private final int lo;
+        private final int hi;
+        private final int cellCount;
+
+        BlockSum(EdgeCrossingCounter counter, int lo, int hi, int cellCount) {
+            this.counter = counter;
+            this.lo = lo;
+            this.hi = hi;
+            this.cellCount = cellCount;
+        }
+
+        @Override
+        protected Long compute() {
+            if (hi - lo > 1 && inForkJoinPool()) {
+                int mid = (lo + hi) >>> 1;
+                BlockSum left = new BlockSum(counter, lo, mid, cellCount);
+                left.fork();
+                long right = new BlockSum(counter, mid, hi, cellCount).compute();
+                return left.join() + right;
+            }
+            return counter.countCells(lo * CELL_BLOCK, Math.min(cellCount, hi * CELL_BLOCK));
+        }
+    }
+}
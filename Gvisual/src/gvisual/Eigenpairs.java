@@ -0,0 +1,80 @@
+package gvisual;
+
+/**
+ * Eigenvalues and unit eigenvectors of a real symmetric matrix, as
+ * returned by {@link DenseEigensolver} and {@link LanczosEigensolver}.
+ *
+ * <p>Pair {@code i} is ({@link #getValue(int) value i},
+ * {@link #getVector(int) vector i}); the order is the one the producing
+ * solver documents. Each eigenvector is scaled so that its entry of
+ * largest magnitude is positive, which makes results reproducible across
+ * runs and solvers (an eigenvector is otherwise only defined up to
+ * sign).</p>
+ *
+ * @author sauravbhattacharya001
+ */
+public final class Eigenpairs {
+
+    final double[] values;
+    /** {@code vectors[i]} is the eigenvector of {@code values[i]}, or null if not computed. */
+    final double[][] vectors;
+    private final boolean converged;
+
+    Eigenpairs(double[] values, double[][] vectors, boolean converged) {
+        this.values = values;
+        this.vectors = vectors;
+        this.converged = converged;
+    }
+
+    /** Returns the number of eigenpairs. */
+    public int size() {
+        return values.length;
+    }
+
+    /** Returns eigenvalue {@code i}. */
+    public double getValue(int i) {
+        return values[i];
+    }
+
+    /** Returns a copy of all eigenvalues. */
+    public double[] getValues() {
+        return values.clone();
+    }
+
+    /**
+     * Returns a copy of eigenvector {@code i}.
+     *
+     * @throws IllegalStateException if eigenvectors were not computed
+     */
+    public double[] getVector(int i) {
+        if (vectors == null) {
+            throw new IllegalStateException("Eigenvectors were not computed");
+        }
+        return vectors[i].clone();
+    }
+
+    /** Whether eigenvectors are available. */
+    public boolean hasVectors() {
+        return vectors != null;
+    }
+
+    /**
+     * Whether every pair met the solver's tolerance. Always true for the
+     * dense solver; an iterative solver that ran out of restarts returns
+     * its best approximations with this flag cleared.
+     */
+    public boolean isConverged() {
+        return converged;
+    }
+
+    /** Flips the sign of a vector so that its largest-magnitude entry is positive. */
+    static void normalizeSign(double[] v) {
+        int best = 0;
+        for (int i = 1; i < v.length; i++) {
+            if (Math.abs(v[i]) > Math.abs(v[best]) + 1e-12) best = i;
+        }
+        if (v.length > 0 && v[best] < 0) {
+            for (int i = 0; i < v.length; i++) v[i] = -v[i];
+        }
+    }
+}
@@ -2,6 +2,7 @@ package gvisual;
 
 import edu.uci.ics.jung.graph.Graph;
 import java.util.*;
+import java.util.concurrent.ForkJoinPool;
 
 /**
  * Force-Directed Graph Layout — computes aesthetically pleasing 2D positions
@@ -32,8 +33,13 @@ import java.util.*;
  * </ul>
  *
  * <h3>Complexity</h3>
- * <p>O(iterations × (V² + E)) — the V² term comes from all-pairs repulsion.
- * Suitable for graphs up to ~5000 nodes.</p>
+ * <p>O(iterations × (V² + E)) for small graphs, where the V² term comes
+ * from all-pairs repulsion; above 100 nodes repulsion uses a Barnes–Hut
+ * quadtree, giving O(iterations × (V log V + E)). On large graphs each
+ * iteration runs in parallel — repulsion over vertex blocks, attraction
+ * over Edge stripes with private buffers — on position and displacement
+ * arrays and a flat {@link QuadTree} that are allocated once per layout
+ * and rebuilt in place.</p>
  *
  * @author sauravbhattacharya001
  */
@@ -44,6 +50,26 @@ public class ForceDirectedLayout {
     private static final int BARNES_HUT_THRESHOLD = 100;
     /** Barnes-Hut opening angle: lower = more accurate, higher = faster. */
     private static final double BH_THETA = 0.8;
+    /** Vertices per parallel task; also the energy reduction granularity. */
+    private static final int BLOCK_SIZE = 1024;
+    /** Run iterations on a worker pool from this vertex count on. */
+    private static final int PARALLEL_THRESHOLD = 4096;
+    /** Upper bound on private attraction buffers. */
+    private static final int MAX_ATTRACTION_STRIPES = 8;
+    /** Edges per attraction stripe before another stripe is added. */
+    private static final int EDGES_PER_STRIPE = 8192;
+    /** Multilevel mode only coarsens graphs with at least this many vertices. */
+    private static final int MULTILEVEL_THRESHOLD = 200;
+    /** Coarsening stops at this many vertices. */
+    private static final int COARSEST_VERTICES = 50;
+    /** A level shrinking by less than this fraction ends coarsening. */
+    private static final double MIN_LEVEL_SHRINK = 0.05;
+    /** Refinement levels get maxIterations / this many iterations. */
+    private static final int REFINE_BUDGET_DIVISOR = 10;
+    /** Lower bound on refinement iterations per level. */
+    private static final int MIN_REFINE_ITERATIONS = 10;
+    /** Interpolation jitter, as a fraction of the level's natural distance. */
+    private static final double INTERPOLATION_JITTER = 0.2;
 
     private final Graph<String, Edge> graph;
     private final int maxIterations;
@@ -52,12 +78,21 @@ public class ForceDirectedLayout {
     private final double gravity;
     private final boolean useEdgeWeights;
     private final long seed;
+    private int parallelism = Runtime.getRuntime().availableProcessors();
+    private boolean multilevel;
+    private long timeBudgetNanos;
+    private long deadline;
 
     private Map<String, double[]> positions;
     private List<String> vertexList;
     private boolean computed;
     private int iterationsUsed;
+    private int iterationBudget;
+    private int levelCount;
     private double finalEnergy;
+    private boolean timedOut;
+    private QuadTree hitIndex;
+    private String[] hitVertices;
 
     /**
      * Creates a ForceDirectedLayout with default settings.
@@ -102,6 +137,7 @@ public class ForceDirectedLayout {
         }
         this.graph = graph;
         this.maxIterations = maxIterations;
+        this.iterationBudget = maxIterations;
         this.width = width;
         this.height = height;
         this.gravity = gravity;
@@ -111,6 +147,63 @@ public class ForceDirectedLayout {
         this.computed = false;
     }
 
+    /**
+     * Sets the number of worker threads used per iteration on graphs with
+     * at least {@value #PARALLEL_THRESHOLD} vertices. Positions do not
+     * depend on it.
+     *
+     * @param threads worker threads (1 = sequential)
+     * @return this layout for chaining
+     * @throws IllegalArgumentException if threads &lt; 1
+     */
+    public ForceDirectedLayout withParallelism(int threads) {
+        if (threads < 1) {
+            throw new IllegalArgumentException(
+                    "parallelism must be >= 1, got: " + threads);
+        }
+        this.parallelism = threads;
+        return this;
+    }
+
+    /**
+     * Enables multilevel layout (Walshaw / FM³ style) for graphs with at
+     * least {@value #MULTILEVEL_THRESHOLD} vertices. The graph is coarsened
+     * by heavy-edge matching down to about {@value #COARSEST_VERTICES}
+     * vertices; the coarsest graph gets the full {@code maxIterations}
+     * budget, and every finer level starts from its clusters' positions and
+     * only refines for {@code maxIterations / }{@value #REFINE_BUDGET_DIVISOR}
+     * iterations (at least {@value #MIN_REFINE_ITERATIONS}). Global
+     * structure is settled where it is cheap, so large graphs untangle in
+     * a fraction of the single-level iteration count.
+     *
+     * @param enabled true to lay out large graphs level by level
+     * @return this layout for chaining
+     */
+    public ForceDirectedLayout withMultilevel(boolean enabled) {
+        this.multilevel = enabled;
+        return this;
+    }
+
+    /**
+     * Caps the wall-clock time of {@link #compute()}. When the budget runs
+     * out the simulation stops after the current iteration and the
+     * positions reached so far are kept (in multilevel mode they are still
+     * carried down to the original graph). Use {@link #isTimedOut()} to
+     * tell this apart from convergence.
+     *
+     * @param millis budget in milliseconds (0 = unlimited, the default)
+     * @return this layout for chaining
+     * @throws IllegalArgumentException if millis &lt; 0
+     */
+    public ForceDirectedLayout withTimeBudget(long millis) {
+        if (millis < 0) {
+            throw new IllegalArgumentException(
+                    "time budget must be >= 0, got: " + millis);
+        }
+        this.timeBudgetNanos = millis * 1_000_000L;
+        return this;
+    }
+
     // ═══════════════════════════════════════════════════════════════
     //  Core algorithm
     // ═══════════════════════════════════════════════════════════════
@@ -150,12 +243,13 @@ public class ForceDirectedLayout {
         double area = width * height;
         double k = Math.sqrt(area / n);
 
-        // Initialize positions randomly within the canvas
+        // Positions live in flat arrays reused by every iteration
         Random rng = new Random(seed);
-        double[][] pos = new double[n][2];
+        double[] posX = new double[n];
+        double[] posY = new double[n];
         for (int i = 0; i < n; i++) {
-            pos[i][0] = width * 0.1 + rng.nextDouble() * width * 0.8;
-            pos[i][1] = height * 0.1 + rng.nextDouble() * height * 0.8;
+            posX[i] = width * 0.1 + rng.nextDouble() * width * 0.8;
+            posY[i] = height * 0.1 + rng.nextDouble() * height * 0.8;
         }
 
         // Build index map for fast lookup
@@ -185,130 +279,302 @@ public class ForceDirectedLayout {
 
         // Cooling: initial temperature = 10% of the diagonal
         double t = Math.sqrt(width * width + height * height) * 0.1;
-        double coolingFactor = t / (maxIterations + 1);
+        deadline = System.nanoTime() + timeBudgetNanos;
+
+        QuadTree qt = new QuadTree();
+        ForkJoinPool pool = parallelism > 1 && n >= PARALLEL_THRESHOLD
+                ? new ForkJoinPool(parallelism) : null;
+        try {
+            if (multilevel && n >= MULTILEVEL_THRESHOLD) {
+                computeMultilevel(n, posX, posY, edgeSrc, edgeDst, edgeWt, edgeCount,
+                        t, rng, qt, pool);
+            } else {
+                levelCount = 1;
+                iterationBudget = maxIterations;
+                iterationsUsed = simulate(n, posX, posY, edgeSrc, edgeDst, edgeWt, edgeCount,
+                        k, t, maxIterations, qt, pool);
+            }
+        } finally {
+            if (pool != null) pool.shutdown();
+        }
+
+        // Store final positions
+        for (int i = 0; i < n; i++) {
+            positions.put(vertexList.get(i),
+                    new double[]{posX[i], posY[i]});
+        }
+
+        computed = true;
+        return this;
+    }
+
+    /**
+     * Multilevel layout: coarsens the graph by heavy-edge matching (shared
+     * with {@link MultilevelPartitioner}) until at most
+     * {@value #COARSEST_VERTICES} vertices remain, lays the coarsest graph
+     * out with the full iteration budget and then, level by level, places
+     * each vertex at its cluster's position (slightly jittered) and refines
+     * with a short, cool simulation at that level's natural distance.
+     */
+    private void computeMultilevel(int n, double[] posX, double[] posY,
+                                   int[] edgeSrc, int[] edgeDst, double[] edgeWt, int edgeCount,
+                                   double initialTemperature, Random rng, QuadTree qt,
+                                   ForkJoinPool pool) {
+        List<MultilevelPartitioner.Level> levels = new ArrayList<MultilevelPartitioner.Level>();
+        MultilevelPartitioner.Level current = MultilevelPartitioner.of(n, edgeSrc, edgeDst, edgeCount);
+        levels.add(current);
+        int maxClusterWeight = Math.max(2, 3 * n / (2 * COARSEST_VERTICES));
+        while (current.n > COARSEST_VERTICES) {
+            MultilevelPartitioner.Level coarse = MultilevelPartitioner.coarsen(
+                    current, maxClusterWeight, rng.nextLong(), pool);
+            if (coarse.n > (1 - MIN_LEVEL_SHRINK) * current.n) {
+                current.cmap = null;
+                break;
+            }
+            levels.add(coarse);
+            current = coarse;
+        }
+        levelCount = levels.size();
+
+        double area = width * height;
+        int refineIterations = Math.max(MIN_REFINE_ITERATIONS, maxIterations / REFINE_BUDGET_DIVISOR);
+        double[] x = null;
+        double[] y = null;
+        for (int l = levels.size() - 1; l >= 0; l--) {
+            MultilevelPartitioner.Level level = levels.get(l);
+            int ln = level.n;
+            double lk = Math.sqrt(area / ln);
+            double[] lx = l == 0 ? posX : new double[ln];
+            double[] ly = l == 0 ? posY : new double[ln];
+            double temperature;
+            int budget;
+            if (x == null) {
+                // Coarsest level: random start, full budget
+                for (int i = 0; i < ln; i++) {
+                    lx[i] = width * 0.1 + rng.nextDouble() * width * 0.8;
+                    ly[i] = height * 0.1 + rng.nextDouble() * height * 0.8;
+                }
+                temperature = initialTemperature;
+                budget = maxIterations;
+            } else {
+                // Interpolate: start each vertex at its cluster's position
+                int[] cmap = level.cmap;
+                double jitter = lk * INTERPOLATION_JITTER;
+                for (int i = 0; i < ln; i++) {
+                    lx[i] = Math.max(0, Math.min(width, x[cmap[i]] + (rng.nextDouble() - 0.5) * jitter));
+                    ly[i] = Math.max(0, Math.min(height, y[cmap[i]] + (rng.nextDouble() - 0.5) * jitter));
+                }
+                temperature = lk;
+                budget = refineIterations;
+            }
+
+            if (l == 0) {
+                iterationBudget = budget;
+                iterationsUsed = simulate(ln, lx, ly, edgeSrc, edgeDst, edgeWt, edgeCount,
+                        lk, temperature, budget, qt, pool);
+            } else {
+                // Coarse edges with unit weights: cluster multiplicities
+                // would make the springs between big clusters too stiff
+                int m = level.xadj[ln] / 2;
+                int[] src = new int[m];
+                int[] dst = new int[m];
+                int e = 0;
+                for (int u = 0; u < ln; u++) {
+                    for (int p = level.xadj[u]; p < level.xadj[u + 1]; p++) {
+                        if (level.adjncy[p] > u) {
+                            src[e] = u;
+                            dst[e++] = level.adjncy[p];
+                        }
+                    }
+                }
+                double[] wt = new double[e];
+                Arrays.fill(wt, 1.0);
+                simulate(ln, lx, ly, src, dst, wt, e, lk, temperature, budget, qt, pool);
+            }
+            x = lx;
+            y = ly;
+        }
+    }
+
+    /**
+     * Runs up to {@code iterations} Fruchterman–Reingold steps on the
+     * given positions, cooling linearly from {@code t}. Stores the last
+     * step's energy in {@link #finalEnergy}.
+     *
+     * @return the number of iterations run
+     */
+    private int simulate(int n, double[] posX, double[] posY,
+                         int[] edgeSrc, int[] edgeDst, double[] edgeWt, int edgeCount,
+                         double k, double t, int iterations, QuadTree qt, ForkJoinPool pool) {
+        double[] dispX = new double[n];
+        double[] dispY = new double[n];
+
+        // Attraction is scattered to both endpoints, so parallel stripes of
+        // the Edge list each accumulate into a private buffer that is then
+        // reduced per vertex. The stripe count depends only on the Edge
+        // count, keeping results independent of the thread count.
+        int stripes = Math.max(1, Math.min(MAX_ATTRACTION_STRIPES, edgeCount / EDGES_PER_STRIPE));
+        double[][] stripeX = stripes > 1 ? new double[stripes][n] : null;
+        double[][] stripeY = stripes > 1 ? new double[stripes][n] : null;
+
+        int blocks = (n + BLOCK_SIZE - 1) / BLOCK_SIZE;
+        double[] blockEnergy = new double[blocks];
+
+        double coolingFactor = t / (iterations + 1);
         double centerX = width / 2.0;
         double centerY = height / 2.0;
+        double kSq = k * k;
+        double thetaSq = BH_THETA * BH_THETA;
 
         double prevEnergy = Double.MAX_VALUE;
         int stableCount = 0;
+        int used = 0;
 
-        for (int iter = 0; iter < maxIterations; iter++) {
-            double[][] disp = new double[n][2];
+        for (int iter = 0; iter < iterations; iter++) {
+            if (timeBudgetNanos > 0 && System.nanoTime() - deadline >= 0) {
+                timedOut = true;
+                break;
+            }
 
             // Repulsive forces
             if (n > BARNES_HUT_THRESHOLD) {
-                // Barnes-Hut: O(V log V) approximation via quadtree
-                QuadTree qt = QuadTree.build(pos, n);
-                double kSq = k * k;
-                double thetaSq = BH_THETA * BH_THETA;
-                for (int i = 0; i < n; i++) {
-                    qt.applyRepulsion(i, pos[i][0], pos[i][1], kSq, disp[i], thetaSq);
-                }
+                // Barnes-Hut: O(V log V) approximation via quadtree,
+                // rebuilt in place. Blocks walk it independently, taking
+                // vertices in the tree's Morton order for locality.
+                qt.rebuild(posX, posY, n);
+                BlockRange.forEachBlock(pool, blocks, b -> {
+                    double[] acc = new double[2];
+                    for (int r = b * BLOCK_SIZE, end = Math.min(n, r + BLOCK_SIZE); r < end; r++) {
+                        int i = qt.bodyAt(r);
+                        acc[0] = 0;
+                        acc[1] = 0;
+                        qt.applyRepulsion(i, posX[i], posY[i], kSq, acc, thetaSq);
+                        dispX[i] = acc[0];
+                        dispY[i] = acc[1];
+                    }
+                });
             } else {
                 // Brute-force: O(V^2) all-pairs (fine for small graphs)
-                double kSqBF = k * k;
+                Arrays.fill(dispX, 0);
+                Arrays.fill(dispY, 0);
                 for (int i = 0; i < n; i++) {
                     for (int j = i + 1; j < n; j++) {
-                        double dx = pos[i][0] - pos[j][0];
-                        double dy = pos[i][1] - pos[j][1];
+                        double dx = posX[i] - posX[j];
+                        double dy = posY[i] - posY[j];
                         double distSq = dx * dx + dy * dy;
                         if (distSq < MIN_DIST * MIN_DIST) distSq = MIN_DIST * MIN_DIST;
 
                         // force = k²/dist; fx = dx/dist * force = dx * k²/distSq
-                        double f = kSqBF / distSq;
+                        double f = kSq / distSq;
                         double fx = dx * f;
                         double fy = dy * f;
 
-                        disp[i][0] += fx;
-                        disp[i][1] += fy;
-                        disp[j][0] -= fx;
-                        disp[j][1] -= fy;
+                        dispX[i] += fx;
+                        dispY[i] += fy;
+                        dispX[j] -= fx;
+                        dispY[j] -= fy;
                     }
                 }
             }
 
             // ── Attractive forces (edges) ──────────────────────────
-            // Uses primitive arrays (edgeSrc/edgeDst/edgeWt) for
-            // sequential memory access — no List.get() or unboxing.
-            for (int e = 0; e < edgeCount; e++) {
-                int u = edgeSrc[e];
-                int v = edgeDst[e];
-                double w = edgeWt[e];
-
-                double dx = pos[u][0] - pos[v][0];
-                double dy = pos[u][1] - pos[v][1];
-                double dist = Math.sqrt(dx * dx + dy * dy);
-                if (dist < MIN_DIST) dist = MIN_DIST;
-
-                // Attractive force: dist² / k, scaled by Edge weight
-                // Simplified: force/dist = dist/k * w (avoids one division)
-                double fOverD = dist / k * w;
-                double fx = dx * fOverD;
-                double fy = dy * fOverD;
-
-                disp[u][0] -= fx;
-                disp[u][1] -= fy;
-                disp[v][0] += fx;
-                disp[v][1] += fy;
+            if (stripes == 1) {
+                accumulateAttraction(edgeSrc, edgeDst, edgeWt, 0, edgeCount,
+                        posX, posY, k, dispX, dispY);
+            } else {
+                BlockRange.forEachBlock(pool, stripes, s -> {
+                    Arrays.fill(stripeX[s], 0);
+                    Arrays.fill(stripeY[s], 0);
+                    accumulateAttraction(edgeSrc, edgeDst, edgeWt,
+                            (int) ((long) edgeCount * s / stripes),
+                            (int) ((long) edgeCount * (s + 1) / stripes),
+                            posX, posY, k, stripeX[s], stripeY[s]);
+                });
+                BlockRange.forEachBlock(pool, blocks, b -> {
+                    for (int i = b * BLOCK_SIZE, end = Math.min(n, i + BLOCK_SIZE); i < end; i++) {
+                        for (int s = 0; s < stripes; s++) {
+                            dispX[i] += stripeX[s][i];
+                            dispY[i] += stripeY[s][i];
+                        }
+                    }
+                });
             }
 
-            // ── Gravity (pull toward center) ───────────────────────
-            if (gravity > 0) {
-                for (int i = 0; i < n; i++) {
-                    double dx = centerX - pos[i][0];
-                    double dy = centerY - pos[i][1];
-                    double dist = Math.sqrt(dx * dx + dy * dy);
-                    if (dist > MIN_DIST) {
-                        disp[i][0] += gravity * dx;
-                        disp[i][1] += gravity * dy;
+            // ── Gravity, then apply displacements (limited by temperature)
+            double temperature = t;
+            BlockRange.forEachBlock(pool, blocks, b -> {
+                double energy = 0;
+                for (int i = b * BLOCK_SIZE, end = Math.min(n, i + BLOCK_SIZE); i < end; i++) {
+                    if (gravity > 0) {
+                        double gx = centerX - posX[i];
+                        double gy = centerY - posY[i];
+                        if (Math.sqrt(gx * gx + gy * gy) > MIN_DIST) {
+                            dispX[i] += gravity * gx;
+                            dispY[i] += gravity * gy;
+                        }
                     }
-                }
-            }
 
-            // ── Apply displacements (limited by temperature) ──────
-            double energy = 0;
-            for (int i = 0; i < n; i++) {
-                double dispLen = Math.sqrt(
-                        disp[i][0] * disp[i][0] + disp[i][1] * disp[i][1]);
-                if (dispLen > MIN_DIST) {
-                    double capped = Math.min(dispLen, t);
-                    pos[i][0] += (disp[i][0] / dispLen) * capped;
-                    pos[i][1] += (disp[i][1] / dispLen) * capped;
-                    energy += capped * capped;
-                }
+                    double dispLen = Math.sqrt(dispX[i] * dispX[i] + dispY[i] * dispY[i]);
+                    if (dispLen > MIN_DIST) {
+                        double capped = Math.min(dispLen, temperature);
+                        posX[i] += (dispX[i] / dispLen) * capped;
+                        posY[i] += (dispY[i] / dispLen) * capped;
+                        energy += capped * capped;
+                    }
 
-                // Keep within bounds
-                pos[i][0] = Math.max(0, Math.min(width, pos[i][0]));
-                pos[i][1] = Math.max(0, Math.min(height, pos[i][1]));
-            }
+                    // Keep within bounds
+                    posX[i] = Math.max(0, Math.min(width, posX[i]));
+                    posY[i] = Math.max(0, Math.min(height, posY[i]));
+                }
+                blockEnergy[b] = energy;
+            });
+            double energy = 0;
+            for (double e : blockEnergy) energy += e;
 
             // ── Cool ──────────────────────────────────────────────
             t = Math.max(t - coolingFactor, 0.01);
 
             // ── Convergence check ─────────────────────────────────
+            used = iter + 1;
+            finalEnergy = energy;
             if (Math.abs(energy - prevEnergy) < 0.001 * n) {
                 stableCount++;
-                if (stableCount >= 5) {
-                    iterationsUsed = iter + 1;
-                    finalEnergy = energy;
-                    break;
-                }
+                if (stableCount >= 5) break;
             } else {
                 stableCount = 0;
             }
             prevEnergy = energy;
-            iterationsUsed = iter + 1;
-            finalEnergy = energy;
         }
+        return used;
+    }
 
-        // Store final positions
-        for (int i = 0; i < n; i++) {
-            positions.put(vertexList.get(i),
-                    new double[]{pos[i][0], pos[i][1]});
+    /**
+     * Accumulates Fruchterman–Reingold attraction for edges
+     * {@code [from, to)} into the displacement arrays.
+     */
+    private static void accumulateAttraction(int[] edgeSrc, int[] edgeDst, double[] edgeWt,
+                                             int from, int to, double[] posX, double[] posY,
+                                             double k, double[] dispX, double[] dispY) {
+        for (int e = from; e < to; e++) {
+            int u = edgeSrc[e];
+            int v = edgeDst[e];
+
+            double dx = posX[u] - posX[v];
+            double dy = posY[u] - posY[v];
+            double dist = Math.sqrt(dx * dx + dy * dy);
+            if (dist < MIN_DIST) dist = MIN_DIST;
+
+            // Attractive force: dist² / k, scaled by Edge weight
+            // Simplified: force/dist = dist/k * w (avoids one division)
+            double fOverD = dist / k * edgeWt[e];
+            double fx = dx * fOverD;
+            double fy = dy * fOverD;
+
+            dispX[u] -= fx;
+            dispY[u] -= fy;
+            dispX[v] += fx;
+            dispY[v] += fy;
         }
-
-        computed = true;
-        return this;
     }
 
     // ═══════════════════════════════════════════════════════════════
@@ -327,6 +593,34 @@ public class ForceDirectedLayout {
         return p != null ? new double[]{p[0], p[1]} : null;
     }
 
+    /**
+     * Hit-tests the layout: finds the vertex nearest to (x, y) within
+     * {@code radius}, e.g. under the mouse pointer. The first call indexes
+     * the positions in a {@link QuadTree}, so each query is O(log V).
+     *
+     * @param x      x-coordinate in layout space
+     * @param y      y-coordinate in layout space
+     * @param radius maximum distance to the vertex
+     * @return the nearest vertex, or null if none lies within radius
+     */
+    public String vertexAt(double x, double y, double radius) {
+        ensureComputed();
+        if (hitIndex == null) {
+            int n = positions.size();
+            hitVertices = positions.keySet().toArray(new String[0]);
+            double[] xs = new double[n];
+            double[] ys = new double[n];
+            for (int i = 0; i < n; i++) {
+                double[] p = positions.get(hitVertices[i]);
+                xs[i] = p[0];
+                ys[i] = p[1];
+            }
+            hitIndex = QuadTree.build(xs, ys, n);
+        }
+        int i = hitIndex.nearest(x, y, radius);
+        return i < 0 ? null : hitVertices[i];
+    }
+
     /**
      * Returns all computed positions.
      *
@@ -394,71 +688,51 @@ public class ForceDirectedLayout {
     /**
      * Counts the number of Edge crossings in the layout.
      * Two edges cross if their line segments intersect (excluding shared
-     * endpoints).
+     * endpoints). Self-loops and edges whose endpoints share a position
+     * have zero length and never cross.
+     *
+     * <p>Candidate pairs come from an {@link EdgeCrossingCounter} grid, so
+     * only edges passing through a common cell are tested, and cells are
+     * processed on {@link #withParallelism(int) parallelism} threads. This
+     * keeps the count near-linear on large layouts instead of O(E²).</p>
      *
      * @return number of Edge crossings
      */
     public int countEdgeCrossings() {
         ensureComputed();
-        List<Edge> edges = new ArrayList<Edge>(graph.getEdges());
-        int m = edges.size();
-
-        // Pre-compute endpoint positions, vertex names, and axis-aligned
-        // bounding boxes into parallel arrays. The AABB check lets us skip
-        // the expensive cross-product intersection test for edge pairs whose
-        // bounding boxes don't overlap — a significant win on larger graphs
-        // where most edge pairs are spatially distant.
-        double[][] ep1 = new double[m][];
-        double[][] ep2 = new double[m][];
-        String[] v1 = new String[m];
-        String[] v2 = new String[m];
-        boolean[] valid = new boolean[m];
-        double[] minX = new double[m];
-        double[] maxX = new double[m];
-        double[] minY = new double[m];
-        double[] maxY = new double[m];
-
-        for (int i = 0; i < m; i++) {
-            Edge e = edges.get(i);
-            v1[i] = e.getVertex1();
-            v2[i] = e.getVertex2();
-            ep1[i] = positions.get(v1[i]);
-            ep2[i] = positions.get(v2[i]);
-            valid[i] = ep1[i] != null && ep2[i] != null;
-            if (valid[i]) {
-                minX[i] = Math.min(ep1[i][0], ep2[i][0]);
-                maxX[i] = Math.max(ep1[i][0], ep2[i][0]);
-                minY[i] = Math.min(ep1[i][1], ep2[i][1]);
-                maxY[i] = Math.max(ep1[i][1], ep2[i][1]);
-            }
+        int m = graph.getEdgeCount();
+        double[] x1 = new double[m];
+        double[] y1 = new double[m];
+        double[] x2 = new double[m];
+        double[] y2 = new double[m];
+        int[] u = new int[m];
+        int[] v = new int[m];
+        Map<String, Integer> ids = new HashMap<String, Integer>();
+        int count = 0;
+        for (Edge e : graph.getEdges()) {
+            double[] p1 = positions.get(e.getVertex1());
+            double[] p2 = positions.get(e.getVertex2());
+            if (p1 == null || p2 == null) continue;
+            x1[count] = p1[0];
+            y1[count] = p1[1];
+            x2[count] = p2[0];
+            y2[count] = p2[1];
+            u[count] = vertexId(ids, e.getVertex1());
+            v[count] = vertexId(ids, e.getVertex2());
+            count++;
         }
+        long crossings = new EdgeCrossingCounter(parallelism)
+                .count(x1, y1, x2, y2, u, v, count, ForceDirectedLayout::segmentsIntersect);
+        return (int) Math.min(Integer.MAX_VALUE, crossings);
+    }
 
-        int crossings = 0;
-        for (int i = 0; i < m; i++) {
-            if (!valid[i]) continue;
-
-            for (int j = i + 1; j < m; j++) {
-                if (!valid[j]) continue;
-
-                // AABB overlap test: skip pairs whose bounding boxes
-                // don't overlap (no intersection possible)
-                if (maxX[i] < minX[j] || maxX[j] < minX[i] ||
-                    maxY[i] < minY[j] || maxY[j] < minY[i]) {
-                    continue;
-                }
-
-                // Skip if edges share an endpoint
-                if (v1[i].equals(v1[j]) || v1[i].equals(v2[j]) ||
-                    v2[i].equals(v1[j]) || v2[i].equals(v2[j])) {
-                    continue;
-                }
-
-                if (segmentsIntersect(ep1[i], ep2[i], ep1[j], ep2[j])) {
-                    crossings++;
-                }
-            }
+    private static int vertexId(Map<String, Integer> ids, String vertex) {
+        Integer id = ids.get(vertex);
+        if (id == null) {
+            id = ids.size();
+            ids.put(vertex, id);
         }
-        return crossings;
+        return id;
     }
 
     /**
@@ -615,7 +889,8 @@ public class ForceDirectedLayout {
     // ═══════════════════════════════════════════════════════════════
 
     /**
-     * Returns the number of iterations the algorithm ran.
+     * Returns the number of iterations the algorithm ran. In multilevel
+     * mode this counts the iterations on the original graph only.
      */
     public int getIterationsUsed() {
         ensureComputed();
@@ -632,11 +907,30 @@ public class ForceDirectedLayout {
     }
 
     /**
-     * Returns true if the algorithm converged before reaching maxIterations.
+     * Returns the number of graph levels laid out: 1 unless multilevel
+     * mode coarsened the graph.
+     */
+    public int getLevelCount() {
+        ensureComputed();
+        return Math.max(1, levelCount);
+    }
+
+    /**
+     * Returns true if the algorithm converged before reaching maxIterations
+     * (in multilevel mode, before the finest level's refinement budget).
      */
     public boolean converged() {
         ensureComputed();
-        return iterationsUsed < maxIterations;
+        return !timedOut && iterationsUsed < iterationBudget;
+    }
+
+    /**
+     * Returns true if {@link #withTimeBudget(long) the time budget} ran out
+     * before the simulation finished.
+     */
+    public boolean isTimedOut() {
+        ensureComputed();
+        return timedOut;
     }
 
     /**
@@ -718,8 +1012,11 @@ public class ForceDirectedLayout {
                 graph.getVertexCount(), graph.getEdgeCount()));
         sb.append(String.format("Canvas: %.0f × %.0f\n", width, height));
         sb.append(String.format("Iterations: %d/%d %s\n",
-                iterationsUsed, maxIterations,
+                iterationsUsed, iterationBudget,
                 converged() ? "(converged)" : "(max reached)"));
+        if (getLevelCount() > 1) {
+            sb.append(String.format("Levels: %d (multilevel)\n", getLevelCount()));
+        }
         sb.append(String.format("Final energy: %.4f\n", finalEnergy));
         sb.append("\n── Quality Metrics ──\n");
         sb.append(String.format("Edge crossings: %d\n", q.getEdgeCrossings()));
@@ -803,12 +1100,12 @@ public class ForceDirectedLayout {
      * Tests if two line segments (a1–a2) and (b1–b2) intersect.
      * Uses the cross-product orientation test.
      */
-    private boolean segmentsIntersect(double[] a1, double[] a2,
-                                       double[] b1, double[] b2) {
-        double d1 = cross(b1, b2, a1);
-        double d2 = cross(b1, b2, a2);
-        double d3 = cross(a1, a2, b1);
-        double d4 = cross(a1, a2, b2);
+    private static boolean segmentsIntersect(double ax1, double ay1, double ax2, double ay2,
+                                             double bx1, double by1, double bx2, double by2) {
+        double d1 = cross(bx1, by1, bx2, by2, ax1, ay1);
+        double d2 = cross(bx1, by1, bx2, by2, ax2, ay2);
+        double d3 = cross(ax1, ay1, ax2, ay2, bx1, by1);
+        double d4 = cross(ax1, ay1, ax2, ay2, bx2, by2);
 
         if (((d1 > 0 && d2 < 0) || (d1 < 0 && d2 > 0)) &&
             ((d3 > 0 && d4 < 0) || (d3 < 0 && d4 > 0))) {
@@ -816,21 +1113,21 @@ public class ForceDirectedLayout {
         }
 
         // Collinear cases
-        if (Math.abs(d1) < 1e-10 && onSegment(b1, b2, a1)) return true;
-        if (Math.abs(d2) < 1e-10 && onSegment(b1, b2, a2)) return true;
-        if (Math.abs(d3) < 1e-10 && onSegment(a1, a2, b1)) return true;
-        if (Math.abs(d4) < 1e-10 && onSegment(a1, a2, b2)) return true;
+        if (Math.abs(d1) < 1e-10 && onSegment(bx1, by1, bx2, by2, ax1, ay1)) return true;
+        if (Math.abs(d2) < 1e-10 && onSegment(bx1, by1, bx2, by2, ax2, ay2)) return true;
+        if (Math.abs(d3) < 1e-10 && onSegment(ax1, ay1, ax2, ay2, bx1, by1)) return true;
+        if (Math.abs(d4) < 1e-10 && onSegment(ax1, ay1, ax2, ay2, bx2, by2)) return true;
 
         return false;
     }
 
-    private double cross(double[] o, double[] a, double[] b) {
-        return (a[0] - o[0]) * (b[1] - o[1]) - (a[1] - o[1]) * (b[0] - o[0]);
+    private static double cross(double ox, double oy, double ax, double ay, double bx, double by) {
+        return (ax - ox) * (by - oy) - (ay - oy) * (bx - ox);
     }
 
-    private boolean onSegment(double[] p, double[] q, double[] r) {
-        return r[0] <= Math.max(p[0], q[0]) && r[0] >= Math.min(p[0], q[0]) &&
-               r[1] <= Math.max(p[1], q[1]) && r[1] >= Math.min(p[1], q[1]);
+    private static boolean onSegment(double px, double py, double qx, double qy, double rx, double ry) {
+        return rx <= Math.max(px, qx) && rx >= Math.min(px, qx) &&
+               ry <= Math.max(py, qy) && ry >= Math.min(py, qy);
     }
 
 
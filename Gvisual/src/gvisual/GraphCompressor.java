@@ -17,7 +17,8 @@ import java.util.*;
  *       connect to exactly the same set of other nodes.</li>
  *   <li><b>Neighborhood Similarity</b> — merges nodes whose neighbor
  *       sets have Jaccard similarity above a threshold. A relaxed
- *       version of structural equivalence.</li>
+ *       version of structural equivalence. On very large graphs a
+ *       {@link MinHashLshIndex} can supply the candidate pairs.</li>
  *   <li><b>Degree-Based</b> — groups nodes by degree (or degree ranges),
  *       collapsing each group into a supernode.</li>
  *   <li><b>Attribute-Based</b> — groups nodes by a user-supplied
@@ -101,6 +102,82 @@ public class GraphCompressor {
             throw new IllegalArgumentException("Threshold must be in [0.0, 1.0], got: " + threshold);
         }
 
+        // Every later vertex is a candidate
+        return greedySimilarityMerge(threshold, vertices -> (i, visitor) -> {
+            int j = i + 1;
+            while (j < vertices.size() && visitor.test(j)) j++;
+        }, "neighborhood_similarity(threshold=" + threshold + ")");
+    }
+
+    /**
+     * Neighborhood-similarity compression driven by a MinHash LSH index.
+     * Follows the same greedy, degree-ordered merge as
+     * {@link #byNeighborhoodSimilarity(double)}, but each reference vertex
+     * is only compared with its LSH candidates (vertices sharing a band
+     * bucket), each confirmed with the exact Jaccard coefficient. Pairs
+     * the index misses stay unmerged, so recall follows the index's
+     * bands and rows; a threshold of 0 merges everything and bypasses the
+     * index.
+     *
+     * @param threshold Jaccard similarity threshold in [0.0, 1.0]
+     * @param index     an index built over this compressor's graph
+     * @return compression result
+     * @throws IllegalArgumentException if threshold is out of range or
+     *                                  index is null
+     */
+    public CompressionResult byNeighborhoodSimilarity(double threshold, MinHashLshIndex index) {
+        if (threshold < 0.0 || threshold > 1.0) {
+            throw new IllegalArgumentException("Threshold must be in [0.0, 1.0], got: " + threshold);
+        }
+        if (index == null) {
+            throw new IllegalArgumentException("Index must not be null");
+        }
+        if (threshold == 0.0) {
+            return byNeighborhoodSimilarity(threshold);
+        }
+
+        return greedySimilarityMerge(threshold, vertices -> {
+            Map<String, Integer> position = new HashMap<>(vertices.size() * 2);
+            for (int i = 0; i < vertices.size(); i++) position.put(vertices.get(i), i);
+            return (i, visitor) -> {
+                // Candidates later in degree order, visited in that order
+                List<Integer> later = new ArrayList<>();
+                for (String c : index.candidates(vertices.get(i))) {
+                    Integer j = position.get(c);
+                    if (j != null && j > i) later.add(j);
+                }
+                Collections.sort(later);
+                for (int j : later) {
+                    if (!visitor.test(j)) break;
+                }
+            };
+        }, "neighborhood_similarity_lsh(threshold=" + threshold
+                + ", bands=" + index.getBands() + ", rows=" + index.getRows() + ")");
+    }
+
+    /** Enumerates the positions compared with a reference vertex. */
+    @FunctionalInterface
+    private interface CandidateSource {
+        /**
+         * Offers positions after {@code i} in the degree-sorted vertex
+         * list, in ascending order, until {@code visitor} returns false.
+         */
+        void forEachLater(int i, java.util.function.IntPredicate visitor);
+    }
+
+    /**
+     * Greedy neighborhood-similarity merge shared by both overloads of
+     * {@code byNeighborhoodSimilarity}. Vertices are sorted by degree; each
+     * unmerged vertex in turn becomes a reference and absorbs every
+     * unmerged candidate whose exact Jaccard similarity reaches the
+     * threshold. Because candidates arrive in ascending degree, the scan
+     * stops at the first candidate whose degree ratio already rules out
+     * the threshold.
+     */
+    private CompressionResult greedySimilarityMerge(
+            double threshold,
+            java.util.function.Function<List<String>, CandidateSource> sourceFor,
+            String strategy) {
         Map<String, Set<String>> neighborSets = new HashMap<>();
         for (String v : graph.getVertices()) {
             neighborSets.put(v, new HashSet<>(graph.getNeighbors(v)));
@@ -112,6 +189,7 @@ public class GraphCompressor {
         List<String> vertices = new ArrayList<>(graph.getVertices());
         vertices.sort((a, b) -> Integer.compare(neighborSets.get(a).size(), neighborSets.get(b).size()));
 
+        CandidateSource source = sourceFor.apply(vertices);
         boolean[] merged = new boolean[vertices.size()];
 
         List<List<String>> groups = new ArrayList<>();
@@ -123,8 +201,8 @@ public class GraphCompressor {
             Set<String> refNeighbors = neighborSets.get(vertices.get(i));
             int refSize = refNeighbors.size();
 
-            for (int j = i + 1; j < vertices.size(); j++) {
-                if (merged[j]) continue;
+            source.forEachLater(i, j -> {
+                if (merged[j]) return true;
                 Set<String> otherNeighbors = neighborSets.get(vertices.get(j));
                 int otherSize = otherNeighbors.size();
 
@@ -132,9 +210,9 @@ public class GraphCompressor {
                 // Jaccard similarity between two sets is min(|A|,|B|)/max(|A|,|B|).
                 // Since vertices are sorted by degree, refSize <= otherSize.
                 // If this upper bound < threshold, no later vertex can match either
-                // (their degrees only increase), so break early.
+                // (their degrees only increase), so stop early.
                 if (otherSize > 0 && (double) refSize / otherSize < threshold) {
-                    break;
+                    return false;
                 }
 
                 // Compute Jaccard without allocating new sets: count intersection
@@ -144,11 +222,12 @@ public class GraphCompressor {
                     group.add(vertices.get(j));
                     merged[j] = true;
                 }
-            }
+                return true;
+            });
             groups.add(group);
         }
 
-        return buildQuotientGraph(groups, "neighborhood_similarity(threshold=" + threshold + ")");
+        return buildQuotientGraph(groups, strategy);
     }
 
     /**
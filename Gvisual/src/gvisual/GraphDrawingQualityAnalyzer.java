@@ -44,6 +44,7 @@ public class GraphDrawingQualityAnalyzer {
     private final Graph<String, Edge> graph;
     private final Map<String, Point2D> positions;
     private boolean computed;
+    private int parallelism = Runtime.getRuntime().availableProcessors();
 
     // ── Results ─────────────────────────────────────────────────────
     private int edgeCrossings;
@@ -81,6 +82,23 @@ public class GraphDrawingQualityAnalyzer {
         this.positions = Objects.requireNonNull(positions);
     }
 
+    /**
+     * Sets the number of threads used to count edge crossings.
+     * Defaults to the number of available processors.
+     *
+     * @param threads worker threads (1 = sequential)
+     * @return this analyzer for chaining
+     * @throws IllegalArgumentException if threads &lt; 1
+     */
+    public GraphDrawingQualityAnalyzer withParallelism(int threads) {
+        if (threads < 1) {
+            throw new IllegalArgumentException(
+                    "parallelism must be >= 1, got: " + threads);
+        }
+        this.parallelism = threads;
+        return this;
+    }
+
     // ── Public getters (lazy compute) ───────────────────────────────
 
     public int getEdgeCrossings()           { ensureComputed(); return edgeCrossings; }
@@ -210,71 +228,37 @@ public class GraphDrawingQualityAnalyzer {
     // ── Edge crossings ──────────────────────────────────────────────
 
     /**
-     * Counts edge–edge crossings with AABB early rejection.
+     * Counts edge–edge crossings with an {@link EdgeCrossingCounter} grid.
      *
-     * <p>Pre-computes each edge's axis-aligned bounding box and endpoint
-     * vertex names into parallel arrays. The inner loop skips pairs whose
-     * bounding boxes don't overlap — impossible to intersect — before
-     * invoking the more expensive {@link Line2D#linesIntersect} cross-product
-     * test.  On typical layouts where most edge pairs are spatially distant,
-     * this eliminates the majority of intersection tests (empirically
-     * 70-90% of pairs on medium graphs), reducing wall-clock time from
-     * O(E²) arithmetic to O(E² comparisons) with a much smaller constant.</p>
+     * <p>Only edges that pass through a common grid cell are compared, so
+     * the count stays near-linear on large layouts instead of testing all
+     * O(E²) pairs. Surviving pairs still use {@link Line2D#linesIntersect},
+     * so the result equals testing every pair of non-degenerate edges.
+     * Self-loops and edges whose endpoints share a position have zero
+     * length and never count as crossing. Cells are split across
+     * {@link #withParallelism(int) parallelism} threads.</p>
      */
     private void computeEdgeCrossings() {
-        List<Edge> edges = new ArrayList<>(graph.getEdges());
-        int m = edges.size();
-        edgeCrossings = 0;
-
-        // Pre-extract positions, vertex names, and bounding boxes into
-        // parallel arrays for cache-friendly, allocation-free inner loop.
+        int m = graph.getEdgeCount();
         double[] x1 = new double[m], y1 = new double[m];
         double[] x2 = new double[m], y2 = new double[m];
-        double[] bbMinX = new double[m], bbMaxX = new double[m];
-        double[] bbMinY = new double[m], bbMaxY = new double[m];
-        String[] eu = new String[m], ev = new String[m];
-        boolean[] valid = new boolean[m];
-
-        for (int i = 0; i < m; i++) {
-            Edge e = edges.get(i);
-            eu[i] = graph.getEndpoints(e).getFirst();
-            ev[i] = graph.getEndpoints(e).getSecond();
-            Point2D pa = positions.get(eu[i]), pb = positions.get(ev[i]);
-            if (pa == null || pb == null) { valid[i] = false; continue; }
-            valid[i] = true;
-            x1[i] = pa.getX(); y1[i] = pa.getY();
-            x2[i] = pb.getX(); y2[i] = pb.getY();
-            bbMinX[i] = Math.min(x1[i], x2[i]);
-            bbMaxX[i] = Math.max(x1[i], x2[i]);
-            bbMinY[i] = Math.min(y1[i], y2[i]);
-            bbMaxY[i] = Math.max(y1[i], y2[i]);
-        }
-
-        for (int i = 0; i < m; i++) {
-            if (!valid[i]) continue;
-            for (int j = i + 1; j < m; j++) {
-                if (!valid[j]) continue;
+        int[] eu = new int[m], ev = new int[m];
+        int count = 0;
 
-                // AABB overlap test: skip pairs whose bounding boxes
-                // don't overlap (no intersection possible)
-                if (bbMaxX[i] < bbMinX[j] || bbMaxX[j] < bbMinX[i] ||
-                    bbMaxY[i] < bbMinY[j] || bbMaxY[j] < bbMinY[i]) {
-                    continue;
-                }
-
-                // Skip edges sharing a vertex
-                if (eu[i].equals(eu[j]) || eu[i].equals(ev[j]) ||
-                    ev[i].equals(eu[j]) || ev[i].equals(ev[j])) {
-                    continue;
-                }
-
-                if (Line2D.linesIntersect(
-                        x1[i], y1[i], x2[i], y2[i],
-                        x1[j], y1[j], x2[j], y2[j])) {
-                    edgeCrossings++;
-                }
-            }
+        for (Edge e : graph.getEdges()) {
+            Integer a = posIdx.get(graph.getEndpoints(e).getFirst());
+            Integer b = posIdx.get(graph.getEndpoints(e).getSecond());
+            if (a == null || b == null) continue;
+            x1[count] = posX[a]; y1[count] = posY[a];
+            x2[count] = posX[b]; y2[count] = posY[b];
+            eu[count] = a;
+            ev[count] = b;
+            count++;
         }
+
+        long crossings = new EdgeCrossingCounter(parallelism)
+                .count(x1, y1, x2, y2, eu, ev, count, EdgeCrossingCounter.LINE2D);
+        edgeCrossings = (int) Math.min(Integer.MAX_VALUE, crossings);
     }
 
     // ── Edge lengths ────────────────────────────────────────────────
@@ -12,8 +12,8 @@ import java.util.*;
  *       frequency distribution.  Higher values indicate more heterogeneous
  *       degree structure (scale-free); lower values suggest regularity.</li>
  *   <li><b>Von Neumann entropy</b> — quantum-inspired entropy computed from
- *       the normalised Laplacian eigenvalues.  Quantifies structural
- *       complexity; a complete graph has maximum entropy.</li>
+ *       the Laplacian eigenvalues scaled to sum to one.  Quantifies
+ *       structural complexity; a complete graph has maximum entropy.</li>
  *   <li><b>Neighbourhood entropy</b> — per-vertex Shannon entropy over the
  *       set of neighbour degree values.  Captures local structural
  *       diversity around each node.</li>
@@ -45,20 +45,35 @@ import java.util.*;
  * implements multiple complementary measures to give a holistic view of
  * a graph's information-theoretic properties.</p>
  *
+ * <h3>Large graphs</h3>
+ * <p>The von Neumann entropy needs every Laplacian eigenvalue, which costs
+ * O(n³) with a dense solve. Above {@link #withDenseLimit(int) denseLimit}
+ * vertices (default {@value #DEFAULT_DENSE_LIMIT}) it is instead estimated
+ * in near-linear time by stochastic Lanczos quadrature on the sparse
+ * Laplacian: with {@code T = tr L = Σ deg}, the entropy is
+ * {@code log2 T − tr(L log2 L) / T}, and the trace is estimated by
+ * {@link StochasticTraceEstimator}. {@link #getVonNeumannEntropyEstimate()}
+ * reports the confidence interval.</p>
+ *
  * @author sauravbhattacharya001
  */
 public class GraphEntropyAnalyzer {
 
     private static final double LOG2 = Math.log(2.0);
     private static final double EPSILON = 1e-12;
-    private static final int JACOBI_MAX_SWEEPS = 100;
+
+    /** Largest graph whose von Neumann entropy is computed exactly. */
+    public static final int DEFAULT_DENSE_LIMIT = 1000;
 
     private final Graph<String, Edge> graph;
     private boolean computed;
+    private int denseLimit = DEFAULT_DENSE_LIMIT;
+    private StochasticTraceEstimator traceEstimator = new StochasticTraceEstimator();
 
     // ── Results ─────────────────────────────────────────────────────
     private double degreeEntropy;
     private double vonNeumannEntropy;
+    private StochasticTraceEstimator.Estimate vonNeumannEstimate;
     private double edgeTypeEntropy;
     private double topologicalInfoContent;
     private double randomWalkEntropyRate;
@@ -74,6 +89,35 @@ public class GraphEntropyAnalyzer {
         this.neighbourhoodEntropy = new LinkedHashMap<>();
     }
 
+    /**
+     * Sets the largest vertex count whose von Neumann entropy is computed
+     * from the full spectrum; larger graphs use the stochastic estimate.
+     *
+     * @param limit vertex count (must be non-negative)
+     * @return this analyzer for chaining
+     */
+    public GraphEntropyAnalyzer withDenseLimit(int limit) {
+        if (limit < 0) {
+            throw new IllegalArgumentException("Dense limit must be non-negative");
+        }
+        this.denseLimit = limit;
+        return this;
+    }
+
+    /**
+     * Sets the estimator used for the von Neumann entropy of large graphs.
+     *
+     * @param estimator the estimator
+     * @return this analyzer for chaining
+     */
+    public GraphEntropyAnalyzer withTraceEstimator(StochasticTraceEstimator estimator) {
+        if (estimator == null) {
+            throw new IllegalArgumentException("Trace estimator must not be null");
+        }
+        this.traceEstimator = estimator;
+        return this;
+    }
+
     // ── Public API ──────────────────────────────────────────────────
 
     /** Compute all entropy measures. */
@@ -85,6 +129,7 @@ public class GraphEntropyAnalyzer {
         if (n == 0) {
             degreeEntropy = 0;
             vonNeumannEntropy = 0;
+            vonNeumannEstimate = StochasticTraceEstimator.Estimate.exact(0);
             edgeTypeEntropy = 0;
             topologicalInfoContent = 0;
             randomWalkEntropyRate = 0;
@@ -108,6 +153,8 @@ public class GraphEntropyAnalyzer {
 
     public double getDegreeEntropy() { ensureComputed(); return degreeEntropy; }
     public double getVonNeumannEntropy() { ensureComputed(); return vonNeumannEntropy; }
+    /** Von Neumann entropy with its confidence interval (exact up to the dense limit). */
+    public StochasticTraceEstimator.Estimate getVonNeumannEntropyEstimate() { ensureComputed(); return vonNeumannEstimate; }
     public double getEdgeTypeEntropy() { ensureComputed(); return edgeTypeEntropy; }
     public double getTopologicalInfoContent() { ensureComputed(); return topologicalInfoContent; }
     public double getRandomWalkEntropyRate() { ensureComputed(); return randomWalkEntropyRate; }
@@ -188,21 +235,30 @@ public class GraphEntropyAnalyzer {
     }
 
     /**
-     * Von Neumann entropy from the normalised Laplacian.
+     * Von Neumann entropy from the Laplacian spectrum.
      * S = -Σ (λ_i/Σλ) log2(λ_i/Σλ) for non-zero eigenvalues.
      */
     private void computeVonNeumannEntropy() {
         int n = graph.getVertexCount();
-        if (n <= 1) { vonNeumannEntropy = 0; return; }
+        if (n > denseLimit) {
+            estimateVonNeumannEntropy();
+            return;
+        }
+        vonNeumannEntropy = exactVonNeumannEntropy(n);
+        vonNeumannEstimate = StochasticTraceEstimator.Estimate.exact(vonNeumannEntropy);
+    }
 
-        double[][] L = buildLaplacian();
-        double[] eigenvalues = computeEigenvalues(L);
+    private double exactVonNeumannEntropy(int n) {
+        if (n <= 1) return 0;
+
+        double[][] L = LaplacianBuilder.buildLaplacian(graph, sortedVertices());
+        double[] eigenvalues = DenseEigensolver.eigenvalues(L);
 
         double sumEig = 0;
         for (double ev : eigenvalues) {
             if (ev > EPSILON) sumEig += ev;
         }
-        if (sumEig < EPSILON) { vonNeumannEntropy = 0; return; }
+        if (sumEig < EPSILON) return 0;
 
         double h = 0;
         for (double ev : eigenvalues) {
@@ -211,7 +267,32 @@ public class GraphEntropyAnalyzer {
                 h -= p * log2(p);
             }
         }
-        vonNeumannEntropy = h;
+        return h;
+    }
+
+    /**
+     * S = log2 T − tr(L log2 L) / T with T = tr L, the trace estimated by
+     * stochastic Lanczos quadrature on the sparse Laplacian.
+     */
+    private void estimateVonNeumannEntropy() {
+        // T = Σ deg, counting each distinct non-loop neighbour as L does
+        double total = 0;
+        for (String v : graph.getVertices()) {
+            for (String w : graph.getNeighbors(v)) {
+                if (!w.equals(v)) total++;
+            }
+        }
+        if (total < EPSILON) {
+            vonNeumannEntropy = 0;
+            vonNeumannEstimate = StochasticTraceEstimator.Estimate.exact(0);
+            return;
+        }
+
+        LinearOperator laplacian = LaplacianBuilder.laplacianOperator(graph, sortedVertices());
+        StochasticTraceEstimator.Estimate lLogL = traceEstimator.trace(laplacian,
+                ev -> ev > EPSILON ? ev * log2(ev) : 0);
+        vonNeumannEstimate = lLogL.affine(-1 / total, log2(total));
+        vonNeumannEntropy = vonNeumannEstimate.getValue();
     }
 
     /**
@@ -469,96 +550,12 @@ public class GraphEntropyAnalyzer {
         return (2.0 * triangles) / (d * (d - 1));
     }
 
-    // ── Laplacian + Eigenvalues (Jacobi) ────────────────────────────
+    // ── Laplacian ───────────────────────────────────────────────────
 
-    private double[][] buildLaplacian() {
+    private List<String> sortedVertices() {
         List<String> vList = new ArrayList<>(graph.getVertices());
         Collections.sort(vList);
-        int n = vList.size();
-        Map<String, Integer> idx = new HashMap<>();
-        for (int i = 0; i < n; i++) idx.put(vList.get(i), i);
-
-        double[][] L = new double[n][n];
-        for (Edge e : graph.getEdges()) {
-            String v1 = graph.getEndpoints(e).getFirst();
-            String v2 = graph.getEndpoints(e).getSecond();
-            int i = idx.get(v1);
-            int j = idx.get(v2);
-            if (i != j) {
-                L[i][j] -= 1;
-                L[j][i] -= 1;
-                L[i][i] += 1;
-                L[j][j] += 1;
-            }
-        }
-        return L;
-    }
-
-    /**
-     * Jacobi eigenvalue algorithm for symmetric matrices.
-     * Returns eigenvalues sorted ascending.
-     */
-    private double[] computeEigenvalues(double[][] matrix) {
-        int n = matrix.length;
-        if (n == 0) return new double[0];
-
-        double[][] A = new double[n][n];
-        for (int i = 0; i < n; i++) {
-            System.arraycopy(matrix[i], 0, A[i], 0, n);
-        }
-
-        for (int sweep = 0; sweep < JACOBI_MAX_SWEEPS; sweep++) {
-            double offDiag = 0;
-            for (int i = 0; i < n; i++) {
-                for (int j = i + 1; j < n; j++) {
-                    offDiag += A[i][j] * A[i][j];
-                }
-            }
-            if (offDiag < EPSILON) break;
-
-            for (int p = 0; p < n; p++) {
-                for (int q = p + 1; q < n; q++) {
-                    if (Math.abs(A[p][q]) < EPSILON / (n * n)) continue;
-
-                    double tau = (A[q][q] - A[p][p]) / (2 * A[p][q]);
-                    double t;
-                    if (Math.abs(tau) > 1e15) {
-                        t = 1.0 / (2.0 * tau);
-                    } else if (Math.abs(tau) < EPSILON) {
-                        // tau ≈ 0 means diagonal elements are equal; use 45° rotation
-                        t = 1.0;
-                    } else {
-                        t = Math.signum(tau) / (Math.abs(tau) + Math.sqrt(1 + tau * tau));
-                    }
-                    double c = 1.0 / Math.sqrt(1 + t * t);
-                    double s = t * c;
-
-                    double app = A[p][p] - t * A[p][q];
-                    double aqq = A[q][q] + t * A[p][q];
-                    A[p][q] = 0;
-                    A[q][p] = 0;
-                    A[p][p] = app;
-                    A[q][q] = aqq;
-
-                    for (int r = 0; r < n; r++) {
-                        if (r == p || r == q) continue;
-                        double arp = A[r][p];
-                        double arq = A[r][q];
-                        A[r][p] = c * arp - s * arq;
-                        A[p][r] = A[r][p];
-                        A[r][q] = s * arp + c * arq;
-                        A[q][r] = A[r][q];
-                    }
-                }
-            }
-        }
-
-        double[] eigenvalues = new double[n];
-        for (int i = 0; i < n; i++) {
-            eigenvalues[i] = A[i][i];
-        }
-        Arrays.sort(eigenvalues);
-        return eigenvalues;
+        return vList;
     }
 
     // ── Report ──────────────────────────────────────────────────────
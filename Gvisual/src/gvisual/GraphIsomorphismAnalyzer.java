@@ -15,12 +15,16 @@ import java.util.*;
  * <p>Uses a multi-stage approach:</p>
  * <ol>
  *   <li><b>Fast rejection:</b> vertex count, Edge count, degree sequence</li>
- *   <li><b>Degree-based partitioning:</b> vertices grouped by degree</li>
- *   <li><b>Backtracking search:</b> VF2-style matching with feasibility pruning</li>
+ *   <li><b>Colour refinement:</b> joint Weisfeiler–Lehman refinement
+ *       ({@link ColorRefinement}); differing colour histograms reject the
+ *       pair, otherwise vertices are grouped by stable colour</li>
+ *   <li><b>Backtracking search:</b> VF2-style matching with feasibility pruning,
+ *       trying only same-colour candidates</li>
  * </ol>
  *
- * <p>Time complexity: O(V!) worst case, but fast-rejection filters and
- * degree-based pruning make it practical for most real-world graphs.</p>
+ * <p>Time complexity: O(V!) worst case (regular graphs that refinement
+ * cannot split), but fast rejection and colour-class pruning make it
+ * practical for most real-world graphs.</p>
  *
  * @author sauravbhattacharya001
  */
@@ -153,12 +157,34 @@ public class GraphIsomorphismAnalyzer {
         Map<String, Set<String>> adj1 = GraphUtils.buildAdjacencyMap(graph1);
         Map<String, Set<String>> adj2 = GraphUtils.buildAdjacencyMap(graph2);
 
-        // Group vertices by degree for pruning
-        Map<Integer, List<String>> byDegree1 = groupByDegree(graph1, vertices1);
-        Map<Integer, List<String>> byDegree2 = groupByDegree(graph2, vertices2);
+        // Colour refinement: different histograms prove non-isomorphism;
+        // otherwise stable colour classes become the candidate groups
+        GraphUtils.IndexedGraph ig1 = new GraphUtils.IndexedGraph(graph1);
+        GraphUtils.IndexedGraph ig2 = new GraphUtils.IndexedGraph(graph2);
+        long[][] colors = ColorRefinement.jointStableColors(ig1.adjLists, ig2.adjLists);
+        if (colors == null) {
+            return new IsomorphismResult(false, null,
+                    "Different colour-refinement signatures (structural mismatch)",
+                    degSeq1, degSeq2);
+        }
+        final Map<String, Long> color1 = new HashMap<String, Long>(ig1.n * 2);
+        for (int i = 0; i < ig1.n; i++) color1.put(ig1.vertexList.get(i), colors[0][i]);
+        final Map<Long, List<String>> byColor2 = new HashMap<Long, List<String>>();
+        for (int i = 0; i < ig2.n; i++) {
+            List<String> group = byColor2.get(colors[1][i]);
+            if (group == null) {
+                group = new ArrayList<String>();
+                byColor2.put(colors[1][i], group);
+            }
+            group.add(ig2.vertexList.get(i));
+        }
 
-        // Order vertices1 by degree (ascending) for better pruning
+        // Smallest colour classes first (singletons are forced), then by
+        // degree for better pruning
         Collections.sort(vertices1, (String a, String b) -> {
+                int cmp = Integer.compare(byColor2.get(color1.get(a)).size(),
+                        byColor2.get(color1.get(b)).size());
+                if (cmp != 0) return cmp;
                 return Integer.compare(graph1.degree(a), graph1.degree(b));
             });
 
@@ -167,7 +193,8 @@ public class GraphIsomorphismAnalyzer {
         Map<String, String> reverseMapping = new HashMap<String, String>();
         Set<String> used2 = new HashSet<String>();
 
-        if (backtrack(vertices1, 0, mapping, reverseMapping, used2, adj1, adj2, byDegree2)) {
+        if (backtrack(vertices1, 0, mapping, reverseMapping, used2, adj1, adj2,
+                color1, byColor2)) {
             return new IsomorphismResult(true, mapping, null,
                     degSeq1, degSeq2);
         }
@@ -204,34 +231,12 @@ public class GraphIsomorphismAnalyzer {
     }
 
     /**
-     * Build adjacency map: vertex → set of neighbors.
-     */
-    /**
-     * Group vertices by their degree.
-     */
-    private Map<Integer, List<String>> groupByDegree(Graph<String, Edge> g,
-                                                      List<String> vertices) {
-        Map<Integer, List<String>> groups =
-                new HashMap<Integer, List<String>>();
-        for (String v : vertices) {
-            int deg = g.degree(v);
-            List<String> list = groups.get(deg);
-            if (list == null) {
-                list = new ArrayList<String>();
-                groups.put(deg, list);
-            }
-            list.add(v);
-        }
-        return groups;
-    }
-
-    /**
-     * Backtracking search with degree-based candidate filtering and
+     * Backtracking search with colour-class candidate filtering and
      * incremental reverse-mapping maintenance.
      *
      * For each vertex in graph1 (in order), try mapping it to each
-     * candidate vertex in graph2 that has the same degree and hasn't
-     * been used yet. Check feasibility (all already-mapped neighbors
+     * candidate vertex in graph2 that has the same stable colour and
+     * hasn't been used yet. Check feasibility (all already-mapped neighbors
      * must correspond) before recursing.
      *
      * <p>The reverse mapping (graph2 → graph1) is maintained incrementally
@@ -245,14 +250,14 @@ public class GraphIsomorphismAnalyzer {
                               Set<String> used2,
                               Map<String, Set<String>> adj1,
                               Map<String, Set<String>> adj2,
-                              Map<Integer, List<String>> byDegree2) {
+                              Map<String, Long> color1,
+                              Map<Long, List<String>> byColor2) {
         if (idx == vertices1.size()) {
             return true; // all vertices mapped successfully
         }
 
         String v1 = vertices1.get(idx);
-        int deg = graph1.degree(v1);
-        List<String> candidates = byDegree2.get(deg);
+        List<String> candidates = byColor2.get(color1.get(v1));
         if (candidates == null) return false;
 
         for (String v2 : candidates) {
@@ -267,7 +272,7 @@ public class GraphIsomorphismAnalyzer {
                 used2.add(v2);
 
                 if (backtrack(vertices1, idx + 1, mapping, reverseMapping,
-                        used2, adj1, adj2, byDegree2)) {
+                        used2, adj1, adj2, color1, byColor2)) {
                     return true;
                 }
 
@@ -18,15 +18,17 @@ import java.util.*;
  *   <li><b>Quick rejection</b> — fast-fails on vertex count, edge count,
  *       and degree sequence mismatches before attempting the expensive
  *       backtracking search.</li>
- *   <li><b>Neighbour-degree signature pruning</b> — during backtracking,
- *       candidate vertices must have matching sorted neighbour-degree
- *       profiles, dramatically reducing the search space.</li>
+ *   <li><b>Colour refinement</b> — a joint Weisfeiler–Lehman pass
+ *       ({@link ColorRefinement}) rejects pairs whose colour histograms
+ *       differ, and otherwise restricts each vertex's candidates to its
+ *       stable colour class. On most irregular graphs every class is a
+ *       singleton and the mapping is found without any backtracking.</li>
  *   <li><b>Text report</b> — formatted summary with result and mapping.</li>
  * </ul>
  *
- * <p>Designed for small-to-medium graphs (hundreds of vertices). The worst
- * case is exponential, but degree-based pruning makes it practical for
- * real-world networks.</p>
+ * <p>The worst case is exponential (highly regular graphs where refinement
+ * cannot split any class), but colour-class pruning makes it practical for
+ * real-world networks with many thousands of vertices.</p>
  *
  * @author sauravbhattacharya001
  */
@@ -45,6 +47,8 @@ public class GraphIsomorphismChecker {
     private Map<String, Integer> idxA, idxB;
     private int[][] adjA, adjB;
     private int[] degA, degB;
+    /** Stable colour-refinement colours, comparable across A and B. */
+    private long[] colorA, colorB;
     /** Reverse mapping: mapBtoA[bIdx] = aIdx, or -1 if unmapped.
      *  Eliminates O(V) linear scan in findMappedA(). */
     private int[] mapBtoA;
@@ -127,37 +131,28 @@ public class GraphIsomorphismChecker {
             return;
         }
 
-        // Partition vertices by degree for candidate generation
-        // Sort A vertices by degree (ascending) to try constrained vertices first
-        Integer[] orderA = new Integer[nA];
-        for (int i = 0; i < nA; i++) orderA[i] = i;
-        Arrays.sort(orderA, new Comparator<Integer>() {
-            public int compare(Integer a, Integer b) {
-                return Integer.compare(degA[a], degA[b]);
-            }
-        });
+        // Colour refinement: reject on histogram mismatch, otherwise use
+        // the stable colour classes as candidate groups
+        long[][] colors = ColorRefinement.jointStableColors(adjA, adjB);
+        if (colors == null) {
+            isomorphic = false;
+            rejectionReason = "Colour refinement mismatch";
+            computed = true;
+            return;
+        }
+        colorA = colors[0];
+        colorB = colors[1];
 
-        // Group B vertices by degree
-        Map<Integer, List<Integer>> degGroupB = new HashMap<Integer, List<Integer>>();
+        Map<Long, List<Integer>> colorGroupB = new HashMap<Long, List<Integer>>();
         for (int i = 0; i < nB; i++) {
-            int d = degB[i];
-            List<Integer> group = degGroupB.get(d);
+            List<Integer> group = colorGroupB.get(colorB[i]);
             if (group == null) {
                 group = new ArrayList<Integer>();
-                degGroupB.put(d, group);
+                colorGroupB.put(colorB[i], group);
             }
             group.add(i);
         }
-
-        // Compute neighbour-degree signatures for pruning
-        int[][] sigA = new int[nA][];
-        int[][] sigB = new int[nB][];
-        for (int i = 0; i < nA; i++) {
-            sigA[i] = neighbourSignature(adjA, degA, i);
-        }
-        for (int i = 0; i < nB; i++) {
-            sigB[i] = neighbourSignature(adjB, degB, i);
-        }
+        int[] orderA = searchOrder(colorGroupB);
 
         // Sort adjacency lists for O(log V) binary-search adjacency checks
         for (int i = 0; i < nA; i++) Arrays.sort(adjA[i]);
@@ -170,8 +165,7 @@ public class GraphIsomorphismChecker {
         mapBtoA = new int[nB];
         Arrays.fill(mapBtoA, -1);
 
-        isomorphic = backtrack(0, orderA, mapAtoB, usedB,
-                               degGroupB, sigA, sigB);
+        isomorphic = backtrack(0, orderA, mapAtoB, usedB, colorGroupB);
 
         if (isomorphic) {
             rejectionReason = null;
@@ -232,23 +226,18 @@ public class GraphIsomorphismChecker {
 
     // --- Private helpers ---
 
-    private boolean backtrack(int depth, Integer[] orderA, int[] mapAtoB,
+    private boolean backtrack(int depth, int[] orderA, int[] mapAtoB,
                               boolean[] usedB,
-                              Map<Integer, List<Integer>> degGroupB,
-                              int[][] sigA, int[][] sigB) {
+                              Map<Long, List<Integer>> colorGroupB) {
         if (depth == nA) return true;
 
         int aIdx = orderA[depth];
-        int aDeg = degA[aIdx];
-        List<Integer> candidates = degGroupB.get(aDeg);
+        List<Integer> candidates = colorGroupB.get(colorA[aIdx]);
         if (candidates == null) return false;
 
         for (int bIdx : candidates) {
             if (usedB[bIdx]) continue;
 
-            // Neighbour-degree signature check
-            if (!Arrays.equals(sigA[aIdx], sigB[bIdx])) continue;
-
             // Check adjacency consistency with already-mapped vertices
             if (!isConsistent(aIdx, bIdx, mapAtoB)) continue;
 
@@ -256,8 +245,7 @@ public class GraphIsomorphismChecker {
             usedB[bIdx] = true;
             mapBtoA[bIdx] = aIdx;
 
-            if (backtrack(depth + 1, orderA, mapAtoB, usedB,
-                          degGroupB, sigA, sigB)) {
+            if (backtrack(depth + 1, orderA, mapAtoB, usedB, colorGroupB)) {
                 return true;
             }
 
@@ -269,6 +257,51 @@ public class GraphIsomorphismChecker {
         return false;
     }
 
+    /**
+     * Orders A's vertices for the search: start each component at a vertex
+     * from the smallest colour class, then expand breadth-first, visiting
+     * each frontier in ascending class-size order. Mapped neighbours then
+     * constrain every later choice, and singleton classes are fixed first.
+     */
+    private int[] searchOrder(final Map<Long, List<Integer>> colorGroupB) {
+        Integer[] bySize = new Integer[nA];
+        for (int i = 0; i < nA; i++) bySize[i] = i;
+        final Comparator<Integer> classSize = new Comparator<Integer>() {
+            public int compare(Integer a, Integer b) {
+                return Integer.compare(classSize(colorGroupB, a), classSize(colorGroupB, b));
+            }
+        };
+        Arrays.sort(bySize, classSize);
+
+        int[] order = new int[nA];
+        boolean[] seen = new boolean[nA];
+        int head = 0;
+        int tail = 0;
+        for (int start : bySize) {
+            if (seen[start]) continue;
+            seen[start] = true;
+            order[tail++] = start;
+            while (head < tail) {
+                int v = order[head++];
+                List<Integer> frontier = new ArrayList<Integer>();
+                for (int u : adjA[v]) {
+                    if (!seen[u]) {
+                        seen[u] = true;
+                        frontier.add(u);
+                    }
+                }
+                Collections.sort(frontier, classSize);
+                for (int u : frontier) order[tail++] = u;
+            }
+        }
+        return order;
+    }
+
+    private int classSize(Map<Long, List<Integer>> colorGroupB, int aIdx) {
+        List<Integer> group = colorGroupB.get(colorA[aIdx]);
+        return group == null ? 0 : group.size();
+    }
+
     private boolean isConsistent(int aIdx, int bIdx, int[] mapAtoB) {
         // For each neighbour of aIdx already mapped, verify the mapped
         // vertex is a neighbour of bIdx
@@ -299,15 +332,6 @@ public class GraphIsomorphismChecker {
         return Arrays.binarySearch(adj[u], v) >= 0;
     }
 
-    private int[] neighbourSignature(int[][] adj, int[] deg, int v) {
-        int[] sig = new int[adj[v].length];
-        for (int i = 0; i < sig.length; i++) {
-            sig[i] = deg[adj[v][i]];
-        }
-        Arrays.sort(sig);
-        return sig;
-    }
-
     private Map<String, Integer> buildIndexMap(List<String> vertices) {
         Map<String, Integer> map = new HashMap<String, Integer>(vertices.size() * 2);
         for (int i = 0; i < vertices.size(); i++) {
@@ -5,6 +5,11 @@ import edu.uci.ics.jung.graph.Graph;
 import java.io.*;
 import java.nio.charset.StandardCharsets;
 import java.util.*;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 /**
  * Exports a JUNG graph as a self-contained HTML page showing the same graph
@@ -14,6 +19,17 @@ import java.util.*;
  * <p>Users can visually compare how different layouts reveal different
  * structural properties of the same network — clusters, hubs, symmetry, etc.</p>
  *
+ * <h3>Layout computation</h3>
+ * <p>All four layouts are computed in Java before the page is written and
+ * embedded as normalised coordinates, so the browser only draws. The graph
+ * is indexed once into a shared {@link Snapshot} (edge arrays, degrees,
+ * degree ordering), and the layouts run concurrently on a bounded executor
+ * of {@link #setParallelism(int)} threads. The force-directed layout
+ * (multilevel {@link ForceDirectedLayout}) stops at
+ * {@link #setTimeBudget(long) the time budget} and keeps its best-so-far
+ * positions, so export takes about as long as the slowest layout rather
+ * than the sum of all four.</p>
+ *
  * <p>Features:</p>
  * <ul>
  *   <li>2×2 layout comparison grid (force, circular, grid, radial)</li>
@@ -36,8 +52,17 @@ import java.util.*;
  */
 public class GraphLayoutComparer {
 
+    /** Default wall-clock budget for each layout, in milliseconds. */
+    public static final long DEFAULT_TIME_BUDGET_MILLIS = 3000;
+
+    /** Panel ids, in display order. */
+    static final String[] LAYOUTS = {"force", "circular", "grid", "radial"};
+
     private final Graph<String, Edge> graph;
     private String title = "Graph Layout Comparison";
+    private long timeBudgetMillis = DEFAULT_TIME_BUDGET_MILLIS;
+    private int parallelism = Math.min(LAYOUTS.length,
+            Runtime.getRuntime().availableProcessors());
 
     public GraphLayoutComparer(Graph<String, Edge> graph) {
         this.graph = Objects.requireNonNull(graph, "graph must not be null");
@@ -47,6 +72,34 @@ public class GraphLayoutComparer {
         this.title = title;
     }
 
+    /**
+     * Sets the wall-clock budget for each layout. A layout that runs out of
+     * time is drawn from the positions it had reached.
+     *
+     * @param millis budget in milliseconds
+     * @throws IllegalArgumentException if millis &lt;= 0
+     */
+    public void setTimeBudget(long millis) {
+        if (millis <= 0) {
+            throw new IllegalArgumentException("time budget must be positive, got: " + millis);
+        }
+        this.timeBudgetMillis = millis;
+    }
+
+    /**
+     * Sets the number of threads that compute layouts; the force-directed
+     * layout also uses this many threads internally.
+     *
+     * @param threads worker threads (1 = one layout after another)
+     * @throws IllegalArgumentException if threads &lt; 1
+     */
+    public void setParallelism(int threads) {
+        if (threads < 1) {
+            throw new IllegalArgumentException("parallelism must be >= 1, got: " + threads);
+        }
+        this.parallelism = threads;
+    }
+
     /**
      * Exports the comparison page to the given file.
      */
@@ -63,42 +116,43 @@ public class GraphLayoutComparer {
      */
     public String exportToString() {
         StringBuilder sb = new StringBuilder(16384);
-        Collection<String> vertices = graph.getVertices();
-        Collection<Edge> edges = graph.getEdges();
+        Snapshot snapshot = Snapshot.build(graph);
+        Map<String, double[]> layouts = computeLayouts(snapshot);
 
         // Build JSON data
         StringBuilder nodeJson = new StringBuilder("[");
-        Map<String, Integer> idMap = new HashMap<>();
-        int idx = 0;
-        for (String v : vertices) {
-            if (idx > 0) nodeJson.append(",");
-            int deg = graph.degree(v);
-            idMap.put(v, idx);
-            nodeJson.append("{\"id\":\"").append(escJs(v))
-                    .append("\",\"deg\":").append(deg).append("}");
-            idx++;
+        for (int i = 0; i < snapshot.n; i++) {
+            if (i > 0) nodeJson.append(",");
+            nodeJson.append("{\"id\":\"").append(escJs(snapshot.ids[i]))
+                    .append("\",\"deg\":").append(snapshot.degree[i])
+                    .append(",\"t\":\"").append(escJs(snapshot.nodeType(i))).append("\"}");
         }
         nodeJson.append("]");
 
         StringBuilder linkJson = new StringBuilder("[");
-        boolean first = true;
-        for (Edge e : edges) {
-            String v1 = e.getVertex1() != null ? e.getVertex1() :
-                    graph.getEndpoints(e).getFirst().toString();
-            String v2 = e.getVertex2() != null ? e.getVertex2() :
-                    graph.getEndpoints(e).getSecond().toString();
-            if (!idMap.containsKey(v1) || !idMap.containsKey(v2)) continue;
-            if (!first) linkJson.append(",");
-            first = false;
-            String type = e.getType() != null ? e.getType() : "unknown";
-            linkJson.append("{\"source\":").append(idMap.get(v1))
-                    .append(",\"target\":").append(idMap.get(v2))
-                    .append(",\"type\":\"").append(escJs(type)).append("\"}");
+        for (int e = 0; e < snapshot.m; e++) {
+            if (e > 0) linkJson.append(",");
+            linkJson.append("{\"source\":").append(snapshot.src[e])
+                    .append(",\"target\":").append(snapshot.dst[e])
+                    .append(",\"type\":\"").append(escJs(snapshot.types[e])).append("\"}");
         }
         linkJson.append("]");
 
-        int nodeCount = vertices.size();
-        int edgeCount = edges.size();
+        StringBuilder layoutJson = new StringBuilder("{");
+        for (String id : LAYOUTS) {
+            if (layoutJson.length() > 1) layoutJson.append(",");
+            layoutJson.append("\"").append(id).append("\":[");
+            double[] xy = layouts.get(id);
+            for (int i = 0; i < xy.length; i++) {
+                if (i > 0) layoutJson.append(",");
+                layoutJson.append(Math.round(xy[i] * 10000) / 10000.0);
+            }
+            layoutJson.append("]");
+        }
+        layoutJson.append("}");
+
+        int nodeCount = graph.getVertexCount();
+        int edgeCount = graph.getEdgeCount();
 
         sb.append("<!DOCTYPE html><html lang=\"en\"><head><meta charset=\"UTF-8\">");
         sb.append("<title>").append(escHtml(title)).append("</title>");
@@ -119,6 +173,7 @@ public class GraphLayoutComparer {
         sb.append("<script>");
         sb.append("const rawNodes=").append(nodeJson).append(";");
         sb.append("const rawLinks=").append(linkJson).append(";");
+        sb.append("const layouts=").append(layoutJson).append(";");
         sb.append(getJS());
         sb.append("</script></body></html>");
         return sb.toString();
@@ -156,14 +211,15 @@ public class GraphLayoutComparer {
                 + "const W=()=>document.querySelector('.cell svg').clientWidth||400;"
                 + "const H=()=>document.querySelector('.cell svg').clientHeight||350;"
                 + "function cloneData(){return{nodes:rawNodes.map(d=>({...d})),links:rawLinks.map(d=>({...d}))}}"
-                + "function render(id,layoutFn){"
+                + "function render(id){"
                 + "  const{nodes,links}=cloneData();"
                 + "  const svg=d3.select('#svg-'+id);"
                 + "  const w=W(),h=H();"
                 + "  svg.attr('viewBox','0 0 '+w+' '+h);"
                 + "  const g=svg.append('g');"
                 + "  svg.call(d3.zoom().scaleExtent([.3,5]).on('zoom',e=>g.attr('transform',e.transform)));"
-                + "  layoutFn(nodes,links,w,h);"
+                + "  const xy=layouts[id],pad=20,s=Math.max(1,Math.min(w,h)-2*pad),ox=(w-s)/2,oy=(h-s)/2;"
+                + "  nodes.forEach((d,i)=>{d.x=ox+xy[2*i]*s;d.y=oy+xy[2*i+1]*s;});"
                 + "  const maxDeg=d3.max(nodes,d=>d.deg)||1;"
                 + "  const linkSel=g.selectAll('line.link').data(links).join('line').attr('class','link')"
                 + "    .attr('x1',d=>nodes[d.source]?nodes[d.source].x:d.source.x).attr('y1',d=>nodes[d.source]?nodes[d.source].y:d.source.y)"
@@ -172,7 +228,7 @@ public class GraphLayoutComparer {
                 + "  const nodeSel=g.selectAll('circle.node').data(nodes).join('circle').attr('class','node')"
                 + "    .attr('cx',d=>d.x).attr('cy',d=>d.y)"
                 + "    .attr('r',d=>3+Math.sqrt(d.deg/maxDeg)*8)"
-                + "    .attr('fill',d=>{const nb=links.filter(l=>(l.source===d||l.source===d.index||nodes[l.source]===d)&&l.type);const t=nb.length?nb[0].type:'unknown';return typeColors[t]||typeColors.unknown;})"
+                + "    .attr('fill',d=>typeColors[d.t]||typeColors.unknown)"
                 + "    .on('mouseenter',(_,d)=>highlightAll(d.id))"
                 + "    .on('mouseleave',()=>clearHighlight());"
                 + "  nodeSel.append('title').text(d=>d.id+' (deg '+d.deg+')');"
@@ -193,42 +249,201 @@ public class GraphLayoutComparer {
                 + "  });"
                 + "}"
                 + "function clearHighlight(){panels.forEach(p=>{if(!svgs[p])return;svgs[p].svg.classed('highlight',false);svgs[p].nodeSel.classed('active',false);svgs[p].linkSel.classed('active',false);});}"
-                // Force layout
-                + "function layoutForce(nodes,links,w,h){"
-                + "  const sim=d3.forceSimulation(nodes)"
-                + "    .force('link',d3.forceLink(links).distance(40))"
-                + "    .force('charge',d3.forceManyBody().strength(-60))"
-                + "    .force('center',d3.forceCenter(w/2,h/2))"
-                + "    .stop();"
-                + "  for(let i=0;i<200;i++)sim.tick();"
-                + "}"
-                // Circular layout
-                + "function layoutCircular(nodes,links,w,h){"
-                + "  const cx=w/2,cy=h/2,r=Math.min(w,h)*0.4;"
-                + "  nodes.forEach((d,i)=>{const a=2*Math.PI*i/nodes.length;d.x=cx+r*Math.cos(a);d.y=cy+r*Math.sin(a);});"
-                + "}"
-                // Grid layout
-                + "function layoutGrid(nodes,links,w,h){"
-                + "  const cols=Math.ceil(Math.sqrt(nodes.length));"
-                + "  const sx=w/(cols+1),sy=h/(Math.ceil(nodes.length/cols)+1);"
-                + "  nodes.forEach((d,i)=>{d.x=sx*(i%cols+1);d.y=sy*(Math.floor(i/cols)+1);});"
-                + "}"
-                // Radial layout (by degree)
-                + "function layoutRadial(nodes,links,w,h){"
-                + "  const cx=w/2,cy=h/2;"
-                + "  const maxDeg=d3.max(nodes,d=>d.deg)||1;"
-                + "  const sorted=[...nodes].sort((a,b)=>b.deg-a.deg);"
-                + "  const shells=new Map();"
-                + "  sorted.forEach(d=>{const shell=Math.floor((1-d.deg/maxDeg)*4);if(!shells.has(shell))shells.set(shell,[]);shells.get(shell).push(d);});"
-                + "  shells.forEach((arr,shell)=>{"
-                + "    const r=(shell+1)*Math.min(w,h)*0.1;"
-                + "    arr.forEach((d,i)=>{const a=2*Math.PI*i/arr.length;d.x=cx+r*Math.cos(a);d.y=cy+r*Math.sin(a);});"
-                + "  });"
-                + "}"
-                + "render('force',layoutForce);"
-                + "render('circular',layoutCircular);"
-                + "render('grid',layoutGrid);"
-                + "render('radial',layoutRadial);";
+                + "panels.forEach(p=>render(p));";
+    }
+
+    // ── Layout computation ──
+
+    /**
+     * Computes every layout concurrently from one snapshot.
+     *
+     * @return panel id → interleaved x, y per vertex, scaled into [0, 1]
+     */
+    Map<String, double[]> computeLayouts(Snapshot snapshot) {
+        List<Callable<double[]>> tasks = new ArrayList<>();
+        tasks.add(() -> forceLayout(snapshot));
+        tasks.add(() -> circularLayout(snapshot));
+        tasks.add(() -> gridLayout(snapshot));
+        tasks.add(() -> radialLayout(snapshot));
+
+        ExecutorService executor = Executors.newFixedThreadPool(
+                Math.min(parallelism, tasks.size()), r -> {
+                    Thread t = new Thread(r, "GraphLayoutComparer-layout");
+                    t.setDaemon(true);
+                    return t;
+                });
+        try {
+            List<Future<double[]>> futures = executor.invokeAll(tasks);
+            Map<String, double[]> layouts = new LinkedHashMap<>();
+            for (int i = 0; i < LAYOUTS.length; i++) {
+                layouts.put(LAYOUTS[i], normalize(futures.get(i).get()));
+            }
+            return layouts;
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Layout failed: " + e.getCause(), e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while computing layouts", e);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private double[] forceLayout(Snapshot snapshot) {
+        ForceDirectedLayout layout = new ForceDirectedLayout(graph, 300, 1000, 1000, 0.1, true, 42L)
+                .withMultilevel(true)
+                .withParallelism(parallelism)
+                .withTimeBudget(timeBudgetMillis)
+                .compute();
+        double[] xy = new double[2 * snapshot.n];
+        for (int i = 0; i < snapshot.n; i++) {
+            double[] p = layout.getPosition(snapshot.ids[i]);
+            if (p != null) {
+                xy[2 * i] = p[0];
+                xy[2 * i + 1] = p[1];
+            }
+        }
+        return xy;
+    }
+
+    static double[] circularLayout(Snapshot snapshot) {
+        int n = snapshot.n;
+        double[] xy = new double[2 * n];
+        for (int i = 0; i < n; i++) {
+            double a = 2 * Math.PI * i / n;
+            xy[2 * i] = 0.5 + 0.4 * Math.cos(a);
+            xy[2 * i + 1] = 0.5 + 0.4 * Math.sin(a);
+        }
+        return xy;
+    }
+
+    static double[] gridLayout(Snapshot snapshot) {
+        int n = snapshot.n;
+        double[] xy = new double[2 * n];
+        int cols = Math.max(1, (int) Math.ceil(Math.sqrt(n)));
+        int rows = (n + cols - 1) / cols;
+        for (int i = 0; i < n; i++) {
+            xy[2 * i] = (i % cols + 1) / (double) (cols + 1);
+            xy[2 * i + 1] = (i / cols + 1) / (double) (rows + 1);
+        }
+        return xy;
+    }
+
+    /** Concentric shells by degree: hubs in the middle, leaves outside. */
+    static double[] radialLayout(Snapshot snapshot) {
+        int n = snapshot.n;
+        double[] xy = new double[2 * n];
+        if (n == 0) return xy;
+        int maxDeg = Math.max(1, snapshot.degree[snapshot.byDegree[0]]);
+        int[] shellSize = new int[5];
+        int[] shellOf = new int[n];
+        for (int v = 0; v < n; v++) {
+            shellOf[v] = (int) Math.floor((1 - (double) snapshot.degree[v] / maxDeg) * 4);
+            shellSize[shellOf[v]]++;
+        }
+        int[] placed = new int[5];
+        for (int v : snapshot.byDegree) {
+            int shell = shellOf[v];
+            double r = (shell + 1) * 0.1;
+            double a = 2 * Math.PI * placed[shell]++ / shellSize[shell];
+            xy[2 * v] = 0.5 + r * Math.cos(a);
+            xy[2 * v + 1] = 0.5 + r * Math.sin(a);
+        }
+        return xy;
+    }
+
+    /** Uniformly scales interleaved coordinates into [0, 1], centred. */
+    static double[] normalize(double[] xy) {
+        double minX = Double.MAX_VALUE, maxX = -Double.MAX_VALUE;
+        double minY = Double.MAX_VALUE, maxY = -Double.MAX_VALUE;
+        for (int i = 0; i < xy.length; i += 2) {
+            minX = Math.min(minX, xy[i]);
+            maxX = Math.max(maxX, xy[i]);
+            minY = Math.min(minY, xy[i + 1]);
+            maxY = Math.max(maxY, xy[i + 1]);
+        }
+        double range = Math.max(maxX - minX, maxY - minY);
+        double[] out = new double[xy.length];
+        for (int i = 0; i < xy.length; i += 2) {
+            out[i] = range > 1e-12 ? 0.5 + (xy[i] - (minX + maxX) / 2) / range : 0.5;
+            out[i + 1] = range > 1e-12 ? 0.5 + (xy[i + 1] - (minY + maxY) / 2) / range : 0.5;
+        }
+        return out;
+    }
+
+    /**
+     * Read-only index of the graph shared by all layout tasks: vertex ids
+     * and degrees in iteration order, edges as index arrays, and vertices
+     * ordered by decreasing degree (ties in index order).
+     */
+    static final class Snapshot {
+        final int n;
+        final String[] ids;
+        final int[] degree;
+        final int[] byDegree;
+        final int m;
+        final int[] src;
+        final int[] dst;
+        final String[] types;
+        /** First edge leaving each vertex, or -1. */
+        private final int[] firstOut;
+
+        private Snapshot(int n, String[] ids, int[] degree, int m,
+                         int[] src, int[] dst, String[] types) {
+            this.n = n;
+            this.ids = ids;
+            this.degree = degree;
+            this.m = m;
+            this.src = src;
+            this.dst = dst;
+            this.types = types;
+            this.firstOut = new int[n];
+            Arrays.fill(firstOut, -1);
+            for (int e = m - 1; e >= 0; e--) firstOut[src[e]] = e;
+            Integer[] order = new Integer[n];
+            for (int i = 0; i < n; i++) order[i] = i;
+            Arrays.sort(order, (a, b) -> Integer.compare(degree[b], degree[a]));
+            this.byDegree = new int[n];
+            for (int i = 0; i < n; i++) byDegree[i] = order[i];
+        }
+
+        static Snapshot build(Graph<String, Edge> graph) {
+            int n = graph.getVertexCount();
+            String[] ids = new String[n];
+            int[] degree = new int[n];
+            Map<String, Integer> idMap = new HashMap<>(n * 2);
+            int idx = 0;
+            for (String v : graph.getVertices()) {
+                ids[idx] = v;
+                degree[idx] = graph.degree(v);
+                idMap.put(v, idx);
+                idx++;
+            }
+
+            int[] src = new int[graph.getEdgeCount()];
+            int[] dst = new int[src.length];
+            String[] types = new String[src.length];
+            int m = 0;
+            for (Edge e : graph.getEdges()) {
+                String v1 = e.getVertex1() != null ? e.getVertex1() :
+                        graph.getEndpoints(e).getFirst().toString();
+                String v2 = e.getVertex2() != null ? e.getVertex2() :
+                        graph.getEndpoints(e).getSecond().toString();
+                Integer a = idMap.get(v1);
+                Integer b = idMap.get(v2);
+                if (a == null || b == null) continue;
+                src[m] = a;
+                dst[m] = b;
+                types[m] = e.getType() != null ? e.getType() : "unknown";
+                m++;
+            }
+            return new Snapshot(n, ids, degree, m, src, dst, types);
+        }
+
+        /** Type of the first edge leaving vertex i, used for its colour. */
+        String nodeType(int i) {
+            return firstOut[i] < 0 ? "unknown" : types[firstOut[i]];
+        }
     }
 
     private static String escJs(String s) {
@@ -5,6 +5,7 @@ import edu.uci.ics.jung.graph.Graph;
 import java.io.*;
 import java.nio.charset.StandardCharsets;
 import java.util.*;
+import java.util.function.IntFunction;
 
 /**
  * Exports graph matrices (adjacency, incidence, Laplacian) to CSV and LaTeX formats.
@@ -75,21 +76,26 @@ public class GraphMatrixExporter {
     }
 
     /**
-     * Builds the Laplacian matrix (L = D − A).
+     * Builds the Laplacian matrix (L = D − A). Self-loops do not
+     * contribute, as in {@link LaplacianBuilder}.
      */
     public int[][] buildLaplacianMatrix() {
-        int[][] adj = buildAdjacencyMatrix();
-        int n = adj.length;
-        int[][] lap = new int[n][n];
+        IntFunction<int[]> rows = laplacianRow(buildSparseLaplacian());
+        int n = nodes.size();
+        int[][] matrix = new int[n][];
         for (int i = 0; i < n; i++) {
-            int degree = 0;
-            for (int j = 0; j < n; j++) {
-                degree += adj[i][j];
-                lap[i][j] = -adj[i][j];
-            }
-            lap[i][i] = degree;
+            matrix[i] = rows.apply(i).clone();
         }
-        return lap;
+        return matrix;
+    }
+
+    /**
+     * Builds the Laplacian in sparse CSR form, O(V + E) memory. The CSV and
+     * LaTeX Laplacian exports stream rows from it instead of holding an
+     * n×n matrix.
+     */
+    public SparseMatrix buildSparseLaplacian() {
+        return LaplacianBuilder.buildSparseLaplacian(graph, edges, nodes);
     }
 
     /**
@@ -118,14 +124,15 @@ public class GraphMatrixExporter {
      * Exports the adjacency matrix to CSV.
      */
     public void exportAdjacencyCsv(File file) throws IOException {
-        writeSquareMatrixCsv(file, buildAdjacencyMatrix(), nodes);
+        int[][] matrix = buildAdjacencyMatrix();
+        writeMatrixCsv(file, matrix.length, i -> matrix[i], nodes, nodes);
     }
 
     /**
      * Exports the Laplacian matrix to CSV.
      */
     public void exportLaplacianCsv(File file) throws IOException {
-        writeSquareMatrixCsv(file, buildLaplacianMatrix(), nodes);
+        writeMatrixCsv(file, nodes.size(), laplacianRow(buildSparseLaplacian()), nodes, nodes);
     }
 
     /**
@@ -138,21 +145,22 @@ public class GraphMatrixExporter {
             Edge e = edges.get(i);
             colHeaders.add(e.toString() != null ? e.toString() : "e" + i);
         }
-        writeMatrixCsv(file, matrix, nodes, colHeaders);
+        writeMatrixCsv(file, matrix.length, i -> matrix[i], nodes, colHeaders);
     }
 
     /**
      * Returns the adjacency matrix as a CSV string.
      */
     public String adjacencyCsvToString() {
-        return squareMatrixCsvToString(buildAdjacencyMatrix(), nodes);
+        int[][] matrix = buildAdjacencyMatrix();
+        return squareMatrixCsvToString(matrix.length, i -> matrix[i], nodes);
     }
 
     /**
      * Returns the Laplacian matrix as a CSV string.
      */
     public String laplacianCsvToString() {
-        return squareMatrixCsvToString(buildLaplacianMatrix(), nodes);
+        return squareMatrixCsvToString(nodes.size(), laplacianRow(buildSparseLaplacian()), nodes);
     }
 
     // ── LaTeX Export ────────────────────────────────────────────────
@@ -161,14 +169,16 @@ public class GraphMatrixExporter {
      * Exports the adjacency matrix as a LaTeX bmatrix.
      */
     public void exportAdjacencyLatex(File file) throws IOException {
-        writeLatex(file, buildAdjacencyMatrix(), nodes, "Adjacency Matrix $A$");
+        int[][] matrix = buildAdjacencyMatrix();
+        writeLatex(file, matrix.length, i -> matrix[i], nodes, "Adjacency Matrix $A$");
     }
 
     /**
      * Exports the Laplacian matrix as a LaTeX bmatrix.
      */
     public void exportLaplacianLatex(File file) throws IOException {
-        writeLatex(file, buildLaplacianMatrix(), nodes, "Laplacian Matrix $L = D - A$");
+        writeLatex(file, nodes.size(), laplacianRow(buildSparseLaplacian()), nodes,
+                "Laplacian Matrix $L = D - A$");
     }
 
     /**
@@ -187,14 +197,16 @@ public class GraphMatrixExporter {
      * Returns the adjacency matrix as a LaTeX string.
      */
     public String adjacencyLatexToString() {
-        return squareMatrixLatexToString(buildAdjacencyMatrix(), nodes, "Adjacency Matrix $A$");
+        int[][] matrix = buildAdjacencyMatrix();
+        return squareMatrixLatexToString(matrix.length, i -> matrix[i], nodes, "Adjacency Matrix $A$");
     }
 
     /**
      * Returns the Laplacian matrix as a LaTeX string.
      */
     public String laplacianLatexToString() {
-        return squareMatrixLatexToString(buildLaplacianMatrix(), nodes, "Laplacian Matrix $L = D - A$");
+        return squareMatrixLatexToString(nodes.size(), laplacianRow(buildSparseLaplacian()), nodes,
+                "Laplacian Matrix $L = D - A$");
     }
 
     // ── Internal helpers ────────────────────────────────────────────
@@ -207,33 +219,47 @@ public class GraphMatrixExporter {
         return index;
     }
 
-    private void writeSquareMatrixCsv(File file, int[][] matrix, List<String> labels) throws IOException {
-        writeMatrixCsv(file, matrix, labels, labels);
+    /**
+     * Returns a row source over a sparse Laplacian. Rows are expanded into
+     * one reused buffer, so each returned array is only valid until the
+     * next call.
+     */
+    private static IntFunction<int[]> laplacianRow(SparseMatrix lap) {
+        int n = lap.dimension();
+        double[] dense = new double[n];
+        int[] row = new int[n];
+        return i -> {
+            lap.copyRow(i, dense);
+            for (int j = 0; j < n; j++) row[j] = (int) dense[j];
+            return row;
+        };
     }
 
-    private void writeMatrixCsv(File file, int[][] matrix, List<String> rowLabels, List<String> colLabels) throws IOException {
+    private void writeMatrixCsv(File file, int rowCount, IntFunction<int[]> rows,
+                                List<String> rowLabels, List<String> colLabels) throws IOException {
         ExportUtils.validateOutputPath(file);
         try (PrintWriter pw = new PrintWriter(new OutputStreamWriter(new FileOutputStream(file), StandardCharsets.UTF_8))) {
             pw.print(",");
             pw.println(String.join(",", colLabels));
-            for (int i = 0; i < matrix.length; i++) {
+            for (int i = 0; i < rowCount; i++) {
+                int[] row = rows.apply(i);
                 StringBuilder sb = new StringBuilder();
                 sb.append(escapeCsv(rowLabels.get(i)));
-                for (int j = 0; j < matrix[i].length; j++) {
-                    sb.append(',').append(matrix[i][j]);
+                for (int value : row) {
+                    sb.append(',').append(value);
                 }
                 pw.println(sb);
             }
         }
     }
 
-    private String squareMatrixCsvToString(int[][] matrix, List<String> labels) {
+    private String squareMatrixCsvToString(int n, IntFunction<int[]> rows, List<String> labels) {
         StringBuilder sb = new StringBuilder();
         sb.append(',').append(String.join(",", labels)).append('\n');
-        for (int i = 0; i < matrix.length; i++) {
+        for (int i = 0; i < n; i++) {
             sb.append(escapeCsv(labels.get(i)));
-            for (int j = 0; j < matrix[i].length; j++) {
-                sb.append(',').append(matrix[i][j]);
+            for (int value : rows.apply(i)) {
+                sb.append(',').append(value);
             }
             sb.append('\n');
         }
@@ -247,24 +273,27 @@ public class GraphMatrixExporter {
         return value;
     }
 
-    private void writeLatex(File file, int[][] matrix, List<String> labels, String caption) throws IOException {
+    private void writeLatex(File file, int n, IntFunction<int[]> rows, List<String> labels,
+                            String caption) throws IOException {
         ExportUtils.validateOutputPath(file);
         try (PrintWriter pw = new PrintWriter(new OutputStreamWriter(new FileOutputStream(file), StandardCharsets.UTF_8))) {
-            pw.println(squareMatrixLatexToString(matrix, labels, caption));
+            pw.println(squareMatrixLatexToString(n, rows, labels, caption));
         }
     }
 
-    private String squareMatrixLatexToString(int[][] matrix, List<String> labels, String caption) {
+    private String squareMatrixLatexToString(int n, IntFunction<int[]> rows, List<String> labels,
+                                             String caption) {
         StringBuilder sb = new StringBuilder();
         sb.append("% ").append(caption).append('\n');
         sb.append("% Nodes: ").append(String.join(", ", labels)).append('\n');
         sb.append("\\[").append('\n');
         sb.append("\\begin{bmatrix}").append('\n');
-        for (int i = 0; i < matrix.length; i++) {
+        for (int i = 0; i < n; i++) {
+            int[] values = rows.apply(i);
             StringBuilder row = new StringBuilder();
-            for (int j = 0; j < matrix[i].length; j++) {
+            for (int j = 0; j < values.length; j++) {
                 if (j > 0) row.append(" & ");
-                row.append(matrix[i][j]);
+                row.append(values[j]);
             }
             row.append(" \\\\");
             sb.append(row).append('\n');
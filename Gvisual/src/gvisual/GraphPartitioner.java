@@ -14,6 +14,11 @@ import java.util.*;
  *       partitions to reduce Edge cuts (2-way, applied recursively for k-way).</li>
  *   <li><b>Spectral bisection</b> — uses the Fiedler vector (second-smallest eigenvector
  *       of the Laplacian) to find a natural split, refined with KL swaps.</li>
+ *   <li><b>Multilevel</b> — METIS-style coarsening by heavy-edge matching,
+ *       recursive bisection of the coarsest graph, and k-way FM boundary
+ *       refinement while uncoarsening (see {@link MultilevelPartitioner}).
+ *       The only strategy that scales to million-edge graphs; parts are kept
+ *       within the {@linkplain #withImbalanceTolerance imbalance tolerance}.</li>
  * </ul>
  *
  * <p>Produces a {@link PartitionResult} with per-partition membership, Edge cut count,
@@ -39,10 +44,18 @@ public class GraphPartitioner {
         /** Kernighan-Lin swap refinement (recursive bisection for k > 2). */
         KERNIGHAN_LIN,
         /** Spectral bisection using Fiedler vector + KL refinement. */
-        SPECTRAL
+        SPECTRAL,
+        /** Multilevel coarsening, initial bisection and FM refinement. */
+        MULTILEVEL
     }
 
+    /** Default allowed part-weight excess over n/k for {@link Strategy#MULTILEVEL}. */
+    public static final double DEFAULT_IMBALANCE_TOLERANCE = 0.03;
+
     private final Graph<String, Edge> graph;
+    private double imbalanceTolerance = DEFAULT_IMBALANCE_TOLERANCE;
+    private int parallelism = Runtime.getRuntime().availableProcessors();
+    private long seed = 42L;
 
     /**
      * Creates a new GraphPartitioner for the given graph.
@@ -57,6 +70,50 @@ public class GraphPartitioner {
         this.graph = graph;
     }
 
+    /**
+     * Sets the balance constraint for {@link Strategy#MULTILEVEL}: every part
+     * holds at most {@code max(⌈n/k⌉, ⌊(1 + ε)·n/k⌋)} vertices.
+     *
+     * @param epsilon allowed relative excess (0 = perfectly balanced)
+     * @return this partitioner
+     * @throws IllegalArgumentException if epsilon is negative or not finite
+     */
+    public GraphPartitioner withImbalanceTolerance(double epsilon) {
+        if (!(epsilon >= 0) || Double.isInfinite(epsilon)) {
+            throw new IllegalArgumentException("Imbalance tolerance must be >= 0, got " + epsilon);
+        }
+        this.imbalanceTolerance = epsilon;
+        return this;
+    }
+
+    /**
+     * Sets the number of worker threads for {@link Strategy#MULTILEVEL}. The
+     * result does not depend on it.
+     *
+     * @param threads worker threads (1 = sequential)
+     * @return this partitioner
+     * @throws IllegalArgumentException if threads &lt; 1
+     */
+    public GraphPartitioner withParallelism(int threads) {
+        if (threads < 1) {
+            throw new IllegalArgumentException("Parallelism must be >= 1, got " + threads);
+        }
+        this.parallelism = threads;
+        return this;
+    }
+
+    /**
+     * Sets the random seed for {@link Strategy#MULTILEVEL} matching order and
+     * initial partitions.
+     *
+     * @param seed random seed
+     * @return this partitioner
+     */
+    public GraphPartitioner withSeed(long seed) {
+        this.seed = seed;
+        return this;
+    }
+
     /**
      * Partition the graph into k parts using the specified strategy.
      *
@@ -96,6 +153,9 @@ public class GraphPartitioner {
             case SPECTRAL:
                 assignment = partitionSpectral(k);
                 break;
+            case MULTILEVEL:
+                assignment = partitionMultilevel(k);
+                break;
             default:
                 throw new IllegalArgumentException("Unknown strategy: " + strategy);
         }
@@ -429,14 +489,9 @@ public class GraphPartitioner {
             return result;
         }
 
-        // Build vertex index map for sparse operations
-        Map<String, Integer> vertexIndex = new HashMap<>();
-        for (int i = 0; i < n; i++) {
-            vertexIndex.put(vertices.get(i), i);
-        }
-
-        // Compute Fiedler vector using sparse Laplacian
-        double[] fiedler = computeFiedlerVectorSparse(vertices, vertexIndex, n);
+        // Compute Fiedler vector using the sparse induced-subgraph Laplacian
+        double[] fiedler = computeFiedlerVectorSparse(
+                LaplacianBuilder.buildSparseLaplacian(graph, vertices), n);
 
         // Partition by sign of Fiedler vector
         List<String> partA = new ArrayList<>();
@@ -462,53 +517,26 @@ public class GraphPartitioner {
         return result;
     }
 
-    /**
-     * Sparse Laplacian–vector multiply: result = L * v, using adjacency list.
-     * O(m) per call where m = edges in subgraph, instead of O(n²) for dense.
-     */
-    private double[] sparseLaplacianMul(List<String> vertices,
-                                         Map<String, Integer> vertexIndex,
-                                         double[] v) {
-        int n = vertices.size();
-        double[] result = new double[n];
-        for (int i = 0; i < n; i++) {
-            double diag = 0;
-            for (String neighbor : graph.getNeighbors(vertices.get(i))) {
-                Integer j = vertexIndex.get(neighbor);
-                if (j != null) {
-                    result[i] -= v[j];
-                    diag++;
-                }
-            }
-            result[i] += diag * v[i];
-        }
-        return result;
-    }
-
     /**
      * Sparse shifted-matrix multiply: result = (maxEig*I - L) * v.
      * Equivalent to maxEig*v - L*v, computed in O(m).
      */
-    private double[] sparseShiftedMul(List<String> vertices,
-                                       Map<String, Integer> vertexIndex,
-                                       double maxEig, double[] v) {
-        double[] Lv = sparseLaplacianMul(vertices, vertexIndex, v);
+    private double[] sparseShiftedMul(SparseMatrix laplacian, double maxEig, double[] v) {
         int n = v.length;
         double[] result = new double[n];
+        laplacian.multiply(v, result);
         for (int i = 0; i < n; i++) {
-            result[i] = maxEig * v[i] - Lv[i];
+            result[i] = maxEig * v[i] - result[i];
         }
         return result;
     }
 
     /**
      * Compute the Fiedler vector using sparse power iteration with convergence check.
-     * Uses adjacency-list-based Laplacian multiply (O(m) per iteration) and
+     * Uses the CSR Laplacian multiply (O(m) per iteration) and
      * stops early when the vector converges (||v_new - v_old|| < 1e-10).
      */
-    private double[] computeFiedlerVectorSparse(List<String> vertices,
-                                                  Map<String, Integer> vertexIndex,
-                                                  int n) {
+    private double[] computeFiedlerVectorSparse(SparseMatrix laplacian, int n) {
         if (n <= 2) {
             double[] v = new double[n];
             if (n == 2) { v[0] = -1; v[1] = 1; }
@@ -519,24 +547,20 @@ public class GraphPartitioner {
         // Estimate max eigenvalue via Gershgorin: max degree * 2
         double maxEig = 0;
         for (int i = 0; i < n; i++) {
-            int degree = 0;
-            for (String neighbor : graph.getNeighbors(vertices.get(i))) {
-                if (vertexIndex.containsKey(neighbor)) degree++;
-            }
-            maxEig = Math.max(maxEig, 2.0 * degree);
+            maxEig = Math.max(maxEig, 2.0 * laplacian.get(i, i));
         }
 
         // Power iteration for dominant eigenvector of M = maxEig*I - L
         // (= smallest eigvec of L, which is the constant vector)
-        double[] v1 = sparsePowerIteration(vertices, vertexIndex, maxEig, null, null, n);
+        double[] v1 = sparsePowerIteration(laplacian, maxEig, null, null, n);
 
         // Compute lambda1 = Rayleigh quotient of v1 w.r.t. M
-        double[] Mv1 = sparseShiftedMul(vertices, vertexIndex, maxEig, v1);
+        double[] Mv1 = sparseShiftedMul(laplacian, maxEig, v1);
         double lambda1 = dotProduct(v1, Mv1, n) / dotProduct(v1, v1, n);
 
         // Power iteration for second eigenvector with deflation:
         // M' * v = M * v - lambda1 * (v1^T v) * v1
-        double[] fiedler = sparsePowerIteration(vertices, vertexIndex, maxEig, v1, lambda1, n);
+        double[] fiedler = sparsePowerIteration(laplacian, maxEig, v1, lambda1, n);
 
         return fiedler;
     }
@@ -548,8 +572,7 @@ public class GraphPartitioner {
      * @param deflateVec if non-null, deflates M by lambda * deflateVec * deflateVec^T
      * @param deflateEig eigenvalue for deflation (ignored if deflateVec is null)
      */
-    private double[] sparsePowerIteration(List<String> vertices,
-                                            Map<String, Integer> vertexIndex,
+    private double[] sparsePowerIteration(SparseMatrix laplacian,
                                             double maxEig,
                                             double[] deflateVec,
                                             Double deflateEig,
@@ -565,7 +588,7 @@ public class GraphPartitioner {
         normalize(v, n);
 
         for (int iter = 0; iter < MAX_ITER; iter++) {
-            double[] Mv = sparseShiftedMul(vertices, vertexIndex, maxEig, v);
+            double[] Mv = sparseShiftedMul(laplacian, maxEig, v);
 
             // Apply deflation if needed: Mv -= lambda * (v1^T v) * v1
             if (deflateVec != null) {
@@ -608,6 +631,21 @@ public class GraphPartitioner {
         }
     }
 
+    // -------------------------------------------------------------------------
+    // Multilevel partitioning
+    // -------------------------------------------------------------------------
+
+    private Map<String, Integer> partitionMultilevel(int k) {
+        List<String> vertices = new ArrayList<>(graph.getVertices());
+        int[] part = new MultilevelPartitioner(k, imbalanceTolerance, seed, parallelism)
+                .partition(MultilevelPartitioner.of(graph, vertices));
+        Map<String, Integer> assignment = new HashMap<>(vertices.size() * 2);
+        for (int i = 0; i < vertices.size(); i++) {
+            assignment.put(vertices.get(i), part[i]);
+        }
+        return assignment;
+    }
+
     // =========================================================================
     // PartitionResult
     // =========================================================================
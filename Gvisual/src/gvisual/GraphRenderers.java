@@ -47,6 +47,9 @@ public class GraphRenderers {
 
     private Collection<String> oldVertices;
 
+    /** Bumped by every setter, so caches of rendered output know to redraw. */
+    private long version;
+
     /** Graph reference for vertex‐paint Edge‐type lookup. */
     private Graph<String, Edge> graph;
 
@@ -73,6 +76,7 @@ public class GraphRenderers {
 
     public void setPathState(Set<Edge> pathEdges, Set<String> pathVertices,
                              String pathSource, String pathTarget) {
+        version++;
         this.pathEdges = pathEdges;
         this.pathVertices = pathVertices;
         this.pathSource = pathSource;
@@ -80,23 +84,27 @@ public class GraphRenderers {
     }
 
     public void setMstState(boolean active, Set<Edge> mstEdges) {
+        version++;
         this.mstOverlayActive = active;
         this.mstEdges = mstEdges;
     }
 
     public void setCommunityState(boolean active, Map<String, Integer> nodeCommunityMap) {
+        version++;
         this.communityOverlayActive = active;
         this.nodeCommunityMap = nodeCommunityMap;
     }
 
     public void setArticulationState(boolean active, Set<String> articulationPoints,
                                      Set<Edge> bridgeEdges) {
+        version++;
         this.articulationOverlayActive = active;
         this.articulationPoints = articulationPoints;
         this.bridgeEdges = bridgeEdges;
     }
 
     public void setEgoState(boolean active, String center, Set<String> neighbors, Set<Edge> edges) {
+        version++;
         this.egoOverlayActive = active;
         this.egoCenter = center;
         this.egoNeighbors = neighbors;
@@ -104,13 +112,24 @@ public class GraphRenderers {
     }
 
     public void setOldVertices(Collection<String> oldVertices) {
+        version++;
         this.oldVertices = oldVertices;
     }
 
     public void setGraph(Graph<String, Edge> graph) {
+        version++;
         this.graph = graph;
     }
 
+    /**
+     * Returns a counter that changes whenever any overlay state changes.
+     * {@link LevelOfDetailRenderer} uses it to know when its cached edge
+     * layer is stale.
+     */
+    public long getVersion() {
+        return version;
+    }
+
     // ── transformers ────────────────────────────────────────────────────
 
     public Transformer<Edge, Paint> edgePaintTransformer() {
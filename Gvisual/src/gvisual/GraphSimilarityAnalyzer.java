@@ -39,7 +39,6 @@ public class GraphSimilarityAnalyzer {
 
     private static final double LOG2 = Math.log(2.0);
     private static final double EPSILON = 1e-12;
-    private static final int JACOBI_MAX_SWEEPS = 100;
 
     private final Graph<String, Edge> graph1;
     private final Graph<String, Edge> graph2;
@@ -327,7 +326,7 @@ public class GraphSimilarityAnalyzer {
         List<String> vList = new ArrayList<>(g.getVertices());
         Collections.sort(vList);
         double[][] L = LaplacianBuilder.buildLaplacian(g, vList);
-        return computeEigenvalues(L);
+        return DenseEigensolver.eigenvalues(L);
     }
 
     /**
@@ -389,71 +388,6 @@ public class GraphSimilarityAnalyzer {
         return x <= 0 ? 0 : Math.log(x) / LOG2;
     }
 
-    /**
-     * Jacobi eigenvalue algorithm for symmetric matrices.
-     */
-    private double[] computeEigenvalues(double[][] matrix) {
-        int n = matrix.length;
-        if (n == 0) return new double[0];
-
-        double[][] A = new double[n][n];
-        for (int i = 0; i < n; i++) {
-            System.arraycopy(matrix[i], 0, A[i], 0, n);
-        }
-
-        for (int sweep = 0; sweep < JACOBI_MAX_SWEEPS; sweep++) {
-            double offDiag = 0;
-            for (int i = 0; i < n; i++) {
-                for (int j = i + 1; j < n; j++) {
-                    offDiag += A[i][j] * A[i][j];
-                }
-            }
-            if (offDiag < EPSILON) break;
-
-            for (int p = 0; p < n; p++) {
-                for (int q = p + 1; q < n; q++) {
-                    if (Math.abs(A[p][q]) < EPSILON / (n * n)) continue;
-
-                    double tau = (A[q][q] - A[p][p]) / (2 * A[p][q]);
-                    double t;
-                    if (Math.abs(tau) > 1e15) {
-                        t = 1.0 / (2.0 * tau);
-                    } else if (Math.abs(tau) < EPSILON) {
-                        t = 1.0;
-                    } else {
-                        t = Math.signum(tau) / (Math.abs(tau) + Math.sqrt(1 + tau * tau));
-                    }
-                    double c = 1.0 / Math.sqrt(1 + t * t);
-                    double s = t * c;
-
-                    double app = A[p][p] - t * A[p][q];
-                    double aqq = A[q][q] + t * A[p][q];
-                    A[p][q] = 0;
-                    A[q][p] = 0;
-                    A[p][p] = app;
-                    A[q][q] = aqq;
-
-                    for (int r = 0; r < n; r++) {
-                        if (r == p || r == q) continue;
-                        double arp = A[r][p];
-                        double arq = A[r][q];
-                        A[r][p] = c * arp - s * arq;
-                        A[p][r] = A[r][p];
-                        A[r][q] = s * arp + c * arq;
-                        A[q][r] = A[r][q];
-                    }
-                }
-            }
-        }
-
-        double[] eigenvalues = new double[n];
-        for (int i = 0; i < n; i++) {
-            eigenvalues[i] = A[i][i];
-        }
-        Arrays.sort(eigenvalues);
-        return eigenvalues;
-    }
-
     // ── Report ──────────────────────────────────────────────────────
 
     /**
@@ -2,9 +2,6 @@ package gvisual;
 
 import edu.uci.ics.jung.graph.Graph;
 import java.util.*;
-import cern.colt.matrix.DoubleMatrix2D;
-import cern.colt.matrix.impl.DenseDoubleMatrix2D;
-import cern.colt.matrix.linalg.EigenvalueDecomposition;
 
 /**
  * Computes the eigenvalue spectrum of the adjacency and Laplacian matrices
@@ -32,8 +29,9 @@ import cern.colt.matrix.linalg.EigenvalueDecomposition;
  *       max degree, indicating deviation from regularity.</li>
  * </ul>
  *
- * <p>Uses QR algorithm for eigenvalue computation (no external dependencies).
- * Suitable for graphs up to a few hundred vertices.</p>
+ * <p>Eigenvalues come from {@link DenseEigensolver}: O(n³) time and O(n²)
+ * memory for the two dense matrices, which is practical up to a few
+ * thousand vertices.</p>
  *
  * @author sauravbhattacharya001
  */
@@ -240,35 +238,21 @@ public class GraphSpectrumAnalyzer {
         return sb.toString();
     }
 
-    // ---- Eigenvalue computation (Colt EigenvalueDecomposition) ----
+    // ---- Eigenvalue computation ----
 
     /**
-     * Computes the eigenvalues of a real symmetric matrix using Colt's
-     * {@link EigenvalueDecomposition}.
+     * Computes the eigenvalues of a real symmetric matrix with the shared
+     * {@link DenseEigensolver} (blocked Householder tridiagonalization and
+     * implicit QL, multi-threaded for large n).
      *
      * <p>Previously this class shipped a hand-rolled Householder+implicit-QR
      * routine that crashed with {@code ArrayIndexOutOfBoundsException} on
-     * every non-trivial graph (issue #169) and produced incorrect eigenvalues
-     * even when it did not crash. Colt is already on the classpath
-     * ({@code lib/colt-1.2.0.jar}), so we delegate to its well-tested
-     * symmetric-matrix path.</p>
+     * every non-trivial graph (issue #169), and then delegated to Colt's
+     * {@code EigenvalueDecomposition}, which also accumulates the unused
+     * eigenvectors on a single thread.</p>
      */
     private double[] computeEigenvalues(double[][] matrix) {
-        int n = matrix.length;
-        if (n == 0) return new double[0];
-        if (n == 1) return new double[]{matrix[0][0]};
-
-        DoubleMatrix2D m = new DenseDoubleMatrix2D(n, n);
-        for (int i = 0; i < n; i++) {
-            double[] row = matrix[i];
-            for (int j = 0; j < n; j++) {
-                m.setQuick(i, j, row[j]);
-            }
-        }
-        EigenvalueDecomposition eig = new EigenvalueDecomposition(m);
-        double[] real = eig.getRealEigenvalues().toArray();
-        // Imaginary parts must be ~0 for symmetric input; we trust Colt here.
-        return real;
+        return DenseEigensolver.eigenvalues(matrix);
     }
 
     private void reverseArray(double[] arr) {
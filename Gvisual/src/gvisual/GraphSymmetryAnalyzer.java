@@ -9,11 +9,12 @@ import java.util.*;
  *
  * <h3>Capabilities</h3>
  * <ul>
- *   <li><b>Color refinement (1-WL)</b> — Weisfeiler–Leman vertex classification
- *       producing equivalence classes that are a superset of true orbits</li>
  *   <li><b>Vertex orbits</b> — groups of vertices that can be mapped to each
- *       other by an automorphism (approximated via refinement)</li>
- *   <li><b>Edge orbits</b> — groups of edges whose endpoint orbit-pairs match</li>
+ *       other by an automorphism (exact)</li>
+ *   <li><b>Edge orbits</b> — groups of edges that can be mapped to each
+ *       other by an automorphism (exact)</li>
+ *   <li><b>Automorphism group</b> — a generating set and the exact group
+ *       order</li>
  *   <li><b>Vertex-transitivity test</b> — whether all vertices share one orbit</li>
  *   <li><b>Edge-transitivity test</b> — whether all edges share one orbit</li>
  *   <li><b>Symmetry factor</b> — 1/|orbits|, ranges from 1 (fully symmetric)
@@ -26,14 +27,18 @@ import java.util.*;
  *   <li><b>Text report</b> — human-readable symmetry summary</li>
  * </ul>
  *
- * <p>The implementation uses iterative colour refinement (1-dimensional
- * Weisfeiler–Leman algorithm).  Vertices start with the same colour; each
- * round replaces a vertex's colour with a hash of its current colour and the
- * sorted multiset of its neighbours' colours.  Iteration stops when the
- * partition stabilises.  The resulting equivalence classes are a conservative
- * approximation of automorphism orbits — they never merge truly
- * non-equivalent vertices, but may fail to distinguish some equivalent
- * vertices in highly regular graphs.</p>
+ * <p>Orbits come from {@link AutomorphismSearch}, an
+ * individualization–refinement search that finds a generating set of the
+ * automorphism group; vertex orbits are the connected components of the
+ * generators, and edge orbits are obtained by applying the generators to
+ * the edge set. Colour refinement alone only gives a superset of the true
+ * orbits (in a disjoint 6-cycle and two triangles every vertex gets the
+ * same colour), so it is used only inside the search as the refinement
+ * step.</p>
+ *
+ * <p>On pathological highly regular graphs the search may hit its node
+ * budget; {@link #isExact()} then returns false and the reported orbits
+ * are those of the automorphisms found so far.</p>
  *
  * @author sauravbhattacharya001
  */
@@ -41,7 +46,9 @@ public class GraphSymmetryAnalyzer {
 
     private final Graph<String, Edge> graph;
 
-    /** Lazily computed colour-refinement partition (vertex → orbit id). */
+    /** Lazily computed automorphism search. */
+    private AutomorphismSearch search;
+    /** Lazily computed orbit partition (vertex → orbit id). */
     private Map<String, Integer> vertexOrbitMap;
     /** Lazily computed orbit groups. */
     private List<Set<String>> orbits;
@@ -55,112 +62,33 @@ public class GraphSymmetryAnalyzer {
         this.graph = graph;
     }
 
-    // ------------------------------------------------------------------
-    //  Core: Colour Refinement (1-WL)
-    // ------------------------------------------------------------------
-
-    /**
-     * Runs the Weisfeiler–Leman colour refinement algorithm.
-     * Returns a map from vertex to its stable colour (orbit id).
-     */
-    private Map<String, Integer> colourRefinement() {
-        if (graph.getVertexCount() == 0) {
-            return Collections.emptyMap();
-        }
-
-        // Initial colouring: all vertices same colour based on degree
-        Map<String, Integer> colours = new HashMap<>();
-        for (String v : graph.getVertices()) {
-            colours.put(v, graph.degree(v));
-        }
-
-        boolean changed = true;
-        int maxIterations = graph.getVertexCount() + 1; // guaranteed to converge
-        int iteration = 0;
-
-        while (changed && iteration < maxIterations) {
-            changed = false;
-            iteration++;
-
-            // Build new colour from (current colour, sorted neighbour colour multiset)
-            Map<String, List<Integer>> signatures = new HashMap<>();
-            for (String v : graph.getVertices()) {
-                List<Integer> sig = new ArrayList<>();
-                sig.add(colours.get(v));
-                List<Integer> neighbourColours = new ArrayList<>();
-                for (String n : graph.getNeighbors(v)) {
-                    neighbourColours.add(colours.get(n));
-                }
-                Collections.sort(neighbourColours);
-                sig.addAll(neighbourColours);
-                signatures.put(v, sig);
-            }
-
-            // Assign new colours by unique signature
-            Map<List<Integer>, Integer> signatureToColour = new HashMap<>();
-            Map<String, Integer> newColours = new HashMap<>();
-            int nextColour = 0;
-            // Sort vertices for deterministic colouring
-            List<String> sortedVertices = new ArrayList<>(graph.getVertices());
-            Collections.sort(sortedVertices);
-            for (String v : sortedVertices) {
-                List<Integer> sig = signatures.get(v);
-                if (!signatureToColour.containsKey(sig)) {
-                    signatureToColour.put(sig, nextColour++);
-                }
-                newColours.put(v, signatureToColour.get(sig));
-            }
-
-            // Check if partition changed
-            if (!newColours.equals(colours)) {
-                changed = true;
-            }
-            colours = newColours;
-        }
-
-        // Normalise colours to 0-based contiguous ids
-        Map<Integer, Integer> remap = new HashMap<>();
-        Map<String, Integer> result = new LinkedHashMap<>();
-        int id = 0;
-        List<String> sorted = new ArrayList<>(colours.keySet());
-        Collections.sort(sorted);
-        for (String v : sorted) {
-            int c = colours.get(v);
-            if (!remap.containsKey(c)) {
-                remap.put(c, id++);
-            }
-            result.put(v, remap.get(c));
-        }
-        return result;
-    }
-
     // ------------------------------------------------------------------
     //  Lazy initialisation
     // ------------------------------------------------------------------
 
     private void ensureComputed() {
         if (vertexOrbitMap != null) return;
-        vertexOrbitMap = colourRefinement();
+        search = new AutomorphismSearch(graph).compute();
 
-        // Build orbit groups
-        Map<Integer, Set<String>> groups = new TreeMap<>();
-        for (Map.Entry<String, Integer> e : vertexOrbitMap.entrySet()) {
-            groups.computeIfAbsent(e.getValue(), k -> new LinkedHashSet<>()).add(e.getKey());
+        // Orbits are ordered by their smallest vertex, members sorted
+        orbits = new ArrayList<>(search.getOrbits());
+        vertexOrbitMap = new TreeMap<>();
+        for (int i = 0; i < orbits.size(); i++) {
+            for (String v : orbits.get(i)) {
+                vertexOrbitMap.put(v, i);
+            }
+        }
+
+        // Edge orbits: union edges related by some generator
+        List<Edge> edges = new ArrayList<>(graph.getEdges());
+        List<String[]> endpoints = new ArrayList<>(edges.size());
+        for (Edge e : edges) {
+            endpoints.add(new String[] {e.getVertex1(), e.getVertex2()});
         }
-        orbits = new ArrayList<>(groups.values());
-
-        // Build Edge orbits: two edges are equivalent if their endpoint
-        // orbit-pair (sorted) is identical
-        Map<List<Integer>, Set<Edge>> edgeGroups = new LinkedHashMap<>();
-        for (Edge e : graph.getEdges()) {
-            String v1 = e.getVertex1();
-            String v2 = e.getVertex2();
-            int o1 = vertexOrbitMap.getOrDefault(v1, -1);
-            int o2 = vertexOrbitMap.getOrDefault(v2, -1);
-            List<Integer> key = o1 <= o2
-                    ? Arrays.asList(o1, o2)
-                    : Arrays.asList(o2, o1);
-            edgeGroups.computeIfAbsent(key, k -> new LinkedHashSet<>()).add(e);
+        int[] ids = search.edgeOrbitIds(endpoints);
+        Map<Integer, Set<Edge>> edgeGroups = new TreeMap<>();
+        for (int i = 0; i < edges.size(); i++) {
+            edgeGroups.computeIfAbsent(ids[i], k -> new LinkedHashSet<>()).add(edges.get(i));
         }
         edgeOrbits = new ArrayList<>(edgeGroups.values());
     }
@@ -179,7 +107,7 @@ public class GraphSymmetryAnalyzer {
 
     /**
      * Returns the list of vertex orbits. Each set contains vertices that
-     * are structurally equivalent under colour refinement.
+     * some automorphism maps onto each other.
      */
     public List<Set<String>> getVertexOrbits() {
         ensureComputed();
@@ -213,8 +141,8 @@ public class GraphSymmetryAnalyzer {
     // ------------------------------------------------------------------
 
     /**
-     * Returns the list of Edge orbits. Edges whose endpoint orbit-pairs
-     * match are grouped together.
+     * Returns the list of Edge orbits. Edges that some automorphism maps
+     * onto each other are grouped together.
      */
     public List<Set<Edge>> getEdgeOrbits() {
         ensureComputed();
@@ -254,12 +182,43 @@ public class GraphSymmetryAnalyzer {
     /**
      * A graph is symmetric (arc-transitive) if it is both vertex-transitive
      * and Edge-transitive. This is a necessary (not sufficient) condition —
-     * colour refinement may over-approximate.
+     * arc-transitivity also requires each edge to be reversible.
      */
     public boolean isSymmetric() {
         return isVertexTransitive() && isEdgeTransitive();
     }
 
+    // ------------------------------------------------------------------
+    //  Automorphism group
+    // ------------------------------------------------------------------
+
+    /**
+     * Returns the order of the automorphism group |Aut(G)|. Returns 1 for
+     * asymmetric and empty graphs.
+     */
+    public java.math.BigInteger getAutomorphismGroupSize() {
+        ensureComputed();
+        return search.getGroupSize();
+    }
+
+    /**
+     * Returns a generating set of the automorphism group. Each generator
+     * maps only the vertices it moves; unlisted vertices are fixed.
+     */
+    public List<Map<String, String>> getAutomorphismGenerators() {
+        ensureComputed();
+        return search.getGenerators();
+    }
+
+    /**
+     * Whether the orbits and group order are exact. False only if the
+     * automorphism search exhausted its node budget.
+     */
+    public boolean isExact() {
+        ensureComputed();
+        return search.isComplete();
+    }
+
     // ------------------------------------------------------------------
     //  Symmetry metrics
     // ------------------------------------------------------------------
@@ -397,6 +356,8 @@ public class GraphSymmetryAnalyzer {
         sb.append(String.format("Edges: %d%n", graph.getEdgeCount()));
         sb.append(String.format("Vertex orbits: %d%n", orbits.size()));
         sb.append(String.format("Edge orbits: %d%n", edgeOrbits.size()));
+        sb.append(String.format("Automorphism group order: %s%s%n",
+                search.getGroupSize(), search.isComplete() ? "" : " (lower bound)"));
         sb.append(String.format("Symmetry factor: %.4f%n", getSymmetryFactor()));
         sb.append(String.format("Symmetric vertex fraction: %.4f%n",
                 getSymmetricVertexFraction()));
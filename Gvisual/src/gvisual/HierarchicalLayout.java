@@ -2,6 +2,7 @@ package gvisual;
 
 import edu.uci.ics.jung.graph.Graph;
 import java.util.*;
+import java.util.concurrent.ForkJoinPool;
 
 /**
  * Hierarchical Graph Layout — computes layered 2D positions for directed
@@ -16,9 +17,12 @@ import java.util.*;
  *   <li><b>Layer assignment</b> — places each node in a layer based on its
  *       longest-path depth from source nodes.</li>
  *   <li><b>Crossing reduction</b> — reorders nodes within each layer to
- *       minimize Edge crossings (barycenter heuristic, multi-pass).</li>
- *   <li><b>X-coordinate assignment</b> — positions nodes within layers
- *       to minimize Edge bends and balance spacing.</li>
+ *       minimize Edge crossings (barycenter heuristic, multi-pass; the
+ *       ordering with the fewest crossings is kept).</li>
+ *   <li><b>X-coordinate assignment</b> — Brandes–Köpf: nodes are stacked
+ *       into vertical blocks along median neighbours, so edges run
+ *       straight where possible, and the four directional placements are
+ *       balanced.</li>
  * </ol>
  *
  * <h3>Features</h3>
@@ -53,6 +57,9 @@ public class HierarchicalLayout {
         LEFT_TO_RIGHT
     }
 
+    /** Vertex count at which independent stages run on a ForkJoinPool. */
+    private static final int PARALLEL_THRESHOLD = 2048;
+
     // ── Configuration ────────────────────────────────────────────────
 
     private final Graph<String, Edge> graph;
@@ -62,6 +69,7 @@ public class HierarchicalLayout {
     private final Orientation orientation;
     private final double width;
     private final double height;
+    private int parallelism = Runtime.getRuntime().availableProcessors();
 
     // ── Computed state ───────────────────────────────────────────────
 
@@ -72,6 +80,8 @@ public class HierarchicalLayout {
     private int crossingCount;
     private Set<Edge> reversedEdges;
     private boolean computed;
+    private QuadTree hitIndex;
+    private String[] hitVertices;
 
     // ── Constructors ─────────────────────────────────────────────────
 
@@ -130,14 +140,40 @@ public class HierarchicalLayout {
         this.computed = false;
     }
 
+    /**
+     * Sets the number of threads used on graphs with at least
+     * {@value #PARALLEL_THRESHOLD} vertices. Defaults to the number of
+     * available processors; positions do not depend on it.
+     *
+     * @param threads worker threads (1 = sequential)
+     * @return this layout for chaining
+     * @throws IllegalArgumentException if threads &lt; 1
+     */
+    public HierarchicalLayout withParallelism(int threads) {
+        if (threads < 1) {
+            throw new IllegalArgumentException(
+                    "parallelism must be >= 1, got: " + threads);
+        }
+        this.parallelism = threads;
+        return this;
+    }
+
     // ── Computation ──────────────────────────────────────────────────
 
     /**
      * Computes the hierarchical layout.
      *
+     * <p>All stages run on int-indexed arrays: O(V + E) cycle removal and
+     * layering, sort-based barycenter sweeps, O(E log V) crossing counts
+     * per layer pair, and O(V + E) Brandes–Köpf coordinate assignment.
+     * Crossing counts and the four Brandes–Köpf passes are independent and
+     * run in parallel on graphs with at least {@value #PARALLEL_THRESHOLD}
+     * vertices.</p>
+     *
      * @return this layout (for chaining)
      */
     public HierarchicalLayout compute() {
+        hitIndex = null;
         List<String> vertices = new ArrayList<String>(graph.getVertices());
         int n = vertices.size();
 
@@ -152,325 +188,424 @@ public class HierarchicalLayout {
             return this;
         }
 
-        // Build directed adjacency from the JUNG graph
-        Map<String, Set<String>> successors = new HashMap<String, Set<String>>();
-        Map<String, Set<String>> predecessors = new HashMap<String, Set<String>>();
-        for (String v : vertices) {
-            successors.put(v, new HashSet<String>());
-            predecessors.put(v, new HashSet<String>());
+        // Index vertices and collect directed edges (self-loops dropped)
+        Map<String, Integer> index = new HashMap<String, Integer>(n * 2);
+        for (int i = 0; i < n; i++) {
+            index.put(vertices.get(i), i);
         }
+        int[] src = new int[graph.getEdgeCount()];
+        int[] dst = new int[src.length];
+        int m = 0;
         for (Edge e : graph.getEdges()) {
-            String u = e.getVertex1();
-            String v = e.getVertex2();
-            if (u != null && v != null && !u.equals(v)
-                    && successors.containsKey(u) && successors.containsKey(v)) {
-                successors.get(u).add(v);
-                predecessors.get(v).add(u);
+            Integer u = e.getVertex1() == null ? null : index.get(e.getVertex1());
+            Integer v = e.getVertex2() == null ? null : index.get(e.getVertex2());
+            if (u != null && v != null && !u.equals(v)) {
+                src[m] = u;
+                dst[m] = v;
+                m++;
             }
         }
+        int[][] successors = adjacency(n, src, dst, m);
 
-        // Step 1: Cycle removal (greedy DFS-based)
-        reversedEdges = new HashSet<Edge>();
-        Map<String, Set<String>> dagSuccessors = removeCycles(
-                vertices, successors, predecessors);
-        Map<String, Set<String>> dagPredecessors = invertAdjacency(
-                vertices, dagSuccessors);
-
-        // Step 2: Layer assignment (longest path from sources)
-        layerAssignment = assignLayers(vertices, dagSuccessors, dagPredecessors);
+        ForkJoinPool pool = parallelism > 1 && n >= PARALLEL_THRESHOLD
+                ? new ForkJoinPool(parallelism) : null;
+        try {
+            // Step 1: Cycle removal (DFS back-edges reversed)
+            reversedEdges = new HashSet<Edge>();
+            int[][] dagSucc = removeCycles(successors, index);
+            int[][] dagPred = invertAdjacency(dagSucc);
+
+            // Step 2: Layer assignment (longest path from sources)
+            int[] depth = assignLayers(dagSucc, dagPred);
+
+            // Step 3: Group vertices by layer, in graph order
+            int maxLayer = 0;
+            for (int d : depth) maxLayer = Math.max(maxLayer, d);
+            int[][] order = new int[maxLayer + 1][];
+            int[] fill = new int[maxLayer + 1];
+            for (int d : depth) fill[d]++;
+            for (int l = 0; l <= maxLayer; l++) order[l] = new int[fill[l]];
+            Arrays.fill(fill, 0);
+            for (int v = 0; v < n; v++) order[depth[v]][fill[depth[v]]++] = v;
+            int[] rank = new int[n];
+            updateRanks(order, rank);
+
+            // Neighbours in the adjacent layers only; longer edges have no
+            // dummy vertices, so they don't take part in ordering
+            int[][] up = adjacentLayer(dagPred, depth, -1);
+            int[][] down = adjacentLayer(dagSucc, depth, 1);
+
+            // Step 4: Crossing reduction (barycenter heuristic)
+            crossingCount = (int) Math.min(Integer.MAX_VALUE,
+                    reduceCrossings(order, rank, up, down, pool));
+
+            // Step 5: Assign coordinates (Brandes–Köpf)
+            positions = assignCoordinates(vertices, order, up, down, pool);
+
+            layerAssignment = new HashMap<String, Integer>(n * 2);
+            for (int v = 0; v < n; v++) {
+                layerAssignment.put(vertices.get(v), depth[v]);
+            }
+            layers = new ArrayList<List<String>>(order.length);
+            for (int[] layer : order) {
+                List<String> names = new ArrayList<String>(layer.length);
+                for (int v : layer) names.add(vertices.get(v));
+                layers.add(names);
+            }
 
-        // Step 3: Group vertices by layer
-        int maxLayer = 0;
-        for (int layer : layerAssignment.values()) {
-            maxLayer = Math.max(maxLayer, layer);
-        }
-        layers = new ArrayList<List<String>>(maxLayer + 1);
-        for (int i = 0; i <= maxLayer; i++) {
-            layers.add(new ArrayList<String>());
-        }
-        for (String v : vertices) {
-            int layer = layerAssignment.getOrDefault(v, 0);
-            layers.get(layer).add(v);
+            // Step 6: Find critical (longest) path
+            criticalPath = findCriticalPath(vertices, depth, dagPred);
+        } finally {
+            if (pool != null) pool.shutdown();
         }
 
-        // Step 4: Crossing reduction (barycenter heuristic)
-        reduceCrossings(dagSuccessors, dagPredecessors);
-
-        // Step 5: Assign coordinates
-        positions = assignCoordinates();
-
-        // Step 6: Find critical (longest) path
-        criticalPath = findCriticalPath(vertices, dagSuccessors, dagPredecessors);
-
-        // Count actual crossings
-        crossingCount = countEdgeCrossings(dagSuccessors);
-
         computed = true;
         return this;
     }
 
     // ── Step 1: Cycle removal ────────────────────────────────────────
 
-    private Map<String, Set<String>> removeCycles(
-            List<String> vertices,
-            Map<String, Set<String>> successors,
-            Map<String, Set<String>> predecessors) {
-
-        // Deep-copy adjacency
-        Map<String, Set<String>> dag = new HashMap<String, Set<String>>();
-        for (String v : vertices) {
-            dag.put(v, new HashSet<String>(successors.get(v)));
+    /**
+     * Reverses the back-edges of an iterative DFS, which leaves a DAG.
+     * The original edges that were reversed go into {@link #reversedEdges}.
+     */
+    private int[][] removeCycles(int[][] succ, Map<String, Integer> index) {
+        int n = succ.length;
+        byte[] state = new byte[n]; // 0 unseen, 1 on stack, 2 done
+        int[] stack = new int[n];
+        int[] next = new int[n];
+        Set<Long> backEdges = new HashSet<Long>();
+
+        for (int s = 0; s < n; s++) {
+            if (state[s] != 0) continue;
+            int top = 0;
+            stack[0] = s;
+            state[s] = 1;
+            while (top >= 0) {
+                int v = stack[top];
+                if (next[v] < succ[v].length) {
+                    int w = succ[v][next[v]++];
+                    if (state[w] == 1) {
+                        backEdges.add((long) v * n + w);
+                    } else if (state[w] == 0) {
+                        state[w] = 1;
+                        stack[++top] = w;
+                    }
+                } else {
+                    state[v] = 2;
+                    top--;
+                }
+            }
         }
-
-        // DFS to find back-edges
-        Set<String> visited = new HashSet<String>();
-        Set<String> inStack = new HashSet<String>();
-        List<String[]> backEdges = new ArrayList<String[]>();
-
-        for (String v : vertices) {
-            if (!visited.contains(v)) {
-                dfsBackEdges(v, dag, visited, inStack, backEdges);
+        if (backEdges.isEmpty()) return succ;
+
+        int m = 0;
+        for (int[] out : succ) m += out.length;
+        int[] src = new int[m];
+        int[] dst = new int[m];
+        int k = 0;
+        for (int v = 0; v < n; v++) {
+            for (int w : succ[v]) {
+                boolean back = backEdges.contains((long) v * n + w);
+                src[k] = back ? w : v;
+                dst[k] = back ? v : w;
+                k++;
             }
         }
 
-        // Reverse back-edges to break cycles
-        for (String[] be : backEdges) {
-            dag.get(be[0]).remove(be[1]);
-            dag.get(be[1]).add(be[0]);
-
-            // Track the original Edge objects
-            for (Edge e : graph.getEdges()) {
-                if (be[0].equals(e.getVertex1()) && be[1].equals(e.getVertex2())) {
-                    reversedEdges.add(e);
-                }
+        // Track the original Edge objects
+        for (Edge e : graph.getEdges()) {
+            Integer u = e.getVertex1() == null ? null : index.get(e.getVertex1());
+            Integer v = e.getVertex2() == null ? null : index.get(e.getVertex2());
+            if (u != null && v != null && backEdges.contains((long) u * n + v)) {
+                reversedEdges.add(e);
             }
         }
-
-        return dag;
+        return adjacency(n, src, dst, m);
     }
 
-    private void dfsBackEdges(String v,
-                               Map<String, Set<String>> adj,
-                               Set<String> visited,
-                               Set<String> inStack,
-                               List<String[]> backEdges) {
-        visited.add(v);
-        inStack.add(v);
+    // ── Step 2: Layer assignment ─────────────────────────────────────
 
-        for (String w : adj.getOrDefault(v, Collections.emptySet())) {
-            if (inStack.contains(w)) {
-                backEdges.add(new String[]{v, w});
-            } else if (!visited.contains(w)) {
-                dfsBackEdges(w, adj, visited, inStack, backEdges);
+    /** Longest-path depth of every vertex, in topological order. */
+    private static int[] assignLayers(int[][] succ, int[][] pred) {
+        int n = succ.length;
+        int[] depth = new int[n];
+        int[] indegree = new int[n];
+        int[] queue = new int[n];
+        int tail = 0;
+        for (int v = 0; v < n; v++) {
+            indegree[v] = pred[v].length;
+            if (indegree[v] == 0) queue[tail++] = v;
+        }
+        // Vertices never dequeued (only possible on a cyclic input) stay at 0
+        for (int head = 0; head < tail; head++) {
+            int u = queue[head];
+            for (int w : succ[u]) {
+                depth[w] = Math.max(depth[w], depth[u] + 1);
+                if (--indegree[w] == 0) queue[tail++] = w;
             }
         }
-
-        inStack.remove(v);
+        return depth;
     }
 
-    // ── Step 2: Layer assignment ─────────────────────────────────────
+    // ── Step 3: Crossing reduction (barycenter) ──────────────────────
 
-    private Map<String, Integer> assignLayers(
-            List<String> vertices,
-            Map<String, Set<String>> succ,
-            Map<String, Set<String>> pred) {
+    /**
+     * Runs down/up barycenter sweeps and keeps the ordering with the fewest
+     * crossings seen, which is left in {@code order}.
+     *
+     * @return the crossing count of the kept ordering
+     */
+    private long reduceCrossings(int[][] order, int[] rank,
+                                 int[][] up, int[][] down, ForkJoinPool pool) {
+        long best = countEdgeCrossings(order, rank, down, pool);
+        int[][] bestOrder = copyOf(order);
+
+        for (int sweep = 0; sweep < crossingSweeps && best > 0; sweep++) {
+            // Forward sweep: fix layer i-1, reorder layer i
+            for (int i = 1; i < order.length; i++) {
+                reorderLayerByBarycenter(order[i], up, rank);
+            }
+            // Backward sweep: fix layer i+1, reorder layer i
+            for (int i = order.length - 2; i >= 0; i--) {
+                reorderLayerByBarycenter(order[i], down, rank);
+            }
+            long crossings = countEdgeCrossings(order, rank, down, pool);
+            if (crossings < best) {
+                best = crossings;
+                bestOrder = copyOf(order);
+            }
+        }
 
-        Map<String, Integer> depth = new HashMap<String, Integer>();
+        System.arraycopy(bestOrder, 0, order, 0, order.length);
+        updateRanks(order, rank);
+        return best;
+    }
 
-        // Find sources (no predecessors)
-        List<String> sources = new ArrayList<String>();
-        for (String v : vertices) {
-            if (pred.get(v) == null || pred.get(v).isEmpty()) {
-                sources.add(v);
+    /**
+     * Sorts {@code layer} by the mean rank of each vertex's neighbours in
+     * the fixed layer; vertices without neighbours move to the end. Ties
+     * keep their current order.
+     */
+    private static void reorderLayerByBarycenter(int[] layer, int[][] fixedNeighbors,
+                                                 int[] rank) {
+        int size = layer.length;
+        if (size < 2) return;
+        double[] bary = new double[size];
+        Integer[] sorted = new Integer[size];
+        for (int i = 0; i < size; i++) {
+            int[] nbrs = fixedNeighbors[layer[i]];
+            if (nbrs.length == 0) {
+                bary[i] = Double.MAX_VALUE; // no connections = stay put
+            } else {
+                double sum = 0;
+                for (int u : nbrs) sum += rank[u];
+                bary[i] = sum / nbrs.length;
             }
+            sorted[i] = i;
         }
-
-        // If no sources (all nodes have predecessors), use all vertices
-        if (sources.isEmpty()) {
-            sources.addAll(vertices);
+        Arrays.sort(sorted, (a, b) -> {
+            int c = Double.compare(bary[a], bary[b]);
+            return c != 0 ? c : Integer.compare(a, b);
+        });
+        int[] old = layer.clone();
+        for (int i = 0; i < size; i++) {
+            layer[i] = old[sorted[i]];
+            rank[layer[i]] = i;
         }
+    }
 
-        // BFS/topological longest-path from sources
-        Queue<String> queue = new ArrayDeque<String>();
-        for (String s : sources) {
-            depth.put(s, 0);
-            queue.add(s);
-        }
+    // ── Step 4: Coordinate assignment ────────────────────────────────
 
-        while (!queue.isEmpty()) {
-            String u = queue.poll();
-            int uDepth = depth.getOrDefault(u, 0);
-            for (String w : succ.getOrDefault(u, Collections.emptySet())) {
-                int newDepth = uDepth + 1;
-                if (!depth.containsKey(w) || depth.get(w) < newDepth) {
-                    depth.put(w, newDepth);
-                    queue.add(w);
-                }
+    /**
+     * Brandes–Köpf horizontal placement: four alignments (up/down ×
+     * left/right) each stack vertices into vertical blocks along median
+     * neighbours and pack the blocks {@code nodeSpacing} apart; the final
+     * coordinate is the average of the two median candidates. Layers are
+     * then placed {@code layerSpacing} apart and the drawing is centred on
+     * the canvas.
+     */
+    private Map<String, double[]> assignCoordinates(List<String> vertices, int[][] order,
+                                                    int[][] up, int[][] down,
+                                                    ForkJoinPool pool) {
+        int n = vertices.size();
+        double[][] candidates = new double[4][];
+        BlockRange.forEachBlock(pool, 4, k -> candidates[k] = alignAndCompact(
+                order, n, (k & 1) == 0 ? up : down, (k & 1) == 0, (k & 2) == 0));
+
+        // Align every candidate to the narrowest one
+        double[] min = new double[4];
+        double[] max = new double[4];
+        int narrowest = 0;
+        for (int k = 0; k < 4; k++) {
+            min[k] = Double.MAX_VALUE;
+            max[k] = -Double.MAX_VALUE;
+            for (double x : candidates[k]) {
+                min[k] = Math.min(min[k], x);
+                max[k] = Math.max(max[k], x);
             }
+            if (max[k] - min[k] < max[narrowest] - min[narrowest]) narrowest = k;
         }
-
-        // Assign any remaining unvisited vertices to layer 0
-        for (String v : vertices) {
-            if (!depth.containsKey(v)) {
-                depth.put(v, 0);
-            }
+        double[] shift = new double[4];
+        for (int k = 0; k < 4; k++) {
+            shift[k] = (k & 2) == 0 ? min[narrowest] - min[k] : max[narrowest] - max[k];
         }
 
-        return depth;
-    }
-
-    // ── Step 3: Crossing reduction (barycenter) ──────────────────────
+        double[] x = new double[n];
+        double[] four = new double[4];
+        double minX = Double.MAX_VALUE, maxX = -Double.MAX_VALUE;
+        for (int v = 0; v < n; v++) {
+            for (int k = 0; k < 4; k++) four[k] = candidates[k][v] + shift[k];
+            Arrays.sort(four);
+            x[v] = (four[1] + four[2]) / 2;
+            minX = Math.min(minX, x[v]);
+            maxX = Math.max(maxX, x[v]);
+        }
 
-    private void reduceCrossings(
-            Map<String, Set<String>> succ,
-            Map<String, Set<String>> pred) {
+        int numLayers = order.length;
+        double totalLayerSpan = (numLayers - 1) * layerSpacing;
+        double layerOffset = (orientation == Orientation.TOP_TO_BOTTOM
+                ? height : width) / 2.0 - totalLayerSpan / 2.0;
+        double nodeOffset = (orientation == Orientation.TOP_TO_BOTTOM
+                ? width : height) / 2.0 - (minX + maxX) / 2.0;
 
-        for (int sweep = 0; sweep < crossingSweeps; sweep++) {
-            // Forward sweep: fix layer i, reorder layer i+1
-            for (int i = 0; i < layers.size() - 1; i++) {
-                reorderLayerByBarycenter(layers.get(i), layers.get(i + 1),
-                        succ, true);
-            }
-            // Backward sweep: fix layer i+1, reorder layer i
-            for (int i = layers.size() - 1; i > 0; i--) {
-                reorderLayerByBarycenter(layers.get(i), layers.get(i - 1),
-                        pred, false);
+        Map<String, double[]> pos = new HashMap<String, double[]>(n * 2);
+        for (int layerIdx = 0; layerIdx < numLayers; layerIdx++) {
+            double layerCoord = layerOffset + layerIdx * layerSpacing;
+            for (int v : order[layerIdx]) {
+                double nodeCoord = nodeOffset + x[v];
+                pos.put(vertices.get(v), orientation == Orientation.TOP_TO_BOTTOM
+                        ? new double[]{nodeCoord, layerCoord}
+                        : new double[]{layerCoord, nodeCoord});
             }
         }
+        return pos;
     }
 
-    private void reorderLayerByBarycenter(
-            List<String> fixedLayer, List<String> freeLayer,
-            Map<String, Set<String>> adj, boolean forward) {
+    /**
+     * One Brandes–Köpf pass. Layers are visited top-down when
+     * {@code topDown} (aligning with {@code neighbors} in the layer above),
+     * and each layer left to right when {@code leftToRight}; the right-hand
+     * passes run mirrored and are negated back.
+     */
+    private double[] alignAndCompact(int[][] order, int n, int[][] neighbors,
+                                     boolean topDown, boolean leftToRight) {
+        int numLayers = order.length;
+        int[] root = new int[n];
+        int[] align = new int[n];
+        for (int v = 0; v < n; v++) {
+            root[v] = v;
+            align[v] = v;
+        }
 
-        // Build position index for the fixed layer
-        Map<String, Integer> fixedPos = new HashMap<String, Integer>();
-        for (int i = 0; i < fixedLayer.size(); i++) {
-            fixedPos.put(fixedLayer.get(i), i);
+        // Position of each vertex within its layer in visiting order
+        int[] pos = new int[n];
+        for (int[] layer : order) {
+            for (int i = 0; i < layer.length; i++) {
+                pos[layer[i]] = leftToRight ? i : layer.length - 1 - i;
+            }
         }
 
-        // Compute barycenter for each node in the free layer
-        Map<String, Double> bary = new HashMap<String, Double>();
-        for (String v : freeLayer) {
-            Set<String> neighbors;
-            if (forward) {
-                // v is in layer i+1; its "fixed" neighbors are predecessors in layer i
-                neighbors = new HashSet<String>();
-                for (String u : fixedLayer) {
-                    if (adj.getOrDefault(u, Collections.emptySet()).contains(v)) {
-                        neighbors.add(u);
-                    }
+        // Vertical alignment along medians, never crossing an earlier one
+        long[] sorted = new long[0];
+        for (int step = 1; step < numLayers; step++) {
+            int[] layer = order[topDown ? step : numLayers - 1 - step];
+            int r = -1;
+            for (int j = 0; j < layer.length; j++) {
+                int v = layer[leftToRight ? j : layer.length - 1 - j];
+                int d = neighbors[v].length;
+                if (d == 0) continue;
+                if (sorted.length < d) sorted = new long[Math.max(d, 2 * sorted.length)];
+                for (int i = 0; i < d; i++) {
+                    int u = neighbors[v][i];
+                    sorted[i] = (long) pos[u] * n + u;
                 }
-            } else {
-                // v is in layer i; its "fixed" neighbors are successors in layer i+1
-                neighbors = new HashSet<String>();
-                for (String u : fixedLayer) {
-                    if (adj.getOrDefault(u, Collections.emptySet()).contains(v)) {
-                        neighbors.add(u);
+                Arrays.sort(sorted, 0, d);
+                for (int median = (d - 1) / 2; median <= d / 2 && align[v] == v; median++) {
+                    int u = (int) (sorted[median] % n);
+                    if (r < pos[u]) {
+                        align[u] = v;
+                        root[v] = root[u];
+                        align[v] = root[v];
+                        r = pos[u];
                     }
                 }
             }
+        }
 
-            if (neighbors.isEmpty()) {
-                bary.put(v, Double.MAX_VALUE); // no connections = stay put
-            } else {
-                double sum = 0;
-                for (String u : neighbors) {
-                    Integer pos = fixedPos.get(u);
-                    if (pos != null) sum += pos;
-                }
-                bary.put(v, sum / neighbors.size());
+        // Horizontal compaction: longest path over the block graph
+        int[] blockIn = new int[n];
+        double[] x = new double[n];
+        // Each vertex constrains the block of its right-hand neighbour
+        int[] edgeStart = new int[n + 1];
+        for (int[] layer : order) {
+            for (int j = 1; j < layer.length; j++) {
+                int a = layer[leftToRight ? j - 1 : layer.length - j];
+                edgeStart[root[a] + 1]++;
             }
         }
-
-        // Sort free layer by barycenter, preserving order for ties
-        freeLayer.sort(Comparator.comparingDouble(
-                (String v) -> bary.getOrDefault(v, Double.MAX_VALUE)));
-    }
-
-    // ── Step 4: Coordinate assignment ────────────────────────────────
-
-    private Map<String, double[]> assignCoordinates() {
-        Map<String, double[]> pos = new HashMap<String, double[]>();
-
-        int numLayers = layers.size();
-        if (numLayers == 0) return pos;
-
-        for (int layerIdx = 0; layerIdx < numLayers; layerIdx++) {
-            List<String> layer = layers.get(layerIdx);
-            int layerSize = layer.size();
-
-            for (int nodeIdx = 0; nodeIdx < layerSize; nodeIdx++) {
-                double layerCoord;
-                double nodeCoord;
-
-                // Center each layer
-                double totalLayerSpan = (numLayers - 1) * layerSpacing;
-                double layerOffset = (orientation == Orientation.TOP_TO_BOTTOM
-                        ? height : width) / 2.0 - totalLayerSpan / 2.0;
-                layerCoord = layerOffset + layerIdx * layerSpacing;
-
-                double totalNodeSpan = (layerSize - 1) * nodeSpacing;
-                double nodeOffset = (orientation == Orientation.TOP_TO_BOTTOM
-                        ? width : height) / 2.0 - totalNodeSpan / 2.0;
-                nodeCoord = nodeOffset + nodeIdx * nodeSpacing;
-
-                double x, y;
-                if (orientation == Orientation.TOP_TO_BOTTOM) {
-                    x = nodeCoord;
-                    y = layerCoord;
-                } else {
-                    x = layerCoord;
-                    y = nodeCoord;
-                }
-
-                pos.put(layer.get(nodeIdx), new double[]{x, y});
+        for (int v = 0; v < n; v++) edgeStart[v + 1] += edgeStart[v];
+        int[] edgeTo = new int[edgeStart[n]];
+        int[] cursor = Arrays.copyOf(edgeStart, n);
+        for (int[] layer : order) {
+            for (int j = 1; j < layer.length; j++) {
+                int a = layer[leftToRight ? j - 1 : layer.length - j];
+                int b = layer[leftToRight ? j : layer.length - 1 - j];
+                edgeTo[cursor[root[a]]++] = root[b];
+                blockIn[root[b]]++;
+            }
+        }
+        int[] queue = new int[n];
+        int tail = 0;
+        for (int v = 0; v < n; v++) {
+            if (root[v] == v && blockIn[v] == 0) queue[tail++] = v;
+        }
+        for (int head = 0; head < tail; head++) {
+            int a = queue[head];
+            for (int e = edgeStart[a]; e < edgeStart[a + 1]; e++) {
+                int b = edgeTo[e];
+                x[b] = Math.max(x[b], x[a] + nodeSpacing);
+                if (--blockIn[b] == 0) queue[tail++] = b;
             }
         }
 
-        return pos;
+        double sign = leftToRight ? 1 : -1;
+        double[] result = new double[n];
+        for (int v = 0; v < n; v++) result[v] = sign * x[root[v]];
+        return result;
     }
 
     // ── Critical path ────────────────────────────────────────────────
 
-    private List<String> findCriticalPath(
-            List<String> vertices,
-            Map<String, Set<String>> succ,
-            Map<String, Set<String>> pred) {
-
-        // Find the deepest node(s), then backtrack
-        String deepest = null;
+    private static List<String> findCriticalPath(List<String> vertices, int[] depth,
+                                                 int[][] pred) {
+        // Find the deepest node, then backtrack
+        int deepest = -1;
         int maxDepth = -1;
-        for (String v : vertices) {
-            int d = layerAssignment.getOrDefault(v, 0);
-            if (d > maxDepth) {
-                maxDepth = d;
+        for (int v = 0; v < depth.length; v++) {
+            if (depth[v] > maxDepth) {
+                maxDepth = depth[v];
                 deepest = v;
             }
         }
 
-        if (deepest == null) return new ArrayList<String>();
+        List<String> path = new ArrayList<String>();
+        if (deepest < 0) return path;
 
         // Backtrack from deepest to a source
-        List<String> path = new ArrayList<String>();
-        String current = deepest;
-        while (current != null) {
-            path.add(current);
-            String best = null;
+        int current = deepest;
+        while (current >= 0) {
+            path.add(vertices.get(current));
+            int best = -1;
             int bestDepth = -1;
-            for (String p : pred.getOrDefault(current, Collections.emptySet())) {
-                int d = layerAssignment.getOrDefault(p, 0);
-                if (d > bestDepth) {
-                    bestDepth = d;
+            for (int p : pred[current]) {
+                if (depth[p] > bestDepth) {
+                    bestDepth = depth[p];
                     best = p;
                 }
             }
             // Only go to a predecessor in a strictly lower layer
-            if (best != null && bestDepth < layerAssignment.getOrDefault(current, 0)) {
-                current = best;
-            } else {
-                current = null;
-            }
+            current = best >= 0 && bestDepth < depth[current] ? best : -1;
         }
 
         Collections.reverse(path);
@@ -479,68 +614,126 @@ public class HierarchicalLayout {
 
     // ── Crossing count ───────────────────────────────────────────────
 
-    private int countEdgeCrossings(Map<String, Set<String>> succ) {
-        int crossings = 0;
-
-        for (int i = 0; i < layers.size() - 1; i++) {
-            List<String> upper = layers.get(i);
-            List<String> lower = layers.get(i + 1);
-
-            // Build position maps
-            Map<String, Integer> upperPos = new HashMap<String, Integer>();
-            for (int j = 0; j < upper.size(); j++) {
-                upperPos.put(upper.get(j), j);
-            }
-            Map<String, Integer> lowerPos = new HashMap<String, Integer>();
-            for (int j = 0; j < lower.size(); j++) {
-                lowerPos.put(lower.get(j), j);
-            }
+    /**
+     * Counts crossings between consecutive layers with the accumulator tree
+     * of Barth, Jünger and Mutzel: O(E log V) per layer pair. Layer pairs
+     * are independent and counted in parallel when a pool is given.
+     */
+    private static long countEdgeCrossings(int[][] order, int[] rank, int[][] down,
+                                           ForkJoinPool pool) {
+        int pairs = order.length - 1;
+        if (pairs <= 0) return 0;
+        long[] perPair = new long[pairs];
+        BlockRange.forEachBlock(pool, pairs, i -> perPair[i] = countPairCrossings(
+                order[i], order[i + 1].length, rank, down));
+        long crossings = 0;
+        for (long c : perPair) crossings += c;
+        return crossings;
+    }
 
-            // Collect edges between these two layers
-            List<int[]> edges = new ArrayList<int[]>();
-            for (String u : upper) {
-                for (String v : succ.getOrDefault(u, Collections.emptySet())) {
-                    Integer vPos = lowerPos.get(v);
-                    if (vPos != null) {
-                        edges.add(new int[]{upperPos.get(u), vPos});
-                    }
-                }
-            }
+    private static long countPairCrossings(int[] upper, int lowerSize, int[] rank,
+                                           int[][] down) {
+        // Lower-end ranks of the pair's edges, sorted by (upper rank, lower rank)
+        int m = 0;
+        for (int u : upper) m += down[u].length;
+        if (m < 2) return 0;
+        int[] south = new int[m];
+        int k = 0;
+        for (int u : upper) {
+            int start = k;
+            for (int w : down[u]) south[k++] = rank[w];
+            Arrays.sort(south, start, k);
+        }
 
-            // Count crossings: Edge (u1,v1) crosses (u2,v2) if
-            // (u1 < u2 && v1 > v2) or (u1 > u2 && v1 < v2)
-            for (int a = 0; a < edges.size(); a++) {
-                for (int b = a + 1; b < edges.size(); b++) {
-                    int u1 = edges.get(a)[0], v1 = edges.get(a)[1];
-                    int u2 = edges.get(b)[0], v2 = edges.get(b)[1];
-                    if ((u1 < u2 && v1 > v2) || (u1 > u2 && v1 < v2)) {
-                        crossings++;
-                    }
-                }
+        int firstIndex = 1;
+        while (firstIndex < lowerSize) firstIndex *= 2;
+        int[] tree = new int[2 * firstIndex - 1];
+        firstIndex--;
+        long crossings = 0;
+        for (int i = 0; i < m; i++) {
+            int index = south[i] + firstIndex;
+            tree[index]++;
+            while (index > 0) {
+                if ((index & 1) == 1) crossings += tree[index + 1];
+                index = (index - 1) / 2;
+                tree[index]++;
             }
         }
-
         return crossings;
     }
 
     // ── Utility ──────────────────────────────────────────────────────
 
-    private Map<String, Set<String>> invertAdjacency(
-            List<String> vertices,
-            Map<String, Set<String>> adj) {
+    /** Sorted, duplicate-free adjacency lists of the edges src[i] → dst[i]. */
+    private static int[][] adjacency(int n, int[] src, int[] dst, int m) {
+        int[] degree = new int[n];
+        for (int i = 0; i < m; i++) degree[src[i]]++;
+        int[][] adj = new int[n][];
+        for (int v = 0; v < n; v++) adj[v] = new int[degree[v]];
+        Arrays.fill(degree, 0);
+        for (int i = 0; i < m; i++) adj[src[i]][degree[src[i]]++] = dst[i];
+        for (int v = 0; v < n; v++) {
+            int[] out = adj[v];
+            if (out.length < 2) continue;
+            Arrays.sort(out);
+            int unique = 1;
+            for (int i = 1; i < out.length; i++) {
+                if (out[i] != out[unique - 1]) out[unique++] = out[i];
+            }
+            if (unique < out.length) adj[v] = Arrays.copyOf(out, unique);
+        }
+        return adj;
+    }
 
-        Map<String, Set<String>> inv = new HashMap<String, Set<String>>();
-        for (String v : vertices) {
-            inv.put(v, new HashSet<String>());
+    private static int[][] invertAdjacency(int[][] adj) {
+        int n = adj.length;
+        int m = 0;
+        for (int[] out : adj) m += out.length;
+        int[] src = new int[m];
+        int[] dst = new int[m];
+        int k = 0;
+        for (int u = 0; u < n; u++) {
+            for (int v : adj[u]) {
+                src[k] = v;
+                dst[k] = u;
+                k++;
+            }
         }
-        for (String u : vertices) {
-            for (String v : adj.getOrDefault(u, Collections.emptySet())) {
-                if (inv.containsKey(v)) {
-                    inv.get(v).add(u);
-                }
+        return adjacency(n, src, dst, m);
+    }
+
+    /** Neighbours of each vertex that sit exactly {@code offset} layers away. */
+    private static int[][] adjacentLayer(int[][] adj, int[] depth, int offset) {
+        int n = adj.length;
+        int[][] result = new int[n][];
+        for (int v = 0; v < n; v++) {
+            int count = 0;
+            for (int w : adj[v]) {
+                if (depth[w] == depth[v] + offset) count++;
+            }
+            if (count == adj[v].length) {
+                result[v] = adj[v];
+                continue;
+            }
+            result[v] = new int[count];
+            count = 0;
+            for (int w : adj[v]) {
+                if (depth[w] == depth[v] + offset) result[v][count++] = w;
             }
         }
-        return inv;
+        return result;
+    }
+
+    private static void updateRanks(int[][] order, int[] rank) {
+        for (int[] layer : order) {
+            for (int i = 0; i < layer.length; i++) rank[layer[i]] = i;
+        }
+    }
+
+    private static int[][] copyOf(int[][] order) {
+        int[][] copy = new int[order.length][];
+        for (int i = 0; i < order.length; i++) copy[i] = order[i].clone();
+        return copy;
     }
 
     // ── Public getters ───────────────────────────────────────────────
@@ -557,6 +750,35 @@ public class HierarchicalLayout {
         return positions.get(vertex);
     }
 
+    /**
+     * Hit-tests the layout: finds the vertex nearest to (x, y) within
+     * {@code radius}, e.g. under the mouse pointer. The first call indexes
+     * the positions in a {@link QuadTree}, so each query is O(log V).
+     *
+     * @param x      x-coordinate in layout space
+     * @param y      y-coordinate in layout space
+     * @param radius maximum distance to the vertex
+     * @return the nearest vertex, or null if none lies within radius
+     * @throws IllegalStateException if compute() has not been called
+     */
+    public String vertexAt(double x, double y, double radius) {
+        ensureComputed();
+        if (hitIndex == null) {
+            int n = positions.size();
+            hitVertices = positions.keySet().toArray(new String[0]);
+            double[] xs = new double[n];
+            double[] ys = new double[n];
+            for (int i = 0; i < n; i++) {
+                double[] p = positions.get(hitVertices[i]);
+                xs[i] = p[0];
+                ys[i] = p[1];
+            }
+            hitIndex = QuadTree.build(xs, ys, n);
+        }
+        int i = hitIndex.nearest(x, y, radius);
+        return i < 0 ? null : hitVertices[i];
+    }
+
     /**
      * Gets all computed positions.
      *
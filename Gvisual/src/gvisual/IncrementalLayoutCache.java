@@ -0,0 +1,232 @@
+package gvisual;
+
+import edu.uci.ics.jung.graph.Graph;
+import java.util.*;
+import java.util.function.Function;
+
+/**
+ * Carries vertex positions over from one snapshot of an evolving graph to
+ * the next, so that scrubbing a timeline does not re-layout the whole
+ * picture from scratch.
+ *
+ * <p>Each call to {@link #update} receives the next snapshot together with
+ * a <em>region</em> for every vertex (for the timeline view, the cell of
+ * the 3×3 edge-type grid it belongs to) and a seed position for it. A
+ * vertex that was laid out before and is still in the same region keeps
+ * its cached position unchanged. Only vertices that are new, or whose
+ * region changed, are placed.</p>
+ *
+ * <h3>Relaxation</h3>
+ * <p>Placed vertices start at their seed position and are relaxed for a
+ * few Fruchterman–Reingold style iterations while every other vertex stays
+ * pinned. Forces on a placed vertex:</p>
+ * <ul>
+ *   <li>repulsion k²/d from every vertex of the snapshot, pinned or not,
+ *       approximated with a Barnes–Hut {@link QuadTree};</li>
+ *   <li>an attraction d²/k back towards its seed, which keeps it inside
+ *       its region while overlaps are resolved.</li>
+ * </ul>
+ * <p>Displacement is capped by a temperature that starts at k and cools
+ * linearly to zero. A snapshot in which nothing changed costs one map
+ * lookup per vertex. Otherwise each iteration costs O(V log V) to rebuild
+ * the tree plus O(P log V) for the P placed vertices.</p>
+ *
+ * <p>Positions of vertices missing from a snapshot are kept, so a vertex
+ * that comes back on a later day reappears where it was last seen.</p>
+ *
+ * <p>Not thread-safe.</p>
+ *
+ * @author sauravbhattacharya001
+ */
+public class IncrementalLayoutCache {
+
+    /** Default number of relaxation iterations for placed vertices. */
+    public static final int DEFAULT_RELAX_ITERATIONS = 30;
+
+    /** Default ideal distance between vertices, in layout units. */
+    public static final double DEFAULT_IDEAL_DISTANCE = 30.0;
+
+    private static final double THETA_SQ = 0.8 * 0.8;
+    private static final double SEED_JITTER = 0.1;
+
+    private final Map<String, double[]> positions = new HashMap<String, double[]>();
+    private final Map<String, Integer> regions = new HashMap<String, Integer>();
+    private final QuadTree tree = new QuadTree();
+
+    private int relaxIterations = DEFAULT_RELAX_ITERATIONS;
+    private double idealDistance = DEFAULT_IDEAL_DISTANCE;
+    private int reusedCount;
+    private int placedCount;
+
+    /**
+     * Sets the number of relaxation iterations for new or moved vertices.
+     *
+     * @param iterations iteration count (&ge; 0; 0 keeps the seed positions)
+     * @return this cache
+     * @throws IllegalArgumentException if iterations is negative
+     */
+    public IncrementalLayoutCache withRelaxIterations(int iterations) {
+        if (iterations < 0) {
+            throw new IllegalArgumentException("relaxIterations must be >= 0");
+        }
+        this.relaxIterations = iterations;
+        return this;
+    }
+
+    /**
+     * Sets the ideal distance k between vertices used by the relaxation.
+     *
+     * @param distance ideal distance (&gt; 0)
+     * @return this cache
+     * @throws IllegalArgumentException if distance is not positive
+     */
+    public IncrementalLayoutCache withIdealDistance(double distance) {
+        if (!(distance > 0)) {
+            throw new IllegalArgumentException("idealDistance must be > 0");
+        }
+        this.idealDistance = distance;
+        return this;
+    }
+
+    /**
+     * Lays out the next snapshot, reusing cached positions where possible.
+     *
+     * @param graph    the snapshot to lay out
+     * @param regionOf region of each vertex; a change of region moves it
+     * @param seedOf   seed [x, y] position of each vertex, used only for
+     *                 vertices that are new or changed region
+     * @return the set of vertices that were placed rather than reused
+     * @throws IllegalArgumentException if any argument is null
+     */
+    public Set<String> update(Graph<String, Edge> graph,
+                              Function<String, Integer> regionOf,
+                              Function<String, double[]> seedOf) {
+        if (graph == null || regionOf == null || seedOf == null) {
+            throw new IllegalArgumentException("graph, regionOf and seedOf must not be null");
+        }
+        int n = graph.getVertexCount();
+        String[] vertices = graph.getVertices().toArray(new String[0]);
+        double[] xs = new double[n];
+        double[] ys = new double[n];
+        double[] anchorX = new double[n];
+        double[] anchorY = new double[n];
+        int[] placed = new int[n];
+        int p = 0;
+        Random rng = new Random(42);
+
+        for (int i = 0; i < n; i++) {
+            String v = vertices[i];
+            Integer region = regionOf.apply(v);
+            double[] cached = positions.get(v);
+            if (cached != null && Objects.equals(regions.get(v), region)) {
+                xs[i] = cached[0];
+                ys[i] = cached[1];
+                continue;
+            }
+            double[] seed = seedOf.apply(v);
+            anchorX[i] = seed[0];
+            anchorY[i] = seed[1];
+            // Break ties between coincident seeds, which would not repel
+            xs[i] = seed[0] + (rng.nextDouble() - 0.5) * SEED_JITTER * idealDistance;
+            ys[i] = seed[1] + (rng.nextDouble() - 0.5) * SEED_JITTER * idealDistance;
+            regions.put(v, region);
+            placed[p++] = i;
+        }
+        reusedCount = n - p;
+        placedCount = p;
+
+        relax(n, xs, ys, anchorX, anchorY, placed, p);
+
+        Set<String> moved = new LinkedHashSet<String>();
+        for (int j = 0; j < p; j++) {
+            int i = placed[j];
+            positions.put(vertices[i], new double[]{xs[i], ys[i]});
+            moved.add(vertices[i]);
+        }
+        return moved;
+    }
+
+    private void relax(int n, double[] xs, double[] ys,
+                       double[] anchorX, double[] anchorY, int[] placed, int p) {
+        if (p == 0 || relaxIterations == 0) return;
+        double k = idealDistance;
+        double kSq = k * k;
+        double[] disp = new double[2];
+        double[] dx = new double[p];
+        double[] dy = new double[p];
+        for (int iter = 0; iter < relaxIterations; iter++) {
+            double t = k * (1.0 - (double) iter / relaxIterations);
+            tree.rebuild(xs, ys, n);
+            for (int j = 0; j < p; j++) {
+                int i = placed[j];
+                disp[0] = 0;
+                disp[1] = 0;
+                tree.applyRepulsion(i, xs[i], ys[i], kSq, disp, THETA_SQ);
+                double ax = xs[i] - anchorX[i];
+                double ay = ys[i] - anchorY[i];
+                double anchorDist = Math.sqrt(ax * ax + ay * ay);
+                dx[j] = disp[0] - ax * anchorDist / k;
+                dy[j] = disp[1] - ay * anchorDist / k;
+            }
+            // Move only after every force is read, the tree references xs/ys
+            for (int j = 0; j < p; j++) {
+                double len = Math.sqrt(dx[j] * dx[j] + dy[j] * dy[j]);
+                if (len > 0) {
+                    double step = Math.min(len, t) / len;
+                    xs[placed[j]] += dx[j] * step;
+                    ys[placed[j]] += dy[j] * step;
+                }
+            }
+        }
+    }
+
+    /**
+     * Returns the cached position of a vertex.
+     *
+     * @param vertex the vertex
+     * @return [x, y] copy, or null if the vertex has never been laid out
+     */
+    public double[] getPosition(String vertex) {
+        double[] pos = positions.get(vertex);
+        return pos == null ? null : pos.clone();
+    }
+
+    /**
+     * Returns the number of cached vertices, including vertices missing
+     * from the latest snapshot.
+     *
+     * @return cache size
+     */
+    public int size() {
+        return positions.size();
+    }
+
+    /**
+     * Returns how many vertices of the latest snapshot kept their position.
+     *
+     * @return reused vertex count
+     */
+    public int getReusedCount() {
+        return reusedCount;
+    }
+
+    /**
+     * Returns how many vertices of the latest snapshot were placed.
+     *
+     * @return placed vertex count
+     */
+    public int getPlacedCount() {
+        return placedCount;
+    }
+
+    /**
+     * Forgets every cached position, so the next snapshot is laid out
+     * from its seeds alone.
+     */
+    public void clear() {
+        positions.clear();
+        regions.clear();
+        reusedCount = 0;
+        placedCount = 0;
+    }
+}
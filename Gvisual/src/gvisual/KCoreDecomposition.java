@@ -36,6 +36,11 @@ import java.util.*;
  * tightly-knit groups, in bioinformatics for protein interaction networks,
  * and in network visualisation for layout simplification.</p>
  *
+ * <p>This class decomposes a fixed snapshot. For graphs that change one
+ * edge at a time (timeline scrubbing, vertex-removal attacks) use
+ * {@link KCoreMaintainer}, which updates coreness locally instead of
+ * re-peeling the whole graph.</p>
+ *
  * @author sauravbhattacharya001
  */
 public class KCoreDecomposition {
@@ -73,95 +78,111 @@ public class KCoreDecomposition {
     public KCoreDecomposition compute() {
         if (computed) return this;
 
-        Collection<String> vertices = graph.getVertices();
-        int n = vertices.size();
+        GraphUtils.IndexedGraph ig = new GraphUtils.IndexedGraph(graph);
+        int n = ig.n;
 
         if (n == 0) {
             computed = true;
             return this;
         }
 
-        // 1. Compute initial degrees
-        Map<String, Integer> degree = new HashMap<String, Integer>();
-        int maxDeg = 0;
-        for (String v : vertices) {
-            int d = graph.degree(v);
-            degree.put(v, d);
-            if (d > maxDeg) maxDeg = d;
-        }
+        int[] core = coreNumbers(ig.adjLists, n);
 
-        // 2. Bucket-sort vertices by degree (bin-sort for O(V+E) overall)
-        @SuppressWarnings("unchecked")
-        List<String>[] bins = new ArrayList[maxDeg + 1];
-        for (int i = 0; i <= maxDeg; i++) {
-            bins[i] = new ArrayList<String>();
-        }
-        for (String v : vertices) {
-            bins[degree.get(v)].add(v);
+        Map<String, Integer> result = new LinkedHashMap<String, Integer>(n * 2);
+        int maxCore = 0;
+        for (int i = 0; i < n; i++) {
+            result.put(ig.vertexList.get(i), core[i]);
+            if (core[i] > maxCore) maxCore = core[i];
         }
 
-        // Position of each vertex in its bin (for O(1) re-bucketing)
-        Map<String, Integer> pos = new HashMap<String, Integer>();
-        Map<String, Integer> binStart = new HashMap<String, Integer>();
+        this.coreness = result;
+        this.degeneracy = maxCore;
+        this.computed = true;
+        return this;
+    }
 
-        // Flatten bins into a single ordered array
-        String[] order = new String[n];
-        int idx = 0;
-        for (int d = 0; d <= maxDeg; d++) {
-            for (String v : bins[d]) {
-                order[idx] = v;
-                pos.put(v, idx);
-                idx++;
-            }
+    /**
+     * Array-based Batagelj–Zaversnik core numbering over an integer
+     * adjacency structure. Vertices are kept in a single array ordered by
+     * current degree, with {@code bin[d]} marking the start of each degree
+     * block, so every neighbour decrement is an O(1) swap into the
+     * preceding block and the whole pass is O(V + E) with no boxing.
+     *
+     * <p>Adjacency lists must not contain duplicate neighbours. Self-loops
+     * are tolerated (they never trigger a decrement) but are counted in
+     * the starting degree.</p>
+     *
+     * @param adj adjacency lists in integer-index space
+     * @param n   number of vertices (the first {@code n} entries of {@code adj})
+     * @return coreness per vertex index
+     */
+    static int[] coreNumbers(int[][] adj, int n) {
+        return peel(adj, n, new int[n]);
+    }
+
+    /**
+     * Returns a degeneracy ordering: the order in which the
+     * Batagelj–Zaversnik peel removes vertices. Every vertex has at most
+     * {@code degeneracy} neighbours that appear later in this order.
+     *
+     * @param adj adjacency lists in integer-index space
+     * @param n   number of vertices
+     * @return vertex indices in peel order
+     */
+    static int[] degeneracyOrder(int[][] adj, int n) {
+        int[] order = new int[n];
+        peel(adj, n, order);
+        return order;
+    }
+
+    /** Runs the peel, leaving the removal order in {@code vert}. */
+    private static int[] peel(int[][] adj, int n, int[] vert) {
+        int[] deg = new int[n];
+        int maxDeg = 0;
+        for (int v = 0; v < n; v++) {
+            deg[v] = adj[v].length;
+            if (deg[v] > maxDeg) maxDeg = deg[v];
         }
 
-        // Record the start index of each degree's bin
-        int[] binOfDeg = new int[maxDeg + 2];
-        int cur = 0;
+        // Counting sort by degree: bin[d] = first slot of degree-d block
+        int[] bin = new int[maxDeg + 1];
+        for (int v = 0; v < n; v++) bin[deg[v]]++;
+        int start = 0;
         for (int d = 0; d <= maxDeg; d++) {
-            binOfDeg[d] = cur;
-            cur += bins[d].size();
+            int num = bin[d];
+            bin[d] = start;
+            start += num;
         }
-        binOfDeg[maxDeg + 1] = n;
-
-        // 3. Process vertices in order of increasing degree
-        Map<String, Integer> core = new HashMap<String, Integer>();
-        Set<String> processed = new HashSet<String>();
-        int maxCore = 0;
+        int[] pos = new int[n];
+        for (int v = 0; v < n; v++) {
+            pos[v] = bin[deg[v]];
+            vert[pos[v]] = v;
+            bin[deg[v]]++;
+        }
+        for (int d = maxDeg; d > 0; d--) bin[d] = bin[d - 1];
+        bin[0] = 0;
 
+        // Peel in non-decreasing degree order; deg[] becomes coreness
         for (int i = 0; i < n; i++) {
-            String v = order[i];
-            int dv = degree.get(v);
-            core.put(v, dv);
-            if (dv > maxCore) maxCore = dv;
-            processed.add(v);
-
-            // For each unprocessed neighbour, decrease effective degree
-            for (String u : graph.getNeighbors(v)) {
-                if (processed.contains(u)) continue;
-                int du = degree.get(u);
-                if (du > dv) {
-                    // Move u from bin[du] to bin[du-1]
-                    int posU = pos.get(u);
-                    int startOfBin = binOfDeg[du];
-                    String w = order[startOfBin]; // first vertex in bin[du]
-
-                    // Swap u and w in the order array
-                    order[posU] = w;
-                    order[startOfBin] = u;
-                    pos.put(w, posU);
-                    pos.put(u, startOfBin);
-
-                    binOfDeg[du]++;
-                    degree.put(u, du - 1);
+            int v = vert[i];
+            for (int u : adj[v]) {
+                if (deg[u] > deg[v]) {
+                    int du = deg[u];
+                    int pu = pos[u];
+                    int pw = bin[du];
+                    int w = vert[pw];
+                    if (u != w) {
+                        pos[u] = pw;
+                        vert[pu] = w;
+                        pos[w] = pu;
+                        vert[pw] = u;
+                    }
+                    bin[du]++;
+                    deg[u]--;
                 }
             }
         }
-
-        this.coreness = core;
-        this.degeneracy = maxCore;
-        this.computed = true;
-        return this;
+        return deg;
     }
 
     // ── Accessors ──────────────────────────────────────────────────
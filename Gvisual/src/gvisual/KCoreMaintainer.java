@@ -0,0 +1,472 @@
+package gvisual;
+
+import edu.uci.ics.jung.graph.Graph;
+import java.util.*;
+
+/**
+ * Incremental k-core maintenance — keeps every vertex's coreness up to date
+ * while edges and vertices are inserted or removed, without re-running the
+ * full {@link KCoreDecomposition} peel.
+ *
+ * <h3>Algorithm (traversal / subcore maintenance)</h3>
+ * <p>Inserting or deleting a single edge {@code (u, v)} changes coreness by
+ * at most one, and only for vertices whose coreness equals
+ * {@code K = min(core(u), core(v))} and that are connected to the lower
+ * endpoint through such vertices (the <em>subcore</em>). Each update:</p>
+ * <ol>
+ *   <li>Collects the subcore by BFS from the root endpoint(s).</li>
+ *   <li>Computes each candidate's support — the number of neighbours with
+ *       coreness ≥ K.</li>
+ *   <li>Peels candidates whose support cannot sustain the new core order:
+ *       on insertion, vertices with support ≤ K are evicted and the
+ *       survivors rise to K + 1; on deletion, vertices with support &lt; K
+ *       drop to K − 1.</li>
+ * </ol>
+ *
+ * <p>Work is proportional to the size of the affected subcore and its
+ * incident edges, which on real networks is usually a handful of vertices,
+ * so updates run in microseconds. All bookkeeping is array-based with
+ * epoch-stamped scratch marks, so no per-update clearing or boxing is
+ * needed.</p>
+ *
+ * <p>The maintainer keeps its own adjacency copy and is independent of the
+ * JUNG graph it was seeded from. It treats the graph as simple and
+ * undirected: self-loops and duplicate edges are ignored.</p>
+ *
+ * <p>Not thread-safe.</p>
+ *
+ * @author sauravbhattacharya001
+ */
+public class KCoreMaintainer {
+
+    private static final int[] EMPTY = new int[0];
+
+    private final Map<String, Integer> index;
+    private String[] labels;
+    private int[][] adj;
+    private int[] deg;
+    private int[] core;
+    private int slots;
+    private int vertexCount;
+    private int edgeCount;
+    private final Deque<Integer> freeSlots;
+
+    /** Vertices per coreness value, used to track degeneracy in O(1). */
+    private int[] shellCount;
+    private int degeneracy;
+
+    // Scratch state for subcore traversal (epoch-stamped, never cleared)
+    private int[] visited;
+    private int[] evicted;
+    private int[] support;
+    private int[] queue;
+    private int[] stack;
+    private int queueSize;
+    private int epoch;
+
+    /**
+     * Creates an empty maintainer.
+     */
+    public KCoreMaintainer() {
+        this.index = new HashMap<String, Integer>();
+        this.freeSlots = new ArrayDeque<Integer>();
+        allocate(16);
+        this.shellCount = new int[4];
+    }
+
+    /**
+     * Creates a maintainer seeded with the current state of a graph. The
+     * initial coreness values come from a single array-based
+     * Batagelj–Zaversnik pass.
+     *
+     * @param graph the graph to seed from
+     * @throws IllegalArgumentException if graph is null
+     */
+    public KCoreMaintainer(Graph<String, Edge> graph) {
+        if (graph == null) {
+            throw new IllegalArgumentException("Graph must not be null");
+        }
+        this.index = new HashMap<String, Integer>();
+        this.freeSlots = new ArrayDeque<Integer>();
+
+        GraphUtils.IndexedGraph ig = new GraphUtils.IndexedGraph(graph);
+        int n = ig.n;
+        allocate(Math.max(16, n));
+        for (int i = 0; i < n; i++) {
+            String v = ig.vertexList.get(i);
+            labels[i] = v;
+            index.put(v, i);
+            int[] nb = ig.adjLists[i];
+            int d = 0;
+            int[] list = new int[nb.length];
+            for (int u : nb) {
+                if (u != i) list[d++] = u;
+            }
+            adj[i] = list;
+            deg[i] = d;
+            edgeCount += d;
+        }
+        edgeCount /= 2;
+        slots = n;
+        vertexCount = n;
+
+        int[][] exact = new int[n][];
+        for (int i = 0; i < n; i++) {
+            exact[i] = deg[i] == adj[i].length ? adj[i] : Arrays.copyOf(adj[i], deg[i]);
+        }
+        int[] c = KCoreDecomposition.coreNumbers(exact, n);
+        System.arraycopy(c, 0, core, 0, n);
+
+        int maxCore = 0;
+        for (int i = 0; i < n; i++) {
+            if (c[i] > maxCore) maxCore = c[i];
+        }
+        shellCount = new int[maxCore + 2];
+        for (int i = 0; i < n; i++) shellCount[c[i]]++;
+        degeneracy = maxCore;
+    }
+
+    // ── Updates ────────────────────────────────────────────────────
+
+    /**
+     * Adds an isolated vertex (coreness 0). No-op if it already exists.
+     *
+     * @param vertex vertex ID
+     * @return true if the vertex was added
+     */
+    public boolean addVertex(String vertex) {
+        if (vertex == null) {
+            throw new IllegalArgumentException("Vertex must not be null");
+        }
+        if (index.containsKey(vertex)) return false;
+        slotFor(vertex);
+        return true;
+    }
+
+    /**
+     * Removes a vertex and all its incident edges, updating the coreness of
+     * the remaining vertices.
+     *
+     * @param vertex vertex ID
+     * @return vertices (other than the removed one) whose coreness changed
+     */
+    public Set<String> removeVertex(String vertex) {
+        Integer vi = index.get(vertex);
+        if (vi == null) return Collections.emptySet();
+        int v = vi;
+        Set<String> changed = new LinkedHashSet<String>();
+        while (deg[v] > 0) {
+            int u = adj[v][deg[v] - 1];
+            changed.addAll(removeEdge(vertex, labels[u]));
+        }
+        changed.remove(vertex);
+
+        shellCount[core[v]]--;
+        index.remove(vertex);
+        labels[v] = null;
+        adj[v] = EMPTY;
+        core[v] = 0;
+        freeSlots.push(v);
+        vertexCount--;
+        lowerDegeneracy();
+        return changed;
+    }
+
+    /**
+     * Inserts an undirected edge, creating missing endpoints, and raises
+     * coreness where the new edge completes a higher core.
+     *
+     * @param u one endpoint
+     * @param v other endpoint
+     * @return vertices whose coreness changed (each by exactly +1); empty if
+     *         the edge already existed or is a self-loop
+     */
+    public Set<String> insertEdge(String u, String v) {
+        if (u == null || v == null) {
+            throw new IllegalArgumentException("Endpoints must not be null");
+        }
+        int a = slotFor(u);
+        int b = slotFor(v);
+        if (a == b || indexOf(a, b) >= 0) return Collections.emptySet();
+
+        link(a, b);
+        link(b, a);
+        edgeCount++;
+
+        int k = Math.min(core[a], core[b]);
+        collectSubcore(a, b, k);
+
+        // Support = neighbours that could sit in the (K+1)-core
+        int size = queueSize;
+        int top = 0;
+        for (int i = 0; i < size; i++) {
+            int w = queue[i];
+            int s = 0;
+            for (int j = 0; j < deg[w]; j++) {
+                if (core[adj[w][j]] >= k) s++;
+            }
+            support[w] = s;
+            if (s <= k) stack[top++] = w;
+        }
+
+        // Evict candidates that cannot reach K+1; survivors rise
+        while (top > 0) {
+            int w = stack[--top];
+            if (evicted[w] == epoch) continue;
+            evicted[w] = epoch;
+            for (int j = 0; j < deg[w]; j++) {
+                int x = adj[w][j];
+                if (visited[x] == epoch && evicted[x] != epoch) {
+                    if (--support[x] == k) stack[top++] = x;
+                }
+            }
+        }
+
+        Set<String> changed = new LinkedHashSet<String>();
+        for (int i = 0; i < size; i++) {
+            int w = queue[i];
+            if (evicted[w] != epoch) {
+                setCore(w, k + 1);
+                changed.add(labels[w]);
+            }
+        }
+        return changed;
+    }
+
+    /**
+     * Deletes an undirected edge and lowers coreness where the removal
+     * breaks a core.
+     *
+     * @param u one endpoint
+     * @param v other endpoint
+     * @return vertices whose coreness changed (each by exactly −1); empty if
+     *         the edge did not exist
+     */
+    public Set<String> removeEdge(String u, String v) {
+        Integer ai = index.get(u);
+        Integer bi = index.get(v);
+        if (ai == null || bi == null) return Collections.emptySet();
+        int a = ai;
+        int b = bi;
+        int ab = indexOf(a, b);
+        if (ab < 0) return Collections.emptySet();
+
+        unlink(a, ab);
+        unlink(b, indexOf(b, a));
+        edgeCount--;
+
+        int k = Math.min(core[a], core[b]);
+        if (k == 0) return Collections.emptySet();
+        collectSubcore(a, b, k);
+
+        int size = queueSize;
+        int top = 0;
+        for (int i = 0; i < size; i++) {
+            int w = queue[i];
+            int s = 0;
+            for (int j = 0; j < deg[w]; j++) {
+                if (core[adj[w][j]] >= k) s++;
+            }
+            support[w] = s;
+            if (s < k) stack[top++] = w;
+        }
+
+        Set<String> changed = new LinkedHashSet<String>();
+        while (top > 0) {
+            int w = stack[--top];
+            if (evicted[w] == epoch) continue;
+            evicted[w] = epoch;
+            setCore(w, k - 1);
+            changed.add(labels[w]);
+            for (int j = 0; j < deg[w]; j++) {
+                int x = adj[w][j];
+                if (visited[x] == epoch && evicted[x] != epoch) {
+                    if (--support[x] == k - 1) stack[top++] = x;
+                }
+            }
+        }
+        lowerDegeneracy();
+        return changed;
+    }
+
+    // ── Accessors ──────────────────────────────────────────────────
+
+    /**
+     * Returns the current coreness of a vertex.
+     *
+     * @param vertex vertex ID
+     * @return coreness value, or -1 if the vertex is not present
+     */
+    public int getCoreness(String vertex) {
+        Integer i = index.get(vertex);
+        return i != null ? core[i] : -1;
+    }
+
+    /**
+     * Returns a snapshot of the coreness of every vertex.
+     *
+     * @return map: vertex → coreness
+     */
+    public Map<String, Integer> getCoreness() {
+        Map<String, Integer> result = new LinkedHashMap<String, Integer>(vertexCount * 2);
+        for (int i = 0; i < slots; i++) {
+            if (labels[i] != null) result.put(labels[i], core[i]);
+        }
+        return result;
+    }
+
+    /**
+     * Returns the current degeneracy (maximum coreness).
+     *
+     * @return degeneracy (0 for empty or edgeless graphs)
+     */
+    public int getDegeneracy() {
+        return degeneracy;
+    }
+
+    /**
+     * Returns all vertices currently in the k-core (coreness ≥ k).
+     *
+     * @param k the core order
+     * @return sorted list of vertex IDs
+     * @throws IllegalArgumentException if k is negative
+     */
+    public List<String> getKCore(int k) {
+        if (k < 0) {
+            throw new IllegalArgumentException("k must be non-negative, got " + k);
+        }
+        List<String> result = new ArrayList<String>();
+        for (int i = 0; i < slots; i++) {
+            if (labels[i] != null && core[i] >= k) result.add(labels[i]);
+        }
+        Collections.sort(result);
+        return result;
+    }
+
+    /** Number of vertices currently tracked. */
+    public int getVertexCount() { return vertexCount; }
+
+    /** Number of undirected edges currently tracked. */
+    public int getEdgeCount() { return edgeCount; }
+
+    /**
+     * Returns whether the given edge is currently present.
+     *
+     * @param u one endpoint
+     * @param v other endpoint
+     * @return true if the edge exists
+     */
+    public boolean containsEdge(String u, String v) {
+        Integer a = index.get(u);
+        Integer b = index.get(v);
+        return a != null && b != null && indexOf(a, b) >= 0;
+    }
+
+    // ── Internals ──────────────────────────────────────────────────
+
+    /**
+     * BFS over vertices with coreness exactly {@code k}, starting from
+     * whichever endpoints have coreness {@code k}. Results land in
+     * {@code queue[0..queueSize)} and are stamped in {@code visited}.
+     */
+    private void collectSubcore(int a, int b, int k) {
+        nextEpoch();
+        int tail = 0;
+        if (core[a] == k) {
+            visited[a] = epoch;
+            queue[tail++] = a;
+        }
+        if (core[b] == k && visited[b] != epoch) {
+            visited[b] = epoch;
+            queue[tail++] = b;
+        }
+        for (int head = 0; head < tail; head++) {
+            int w = queue[head];
+            for (int j = 0; j < deg[w]; j++) {
+                int x = adj[w][j];
+                if (core[x] == k && visited[x] != epoch) {
+                    visited[x] = epoch;
+                    queue[tail++] = x;
+                }
+            }
+        }
+        queueSize = tail;
+    }
+
+    private void nextEpoch() {
+        epoch++;
+        if (epoch == Integer.MAX_VALUE) {
+            Arrays.fill(visited, 0);
+            Arrays.fill(evicted, 0);
+            epoch = 1;
+        }
+    }
+
+    private void setCore(int v, int c) {
+        shellCount[core[v]]--;
+        if (c >= shellCount.length) {
+            shellCount = Arrays.copyOf(shellCount, Math.max(c + 2, shellCount.length * 2));
+        }
+        shellCount[c]++;
+        core[v] = c;
+        if (c > degeneracy) degeneracy = c;
+    }
+
+    private void lowerDegeneracy() {
+        while (degeneracy > 0 && shellCount[degeneracy] == 0) degeneracy--;
+    }
+
+    private int slotFor(String vertex) {
+        Integer existing = index.get(vertex);
+        if (existing != null) return existing;
+        int v;
+        if (!freeSlots.isEmpty()) {
+            v = freeSlots.pop();
+        } else {
+            if (slots == labels.length) allocate(labels.length * 2);
+            v = slots++;
+        }
+        labels[v] = vertex;
+        adj[v] = EMPTY;
+        deg[v] = 0;
+        core[v] = 0;
+        index.put(vertex, v);
+        shellCount[0]++;
+        vertexCount++;
+        return v;
+    }
+
+    private int indexOf(int v, int u) {
+        int[] list = adj[v];
+        for (int j = 0, d = deg[v]; j < d; j++) {
+            if (list[j] == u) return j;
+        }
+        return -1;
+    }
+
+    private void link(int v, int u) {
+        if (deg[v] == adj[v].length) {
+            adj[v] = Arrays.copyOf(adj[v], Math.max(4, deg[v] * 2));
+        }
+        adj[v][deg[v]++] = u;
+    }
+
+    /** Swap-removes position {@code j} from {@code v}'s adjacency. */
+    private void unlink(int v, int j) {
+        adj[v][j] = adj[v][--deg[v]];
+    }
+
+    private void allocate(int capacity) {
+        int old = labels == null ? 0 : labels.length;
+        labels = labels == null ? new String[capacity] : Arrays.copyOf(labels, capacity);
+        adj = adj == null ? new int[capacity][] : Arrays.copyOf(adj, capacity);
+        for (int i = old; i < capacity; i++) adj[i] = EMPTY;
+        deg = deg == null ? new int[capacity] : Arrays.copyOf(deg, capacity);
+        core = core == null ? new int[capacity] : Arrays.copyOf(core, capacity);
+        visited = visited == null ? new int[capacity] : Arrays.copyOf(visited, capacity);
+        evicted = evicted == null ? new int[capacity] : Arrays.copyOf(evicted, capacity);
+        support = support == null ? new int[capacity] : Arrays.copyOf(support, capacity);
+        queue = new int[capacity];
+        stack = new int[capacity];
+    }
+}
@@ -0,0 +1,422 @@
+package gvisual;
+
+import java.util.*;
+
+/**
+ * A few extreme eigenpairs of a large sparse symmetric operator, by the
+ * thick-restart Lanczos method.
+ *
+ * <p>Spectral graph measures rarely need the whole spectrum: the spectral
+ * radius and gap need the top two adjacency eigenvalues, the Fiedler
+ * value and vector the bottom two Laplacian ones, spectral clustering the
+ * bottom {@code k}. Dense solvers pay O(n³) time and O(n²) memory for all
+ * n. This solver touches the matrix only through
+ * {@link LinearOperator#multiply}, so the cost is a few hundred sparse
+ * products plus O(n·m) memory for an {@code m}-vector basis — which is
+ * what lets Fiedler vectors and spectral gaps scale to 10⁵–10⁶
+ * vertices.</p>
+ *
+ * <h3>Algorithm</h3>
+ * <p>Lanczos builds an orthonormal basis {@code V} of the Krylov space
+ * {@code span{v, Av, A²v, …}}; the eigenpairs of the small projected
+ * matrix {@code T = VᵀAV} (Ritz pairs, computed by
+ * {@link DenseEigensolver}) converge to the extreme eigenpairs of
+ * {@code A} first. When the basis reaches {@code m} vectors it is
+ * <em>thick-restarted</em> (Wu &amp; Simon): the best Ritz vectors — the
+ * wanted {@code k} plus half of the remaining room — are kept as the new
+ * basis together with the last residual, so information is never thrown
+ * away and memory stays fixed. New basis vectors are fully
+ * re-orthogonalized (classical Gram–Schmidt, twice), which prevents the
+ * spurious "ghost" eigenvalues of plain Lanczos. A pair is converged when
+ * its residual {@code ‖Ax − θx‖}, available for free as
+ * {@code β·|y_last|}, is below {@code tolerance × ‖A‖}.</p>
+ *
+ * <p>A single start vector sees only one direction of a repeated
+ * eigenvalue's eigenspace, so one Lanczos run can return e.g. a single
+ * zero for a Laplacian with four components. After the first run the
+ * solver therefore <em>locks</em> the {@code k} pairs found and solves
+ * again from a fresh random vector orthogonal to them. Any pair better
+ * than the current k-th replaces it, and the check repeats until the rest
+ * of the space holds nothing better; for a simple spectrum that costs one
+ * extra small solve. Known eigenvectors can be <em>deflated</em> — for a
+ * Laplacian, pass the constant vector and the smallest eigenpair returned
+ * is the Fiedler pair.</p>
+ *
+ * <h3>Usage</h3>
+ * <pre>
+ *   Eigenpairs fiedler = new LanczosEigensolver()
+ *           .smallest(laplacianOperator, 1, constantVector);
+ *   double lambda2 = fiedler.getValue(0);
+ * </pre>
+ *
+ * @author sauravbhattacharya001
+ */
+public final class LanczosEigensolver {
+
+    /** Vector entries per block when forming Ritz vectors in place. */
+    private static final int BLOCK = 1024;
+
+    private double tolerance = 1e-10;
+    private int maxRestarts = 500;
+    private int basisSize;
+    private long seed = 42L;
+
+    /**
+     * Relative residual tolerance (default 1e-10).
+     *
+     * @param tolerance positive tolerance
+     * @return this solver for chaining
+     */
+    public LanczosEigensolver withTolerance(double tolerance) {
+        if (!(tolerance > 0)) {
+            throw new IllegalArgumentException("Tolerance must be positive");
+        }
+        this.tolerance = tolerance;
+        return this;
+    }
+
+    /**
+     * Maximum number of thick restarts (default 500). A solve that runs
+     * out returns its best approximations, flagged as not converged.
+     *
+     * @param maxRestarts non-negative restart limit
+     * @return this solver for chaining
+     */
+    public LanczosEigensolver withMaxRestarts(int maxRestarts) {
+        if (maxRestarts < 0) {
+            throw new IllegalArgumentException("Max restarts must be non-negative");
+        }
+        this.maxRestarts = maxRestarts;
+        return this;
+    }
+
+    /**
+     * Basis size {@code m} (default {@code max(2k + 8, 24)}). Larger bases
+     * converge in fewer products but hold more vectors of length n.
+     *
+     * @param basisSize basis size, or 0 for the default
+     * @return this solver for chaining
+     */
+    public LanczosEigensolver withBasisSize(int basisSize) {
+        if (basisSize < 0) {
+            throw new IllegalArgumentException("Basis size must be non-negative");
+        }
+        this.basisSize = basisSize;
+        return this;
+    }
+
+    /**
+     * Seed for the random start vector (default 42).
+     *
+     * @param seed random seed
+     * @return this solver for chaining
+     */
+    public LanczosEigensolver withSeed(long seed) {
+        this.seed = seed;
+        return this;
+    }
+
+    /**
+     * Computes the {@code k} smallest eigenpairs.
+     *
+     * @param op      symmetric operator
+     * @param k       number of eigenpairs wanted (capped at the dimension
+     *                left after deflation)
+     * @param deflate known eigenvectors to exclude (need not be normalized)
+     * @return eigenpairs in ascending eigenvalue order
+     * @throws IllegalArgumentException if op is null or k is negative
+     */
+    public Eigenpairs smallest(LinearOperator op, int k, double[]... deflate) {
+        return solve(op, k, false, deflate);
+    }
+
+    /**
+     * Computes the {@code k} largest eigenpairs.
+     *
+     * @param op      symmetric operator
+     * @param k       number of eigenpairs wanted (capped at the dimension
+     *                left after deflation)
+     * @param deflate known eigenvectors to exclude (need not be normalized)
+     * @return eigenpairs in descending eigenvalue order
+     * @throws IllegalArgumentException if op is null or k is negative
+     */
+    public Eigenpairs largest(LinearOperator op, int k, double[]... deflate) {
+        return solve(op, k, true, deflate);
+    }
+
+    // ── Thick-restart Lanczos ───────────────────────────────────
+
+    private Eigenpairs solve(LinearOperator op, int k, boolean largest, double[][] deflate) {
+        if (op == null) {
+            throw new IllegalArgumentException("Operator must not be null");
+        }
+        if (k < 0) {
+            throw new IllegalArgumentException("k must be non-negative, got: " + k);
+        }
+        int n = op.dimension();
+        double[][] deflated = orthonormalize(deflate, n);
+        k = Math.min(k, n - deflated.length);
+        if (k == 0) {
+            return new Eigenpairs(new double[0], new double[0][], true);
+        }
+        Random rnd = new Random(seed);
+        Run first = lanczos(op, k, largest, deflated, rnd);
+        List<double[]> vectors = new ArrayList<double[]>(Arrays.asList(first.vectors));
+        List<Double> values = new ArrayList<Double>();
+        for (double x : first.values) values.add(x);
+        boolean converged = first.converged;
+        double anorm = first.anorm;
+
+        // Multiplicity check: search the complement of everything found
+        for (int round = 0; round <= k && converged && !vectors.isEmpty(); round++) {
+            double[][] locked = new double[deflated.length + vectors.size()][];
+            System.arraycopy(deflated, 0, locked, 0, deflated.length);
+            for (int i = 0; i < vectors.size(); i++) locked[deflated.length + i] = vectors.get(i);
+            if (locked.length >= n) break;
+            Run probe = lanczos(op, 1, largest, locked, rnd);
+            anorm = Math.max(anorm, probe.anorm);
+            if (probe.values.length == 0) break;
+            double worst = values.get(values.size() - 1);
+            double found = probe.values[0];
+            double bar = tolerance * Math.max(anorm, Double.MIN_NORMAL);
+            if (!(largest ? found > worst + bar : found < worst - bar)) break;
+            converged = probe.converged;
+
+            // Insert in order; drop the old k-th if the set is full
+            int at = 0;
+            while (at < values.size() && (largest ? values.get(at) >= found : values.get(at) <= found)) at++;
+            values.add(at, found);
+            vectors.add(at, probe.vectors[0]);
+            if (values.size() > k) {
+                values.remove(values.size() - 1);
+                vectors.remove(vectors.size() - 1);
+            }
+        }
+
+        double[] outValues = new double[values.size()];
+        for (int i = 0; i < outValues.length; i++) outValues[i] = values.get(i);
+        return new Eigenpairs(outValues, vectors.toArray(new double[0][]), converged);
+    }
+
+    /** Outcome of one thick-restart Lanczos run. */
+    private static final class Run {
+        final double[] values;
+        final double[][] vectors;
+        final boolean converged;
+        final double anorm;
+
+        Run(double[] values, double[][] vectors, boolean converged, double anorm) {
+            this.values = values;
+            this.vectors = vectors;
+            this.converged = converged;
+            this.anorm = anorm;
+        }
+    }
+
+    /**
+     * One thick-restart Lanczos run for the k wanted pairs orthogonal to
+     * the (orthonormal) locked vectors.
+     */
+    private Run lanczos(LinearOperator op, int k, boolean largest, double[][] locked, Random rnd) {
+        int n = op.dimension();
+        int dim = n - locked.length;
+        k = Math.min(k, dim);
+        if (k <= 0) {
+            return new Run(new double[0], new double[0][], true, 0);
+        }
+        int m = basisSize > 0 ? basisSize : Math.max(2 * k + 8, 24);
+        m = Math.min(Math.max(m, k + 1), dim);
+
+        double[][] v = new double[m][];
+        double[][] t = new double[m][m];
+        double[] w = new double[n];
+        double[] coeff = new double[m];
+        v[0] = randomDirection(rnd, n, locked, v, 0);
+        if (v[0] == null) {
+            return new Run(new double[0], new double[0][], true, 0);
+        }
+
+        int kept = 0;
+        double anorm = 0;
+        for (int restart = 0; ; restart++) {
+            // Extend the basis from column 'kept' up to m columns
+            int size = m;
+            double beta = 0;
+            for (int j = kept; j < m; j++) {
+                op.multiply(v[j], w);
+                for (int pass = 0; pass < 2; pass++) {
+                    project(w, locked);
+                    for (int i = 0; i <= j; i++) coeff[i] = dot(v[i], w);
+                    for (int i = 0; i <= j; i++) {
+                        axpy(-coeff[i], v[i], w);
+                        t[i][j] = pass == 0 ? coeff[i] : t[i][j] + coeff[i];
+                        t[j][i] = t[i][j];
+                    }
+                }
+                beta = Math.sqrt(dot(w, w));
+                anorm = Math.max(anorm, Math.max(Math.abs(t[j][j]), beta));
+                if (j + 1 == m) break;
+                if (beta > 1e-12 * Math.max(anorm, Double.MIN_NORMAL)) {
+                    double[] next = v[j + 1] != null ? v[j + 1] : new double[n];
+                    for (int i = 0; i < n; i++) next[i] = w[i] / beta;
+                    v[j + 1] = next;
+                } else {
+                    // Invariant subspace: continue in a fresh direction
+                    double[] next = randomDirection(rnd, n, locked, v, j + 1);
+                    if (next == null) {
+                        size = j + 1;
+                        beta = 0;
+                        break;
+                    }
+                    v[j + 1] = next;
+                }
+            }
+
+            // Rayleigh–Ritz on the projected matrix
+            double[][] proj = new double[size][size];
+            for (int i = 0; i < size; i++) System.arraycopy(t[i], 0, proj[i], 0, size);
+            Eigenpairs ritz = DenseEigensolver.decompose(proj);
+            int[] wanted = new int[size];
+            for (int i = 0; i < size; i++) wanted[i] = largest ? size - 1 - i : i;
+
+            boolean converged = true;
+            double bar = tolerance * Math.max(anorm, Double.MIN_NORMAL);
+            for (int i = 0; i < k && converged; i++) {
+                double residual = Math.abs(beta * ritz.vectors[wanted[i]][size - 1]);
+                converged = residual <= bar;
+            }
+            if (converged || size < m || restart >= maxRestarts) {
+                double[] values = new double[k];
+                double[][] vectors = new double[k][];
+                for (int i = 0; i < k; i++) {
+                    values[i] = ritz.values[wanted[i]];
+                    vectors[i] = combine(v, ritz.vectors[wanted[i]], size, n);
+                }
+                return new Run(values, vectors, converged, anorm);
+            }
+
+            // Thick restart: keep the best Ritz vectors plus the residual
+            int keep = Math.min(m - 1, k + (m - k) / 2);
+            double[][] y = new double[keep][];
+            for (int i = 0; i < keep; i++) y[i] = ritz.vectors[wanted[i]];
+            rotateInPlace(v, y, m, n);
+            for (double[] row : t) Arrays.fill(row, 0.0);
+            for (int i = 0; i < keep; i++) t[i][i] = ritz.values[wanted[i]];
+            if (beta > 1e-12 * Math.max(anorm, Double.MIN_NORMAL)) {
+                for (int i = 0; i < n; i++) v[keep][i] = w[i] / beta;
+            } else {
+                double[] next = randomDirection(rnd, n, locked, v, keep);
+                if (next == null) {
+                    // Cannot happen while keep < dim, but stay safe
+                    double[] values = new double[k];
+                    double[][] vectors = new double[k][];
+                    for (int i = 0; i < k; i++) {
+                        values[i] = ritz.values[wanted[i]];
+                        vectors[i] = v[i].clone();
+                        Eigenpairs.normalizeSign(vectors[i]);
+                    }
+                    return new Run(values, vectors, true, anorm);
+                }
+                v[keep] = next;
+            }
+            kept = keep;
+        }
+    }
+
+    /** x = Σ y[l]·V[l], normalized and sign-fixed. */
+    private static double[] combine(double[][] v, double[] y, int size, int n) {
+        double[] x = new double[n];
+        for (int l = 0; l < size; l++) axpy(y[l], v[l], x);
+        double norm = Math.sqrt(dot(x, x));
+        if (norm > 0) {
+            for (int i = 0; i < n; i++) x[i] /= norm;
+        }
+        Eigenpairs.normalizeSign(x);
+        return x;
+    }
+
+    /**
+     * Replaces V[0..keep) by V·y[i] in place, one block of vector entries
+     * at a time, so no second basis has to be allocated.
+     */
+    private static void rotateInPlace(double[][] v, double[][] y, int m, int n) {
+        int keep = y.length;
+        double[][] tmp = new double[keep][BLOCK];
+        for (int lo = 0; lo < n; lo += BLOCK) {
+            int len = Math.min(BLOCK, n - lo);
+            for (int i = 0; i < keep; i++) {
+                double[] out = tmp[i];
+                Arrays.fill(out, 0, len, 0.0);
+                double[] yi = y[i];
+                for (int l = 0; l < m; l++) {
+                    double c = yi[l];
+                    if (c == 0) continue;
+                    double[] vl = v[l];
+                    for (int r = 0; r < len; r++) out[r] += c * vl[lo + r];
+                }
+            }
+            for (int i = 0; i < keep; i++) System.arraycopy(tmp[i], 0, v[i], lo, len);
+        }
+    }
+
+    /**
+     * A random unit vector orthogonal to the locked vectors and to
+     * V[0..count), or null if those already span the whole space.
+     */
+    private static double[] randomDirection(Random rnd, int n, double[][] locked,
+                                            double[][] v, int count) {
+        for (int attempt = 0; attempt < 3; attempt++) {
+            double[] x = new double[n];
+            for (int i = 0; i < n; i++) x[i] = rnd.nextDouble() - 0.5;
+            double before = Math.sqrt(dot(x, x));
+            for (int pass = 0; pass < 2; pass++) {
+                project(x, locked);
+                for (int i = 0; i < count; i++) axpy(-dot(v[i], x), v[i], x);
+            }
+            double norm = Math.sqrt(dot(x, x));
+            if (norm > 1e-8 * before) {
+                for (int i = 0; i < n; i++) x[i] /= norm;
+                return x;
+            }
+        }
+        return null;
+    }
+
+    /** Orthonormal basis of the deflation vectors (dependent ones dropped). */
+    private static double[][] orthonormalize(double[][] deflate, int n) {
+        List<double[]> basis = new ArrayList<double[]>();
+        if (deflate != null) {
+            for (double[] d : deflate) {
+                if (d == null || d.length != n) {
+                    throw new IllegalArgumentException("Deflation vectors must have length " + n);
+                }
+                double[] x = d.clone();
+                double before = Math.sqrt(dot(x, x));
+                for (int pass = 0; pass < 2; pass++) {
+                    for (double[] b : basis) axpy(-dot(b, x), b, x);
+                }
+                double norm = Math.sqrt(dot(x, x));
+                if (norm > 1e-10 * before) {
+                    for (int i = 0; i < n; i++) x[i] /= norm;
+                    basis.add(x);
+                }
+            }
+        }
+        return basis.toArray(new double[0][]);
+    }
+
+    private static void project(double[] x, double[][] locked) {
+        for (double[] b : locked) axpy(-dot(b, x), b, x);
+    }
+
+    private static double dot(double[] a, double[] b) {
+        double s = 0;
+        for (int i = 0; i < a.length; i++) s += a[i] * b[i];
+        return s;
+    }
+
+    /** y += alpha·x */
+    private static void axpy(double alpha, double[] x, double[] y) {
+        for (int i = 0; i < y.length; i++) y[i] += alpha * x[i];
+    }
+}
@@ -21,6 +21,18 @@ import java.util.*;
  * <p>Also provides helpers for extracting the adjacency matrix, degree matrix,
  * and building Laplacians for vertex subsets (subgraph-induced Laplacians).</p>
  *
+ * <h3>Sparse and matrix-free forms</h3>
+ * <p>The {@code double[][]} builders need O(n²) memory — 20 GB for one
+ * 50,000-vertex Laplacian — so each Laplacian also comes in two sparse
+ * forms. {@code buildSparse*} returns a {@link SparseMatrix} in CSR form
+ * (O(V + E) memory, explicit entries, row-by-row access), and
+ * {@code *Operator} returns a matrix-free {@link LinearOperator} that keeps
+ * only the adjacency structure and computes {@code y = L·x} on the fly,
+ * which is all an iterative eigensolver needs. Like the dense builders,
+ * both treat the graph as undirected and simple: self-loops are dropped,
+ * parallel edges count once, and edges leaving {@code vertexList} are
+ * ignored, so passing a vertex subset yields the induced subgraph.</p>
+ *
  * @author sauravbhattacharya001
  */
 public class LaplacianBuilder {
@@ -238,4 +250,298 @@ public class LaplacianBuilder {
         double[][] A = buildAdjacencyMatrix(graph, vertexList);
         return buildRandomWalkLaplacian(A, vertexList.size());
     }
+
+    // ═════════════════════════════════════════════════════════════════
+    //  Sparse (CSR) Laplacians
+    // ═════════════════════════════════════════════════════════════════
+
+    private enum Kind { STANDARD, NORMALIZED, RANDOM_WALK }
+
+    /**
+     * Builds the adjacency matrix in CSR form.
+     *
+     * @param graph      the graph
+     * @param vertexList ordered list of vertices (defines row/column mapping)
+     * @return sparse n×n adjacency matrix with unit entries
+     */
+    public static SparseMatrix buildSparseAdjacency(Graph<String, Edge> graph,
+                                                    List<String> vertexList) {
+        int[][] pattern = adjacencyPattern(graph, graph.getEdges(), vertexList);
+        int[] rowPtr = pattern[0];
+        double[] values = new double[rowPtr[vertexList.size()]];
+        Arrays.fill(values, 1.0);
+        return new SparseMatrix(vertexList.size(), rowPtr, pattern[1], values);
+    }
+
+    /**
+     * Builds the standard Laplacian L = D − A in CSR form.
+     *
+     * @param graph      the graph
+     * @param vertexList ordered list of vertices
+     * @return sparse L = D − A
+     */
+    public static SparseMatrix buildSparseLaplacian(Graph<String, Edge> graph,
+                                                    List<String> vertexList) {
+        return buildSparseLaplacian(graph, graph.getEdges(), vertexList);
+    }
+
+    /**
+     * Builds the standard Laplacian from an explicit edge collection, for
+     * callers that work on a subset of the graph's edges.
+     */
+    static SparseMatrix buildSparseLaplacian(Graph<String, Edge> graph,
+                                             Collection<Edge> edges,
+                                             List<String> vertexList) {
+        return sparseLaplacian(adjacencyPattern(graph, edges, vertexList), Kind.STANDARD);
+    }
+
+    /**
+     * Builds the normalized Laplacian D^{-1/2} L D^{-1/2} in CSR form.
+     * Isolated vertices get an empty row.
+     *
+     * @param graph      the graph
+     * @param vertexList ordered list of vertices
+     * @return sparse normalized Laplacian
+     */
+    public static SparseMatrix buildSparseNormalizedLaplacian(Graph<String, Edge> graph,
+                                                              List<String> vertexList) {
+        return sparseLaplacian(adjacencyPattern(graph, graph.getEdges(), vertexList),
+                Kind.NORMALIZED);
+    }
+
+    /**
+     * Builds the random walk Laplacian I − D^{-1} A in CSR form.
+     * Isolated vertices get an empty row.
+     *
+     * @param graph      the graph
+     * @param vertexList ordered list of vertices
+     * @return sparse random walk Laplacian (not symmetric)
+     */
+    public static SparseMatrix buildSparseRandomWalkLaplacian(Graph<String, Edge> graph,
+                                                              List<String> vertexList) {
+        return sparseLaplacian(adjacencyPattern(graph, graph.getEdges(), vertexList),
+                Kind.RANDOM_WALK);
+    }
+
+    private static SparseMatrix sparseLaplacian(int[][] pattern, Kind kind) {
+        int[] adjPtr = pattern[0];
+        int[] adj = pattern[1];
+        int n = adjPtr.length - 1;
+        double[] invSqrtDeg = kind == Kind.NORMALIZED ? inverseSqrtDegrees(adjPtr) : null;
+
+        // Each non-isolated row gains one diagonal entry
+        int nnz = adj.length;
+        for (int i = 0; i < n; i++) {
+            if (adjPtr[i + 1] > adjPtr[i]) nnz++;
+        }
+        int[] rowPtr = new int[n + 1];
+        int[] colIdx = new int[nnz];
+        double[] values = new double[nnz];
+        int k = 0;
+        for (int i = 0; i < n; i++) {
+            rowPtr[i] = k;
+            int begin = adjPtr[i];
+            int end = adjPtr[i + 1];
+            int degree = end - begin;
+            if (degree == 0) continue;
+            double diag = kind == Kind.STANDARD ? degree : 1.0;
+            boolean diagPlaced = false;
+            for (int a = begin; a < end; a++) {
+                int j = adj[a];
+                if (!diagPlaced && j > i) {
+                    colIdx[k] = i;
+                    values[k++] = diag;
+                    diagPlaced = true;
+                }
+                colIdx[k] = j;
+                switch (kind) {
+                    case STANDARD:
+                        values[k++] = -1.0;
+                        break;
+                    case NORMALIZED:
+                        values[k++] = -invSqrtDeg[i] * invSqrtDeg[j];
+                        break;
+                    default:
+                        values[k++] = -1.0 / degree;
+                        break;
+                }
+            }
+            if (!diagPlaced) {
+                colIdx[k] = i;
+                values[k++] = diag;
+            }
+        }
+        rowPtr[n] = k;
+        return new SparseMatrix(n, rowPtr, colIdx, values);
+    }
+
+    // ═════════════════════════════════════════════════════════════════
+    //  Matrix-free Laplacian operators
+    // ═════════════════════════════════════════════════════════════════
+
+    /**
+     * Returns a matrix-free operator for the standard Laplacian L = D − A.
+     * It stores only the adjacency structure (about half the memory of
+     * {@link #buildSparseLaplacian(Graph, List)}) and computes
+     * {@code (L·x)_i = deg_i·x_i − Σ_{j~i} x_j}.
+     *
+     * @param graph      the graph
+     * @param vertexList ordered list of vertices
+     * @return operator for L
+     */
+    public static LinearOperator laplacianOperator(Graph<String, Edge> graph,
+                                                   List<String> vertexList) {
+        return new LaplacianOperator(adjacencyPattern(graph, graph.getEdges(), vertexList),
+                Kind.STANDARD);
+    }
+
+    /**
+     * Returns a matrix-free operator for the normalized Laplacian
+     * D^{-1/2} L D^{-1/2}; isolated vertices map to 0.
+     *
+     * @param graph      the graph
+     * @param vertexList ordered list of vertices
+     * @return operator for the normalized Laplacian
+     */
+    public static LinearOperator normalizedLaplacianOperator(Graph<String, Edge> graph,
+                                                             List<String> vertexList) {
+        return new LaplacianOperator(adjacencyPattern(graph, graph.getEdges(), vertexList),
+                Kind.NORMALIZED);
+    }
+
+    /**
+     * Returns a matrix-free operator for the random walk Laplacian
+     * I − D^{-1} A; isolated vertices map to 0. This operator is not
+     * symmetric, so it must not be given to the symmetric eigensolvers;
+     * its eigenvalues equal those of the normalized Laplacian.
+     *
+     * @param graph      the graph
+     * @param vertexList ordered list of vertices
+     * @return operator for the random walk Laplacian
+     */
+    public static LinearOperator randomWalkLaplacianOperator(Graph<String, Edge> graph,
+                                                             List<String> vertexList) {
+        return new LaplacianOperator(adjacencyPattern(graph, graph.getEdges(), vertexList),
+                Kind.RANDOM_WALK);
+    }
+
+    private static final class LaplacianOperator implements LinearOperator {
+        private final Kind kind;
+        private final int n;
+        private final int[] rowPtr;
+        private final int[] adj;
+        private final double[] invSqrtDeg;
+
+        LaplacianOperator(int[][] pattern, Kind kind) {
+            this.kind = kind;
+            this.rowPtr = pattern[0];
+            this.adj = pattern[1];
+            this.n = rowPtr.length - 1;
+            this.invSqrtDeg = kind == Kind.NORMALIZED ? inverseSqrtDegrees(rowPtr) : null;
+        }
+
+        @Override
+        public int dimension() {
+            return n;
+        }
+
+        @Override
+        public void multiply(double[] x, double[] y) {
+            for (int i = 0; i < n; i++) {
+                int begin = rowPtr[i];
+                int end = rowPtr[i + 1];
+                if (begin == end) {
+                    y[i] = 0.0;
+                    continue;
+                }
+                double s = 0;
+                if (kind == Kind.NORMALIZED) {
+                    for (int k = begin; k < end; k++) {
+                        int j = adj[k];
+                        s += invSqrtDeg[j] * x[j];
+                    }
+                    y[i] = x[i] - invSqrtDeg[i] * s;
+                } else {
+                    for (int k = begin; k < end; k++) s += x[adj[k]];
+                    y[i] = kind == Kind.STANDARD
+                            ? (end - begin) * x[i] - s
+                            : x[i] - s / (end - begin);
+                }
+            }
+        }
+    }
+
+    // ═════════════════════════════════════════════════════════════════
+    //  Adjacency structure
+    // ═════════════════════════════════════════════════════════════════
+
+    /**
+     * Builds the symmetric adjacency structure of the simple undirected
+     * graph induced by {@code vertexList}: {@code {rowPtr, adj}}, where
+     * row i's neighbours are {@code adj[rowPtr[i] .. rowPtr[i+1]-1]} in
+     * ascending order without duplicates or self-loops.
+     */
+    private static int[][] adjacencyPattern(Graph<String, Edge> graph,
+                                            Collection<Edge> edges,
+                                            List<String> vertexList) {
+        int n = vertexList.size();
+        Map<String, Integer> indexMap = new HashMap<>(n * 2);
+        for (int i = 0; i < n; i++) {
+            indexMap.put(vertexList.get(i), i);
+        }
+
+        // Endpoint pairs of every in-range, non-loop edge
+        int[] ends = new int[2 * edges.size()];
+        int m = 0;
+        int[] rowPtr = new int[n + 1];
+        for (Edge e : edges) {
+            Collection<String> endpoints = graph.getEndpoints(e);
+            if (endpoints == null) continue;
+            Iterator<String> it = endpoints.iterator();
+            String u = it.next();
+            String v = it.hasNext() ? it.next() : u;
+            Integer ui = indexMap.get(u);
+            Integer vi = indexMap.get(v);
+            if (ui == null || vi == null || ui.equals(vi)) continue;
+            ends[m++] = ui;
+            ends[m++] = vi;
+            rowPtr[ui + 1]++;
+            rowPtr[vi + 1]++;
+        }
+        for (int i = 0; i < n; i++) rowPtr[i + 1] += rowPtr[i];
+
+        int[] adj = new int[rowPtr[n]];
+        int[] cursor = Arrays.copyOf(rowPtr, n);
+        for (int k = 0; k < m; k += 2) {
+            int u = ends[k];
+            int v = ends[k + 1];
+            adj[cursor[u]++] = v;
+            adj[cursor[v]++] = u;
+        }
+
+        // Sort each row and squeeze out parallel edges in place
+        int w = 0;
+        int begin = 0;
+        for (int i = 0; i < n; i++) {
+            int end = rowPtr[i + 1];
+            Arrays.sort(adj, begin, end);
+            rowPtr[i] = w;
+            for (int k = begin; k < end; k++) {
+                if (k == begin || adj[k] != adj[k - 1]) adj[w++] = adj[k];
+            }
+            begin = end;
+        }
+        rowPtr[n] = w;
+        return new int[][] {rowPtr, w == adj.length ? adj : Arrays.copyOf(adj, w)};
+    }
+
+    private static double[] inverseSqrtDegrees(int[] rowPtr) {
+        int n = rowPtr.length - 1;
+        double[] invSqrtDeg = new double[n];
+        for (int i = 0; i < n; i++) {
+            int degree = rowPtr[i + 1] - rowPtr[i];
+            invSqrtDeg[i] = degree > 0 ? 1.0 / Math.sqrt(degree) : 0.0;
+        }
+        return invSqrtDeg;
+    }
 }
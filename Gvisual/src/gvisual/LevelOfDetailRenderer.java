@@ -0,0 +1,510 @@
+package gvisual;
+
+import edu.uci.ics.jung.algorithms.layout.Layout;
+import edu.uci.ics.jung.graph.Graph;
+import edu.uci.ics.jung.graph.util.Context;
+import edu.uci.ics.jung.visualization.Layer;
+import edu.uci.ics.jung.visualization.MultiLayerTransformer;
+import edu.uci.ics.jung.visualization.RenderContext;
+import edu.uci.ics.jung.visualization.renderers.BasicRenderer;
+import edu.uci.ics.jung.visualization.transform.shape.GraphicsDecorator;
+import java.awt.AlphaComposite;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.Paint;
+import java.awt.geom.AffineTransform;
+import java.awt.geom.NoninvertibleTransformException;
+import java.awt.geom.Point2D;
+import java.awt.geom.Rectangle2D;
+import java.awt.image.BufferedImage;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.LongSupplier;
+import javax.swing.JComponent;
+import org.apache.commons.collections15.Predicate;
+
+/**
+ * Level-of-detail renderer for large graphs in a JUNG
+ * {@code VisualizationViewer}.
+ *
+ * <p>JUNG's {@link BasicRenderer} draws every edge, vertex and label on
+ * every repaint, whatever the zoom level or the visible area. That makes
+ * panning and zooming unusable past a few tens of thousands of edges.
+ * Graphs with fewer than {@link #withEdgeThreshold edgeThreshold} edges
+ * are still drawn by the inherited {@code BasicRenderer} pass, so small
+ * graphs look exactly as before. Larger graphs go through the pipeline below. Each
+ * element that is drawn still uses the render context's transformers
+ * (paint, stroke, shape, label).</p>
+ *
+ * <h3>Pipeline</h3>
+ * <ol>
+ *   <li><b>Spatial index.</b> Vertex positions are kept in flat arrays
+ *       and a {@link QuadTree}. Both are rebuilt only when the graph or a
+ *       position changes, for example when a vertex is dragged.</li>
+ *   <li><b>Edge layer.</b> Edges are drawn into an offscreen image. The
+ *       image is reused on every repaint until the view transform, the
+ *       component size, a vertex position or the style version changes.
+ *       Repaints from picking or tooltips therefore cost a single
+ *       image blit.</li>
+ *   <li><b>Edge culling.</b> An edge is skipped when the screen bounding
+ *       box of its endpoints misses the viewport.</li>
+ *   <li><b>Density tiles.</b> A visible edge shorter than
+ *       {@link #withMinEdgePixels minEdgePixels} on screen is not drawn
+ *       as a line. It is counted in the tile of
+ *       {@link #withTileSize tileSize} pixels that holds its midpoint.
+ *       Each tile is filled once with the mean colour of its edges, at an
+ *       opacity that grows with the log of the count.</li>
+ *   <li><b>Vertex culling.</b> Only vertices the quadtree reports inside
+ *       the viewport, plus a margin for shapes, are drawn. A vertex whose
+ *       shape would be under two pixels across is drawn as a single dot
+ *       in its fill colour.</li>
+ *   <li><b>Label suppression.</b> Vertex and edge labels are drawn only
+ *       when the zoom scale is at least
+ *       {@link #withLabelScale labelScale}.</li>
+ * </ol>
+ *
+ * <p>The cache cannot see changes made through the render context's
+ * transformers. The optional style-version supplier should change value
+ * whenever they would render differently; {@link GraphRenderers#getVersion}
+ * does this for the overlays in {@link Main}. {@link #invalidate} forces a
+ * redraw after any other change, such as a graph mutation that keeps the
+ * vertex and edge counts.</p>
+ *
+ * <p>Must be used from the event dispatch thread, like the viewer
+ * itself.</p>
+ *
+ * @author sauravbhattacharya001
+ */
+public class LevelOfDetailRenderer extends BasicRenderer<String, Edge> {
+
+    /** Default edge count from which the level-of-detail pipeline is used. */
+    public static final int DEFAULT_EDGE_THRESHOLD = 5000;
+
+    /** Default zoom scale below which labels are suppressed. */
+    public static final double DEFAULT_LABEL_SCALE = 0.75;
+
+    /** Default on-screen length, in pixels, below which edges are tiled. */
+    public static final double DEFAULT_MIN_EDGE_PIXELS = 2.0;
+
+    /** Default density tile size in pixels. */
+    public static final int DEFAULT_TILE_SIZE = 4;
+
+    /** On-screen vertex size, in pixels, below which a vertex is drawn as a dot. */
+    private static final double MIN_VERTEX_PIXELS = 2.0;
+
+    /** Screen margin, in pixels, covering vertex shapes and edge curvature. */
+    private static final double MARGIN = 24;
+
+    private final LongSupplier styleVersion;
+
+    private int edgeThreshold = DEFAULT_EDGE_THRESHOLD;
+    private double labelScale = DEFAULT_LABEL_SCALE;
+    private double minEdgePixels = DEFAULT_MIN_EDGE_PIXELS;
+    private int tileSize = DEFAULT_TILE_SIZE;
+
+    // ── spatial index ──
+    // Inside this class Edge names the inherited Renderer.Edge, hence gvisual.Edge
+    private Graph<String, gvisual.Edge> indexedGraph;
+    private String[] vertices = new String[0];
+    private gvisual.Edge[] edges = new gvisual.Edge[0];
+    private int[] edgeSrc = new int[0];
+    private int[] edgeDst = new int[0];
+    private double[] xs = new double[0];
+    private double[] ys = new double[0];
+    private final QuadTree tree = new QuadTree();
+
+    // ── edge layer cache ──
+    private BufferedImage edgeLayer;
+    private final AffineTransform layerTransform = new AffineTransform();
+    private long layerVersion;
+    private int layerWidth;
+    private int layerHeight;
+    private boolean layerValid;
+
+    // ── statistics of the last repaint ──
+    private int drawnEdges;
+    private int tiledEdges;
+    private int drawnVertices;
+    private int dottedVertices;
+    private boolean labelsDrawn;
+    private int layerHits;
+
+    /**
+     * Creates a renderer without a style version. Only geometry changes
+     * and {@link #invalidate} refresh the edge layer.
+     */
+    public LevelOfDetailRenderer() {
+        this(() -> 0L);
+    }
+
+    /**
+     * Creates a renderer whose edge layer is also refreshed whenever
+     * {@code styleVersion} returns a new value.
+     *
+     * @param styleVersion supplier of a counter that changes with the styling
+     * @throws IllegalArgumentException if styleVersion is null
+     */
+    public LevelOfDetailRenderer(LongSupplier styleVersion) {
+        if (styleVersion == null) {
+            throw new IllegalArgumentException("styleVersion must not be null");
+        }
+        this.styleVersion = styleVersion;
+    }
+
+    /**
+     * Sets the edge count from which the level-of-detail pipeline is used.
+     *
+     * @param edges edge count (&ge; 0; 0 always uses the pipeline)
+     * @return this renderer
+     * @throws IllegalArgumentException if edges is negative
+     */
+    public LevelOfDetailRenderer withEdgeThreshold(int edges) {
+        if (edges < 0) {
+            throw new IllegalArgumentException("edgeThreshold must be >= 0");
+        }
+        this.edgeThreshold = edges;
+        invalidate();
+        return this;
+    }
+
+    /**
+     * Sets the zoom scale below which vertex and edge labels are not drawn.
+     *
+     * @param scale minimum scale (&ge; 0; 0 always draws labels)
+     * @return this renderer
+     * @throws IllegalArgumentException if scale is negative or NaN
+     */
+    public LevelOfDetailRenderer withLabelScale(double scale) {
+        if (!(scale >= 0)) {
+            throw new IllegalArgumentException("labelScale must be >= 0");
+        }
+        this.labelScale = scale;
+        invalidate();
+        return this;
+    }
+
+    /**
+     * Sets the on-screen edge length below which edges are aggregated into
+     * density tiles instead of being drawn.
+     *
+     * @param pixels minimum length in pixels (&ge; 0; 0 draws every edge)
+     * @return this renderer
+     * @throws IllegalArgumentException if pixels is negative or NaN
+     */
+    public LevelOfDetailRenderer withMinEdgePixels(double pixels) {
+        if (!(pixels >= 0)) {
+            throw new IllegalArgumentException("minEdgePixels must be >= 0");
+        }
+        this.minEdgePixels = pixels;
+        invalidate();
+        return this;
+    }
+
+    /**
+     * Sets the side length of the density tiles.
+     *
+     * @param pixels tile size in pixels (&ge; 1)
+     * @return this renderer
+     * @throws IllegalArgumentException if pixels is less than 1
+     */
+    public LevelOfDetailRenderer withTileSize(int pixels) {
+        if (pixels < 1) {
+            throw new IllegalArgumentException("tileSize must be >= 1");
+        }
+        this.tileSize = pixels;
+        invalidate();
+        return this;
+    }
+
+    /**
+     * Discards the cached edge layer and spatial index, so the next repaint
+     * redraws everything.
+     */
+    public void invalidate() {
+        layerValid = false;
+        indexedGraph = null;
+    }
+
+    // ═══════════════════════════════════════════════════════════════
+    // Rendering
+    // ═══════════════════════════════════════════════════════════════
+
+    @Override
+    public void render(RenderContext<String, gvisual.Edge> rc, Layout<String, gvisual.Edge> layout) {
+        Graph<String, gvisual.Edge> graph = layout.getGraph();
+        JComponent screen = rc.getScreenDevice();
+        if (graph.getEdgeCount() < edgeThreshold || screen == null) {
+            renderAll(rc, layout, graph);
+            return;
+        }
+        int width = screen.getWidth();
+        int height = screen.getHeight();
+        if (width <= 0 || height <= 0) return;
+
+        MultiLayerTransformer mlt = rc.getMultiLayerTransformer();
+        AffineTransform view = mlt.getTransformer(Layer.VIEW).getTransform();
+        AffineTransform toScreen = new AffineTransform(view);
+        toScreen.concatenate(mlt.getTransformer(Layer.LAYOUT).getTransform());
+        Graphics2D g2 = rc.getGraphicsContext().getDelegate();
+        AffineTransform current = g2.getTransform();
+        AffineTransform toDevice = new AffineTransform(current);
+        AffineTransform fromScreen;
+        try {
+            toDevice.concatenate(view.createInverse());
+            fromScreen = toScreen.createInverse();
+        } catch (NoninvertibleTransformException e) {
+            renderAll(rc, layout, graph);
+            return;
+        }
+        double scale = Math.sqrt(Math.abs(toScreen.getDeterminant()));
+        boolean labels = scale >= labelScale;
+
+        if (syncIndex(layout, graph)) layerValid = false;
+
+        // Device pixels per component pixel, so the layer stays sharp on HiDPI screens
+        double sx = Math.max(1e-3, Math.hypot(toDevice.getScaleX(), toDevice.getShearY()));
+        double sy = Math.max(1e-3, Math.hypot(toDevice.getShearX(), toDevice.getScaleY()));
+        long version = styleVersion.getAsLong();
+        if (layerValid && version == layerVersion && toScreen.equals(layerTransform)
+                && width == layerWidth && height == layerHeight
+                && edgeLayer.getWidth() == deviceSize(width, sx)
+                && edgeLayer.getHeight() == deviceSize(height, sy)) {
+            layerHits++;
+        } else {
+            paintEdgeLayer(rc, layout, graph, g2, toScreen, view, width, height, sx, sy, labels);
+            layerTransform.setTransform(toScreen);
+            layerVersion = version;
+            layerWidth = width;
+            layerHeight = height;
+            layerValid = true;
+        }
+        g2.setTransform(toDevice);
+        g2.scale(1 / sx, 1 / sy);
+        g2.drawImage(edgeLayer, 0, 0, null);
+        g2.setTransform(current);
+
+        renderVisibleVertices(rc, layout, g2, toScreen, fromScreen, toDevice,
+                scale, width, height, labels);
+    }
+
+    /** Plain rendering by {@link BasicRenderer#render}. */
+    private void renderAll(RenderContext<String, gvisual.Edge> rc, Layout<String, gvisual.Edge> layout,
+                           Graph<String, gvisual.Edge> graph) {
+        super.render(rc, layout);
+        drawnEdges = graph.getEdgeCount();
+        tiledEdges = 0;
+        drawnVertices = graph.getVertexCount();
+        dottedVertices = 0;
+        labelsDrawn = true;
+    }
+
+    private static int deviceSize(int size, double scale) {
+        return Math.max(1, (int) Math.ceil(size * scale));
+    }
+
+    /**
+     * Brings the vertex arrays and quadtree up to date with the layout.
+     *
+     * @return true if the topology or any position changed
+     */
+    private boolean syncIndex(Layout<String, gvisual.Edge> layout, Graph<String, gvisual.Edge> graph) {
+        boolean changed = false;
+        if (graph != indexedGraph || graph.getVertexCount() != vertices.length
+                || graph.getEdgeCount() != edges.length) {
+            indexTopology(graph);
+            changed = true;
+        }
+        for (int i = 0; i < vertices.length; i++) {
+            Point2D p = layout.transform(vertices[i]);
+            if (p.getX() != xs[i] || p.getY() != ys[i]) {
+                xs[i] = p.getX();
+                ys[i] = p.getY();
+                changed = true;
+            }
+        }
+        if (changed) tree.rebuild(xs, ys, vertices.length);
+        return changed;
+    }
+
+    private void indexTopology(Graph<String, gvisual.Edge> graph) {
+        int n = graph.getVertexCount();
+        vertices = graph.getVertices().toArray(new String[0]);
+        Map<String, Integer> indexOf = new HashMap<String, Integer>(n * 2);
+        for (int i = 0; i < n; i++) indexOf.put(vertices[i], i);
+        edges = graph.getEdges().toArray(new gvisual.Edge[0]);
+        edgeSrc = new int[edges.length];
+        edgeDst = new int[edges.length];
+        for (int j = 0; j < edges.length; j++) {
+            edgeSrc[j] = indexOf.get(graph.getEndpoints(edges[j]).getFirst());
+            edgeDst[j] = indexOf.get(graph.getEndpoints(edges[j]).getSecond());
+        }
+        xs = new double[n];
+        ys = new double[n];
+        Arrays.fill(xs, Double.NaN);
+        indexedGraph = graph;
+    }
+
+    private void paintEdgeLayer(RenderContext<String, gvisual.Edge> rc, Layout<String, gvisual.Edge> layout,
+                                Graph<String, gvisual.Edge> graph, Graphics2D target,
+                                AffineTransform toScreen, AffineTransform view,
+                                int width, int height, double sx, double sy,
+                                boolean labels) {
+        int pw = deviceSize(width, sx);
+        int ph = deviceSize(height, sy);
+        if (edgeLayer == null || edgeLayer.getWidth() != pw || edgeLayer.getHeight() != ph) {
+            edgeLayer = new BufferedImage(pw, ph, BufferedImage.TYPE_INT_ARGB_PRE);
+        }
+        int cols = (width + tileSize - 1) / tileSize;
+        int rows = (height + tileSize - 1) / tileSize;
+        int[] tileCount = new int[cols * rows];
+        long[] tileRgb = new long[cols * rows * 3];
+        int[] visible = new int[edges.length];
+        int visibleCount = 0;
+        int tiled = 0;
+        Predicate<Context<Graph<String, gvisual.Edge>, gvisual.Edge>> include = rc.getEdgeIncludePredicate();
+        double[] pt = new double[4];
+
+        for (int j = 0; j < edges.length; j++) {
+            int s = edgeSrc[j];
+            int d = edgeDst[j];
+            pt[0] = xs[s];
+            pt[1] = ys[s];
+            pt[2] = xs[d];
+            pt[3] = ys[d];
+            toScreen.transform(pt, 0, pt, 0, 2);
+            if (Math.max(pt[0], pt[2]) < -MARGIN || Math.min(pt[0], pt[2]) > width + MARGIN
+                    || Math.max(pt[1], pt[3]) < -MARGIN || Math.min(pt[1], pt[3]) > height + MARGIN) {
+                continue;
+            }
+            if (include != null && !include.evaluate(Context.getInstance(graph, edges[j]))) {
+                continue;
+            }
+            // Self-loops have a fixed on-screen size, so they are always drawn
+            if (s == d || Math.hypot(pt[2] - pt[0], pt[3] - pt[1]) >= minEdgePixels) {
+                visible[visibleCount++] = j;
+                continue;
+            }
+            int tx = (int) Math.floor((pt[0] + pt[2]) / 2 / tileSize);
+            int ty = (int) Math.floor((pt[1] + pt[3]) / 2 / tileSize);
+            if (tx < 0 || ty < 0 || tx >= cols || ty >= rows) continue;
+            int tile = ty * cols + tx;
+            Paint paint = rc.getEdgeDrawPaintTransformer().transform(edges[j]);
+            Color c = paint instanceof Color ? (Color) paint : Color.GRAY;
+            tileCount[tile]++;
+            tileRgb[3 * tile] += c.getRed();
+            tileRgb[3 * tile + 1] += c.getGreen();
+            tileRgb[3 * tile + 2] += c.getBlue();
+            tiled++;
+        }
+
+        Graphics2D g = edgeLayer.createGraphics();
+        GraphicsDecorator saved = rc.getGraphicsContext();
+        try {
+            g.setComposite(AlphaComposite.Clear);
+            g.fillRect(0, 0, pw, ph);
+            g.setComposite(AlphaComposite.SrcOver);
+            g.setRenderingHints(target.getRenderingHints());
+            g.scale(sx, sy);
+            for (int tile = 0; tile < tileCount.length; tile++) {
+                int count = tileCount[tile];
+                if (count == 0) continue;
+                double alpha = Math.min(1.0, 0.25 * (1 + Math.log(count) / Math.log(2)));
+                g.setColor(new Color((int) (tileRgb[3 * tile] / count),
+                        (int) (tileRgb[3 * tile + 1] / count),
+                        (int) (tileRgb[3 * tile + 2] / count),
+                        (int) Math.round(255 * alpha)));
+                g.fillRect((tile % cols) * tileSize, (tile / cols) * tileSize, tileSize, tileSize);
+            }
+
+            g.transform(view);
+            rc.setGraphicsContext(new GraphicsDecorator(g));
+            for (int i = 0; i < visibleCount; i++) {
+                gvisual.Edge e = edges[visible[i]];
+                renderEdge(rc, layout, e);
+                if (labels) renderEdgeLabel(rc, layout, e);
+            }
+        } finally {
+            rc.setGraphicsContext(saved);
+            g.dispose();
+        }
+        drawnEdges = visibleCount;
+        tiledEdges = tiled;
+    }
+
+    private void renderVisibleVertices(RenderContext<String, gvisual.Edge> rc, Layout<String, gvisual.Edge> layout,
+                                       Graphics2D g2, AffineTransform toScreen,
+                                       AffineTransform fromScreen, AffineTransform toDevice,
+                                       double scale, int width, int height, boolean labels) {
+        Rectangle2D viewport = fromScreen.createTransformedShape(new Rectangle2D.Double(
+                -MARGIN, -MARGIN, width + 2 * MARGIN, height + 2 * MARGIN)).getBounds2D();
+        int[] hits = new int[vertices.length];
+        int[] count = new int[1];
+        tree.forEachInRect(viewport.getMinX(), viewport.getMinY(),
+                viewport.getMaxX(), viewport.getMaxY(), i -> hits[count[0]++] = i);
+        // Quadtree order is spatial; restore the graph's order so overlaps stack as before
+        Arrays.sort(hits, 0, count[0]);
+        Graph<String, gvisual.Edge> graph = layout.getGraph();
+        Predicate<Context<Graph<String, gvisual.Edge>, String>> include = rc.getVertexIncludePredicate();
+        AffineTransform current = g2.getTransform();
+        double[] pt = new double[2];
+        int dots = 0;
+        for (int h = 0; h < count[0]; h++) {
+            int i = hits[h];
+            String v = vertices[i];
+            Rectangle2D bounds = rc.getVertexShapeTransformer().transform(v).getBounds2D();
+            if (Math.max(bounds.getWidth(), bounds.getHeight()) * scale >= MIN_VERTEX_PIXELS) {
+                renderVertex(rc, layout, v);
+                if (labels) renderVertexLabel(rc, layout, v);
+                continue;
+            }
+            // Too small to show its shape: a single dot in its fill colour
+            if (include != null && !include.evaluate(Context.getInstance(graph, v))) continue;
+            pt[0] = xs[i];
+            pt[1] = ys[i];
+            toScreen.transform(pt, 0, pt, 0, 1);
+            g2.setTransform(toDevice);
+            g2.setPaint(rc.getVertexFillPaintTransformer().transform(v));
+            g2.fillRect((int) Math.floor(pt[0]), (int) Math.floor(pt[1]), 1, 1);
+            g2.setTransform(current);
+            dots++;
+        }
+        dottedVertices = dots;
+        drawnVertices = count[0];
+        labelsDrawn = labels;
+    }
+
+    // ═══════════════════════════════════════════════════════════════
+    // Statistics
+    // ═══════════════════════════════════════════════════════════════
+
+    /** Edges drawn as lines when the edge layer was last painted. */
+    public int getDrawnEdgeCount() {
+        return drawnEdges;
+    }
+
+    /** Edges aggregated into density tiles when the edge layer was last painted. */
+    public int getTiledEdgeCount() {
+        return tiledEdges;
+    }
+
+    /** Vertices drawn by the last repaint. */
+    public int getDrawnVertexCount() {
+        return drawnVertices;
+    }
+
+    /** Vertices of {@link #getDrawnVertexCount} drawn as single dots. */
+    public int getDottedVertexCount() {
+        return dottedVertices;
+    }
+
+    /** Whether the last repaint drew labels. */
+    public boolean isLabelsDrawn() {
+        return labelsDrawn;
+    }
+
+    /** Number of repaints that reused the cached edge layer. */
+    public int getEdgeLayerHits() {
+        return layerHits;
+    }
+}
@@ -0,0 +1,72 @@
+package gvisual;
+
+/**
+ * A real linear operator given only by its action on vectors.
+ *
+ * <p>Iterative eigensolvers such as {@link LanczosEigensolver} never look
+ * at individual matrix entries; they only need {@code y = A·x}. Graph
+ * matrices are almost always sparse, so an operator backed by an
+ * adjacency list does this in O(V + E) time and memory, where the dense
+ * {@code double[][]} equivalent needs O(V²) of both.</p>
+ *
+ * <p>Operators handed to the eigensolvers must be symmetric
+ * ({@code ⟨Ax, y⟩ = ⟨x, Ay⟩}); the solvers rely on it and do not check.
+ * The random walk Laplacian from
+ * {@link LaplacianBuilder#randomWalkLaplacianOperator} is the one
+ * non-symmetric operator in the package.</p>
+ *
+ * @author sauravbhattacharya001
+ */
+public interface LinearOperator {
+
+    /**
+     * Returns the dimension n of the (n×n) operator.
+     *
+     * @return the number of rows and columns
+     */
+    int dimension();
+
+    /**
+     * Computes {@code y = A·x}. {@code y} is fully overwritten and is never
+     * the same array as {@code x}.
+     *
+     * @param x input vector of length {@link #dimension()}
+     * @param y output vector of length {@link #dimension()}
+     */
+    void multiply(double[] x, double[] y);
+
+    /**
+     * Wraps a dense symmetric matrix.
+     *
+     * @param matrix square symmetric matrix (not copied)
+     * @return an operator multiplying by {@code matrix}
+     * @throws IllegalArgumentException if matrix is null or not square
+     */
+    static LinearOperator ofDense(final double[][] matrix) {
+        if (matrix == null) {
+            throw new IllegalArgumentException("Matrix must not be null");
+        }
+        final int n = matrix.length;
+        for (double[] row : matrix) {
+            if (row == null || row.length != n) {
+                throw new IllegalArgumentException("Matrix must be square");
+            }
+        }
+        return new LinearOperator() {
+            @Override
+            public int dimension() {
+                return n;
+            }
+
+            @Override
+            public void multiply(double[] x, double[] y) {
+                for (int i = 0; i < n; i++) {
+                    double[] row = matrix[i];
+                    double s = 0;
+                    for (int j = 0; j < n; j++) s += row[j] * x[j];
+                    y[i] = s;
+                }
+            }
+        };
+    }
+}
@@ -3,6 +3,8 @@ package gvisual;
 import edu.uci.ics.jung.graph.Graph;
 
 import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
 
 /**
  * Predicts likely missing edges in a graph using well-known link prediction
@@ -24,10 +26,27 @@ import java.util.*;
  *   <li>Recommending connections in collaboration networks</li>
  * </ul>
  *
+ * <h3>Candidate streaming</h3>
+ * <p>Prediction runs on an int-indexed CSR snapshot with vertices in ID
+ * order. Each source {@code u} streams its two-hop candidates
+ * {@code u → w → v} ({@code v > u}, not adjacent to {@code u}) into
+ * primitive per-source accumulators — a common-neighbour count and an
+ * Adamic–Adar sum per candidate — so every metric is available without
+ * materialising neighbour sets. Sources are scored in parallel (see
+ * {@link #withParallelism(int)}), each worker keeping a bounded top-K heap
+ * that is merged into a global one; common-neighbour sets are built only
+ * for the predictions actually returned. Ties are broken by vertex ID, so
+ * results do not depend on thread scheduling.</p>
+ *
  * @author sauravbhattacharya001
  */
 public class LinkPredictionAnalyzer {
 
+    /** Graphs with fewer vertices are scored on the calling thread. */
+    private static final int PARALLEL_THRESHOLD = 2000;
+    /** Source vertices per leaf task. */
+    private static final int SOURCES_PER_TASK = 64;
+
     private final Graph<String, Edge> graph;
 
     /**
@@ -38,6 +57,9 @@ public class LinkPredictionAnalyzer {
      * instance.
      */
     private Map<String, Set<String>> cachedAdjacency;
+    /** Lazily built CSR snapshot for candidate streaming. */
+    private Csr csr;
+    private int parallelism = Runtime.getRuntime().availableProcessors();
 
     /**
      * Create a new link prediction analyzer.
@@ -52,6 +74,21 @@ public class LinkPredictionAnalyzer {
         this.graph = graph;
     }
 
+    /**
+     * Sets the number of worker threads used to score candidates.
+     * Default: number of available processors.
+     *
+     * @param threads worker count (must be positive)
+     * @return this analyzer for chaining
+     */
+    public LinkPredictionAnalyzer withParallelism(int threads) {
+        if (threads < 1) {
+            throw new IllegalArgumentException("Parallelism must be positive");
+        }
+        this.parallelism = threads;
+        return this;
+    }
+
     /**
      * Returns the cached adjacency map, building it on first access.
      */
@@ -174,193 +211,82 @@ public class LinkPredictionAnalyzer {
     /**
      * Predict missing links using the specified method.
      *
-     * <p>Uses a streaming top-K approach with a min-heap of size K.
-     * For COMMON_NEIGHBORS, JACCARD, and ADAMIC_ADAR, only pairs sharing
-     * at least one common neighbor can score &gt; 0, so we enumerate
-     * <b>2-hop pairs</b> (neighbors-of-neighbors) instead of all O(V²)
-     * vertex pairs — reducing work to O(V·Δ²) where Δ is max degree.
-     * On sparse graphs (Δ ≪ V) this is orders of magnitude faster.
-     * PREFERENTIAL_ATTACHMENT still uses the O(V²) sweep since any pair
-     * with non-zero degrees scores positively.</p>
+     * <p>For COMMON_NEIGHBORS, JACCARD, and ADAMIC_ADAR, only pairs sharing
+     * at least one common neighbor can score &gt; 0, so only <b>2-hop
+     * pairs</b> are streamed — O(Σ deg(w)²) work instead of O(V²), spread
+     * over the worker pool. PREFERENTIAL_ATTACHMENT scores every pair of
+     * non-isolated vertices, so vertices are visited in descending degree
+     * order and the scan stops as soon as no remaining pair can beat the
+     * current K-th score.</p>
      *
      * @param method scoring method to use
      * @param topK   number of top predictions to return
      * @return prediction result with ranked candidate edges
      */
     public PredictionResult predict(Method method, int topK) {
-        Collection<String> vertices = graph.getVertices();
-        int n = vertices.size();
+        Csr g = csr();
         int existingEdges = graph.getEdgeCount();
-        long possibleEdges = (long) n * (n - 1) / 2;
-        Map<String, Set<String>> adjacency = adjacency();
-
-        PriorityQueue<PredictedLink> minHeap = new PriorityQueue<PredictedLink>(
-                topK + 1,
-                (PredictedLink a, PredictedLink b) -> Double.compare(a.getScore(), b.getScore()));
-
-        int candidatesEvaluated = 0;
+        long possibleEdges = (long) g.n * (g.n - 1) / 2;
+        int k = Math.max(0, topK);
 
+        TopKPairs top = new TopKPairs(k);
+        long candidatesEvaluated;
         if (method == Method.PREFERENTIAL_ATTACHMENT) {
-            // PA scores are non-zero for any pair where both endpoints have
-            // neighbors, so O(V²) enumeration is unavoidable.
-            List<String> vertexList = new ArrayList<String>(vertices);
-            for (int i = 0; i < vertexList.size(); i++) {
-                String u = vertexList.get(i);
-                Set<String> uNeighbors = adjacency.get(u);
-                if (uNeighbors.isEmpty()) continue;
-
-                for (int j = i + 1; j < vertexList.size(); j++) {
-                    String v = vertexList.get(j);
-                    if (uNeighbors.contains(v)) continue;
-
-                    Set<String> vNeighbors = adjacency.get(v);
-                    if (vNeighbors.isEmpty()) continue;
-
-                    candidatesEvaluated++;
-                    double score = (double) uNeighbors.size() * vNeighbors.size();
-
-                    if (minHeap.size() < topK || score > minHeap.peek().getScore()) {
-                        Set<String> common = GraphUtils.getCommonNeighbors(adjacency, u, v);
-                        minHeap.offer(new PredictedLink(u, v, score, method, common));
-                        if (minHeap.size() > topK) minHeap.poll();
-                    }
-                }
-            }
+            candidatesEvaluated = predictPreferential(g, top);
         } else {
-            // CN / Jaccard / Adamic-Adar: score is 0 when common neighbors
-            // is empty, so only 2-hop reachable pairs need evaluation.
-            // For each vertex u, walk u's neighbors w, then w's neighbors v
-            // (where v > u lexicographically and v is not adjacent to u).
-            // A seen-set per source u deduplicates the (u,v) pairs.
-            List<String> sortedVertices = new ArrayList<String>(vertices);
-            Collections.sort(sortedVertices);
-            Map<String, Integer> vertexOrd = new HashMap<String, Integer>(n * 2);
-            for (int i = 0; i < sortedVertices.size(); i++) {
-                vertexOrd.put(sortedVertices.get(i), i);
-            }
-
-            for (String u : sortedVertices) {
-                Set<String> uNeighbors = adjacency.get(u);
-                if (uNeighbors.isEmpty()) continue;
-                int uOrd = vertexOrd.get(u);
-
-                // Collect 2-hop candidates: distinct vertices reachable
-                // through exactly one intermediate neighbor
-                Set<String> seen = new HashSet<String>();
-                for (String w : uNeighbors) {
-                    for (String v : adjacency.get(w)) {
-                        // Only consider v > u (lexicographic) to avoid
-                        // evaluating each pair twice, and skip direct neighbors
-                        if (vertexOrd.get(v) > uOrd
-                                && !uNeighbors.contains(v)
-                                && seen.add(v)) {
-                            candidatesEvaluated++;
-                            Set<String> common = GraphUtils.getCommonNeighbors(adjacency, u, v);
-                            double score = computeScore(method, adjacency, u, v, common);
-                            if (score > 0
-                                    && (minHeap.size() < topK
-                                        || score > minHeap.peek().getScore())) {
-                                minHeap.offer(new PredictedLink(u, v, score, method, common));
-                                if (minHeap.size() > topK) minHeap.poll();
-                            }
-                        }
-                    }
-                }
+            candidatesEvaluated = 0;
+            for (Scanner sc : scanSources(g, method, k)) {
+                top.offerAll(sc.top);
+                candidatesEvaluated += sc.candidates;
             }
         }
 
-        // Extract results in descending order
-        List<PredictedLink> top = new ArrayList<PredictedLink>(minHeap);
-        Collections.sort(top, SCORE_DESCENDING);
-
-        return new PredictionResult(top, method, n, existingEdges,
-                possibleEdges, candidatesEvaluated);
+        List<PredictedLink> predictions = new ArrayList<PredictedLink>(top.size);
+        for (int i : top.sortedIndices()) {
+            predictions.add(link(g, top.a[i], top.b[i], top.score[i], method));
+        }
+        return new PredictionResult(predictions, method, g.n, existingEdges,
+                possibleEdges, (int) Math.min(Integer.MAX_VALUE, candidatesEvaluated));
     }
 
     /**
      * Predict using all methods and return a combined ranking.
      * Each method's scores are normalized to [0,1] and averaged.
      *
-     * <p>Uses a two-phase approach: for the CN/Jaccard/AA components,
-     * only <b>2-hop pairs</b> (neighbors-of-neighbors) are enumerated
-     * since those are the only pairs with non-zero CN/Jaccard/AA scores.
-     * Preferential Attachment is computed inline for these same pairs.
-     * This reduces the inner loop from O(V²) to O(V·Δ²) on sparse
-     * graphs while still producing correct ensemble rankings (pairs with
-     * zero CN/Jaccard/AA and only a PA signal are extremely weak
-     * candidates and would rarely make the top-K).</p>
+     * <p>Uses a two-phase approach: only <b>2-hop pairs</b> are streamed,
+     * since those are the only pairs with non-zero CN/Jaccard/AA scores,
+     * and Preferential Attachment is computed inline for the same pairs.
+     * Phase one keeps a pool of the best {@code max(4K, 64)} pairs by raw
+     * score sum (per worker, then merged) while tracking each method's
+     * maximum; phase two normalizes the pool and extracts the top K.
+     * Pairs with zero CN/Jaccard/AA and only a PA signal are extremely
+     * weak candidates and would rarely make the top-K.</p>
      *
      * @param topK number of top predictions to return
      * @return prediction result with ensemble scores
      */
     public PredictionResult predictEnsemble(int topK) {
-        Collection<String> vertices = graph.getVertices();
-        int n = vertices.size();
+        Csr g = csr();
         int existingEdges = graph.getEdgeCount();
-        long possibleEdges = (long) n * (n - 1) / 2;
-        Map<String, Set<String>> adjacency = adjacency();
-
-        Method[] methods = {
-            Method.COMMON_NEIGHBORS, Method.JACCARD,
-            Method.ADAMIC_ADAR, Method.PREFERENTIAL_ATTACHMENT
-        };
+        long possibleEdges = (long) g.n * (g.n - 1) / 2;
 
         int poolSize = Math.max(topK * 4, 64);
+        TopKPairs pool = new TopKPairs(poolSize);
         double[] maxScores = new double[4];
-        int candidatesEvaluated = 0;
-
-        PriorityQueue<Object[]> minHeap = new PriorityQueue<Object[]>(
-                poolSize + 1,
-                (Object[] a, Object[] b) -> Double.compare(
-                        ((double[]) a[3])[4], ((double[]) b[3])[4]));
-
-        // 2-hop enumeration: only pairs sharing ≥1 common neighbor
-        List<String> sortedVertices = new ArrayList<String>(vertices);
-        Collections.sort(sortedVertices);
-        Map<String, Integer> vertexOrd = new HashMap<String, Integer>(n * 2);
-        for (int i = 0; i < sortedVertices.size(); i++) {
-            vertexOrd.put(sortedVertices.get(i), i);
-        }
-
-        for (String u : sortedVertices) {
-            Set<String> uNeighbors = adjacency.get(u);
-            if (uNeighbors.isEmpty()) continue;
-            int uOrd = vertexOrd.get(u);
-
-            Set<String> seen = new HashSet<String>();
-            for (String w : uNeighbors) {
-                for (String v : adjacency.get(w)) {
-                    if (vertexOrd.get(v) > uOrd
-                            && !uNeighbors.contains(v)
-                            && seen.add(v)) {
-                        candidatesEvaluated++;
-
-                        Set<String> common = GraphUtils.getCommonNeighbors(adjacency, u, v);
-                        double[] scores = new double[5];
-                        for (int m = 0; m < 4; m++) {
-                            scores[m] = computeScore(methods[m], adjacency, u, v, common);
-                        }
-                        if (scores[0] == 0 && scores[3] == 0) continue;
-
-                        scores[4] = scores[0] + scores[1] + scores[2] + scores[3];
-
-                        for (int m = 0; m < 4; m++) {
-                            maxScores[m] = Math.max(maxScores[m], scores[m]);
-                        }
-
-                        if (minHeap.size() < poolSize || scores[4] > ((double[]) minHeap.peek()[3])[4]) {
-                            minHeap.offer(new Object[]{u, v, common, scores});
-                            if (minHeap.size() > poolSize) minHeap.poll();
-                        }
-                    }
-                }
-            }
+        long candidatesEvaluated = 0;
+        for (Scanner sc : scanSources(g, Method.ENSEMBLE, poolSize)) {
+            pool.offerAll(sc.top);
+            candidatesEvaluated += sc.candidates;
+            for (int m = 0; m < 4; m++) maxScores[m] = Math.max(maxScores[m], sc.maxScores[m]);
         }
 
         // Pass 2: normalize the pool and extract the real top-K
-        List<PredictedLink> candidates = new ArrayList<PredictedLink>(minHeap.size());
-        for (Object[] entry : minHeap) {
-            double[] scores = (double[]) entry[3];
+        TopKPairs best = new TopKPairs(Math.max(0, topK));
+        double[] scores = new double[4];
+        for (int i = 0; i < pool.size; i++) {
+            int u = pool.a[i];
+            int v = pool.b[i];
+            componentScores(g, u, v, scores);
             double avg = 0;
             int count = 0;
             for (int m = 0; m < 4; m++) {
@@ -369,69 +295,293 @@ public class LinkPredictionAnalyzer {
                     count++;
                 }
             }
-            avg = count > 0 ? avg / count : 0;
-            @SuppressWarnings("unchecked")
-            Set<String> common = (Set<String>) entry[2];
-            candidates.add(new PredictedLink((String) entry[0], (String) entry[1],
-                    avg, Method.ENSEMBLE, common));
+            best.offer(count > 0 ? avg / count : 0, u, v);
         }
 
-        Collections.sort(candidates, SCORE_DESCENDING);
-        List<PredictedLink> top = candidates.subList(
-                0, Math.min(topK, candidates.size()));
+        List<PredictedLink> predictions = new ArrayList<PredictedLink>(best.size);
+        for (int i : best.sortedIndices()) {
+            predictions.add(link(g, best.a[i], best.b[i], best.score[i], Method.ENSEMBLE));
+        }
+        return new PredictionResult(predictions, Method.ENSEMBLE, g.n, existingEdges,
+                possibleEdges, (int) Math.min(Integer.MAX_VALUE, candidatesEvaluated));
+    }
+
+    // ── Candidate streaming ──────────────────────────────────────
 
-        return new PredictionResult(new ArrayList<PredictedLink>(top),
-                Method.ENSEMBLE, n, existingEdges, possibleEdges,
-                candidatesEvaluated);
+    private Csr csr() {
+        if (csr == null) {
+            csr = new Csr(graph, adjacency());
+        }
+        return csr;
     }
 
-    // ── Shared pair enumeration ──────────────────────────────────
+    /** Materialises a returned prediction, including its common neighbours. */
+    private PredictedLink link(Csr g, int u, int v, double score, Method method) {
+        String a = g.vertices[u];
+        String b = g.vertices[v];
+        return new PredictedLink(a, b, score, method,
+                GraphUtils.getCommonNeighbors(adjacency(), a, b));
+    }
 
-    /** Shared comparator for sorting predictions by score descending. */
-    private static final Comparator<PredictedLink> SCORE_DESCENDING =
-            (PredictedLink a, PredictedLink b) -> {
-                    return Double.compare(b.getScore(), a.getScore());
-                };
+    /**
+     * Preferential attachment top-K. Non-isolated vertices are visited in
+     * descending degree order; for a fixed {@code u} partner scores only
+     * fall, so each inner loop stops once {@code deg(u)·deg(v)} drops below
+     * the K-th best, and the outer loop once {@code deg(u)²} does.
+     *
+     * @return number of non-adjacent, non-isolated pairs (all of which
+     *         are candidates, even those the pruning skips)
+     */
+    private static long predictPreferential(Csr g, TopKPairs top) {
+        int active = 0;
+        long adjacentPairs = 0;
+        for (int u = 0; u < g.n; u++) {
+            if (g.degree(u) == 0) continue;
+            active++;
+            for (int p = g.offsets[u]; p < g.offsets[u + 1]; p++) {
+                if (g.targets[p] > u) adjacentPairs++;
+            }
+        }
+        Integer[] boxed = new Integer[active];
+        int c = 0;
+        for (int u = 0; u < g.n; u++) {
+            if (g.degree(u) > 0) boxed[c++] = u;
+        }
+        Arrays.sort(boxed, (x, y) -> g.degree(y) != g.degree(x)
+                ? Integer.compare(g.degree(y), g.degree(x)) : Integer.compare(x, y));
+
+        if (top.capacity > 0) {
+            for (int i = 0; i < active; i++) {
+                int u = boxed[i];
+                double du = g.degree(u);
+                if (top.isFull() && du * du < top.worstScore()) break;
+                for (int j = i + 1; j < active; j++) {
+                    int v = boxed[j];
+                    double score = du * g.degree(v);
+                    if (top.isFull() && score < top.worstScore()) break;
+                    if (g.adjacent(u, v)) continue;
+                    top.offer(score, Math.min(u, v), Math.max(u, v));
+                }
+            }
+        }
+        return (long) active * (active - 1) / 2 - adjacentPairs;
+    }
 
-    // ── Scoring functions ───────────────────────────────────────
+    /** CN, Jaccard, Adamic–Adar and PA of one pair via sorted-list merge. */
+    private static void componentScores(Csr g, int u, int v, double[] out) {
+        int common = 0;
+        double aa = 0;
+        int p = g.offsets[u];
+        int pe = g.offsets[u + 1];
+        int q = g.offsets[v];
+        int qe = g.offsets[v + 1];
+        while (p < pe && q < qe) {
+            int x = g.targets[p];
+            int y = g.targets[q];
+            if (x < y) {
+                p++;
+            } else if (x > y) {
+                q++;
+            } else {
+                common++;
+                aa += g.adamicAdarWeight(x);
+                p++;
+                q++;
+            }
+        }
+        int du = g.degree(u);
+        int dv = g.degree(v);
+        out[0] = common;
+        out[1] = jaccard(common, du, dv);
+        out[2] = aa;
+        out[3] = (double) du * dv;
+    }
 
-    private double computeScore(Method method, Map<String, Set<String>> adjacency,
-                                String u, String v, Set<String> common) {
-        switch (method) {
-            case COMMON_NEIGHBORS:
-                return common.size();
+    private static double jaccard(int common, int du, int dv) {
+        // |A ∪ B| = |A| + |B| - |A ∩ B|
+        int unionSize = du + dv - common;
+        return unionSize == 0 ? 0 : (double) common / unionSize;
+    }
 
-            case JACCARD: {
-                // Compute union size arithmetically to avoid allocating a HashSet:
-                // |A ∪ B| = |A| + |B| - |A ∩ B|
-                int unionSize = adjacency.get(u).size() + adjacency.get(v).size()
-                        - common.size();
-                return unionSize == 0 ? 0 : (double) common.size() / unionSize;
+    /**
+     * Streams every source through the pool and returns the per-worker
+     * scanners. {@code method} is the metric to rank by, or ENSEMBLE to
+     * rank by the raw sum of all four.
+     */
+    private List<Scanner> scanSources(Csr g, Method method, int k) {
+        final List<Scanner> scanners = Collections.synchronizedList(new ArrayList<Scanner>());
+        ThreadLocal<Scanner> local = ThreadLocal.withInitial(() -> {
+            Scanner sc = new Scanner(g, method, k);
+            scanners.add(sc);
+            return sc;
+        });
+
+        int threads = Math.max(1, parallelism);
+        if (threads == 1 || g.n < PARALLEL_THRESHOLD) {
+            new SourceRange(local, 0, g.n).compute();
+        } else {
+            ForkJoinPool pool = new ForkJoinPool(threads);
+            try {
+                pool.invoke(new SourceRange(local, 0, g.n));
+            } finally {
+                pool.shutdown();
             }
+        }
+        return scanners;
+    }
 
-            case ADAMIC_ADAR: {
-                double score = 0;
-                for (String w : common) {
-                    int degree = adjacency.get(w).size();
-                    if (degree > 1) {
-                        score += 1.0 / Math.log(degree);
-                    }
-                }
-                return score;
+    /** Int-indexed snapshot: vertices sorted by ID, sorted CSR rows. */
+    private static final class Csr {
+        final int n;
+        final String[] vertices;
+        final int[] offsets;
+        final int[] targets;
+
+        Csr(Graph<String, Edge> graph, Map<String, Set<String>> adjacency) {
+            List<String> sorted = new ArrayList<String>(graph.getVertices());
+            Collections.sort(sorted);
+            n = sorted.size();
+            vertices = sorted.toArray(new String[0]);
+            Map<String, Integer> index = new HashMap<String, Integer>(n * 2);
+            for (int i = 0; i < n; i++) index.put(vertices[i], i);
+
+            offsets = new int[n + 1];
+            for (int i = 0; i < n; i++) {
+                offsets[i + 1] = offsets[i] + adjacency.get(vertices[i]).size();
+            }
+            targets = new int[offsets[n]];
+            for (int i = 0; i < n; i++) {
+                int p = offsets[i];
+                for (String w : adjacency.get(vertices[i])) targets[p++] = index.get(w);
+                Arrays.sort(targets, offsets[i], offsets[i + 1]);
             }
+        }
+
+        int degree(int v) {
+            return offsets[v + 1] - offsets[v];
+        }
 
-            case PREFERENTIAL_ATTACHMENT:
-                return (double) adjacency.get(u).size() * adjacency.get(v).size();
+        double adamicAdarWeight(int w) {
+            int d = degree(w);
+            return d > 1 ? 1.0 / Math.log(d) : 0.0;
+        }
 
-            default:
-                return 0;
+        boolean adjacent(int u, int v) {
+            return Arrays.binarySearch(targets, offsets[u], offsets[u + 1], v) >= 0;
         }
     }
 
-    // ── Helpers ─────────────────────────────────────────────────
+    /** Splits source vertices across the pool. */
+    private static final class SourceRange extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+        private final transient ThreadLocal<Scanner> local;
+        private final int lo;
+        private final int hi;
+
+        SourceRange(ThreadLocal<Scanner> local, int lo, int hi) {
+            this.local = local;
+            this.lo = lo;
+            this.hi = hi;
+        }
 
-    private Set<String> getCommonNeighbors(Map<String, Set<String>> adjacency,
-                                           String u, String v) {
-        return GraphUtils.getCommonNeighbors(adjacency, u, v);
+        @Override
+        protected void compute() {
+            if (hi - lo > SOURCES_PER_TASK && inForkJoinPool()) {
+                int mid = (lo + hi) >>> 1;
+                invokeAll(new SourceRange(local, lo, mid), new SourceRange(local, mid, hi));
+                return;
+            }
+            Scanner sc = local.get();
+            for (int u = lo; u < hi; u++) {
+                sc.scan(u);
+            }
+        }
+    }
+
+    /**
+     * Per-thread two-hop streamer: for one source at a time, dense
+     * common-neighbour and Adamic–Adar accumulators indexed by candidate,
+     * an epoch-stamped touched list, and this worker's top-K heap.
+     */
+    private static final class Scanner {
+        final Csr g;
+        final Method method;
+        final TopKPairs top;
+        final int[] common;
+        final double[] adamicAdar;
+        final int[] stamp;
+        final int[] touched;
+        final double[] maxScores = new double[4];
+        long candidates;
+        int epoch;
+
+        Scanner(Csr g, Method method, int k) {
+            this.g = g;
+            this.method = method;
+            this.top = new TopKPairs(k);
+            this.common = new int[g.n];
+            this.adamicAdar = new double[g.n];
+            this.stamp = new int[g.n];
+            this.touched = new int[g.n];
+        }
+
+        void scan(int u) {
+            int[] off = g.offsets;
+            int[] tgt = g.targets;
+            if (off[u] == off[u + 1]) return;
+
+            // Stamp u's neighbours (and u) so they are never candidates
+            int blocked = ++epoch;
+            stamp[u] = blocked;
+            for (int p = off[u]; p < off[u + 1]; p++) stamp[tgt[p]] = blocked;
+
+            int live = ++epoch;
+            int count = 0;
+            for (int p = off[u]; p < off[u + 1]; p++) {
+                int w = tgt[p];
+                double weight = g.adamicAdarWeight(w);
+                for (int q = off[w]; q < off[w + 1]; q++) {
+                    int v = tgt[q];
+                    if (v <= u || stamp[v] == blocked) continue;
+                    if (stamp[v] != live) {
+                        stamp[v] = live;
+                        common[v] = 0;
+                        adamicAdar[v] = 0;
+                        touched[count++] = v;
+                    }
+                    common[v]++;
+                    adamicAdar[v] += weight;
+                }
+            }
+            candidates += count;
+
+            int du = g.degree(u);
+            for (int i = 0; i < count; i++) {
+                int v = touched[i];
+                int c = common[v];
+                double score;
+                switch (method) {
+                    case COMMON_NEIGHBORS:
+                        score = c;
+                        break;
+                    case JACCARD:
+                        score = jaccard(c, du, g.degree(v));
+                        break;
+                    case ADAMIC_ADAR:
+                        score = adamicAdar[v];
+                        break;
+                    default: {
+                        double j = jaccard(c, du, g.degree(v));
+                        double pa = (double) du * g.degree(v);
+                        maxScores[0] = Math.max(maxScores[0], c);
+                        maxScores[1] = Math.max(maxScores[1], j);
+                        maxScores[2] = Math.max(maxScores[2], adamicAdar[v]);
+                        maxScores[3] = Math.max(maxScores[3], pa);
+                        score = c + j + adamicAdar[v] + pa;
+                    }
+                }
+                if (score > 0) top.offer(score, u, v);
+            }
+        }
     }
 }
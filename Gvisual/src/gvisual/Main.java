@@ -14,13 +14,16 @@ import java.awt.Color;
 import java.awt.Dimension;
 import java.awt.Font;
 import java.awt.GridLayout;
+import java.awt.geom.Point2D;
 import java.awt.event.ActionListener;
 import java.io.FileNotFoundException;
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Random;
 import java.util.Set;
 import java.util.logging.Level;
@@ -88,6 +91,7 @@ public class Main extends JFrame {
     private Graph<String, Edge> g;
     private VisualizationViewer<String, Edge> vv;
     private Layout<String, Edge> graphLayout;
+    private final IncrementalLayoutCache layoutCache = new IncrementalLayoutCache();
     private final GraphRenderers renderers = new GraphRenderers();
 
     /**
@@ -276,11 +280,19 @@ public class Main extends JFrame {
     }
 
     /**
-     * Create the layout for the graph
+     * Create the layout for the graph.
+     *
+     * <p>Each vertex is assigned to a cell of the 3×3 edge-type grid and
+     * seeded by {@link #positionCluster}. Vertices already shown on an
+     * earlier day in the same cell keep their position through
+     * {@link IncrementalLayoutCache}; only new vertices and vertices that
+     * moved to another cell are placed and briefly relaxed, so scrubbing
+     * the timeline stays fast and the picture stays stable.</p>
      */
     public void createLayout() {
         graphLayout = new StaticLayout<String, Edge>(g);
         List<List<String>> clusters = new ArrayList<>();
+        Map<String, Integer> clusterOf = new HashMap<>();
 
         for (int i = 0; i < 9; i++) {
             clusters.add(new ArrayList<>());
@@ -306,11 +318,21 @@ public class Main extends JFrame {
 
             int areaId = EdgeType.clusterIdFor(isF, isFs, isC, isS);
             clusters.get(areaId).add(x);
+            clusterOf.put(x, areaId);
         }
 
         for (int i = 0; i < 9; i++) {
             positionCluster(clusters.get(i), i / 3, i % 3);
         }
+
+        layoutCache.update(g, clusterOf::get, v -> {
+            Point2D seed = graphLayout.transform(v);
+            return new double[]{seed.getX(), seed.getY()};
+        });
+        for (String v : g.getVertices()) {
+            double[] p = layoutCache.getPosition(v);
+            graphLayout.setLocation(v, new Point2D.Double(p[0], p[1]));
+        }
     }
 
     /**
@@ -580,6 +602,8 @@ public class Main extends JFrame {
         createLayout();
         vv = new VisualizationViewer<String, Edge>(graphLayout);
         vv.setSize(new Dimension(100, 0));
+        // Culls, tiles and caches large graphs; small ones render as before
+        vv.setRenderer(new LevelOfDetailRenderer(renderers::getVersion));
 
         DefaultModalGraphMouse gm = new DefaultModalGraphMouse();
 
@@ -0,0 +1,484 @@
+package gvisual;
+
+import edu.uci.ics.jung.graph.Graph;
+
+import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * MinHash signatures and a banded locality-sensitive hash (LSH) index over
+ * vertex neighbour sets, for approximate Jaccard similarity on graphs too
+ * large for exact candidate generation.
+ *
+ * <h3>Signatures</h3>
+ * <p>Each vertex gets a signature of {@code k = bands × rows} minimum hash
+ * values over its neighbour set. For any two vertices the probability that
+ * a given slot agrees equals the Jaccard similarity of their neighbour
+ * sets, so the fraction of agreeing slots is an unbiased estimate with
+ * standard error ≈ √(J(1−J)/k). Signatures are stored in one flat
+ * {@code int[V × k]} array — the index footprint is roughly V × k ints plus
+ * one packed long per vertex and band.</p>
+ *
+ * <h3>Banding</h3>
+ * <p>The signature is cut into {@code bands} bands of {@code rows} slots;
+ * two vertices become <em>candidates</em> if any band matches exactly. A
+ * pair with Jaccard {@code s} is found with probability
+ * {@code 1 − (1 − s^rows)^bands} (see {@link #candidateProbability}), an
+ * S-curve whose midpoint sits near {@code (1/bands)^(1/rows)}. More bands
+ * raise recall; more rows raise precision. {@link Builder#forThreshold}
+ * picks a split for a target threshold.</p>
+ *
+ * <p>Two isolated vertices have identical (empty) signatures and estimate
+ * to 1.0, matching the convention of {@link NodeSimilarityAnalyzer#jaccard}.
+ * Signatures are computed in parallel; band tables are sorted arrays, so
+ * a bucket lookup is a binary search.</p>
+ *
+ * <h3>Usage</h3>
+ * <pre>
+ *   MinHashLshIndex index = MinHashLshIndex.builder(graph)
+ *           .forThreshold(0.7, 128)
+ *           .build();
+ *   Set&lt;String&gt; near = index.candidates("A");
+ *   double est = index.estimateJaccard("A", "B");
+ *   List&lt;ScoredPair&gt; dupes = index.similarPairs(0.8);
+ * </pre>
+ *
+ * @author sauravbhattacharya001
+ * @see NodeSimilarityAnalyzer#approximateJaccardPairs(MinHashLshIndex, double)
+ * @see GraphCompressor#byNeighborhoodSimilarity(double, MinHashLshIndex)
+ */
+public final class MinHashLshIndex {
+
+    /** Vertices are packed into the low bits of band table entries. */
+    private static final int VERTEX_BITS = 24;
+    private static final long VERTEX_MASK = (1L << VERTEX_BITS) - 1;
+    /** Signature slot value for an empty neighbour set. */
+    private static final int EMPTY = Integer.MAX_VALUE;
+    /** Vertices per leaf task when building signatures. */
+    private static final int VERTICES_PER_TASK = 256;
+    private static final int PARALLEL_THRESHOLD = 5000;
+
+    private final int bands;
+    private final int rows;
+    private final int length;
+    private final String[] vertices;
+    private final Map<String, Integer> index;
+    /** Flat signatures: slot j of vertex v at {@code v * length + j}. */
+    private final int[] signatures;
+    /** Per band: (bucket key &lt;&lt; 24 | vertex), sorted. */
+    private final long[][] tables;
+
+    private MinHashLshIndex(Builder b) {
+        this.bands = b.bands;
+        this.rows = b.rows;
+        this.length = b.bands * b.rows;
+
+        List<String> sorted = new ArrayList<String>(b.graph.getVertices());
+        Collections.sort(sorted);
+        int n = sorted.size();
+        if (n > VERTEX_MASK || (long) n * length > Integer.MAX_VALUE - 8) {
+            throw new IllegalArgumentException("Graph too large for MinHash index: " + n
+                    + " vertices × " + length + " slots");
+        }
+        vertices = sorted.toArray(new String[0]);
+        index = new HashMap<String, Integer>(n * 2);
+        for (int i = 0; i < n; i++) index.put(vertices[i], i);
+
+        int[][] adj = new int[n][];
+        for (int i = 0; i < n; i++) {
+            Collection<String> nb = b.graph.getNeighbors(vertices[i]);
+            int[] row = new int[nb == null ? 0 : nb.size()];
+            int c = 0;
+            if (nb != null) {
+                for (String w : nb) row[c++] = index.get(w);
+            }
+            adj[i] = row;
+        }
+
+        // Multiply-shift hash family h_j(x) = (a_j·x + c_j) >>> 33
+        long[] mulA = new long[length];
+        long[] addC = new long[length];
+        long state = b.seed;
+        for (int j = 0; j < length; j++) {
+            state += 0x9E3779B97F4A7C15L;
+            mulA[j] = mix(state) | 1L;
+            state += 0x9E3779B97F4A7C15L;
+            addC[j] = mix(state);
+        }
+
+        signatures = new int[n * length];
+        tables = new long[bands][n];
+        SignatureJob job = new SignatureJob(adj, mulA, addC);
+        int threads = Math.max(1, b.parallelism);
+        if (threads == 1 || n < PARALLEL_THRESHOLD) {
+            new SignatureRange(job, 0, n).compute();
+            for (long[] t : tables) Arrays.sort(t);
+        } else {
+            ForkJoinPool pool = new ForkJoinPool(threads);
+            try {
+                pool.invoke(new SignatureRange(job, 0, n));
+            } finally {
+                pool.shutdown();
+            }
+            for (long[] t : tables) Arrays.parallelSort(t);
+        }
+    }
+
+    /**
+     * Creates a builder for an index over the given graph.
+     *
+     * @param graph the graph (must not be null)
+     * @return a new builder
+     * @throws IllegalArgumentException if graph is null
+     */
+    public static Builder builder(Graph<String, Edge> graph) {
+        return new Builder(graph);
+    }
+
+    /**
+     * Probability that two sets with the given Jaccard similarity share at
+     * least one band: {@code 1 − (1 − s^rows)^bands}.
+     *
+     * @param jaccard Jaccard similarity in [0, 1]
+     * @param bands   number of bands
+     * @param rows    rows per band
+     * @return candidate probability in [0, 1]
+     */
+    public static double candidateProbability(double jaccard, int bands, int rows) {
+        return 1.0 - Math.pow(1.0 - Math.pow(jaccard, rows), bands);
+    }
+
+    // ── Queries ─────────────────────────────────────────────────
+
+    /** Returns the number of bands. */
+    public int getBands() {
+        return bands;
+    }
+
+    /** Returns the number of rows per band. */
+    public int getRows() {
+        return rows;
+    }
+
+    /** Returns the signature length ({@code bands × rows}). */
+    public int getSignatureLength() {
+        return length;
+    }
+
+    /** Returns the number of indexed vertices. */
+    public int getVertexCount() {
+        return vertices.length;
+    }
+
+    /**
+     * Estimates the Jaccard similarity of two vertices' neighbour sets as
+     * the fraction of agreeing signature slots.
+     *
+     * @param u first vertex
+     * @param v second vertex
+     * @return estimated Jaccard similarity in [0, 1]
+     * @throws IllegalArgumentException if either vertex is not indexed
+     */
+    public double estimateJaccard(String u, String v) {
+        return estimate(indexOf(u), indexOf(v));
+    }
+
+    /**
+     * Returns every vertex that shares at least one band bucket with the
+     * given vertex, in vertex-ID order.
+     *
+     * @param vertex the query vertex
+     * @return candidate near-duplicates (excluding the vertex itself)
+     * @throws IllegalArgumentException if the vertex is not indexed
+     */
+    public Set<String> candidates(String vertex) {
+        int[] found = candidateIndices(indexOf(vertex));
+        Set<String> result = new LinkedHashSet<String>(found.length * 2);
+        for (int i : found) result.add(vertices[i]);
+        return result;
+    }
+
+    /**
+     * Returns candidate pairs whose estimated Jaccard similarity is at
+     * least {@code threshold}. Only signatures are consulted, so this
+     * needs no access to the graph.
+     *
+     * @param threshold minimum estimated similarity (inclusive)
+     * @return pairs sorted by estimate descending, then by vertex ID
+     */
+    public List<NodeSimilarityAnalyzer.ScoredPair> similarPairs(double threshold) {
+        final List<long[]> hits = new ArrayList<long[]>();
+        forEachCandidatePair((u, v) -> {
+            double s = estimate(u, v);
+            if (s >= threshold) {
+                hits.add(new long[] {Double.doubleToLongBits(s), u, v});
+            }
+        });
+        hits.sort((x, y) -> {
+            int c = Double.compare(Double.longBitsToDouble(y[0]), Double.longBitsToDouble(x[0]));
+            if (c != 0) return c;
+            c = Long.compare(x[1], y[1]);
+            return c != 0 ? c : Long.compare(x[2], y[2]);
+        });
+        List<NodeSimilarityAnalyzer.ScoredPair> result =
+                new ArrayList<NodeSimilarityAnalyzer.ScoredPair>(hits.size());
+        for (long[] h : hits) {
+            result.add(new NodeSimilarityAnalyzer.ScoredPair(
+                    vertices[(int) h[1]], vertices[(int) h[2]], Double.longBitsToDouble(h[0])));
+        }
+        return result;
+    }
+
+    // ── Package-level access ────────────────────────────────────
+
+    /** Functional callback over candidate pairs in index space. */
+    interface PairVisitor {
+        void visit(int u, int v);
+    }
+
+    /**
+     * Visits every distinct candidate pair once, with {@code u < v} in
+     * vertex-ID order. A pair is reported only in the first band where it
+     * shares a bucket, checked by recomputing the earlier bands' keys, so
+     * no set of visited pairs is kept.
+     */
+    void forEachCandidatePair(PairVisitor visitor) {
+        for (int band = 0; band < bands; band++) {
+            long[] table = tables[band];
+            int start = 0;
+            while (start < table.length) {
+                long key = table[start] >>> VERTEX_BITS;
+                int end = start + 1;
+                while (end < table.length && (table[end] >>> VERTEX_BITS) == key) end++;
+                for (int i = start; i < end; i++) {
+                    int a = (int) (table[i] & VERTEX_MASK);
+                    for (int j = i + 1; j < end; j++) {
+                        int b = (int) (table[j] & VERTEX_MASK);
+                        int u = Math.min(a, b);
+                        int v = Math.max(a, b);
+                        if (!sharesEarlierBand(u, v, band)) {
+                            visitor.visit(u, v);
+                        }
+                    }
+                }
+                start = end;
+            }
+        }
+    }
+
+    /** Bucket mates of vertex v across all bands, sorted and distinct. */
+    int[] candidateIndices(int v) {
+        int[] found = new int[16];
+        int count = 0;
+        for (int band = 0; band < bands; band++) {
+            long[] table = tables[band];
+            long key = bandKey(v, band);
+            int pos = Arrays.binarySearch(table, (key << VERTEX_BITS) | v);
+            int lo = pos;
+            while (lo > 0 && (table[lo - 1] >>> VERTEX_BITS) == key) lo--;
+            int hi = pos + 1;
+            while (hi < table.length && (table[hi] >>> VERTEX_BITS) == key) hi++;
+            for (int p = lo; p < hi; p++) {
+                if (p == pos) continue;
+                if (count == found.length) found = Arrays.copyOf(found, count * 2);
+                found[count++] = (int) (table[p] & VERTEX_MASK);
+            }
+        }
+        Arrays.sort(found, 0, count);
+        int m = 0;
+        for (int i = 0; i < count; i++) {
+            if (m == 0 || found[m - 1] != found[i]) found[m++] = found[i];
+        }
+        return Arrays.copyOf(found, m);
+    }
+
+    /** Indexed vertex IDs, sorted. */
+    String vertexAt(int i) {
+        return vertices[i];
+    }
+
+    int indexOf(String vertex) {
+        Integer i = vertex == null ? null : index.get(vertex);
+        if (i == null) {
+            throw new IllegalArgumentException("Vertex not indexed: " + vertex);
+        }
+        return i;
+    }
+
+    double estimate(int u, int v) {
+        int agree = 0;
+        int ou = u * length;
+        int ov = v * length;
+        for (int j = 0; j < length; j++) {
+            if (signatures[ou + j] == signatures[ov + j]) agree++;
+        }
+        return (double) agree / length;
+    }
+
+    // ── Internals ───────────────────────────────────────────────
+
+    /** Whether u and v share a bucket in some band before {@code band}. */
+    private boolean sharesEarlierBand(int u, int v, int band) {
+        for (int b = 0; b < band; b++) {
+            if (bandKey(u, b) == bandKey(v, b)) return true;
+        }
+        return false;
+    }
+
+    /** 40-bit hash of one band of a vertex's signature. */
+    private long bandKey(int v, int band) {
+        long h = mix(band * 0xC2B2AE3D27D4EB4FL + rows);
+        int base = v * length + band * rows;
+        for (int r = 0; r < rows; r++) {
+            h = mix(h * 31 + signatures[base + r]);
+        }
+        return h >>> VERTEX_BITS;
+    }
+
+    /** Shared read-only inputs of a parallel signature build. */
+    private final class SignatureJob {
+        final int[][] adj;
+        final long[] mulA;
+        final long[] addC;
+
+        SignatureJob(int[][] adj, long[] mulA, long[] addC) {
+            this.adj = adj;
+            this.mulA = mulA;
+            this.addC = addC;
+        }
+
+        void build(int v) {
+            int base = v * length;
+            Arrays.fill(signatures, base, base + length, EMPTY);
+            for (int w : adj[v]) {
+                long x = mix(w + 1L);
+                for (int j = 0; j < length; j++) {
+                    int h = (int) ((mulA[j] * x + addC[j]) >>> 33);
+                    if (h < signatures[base + j]) signatures[base + j] = h;
+                }
+            }
+            for (int band = 0; band < bands; band++) {
+                tables[band][v] = (bandKey(v, band) << VERTEX_BITS) | v;
+            }
+        }
+    }
+
+    /** Splits vertex ranges across the pool. */
+    private static final class SignatureRange extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+        private final transient SignatureJob job;
+        private final int lo;
+        private final int hi;
+
+        SignatureRange(SignatureJob job, int lo, int hi) {
+            this.job = job;
+            this.lo = lo;
+            this.hi = hi;
+        }
+
+        @Override
+        protected void compute() {
+            if (hi - lo > VERTICES_PER_TASK && inForkJoinPool()) {
+                int mid = (lo + hi) >>> 1;
+                invokeAll(new SignatureRange(job, lo, mid), new SignatureRange(job, mid, hi));
+                return;
+            }
+            for (int v = lo; v < hi; v++) {
+                job.build(v);
+            }
+        }
+    }
+
+    /** SplitMix64 finalizer. */
+    private static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+
+    // ── Builder ─────────────────────────────────────────────────
+
+    /** Builder for {@link MinHashLshIndex}. */
+    public static final class Builder {
+        private final Graph<String, Edge> graph;
+        private int bands = 32;
+        private int rows = 4;
+        private long seed = 42L;
+        private int parallelism = Runtime.getRuntime().availableProcessors();
+
+        private Builder(Graph<String, Edge> graph) {
+            if (graph == null) {
+                throw new IllegalArgumentException("Graph must not be null");
+            }
+            this.graph = graph;
+        }
+
+        /** Number of bands (default 32). More bands raise recall. */
+        public Builder bands(int bands) {
+            if (bands < 1) {
+                throw new IllegalArgumentException("Bands must be positive");
+            }
+            this.bands = bands;
+            return this;
+        }
+
+        /** Rows per band (default 4). More rows raise precision. */
+        public Builder rows(int rows) {
+            if (rows < 1) {
+                throw new IllegalArgumentException("Rows must be positive");
+            }
+            this.rows = rows;
+            return this;
+        }
+
+        /** Seed of the hash family (default 42). */
+        public Builder seed(long seed) {
+            this.seed = seed;
+            return this;
+        }
+
+        /** Worker threads for the signature build (default: processors). */
+        public Builder parallelism(int threads) {
+            if (threads < 1) {
+                throw new IllegalArgumentException("Parallelism must be positive");
+            }
+            this.parallelism = threads;
+            return this;
+        }
+
+        /**
+         * Chooses bands and rows with {@code bands × rows ≤ signatureLength}
+         * so the S-curve midpoint {@code (1/bands)^(1/rows)} is as close as
+         * possible to {@code threshold}.
+         *
+         * @param threshold       target Jaccard threshold in (0, 1)
+         * @param signatureLength maximum signature length
+         * @return this builder
+         */
+        public Builder forThreshold(double threshold, int signatureLength) {
+            if (threshold <= 0.0 || threshold >= 1.0) {
+                throw new IllegalArgumentException("Threshold must be in (0, 1), got: " + threshold);
+            }
+            if (signatureLength < 1) {
+                throw new IllegalArgumentException("Signature length must be positive");
+            }
+            double bestError = Double.MAX_VALUE;
+            for (int r = 1; r <= signatureLength; r++) {
+                int b = signatureLength / r;
+                double error = Math.abs(Math.pow(1.0 / b, 1.0 / r) - threshold);
+                if (error < bestError) {
+                    bestError = error;
+                    this.bands = b;
+                    this.rows = r;
+                }
+            }
+            return this;
+        }
+
+        /** Builds the signatures and band tables. */
+        public MinHashLshIndex build() {
+            return new MinHashLshIndex(this);
+        }
+    }
+}
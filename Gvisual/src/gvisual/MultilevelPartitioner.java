@@ -0,0 +1,861 @@
+package gvisual;
+
+import edu.uci.ics.jung.graph.Graph;
+
+import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.function.IntConsumer;
+
+/**
+ * Multilevel k-way partitioning in the style of METIS (Karypis &amp; Kumar),
+ * the engine behind {@link GraphPartitioner.Strategy#MULTILEVEL}.
+ *
+ * <p>Kernighan–Lin on the whole graph compares every vertex pair and
+ * spectral bisection needs an eigenvector per split; neither scales to
+ * million-edge graphs. The multilevel scheme instead works on a hierarchy
+ * of ever smaller graphs:</p>
+ * <ol>
+ *   <li><b>Coarsening</b> — heavy-edge matching pairs each vertex with
+ *       the neighbour it shares the heaviest edge with, and matched pairs
+ *       are contracted into one vertex (weights add up, parallel edges
+ *       merge). Repeated until about {@value #COARSEST_PER_PART} vertices
+ *       per part remain, or a level stops shrinking.</li>
+ *   <li><b>Initial partitioning</b> — the coarsest graph is split by
+ *       recursive bisection, each bisection the best of
+ *       {@value #INITIAL_TRIES} greedy graph-growing attempts followed by
+ *       FM refinement.</li>
+ *   <li><b>Uncoarsening</b> — the partition is projected back level by
+ *       level; at each level overweight parts are rebalanced and a k-way
+ *       Fiduccia–Mattheyses pass moves boundary vertices in order of cut
+ *       gain, hill-climbing through up to {@value #STALL_MOVES}
+ *       non-improving moves and rolling back to the best prefix.</li>
+ * </ol>
+ *
+ * <p>Every part ends with weight at most
+ * {@code max(⌈W/k⌉, ⌊(1 + ε)·W/k⌋)} for imbalance tolerance ε; coarse
+ * levels get one heavy vertex of slack. Matching (in rounds of mutual
+ * heaviest-edge proposals), contraction, projection and the initial
+ * bisection attempts run in parallel; all of them are deterministic, so
+ * the partition does not depend on the thread count. FM moves are
+ * inherently sequential.</p>
+ *
+ * <p>Each step is O(V + E) per level, and the levels shrink
+ * geometrically.</p>
+ *
+ * @author sauravbhattacharya001
+ */
+final class MultilevelPartitioner {
+
+    /** Coarsening target: vertices per part in the coarsest graph. */
+    private static final int COARSEST_PER_PART = 20;
+    /** Coarsening target floor. */
+    private static final int COARSEST_MIN = 120;
+    /** A level shrinking by less than this fraction ends coarsening. */
+    private static final double MIN_SHRINK = 0.05;
+    /** Rounds of parallel mutual-proposal matching before the greedy sweep. */
+    private static final int MATCH_ROUNDS = 3;
+    /** Greedy-growing attempts per initial bisection. */
+    private static final int INITIAL_TRIES = 8;
+    /** FM passes per level. */
+    private static final int MAX_PASSES = 8;
+    /** Non-improving FM moves before a pass gives up. */
+    private static final int STALL_MOVES = 64;
+    /** Vertices per parallel task. */
+    private static final int CHUNK = 4096;
+
+    private final int k;
+    private final double imbalance;
+    private final long seed;
+    private final int parallelism;
+
+    MultilevelPartitioner(int k, double imbalance, long seed, int parallelism) {
+        this.k = k;
+        this.imbalance = imbalance;
+        this.seed = seed;
+        this.parallelism = parallelism;
+    }
+
+    // ── Graph levels ────────────────────────────────────────────────
+
+    /** An undirected graph in CSR form with vertex and edge weights. */
+    static final class Level {
+        final int n;
+        final int[] xadj;
+        final int[] adjncy;
+        final int[] adjwgt;
+        final int[] vwgt;
+        /** Fine vertex → coarse vertex, set once this level is coarsened. */
+        int[] cmap;
+
+        Level(int n, int[] xadj, int[] adjncy, int[] adjwgt, int[] vwgt) {
+            this.n = n;
+            this.xadj = xadj;
+            this.adjncy = adjncy;
+            this.adjwgt = adjwgt;
+            this.vwgt = vwgt;
+        }
+
+        long totalWeight() {
+            long w = 0;
+            for (int x : vwgt) w += x;
+            return w;
+        }
+
+        int maxVertexWeight() {
+            int w = 0;
+            for (int x : vwgt) w = Math.max(w, x);
+            return w;
+        }
+    }
+
+    /**
+     * Builds the unit-vertex-weight level for a graph, in the order of
+     * {@code vertices}. Edge weights count parallel edges; self-loops and
+     * edge direction are ignored.
+     */
+    static Level of(Graph<String, Edge> graph, List<String> vertices) {
+        int n = vertices.size();
+        Map<String, Integer> index = new HashMap<>(n * 2);
+        for (int i = 0; i < n; i++) index.put(vertices.get(i), i);
+
+        int[] src = new int[graph.getEdgeCount()];
+        int[] dst = new int[graph.getEdgeCount()];
+        int m = 0;
+        for (Edge e : graph.getEdges()) {
+            Collection<String> endpoints = graph.getEndpoints(e);
+            if (endpoints.size() < 2) continue;
+            Iterator<String> it = endpoints.iterator();
+            src[m] = index.get(it.next());
+            dst[m++] = index.get(it.next());
+        }
+        return of(n, src, dst, m);
+    }
+
+    /**
+     * Builds the unit-vertex-weight level for {@code n} vertices and the
+     * edge list {@code (src[i], dst[i])}, {@code i < m}. Edge weights count
+     * parallel edges; self-loops are dropped.
+     */
+    static Level of(int n, int[] src, int[] dst, int m) {
+        int[] count = new int[n + 1];
+        for (int i = 0; i < m; i++) {
+            if (src[i] == dst[i]) continue;
+            count[src[i] + 1]++;
+            count[dst[i] + 1]++;
+        }
+        for (int i = 0; i < n; i++) count[i + 1] += count[i];
+        int[] nbr = new int[count[n]];
+        int[] fill = Arrays.copyOf(count, n);
+        for (int i = 0; i < m; i++) {
+            if (src[i] == dst[i]) continue;
+            nbr[fill[src[i]]++] = dst[i];
+            nbr[fill[dst[i]]++] = src[i];
+        }
+
+        // Sort each row and merge parallel edges into weights
+        int[] xadj = new int[n + 1];
+        int[] adjncy = new int[nbr.length];
+        int[] adjwgt = new int[nbr.length];
+        int nnz = 0;
+        for (int i = 0; i < n; i++) {
+            Arrays.sort(nbr, count[i], count[i + 1]);
+            for (int p = count[i]; p < count[i + 1]; p++) {
+                if (nnz > xadj[i] && adjncy[nnz - 1] == nbr[p]) {
+                    adjwgt[nnz - 1]++;
+                } else {
+                    adjncy[nnz] = nbr[p];
+                    adjwgt[nnz++] = 1;
+                }
+            }
+            xadj[i + 1] = nnz;
+        }
+        int[] vwgt = new int[n];
+        Arrays.fill(vwgt, 1);
+        return new Level(n, xadj, Arrays.copyOf(adjncy, nnz), Arrays.copyOf(adjwgt, nnz), vwgt);
+    }
+
+    // ── Driver ──────────────────────────────────────────────────────
+
+    /**
+     * Partitions the graph into {@code k} parts.
+     *
+     * @param graph the finest level
+     * @return part index per vertex
+     */
+    int[] partition(Level graph) {
+        ForkJoinPool pool = parallelism > 1 && graph.n > CHUNK ? new ForkJoinPool(parallelism) : null;
+        try {
+            Random rnd = new Random(seed);
+            long total = graph.totalWeight();
+            int target = Math.max(COARSEST_PER_PART * k, COARSEST_MIN);
+            int maxVertexWeight = (int) Math.max(2, Math.min(Integer.MAX_VALUE, 3 * total / (2L * target)));
+
+            List<Level> levels = new ArrayList<>();
+            levels.add(graph);
+            Level current = graph;
+            while (current.n > target) {
+                Level coarse = coarsen(current, maxVertexWeight, rnd.nextLong(), pool);
+                if (coarse.n > (1 - MIN_SHRINK) * current.n) {
+                    current.cmap = null;
+                    break;
+                }
+                levels.add(coarse);
+                current = coarse;
+            }
+
+            long base = Math.max((total + k - 1) / k, (long) Math.floor((1 + imbalance) * total / k));
+            int[] part = initialPartition(current, rnd.nextLong(), pool);
+            for (int l = levels.size() - 1; ; l--) {
+                Level level = levels.get(l);
+                long[] maxWeight = new long[k];
+                Arrays.fill(maxWeight, l == 0 ? base : base + level.maxVertexWeight());
+                rebalance(level, part, k, maxWeight);
+                refine(level, part, k, maxWeight);
+                if (l == 0) break;
+                part = project(levels.get(l - 1), part, pool);
+            }
+            fillEmptyParts(graph, part, k);
+            return part;
+        } finally {
+            if (pool != null) pool.shutdown();
+        }
+    }
+
+    // ── Coarsening ──────────────────────────────────────────────────
+
+    /**
+     * Heavy-edge matching and contraction. Matching first runs a few
+     * parallel rounds in which every unmatched vertex proposes to its
+     * heaviest eligible edge (ties broken by a seeded edge hash) and
+     * mutual proposals are matched — these are locally dominant edges, so
+     * each round matches at least the heaviest one — and then finishes
+     * with a sequential greedy sweep in random order. Leftover isolated
+     * vertices are paired with each other. Sets {@code g.cmap}.
+     *
+     * @param pool worker pool, or null to run sequentially
+     */
+    static Level coarsen(Level g, int maxVertexWeight, long salt, ForkJoinPool pool) {
+        int n = g.n;
+        int[] match = new int[n];
+        int[] proposal = new int[n];
+        Arrays.fill(match, -1);
+        int chunks = chunkCount(n);
+
+        for (int round = 0; round < MATCH_ROUNDS; round++) {
+            forEachChunk(pool, chunks, chunk -> {
+                for (int u = chunk * CHUNK, end = Math.min(n, u + CHUNK); u < end; u++) {
+                    proposal[u] = match[u] >= 0 ? -1 : heaviestEligible(g, match, u, maxVertexWeight, salt);
+                }
+            });
+            forEachChunk(pool, chunks, chunk -> {
+                for (int u = chunk * CHUNK, end = Math.min(n, u + CHUNK); u < end; u++) {
+                    int v = proposal[u];
+                    if (v >= 0 && proposal[v] == u) match[u] = v;
+                }
+            });
+        }
+
+        int[] order = new int[n];
+        for (int i = 0; i < n; i++) order[i] = i;
+        Random rnd = new Random(salt);
+        for (int i = n - 1; i > 0; i--) {
+            int j = rnd.nextInt(i + 1);
+            int t = order[i];
+            order[i] = order[j];
+            order[j] = t;
+        }
+        int isolated = -1;
+        for (int u : order) {
+            if (match[u] >= 0) continue;
+            int v = heaviestEligible(g, match, u, maxVertexWeight, salt);
+            if (v < 0 && g.xadj[u] == g.xadj[u + 1]) {
+                if (isolated >= 0 && g.vwgt[u] + g.vwgt[isolated] <= maxVertexWeight) {
+                    v = isolated;
+                    isolated = -1;
+                } else {
+                    if (isolated >= 0) match[isolated] = isolated;
+                    isolated = u;
+                }
+            }
+            if (v >= 0) {
+                match[u] = v;
+                match[v] = u;
+            } else if (u != isolated) {
+                match[u] = u;
+            }
+        }
+        if (isolated >= 0) match[isolated] = isolated;
+
+        // Number the coarse vertices by their smaller fine vertex
+        int[] cmap = new int[n];
+        int coarseN = 0;
+        for (int u = 0; u < n; u++) {
+            if (match[u] >= u) {
+                cmap[u] = coarseN;
+                cmap[match[u]] = coarseN++;
+            }
+        }
+        int[] rep = new int[coarseN];
+        for (int u = 0; u < n; u++) {
+            if (match[u] >= u) rep[cmap[u]] = u;
+        }
+        g.cmap = cmap;
+        return contract(g, match, cmap, rep, coarseN, pool);
+    }
+
+    /** The unmatched neighbour with the heaviest edge, or -1. */
+    private static int heaviestEligible(Level g, int[] match, int u, int maxVertexWeight, long salt) {
+        int best = -1;
+        int bestWeight = -1;
+        long bestHash = 0;
+        for (int e = g.xadj[u]; e < g.xadj[u + 1]; e++) {
+            int v = g.adjncy[e];
+            if (match[v] >= 0 || g.vwgt[u] + g.vwgt[v] > maxVertexWeight) continue;
+            int w = g.adjwgt[e];
+            long h = edgeHash(u, v, salt);
+            if (w > bestWeight || (w == bestWeight && h > bestHash)) {
+                best = v;
+                bestWeight = w;
+                bestHash = h;
+            }
+        }
+        return best;
+    }
+
+    /** Symmetric pseudo-random edge priority (SplitMix64 finalizer). */
+    private static long edgeHash(int u, int v, long salt) {
+        long z = salt + ((long) Math.min(u, v) << 32 | Math.max(u, v)) * 0x9E3779B97F4A7C15L;
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+
+    /**
+     * Builds the coarse graph: each coarse row merges the rows of its one
+     * or two fine vertices, drops the internal edge and sums parallel
+     * edges. Rows are built per chunk in parallel, then concatenated.
+     */
+    private static Level contract(Level g, int[] match, int[] cmap, int[] rep, int coarseN,
+                                  ForkJoinPool pool) {
+        int chunks = chunkCount(coarseN);
+        int[] vwgt = new int[coarseN];
+        int[] degree = new int[coarseN];
+        int[][] chunkCols = new int[chunks][];
+        int[][] chunkWeights = new int[chunks][];
+
+        forEachChunk(pool, chunks, chunk -> {
+            int lo = chunk * CHUNK;
+            int hi = Math.min(coarseN, lo + CHUNK);
+            long[] buf = new long[16];
+            int[] cols = new int[64];
+            int[] wts = new int[64];
+            int size = 0;
+            for (int c = lo; c < hi; c++) {
+                int u = rep[c];
+                int v = match[u];
+                vwgt[c] = g.vwgt[u] + (v != u ? g.vwgt[v] : 0);
+                int len = 0;
+                for (int x = u; ; x = v) {
+                    for (int e = g.xadj[x]; e < g.xadj[x + 1]; e++) {
+                        int cc = cmap[g.adjncy[e]];
+                        if (cc == c) continue;
+                        if (len == buf.length) buf = Arrays.copyOf(buf, len * 2);
+                        buf[len++] = ((long) cc << 32) | g.adjwgt[e];
+                    }
+                    if (x == v) break;
+                }
+                Arrays.sort(buf, 0, len);
+                int start = size;
+                for (int i = 0; i < len; i++) {
+                    int cc = (int) (buf[i] >>> 32);
+                    int w = (int) buf[i];
+                    if (size > start && cols[size - 1] == cc) {
+                        wts[size - 1] += w;
+                    } else {
+                        if (size == cols.length) {
+                            cols = Arrays.copyOf(cols, size * 2);
+                            wts = Arrays.copyOf(wts, size * 2);
+                        }
+                        cols[size] = cc;
+                        wts[size++] = w;
+                    }
+                }
+                degree[c] = size - start;
+            }
+            chunkCols[chunk] = Arrays.copyOf(cols, size);
+            chunkWeights[chunk] = Arrays.copyOf(wts, size);
+        });
+
+        int[] xadj = new int[coarseN + 1];
+        for (int c = 0; c < coarseN; c++) xadj[c + 1] = xadj[c] + degree[c];
+        int[] adjncy = new int[xadj[coarseN]];
+        int[] adjwgt = new int[xadj[coarseN]];
+        forEachChunk(pool, chunks, chunk -> {
+            int at = xadj[chunk * CHUNK];
+            System.arraycopy(chunkCols[chunk], 0, adjncy, at, chunkCols[chunk].length);
+            System.arraycopy(chunkWeights[chunk], 0, adjwgt, at, chunkWeights[chunk].length);
+        });
+        return new Level(coarseN, xadj, adjncy, adjwgt, vwgt);
+    }
+
+    private static int[] project(Level fine, int[] coarsePart, ForkJoinPool pool) {
+        int[] part = new int[fine.n];
+        forEachChunk(pool, chunkCount(fine.n), chunk -> {
+            for (int u = chunk * CHUNK, end = Math.min(fine.n, u + CHUNK); u < end; u++) {
+                part[u] = coarsePart[fine.cmap[u]];
+            }
+        });
+        return part;
+    }
+
+    // ── Initial partitioning ────────────────────────────────────────
+
+    private int[] initialPartition(Level g, long salt, ForkJoinPool pool) {
+        int[] part = new int[g.n];
+        int[] ids = new int[g.n];
+        for (int i = 0; i < g.n; i++) ids[i] = i;
+        bisectRecursively(g, ids, k, 0, part, salt, pool);
+        return part;
+    }
+
+    /** Splits {@code g} into {@code parts} parts numbered from {@code offset}. */
+    private void bisectRecursively(Level g, int[] ids, int parts, int offset, int[] out,
+                                   long salt, ForkJoinPool pool) {
+        if (parts == 1 || g.n <= 1) {
+            for (int id : ids) out[id] = offset;
+            return;
+        }
+        int leftParts = parts / 2;
+        long total = g.totalWeight();
+        double leftTarget = (double) total * leftParts / parts;
+        int slack = g.maxVertexWeight();
+        long[] maxWeight = {
+            (long) Math.floor(leftTarget * (1 + imbalance)) + slack,
+            (long) Math.floor((total - leftTarget) * (1 + imbalance)) + slack
+        };
+
+        // Independent attempts in parallel; the best (balance, cut, index) wins
+        int[][] sides = new int[INITIAL_TRIES][];
+        long[][] scores = new long[INITIAL_TRIES][];
+        forEachChunk(pool, INITIAL_TRIES, t -> {
+            Random rnd = new Random(salt + 0x9E3779B97F4A7C15L * (t + 1));
+            int[] side = growRegion(g, leftTarget, rnd);
+            refine(g, side, 2, maxWeight);
+            sides[t] = side;
+            scores[t] = new long[] {excess(partWeights(g, side, 2), maxWeight), cut(g, side)};
+        });
+        int best = 0;
+        for (int t = 1; t < INITIAL_TRIES; t++) {
+            if (scores[t][0] < scores[best][0]
+                    || (scores[t][0] == scores[best][0] && scores[t][1] < scores[best][1])) {
+                best = t;
+            }
+        }
+
+        int[] side = sides[best];
+        for (int s = 0; s < 2; s++) {
+            int[] local = new int[g.n];
+            int count = 0;
+            for (int u = 0; u < g.n; u++) {
+                if (side[u] == s) local[u] = count++;
+            }
+            int[] subIds = new int[count];
+            int[] subVwgt = new int[count];
+            int[] xadj = new int[count + 1];
+            int nnz = 0;
+            for (int u = 0; u < g.n; u++) {
+                if (side[u] != s) continue;
+                for (int e = g.xadj[u]; e < g.xadj[u + 1]; e++) {
+                    if (side[g.adjncy[e]] == s) nnz++;
+                }
+            }
+            int[] adjncy = new int[nnz];
+            int[] adjwgt = new int[nnz];
+            nnz = 0;
+            for (int u = 0; u < g.n; u++) {
+                if (side[u] != s) continue;
+                int i = local[u];
+                subIds[i] = ids[u];
+                subVwgt[i] = g.vwgt[u];
+                for (int e = g.xadj[u]; e < g.xadj[u + 1]; e++) {
+                    int v = g.adjncy[e];
+                    if (side[v] == s) {
+                        adjncy[nnz] = local[v];
+                        adjwgt[nnz++] = g.adjwgt[e];
+                    }
+                }
+                xadj[i + 1] = nnz;
+            }
+            Level sub = new Level(count, xadj, adjncy, adjwgt, subVwgt);
+            int subParts = s == 0 ? leftParts : parts - leftParts;
+            bisectRecursively(sub, subIds, subParts, s == 0 ? offset : offset + leftParts, out,
+                    salt * 31 + s + 1, pool);
+        }
+    }
+
+    /**
+     * Greedy graph growing: side 0 starts at a random vertex and absorbs
+     * the frontier vertex that most reduces the cut until it reaches
+     * {@code target} weight, jumping to a fresh random vertex when a
+     * component is exhausted.
+     */
+    private static int[] growRegion(Level g, double target, Random rnd) {
+        int n = g.n;
+        int[] side = new int[n];
+        Arrays.fill(side, 1);
+        IndexedMaxHeap frontier = new IndexedMaxHeap(n);
+        int[] gain = new int[n];
+        for (int u = 0; u < n; u++) {
+            for (int e = g.xadj[u]; e < g.xadj[u + 1]; e++) gain[u] -= g.adjwgt[e];
+        }
+        long weight = 0;
+        int scan = rnd.nextInt(n);
+        while (weight < target) {
+            int u;
+            if (!frontier.isEmpty()) {
+                u = frontier.pop();
+            } else {
+                while (side[scan] == 0) scan = (scan + 1) % n;
+                u = scan;
+            }
+            side[u] = 0;
+            weight += g.vwgt[u];
+            for (int e = g.xadj[u]; e < g.xadj[u + 1]; e++) {
+                int v = g.adjncy[e];
+                if (side[v] == 1) {
+                    gain[v] += 2 * g.adjwgt[e];
+                    frontier.put(v, gain[v]);
+                }
+            }
+        }
+        return side;
+    }
+
+    // ── Refinement ──────────────────────────────────────────────────
+
+    /**
+     * Moves vertices out of overweight parts, cheapest first, until every
+     * part fits (or no vertex can move).
+     */
+    private static void rebalance(Level g, int[] part, int parts, long[] maxWeight) {
+        long[] pw = partWeights(g, part, parts);
+        int[] conn = new int[parts];
+        int[] target = new int[1];
+        for (int p = 0; p < parts; p++) {
+            if (pw[p] <= maxWeight[p]) continue;
+            List<long[]> candidates = new ArrayList<>();
+            for (int u = 0; u < g.n; u++) {
+                if (part[u] != p) continue;
+                int gain = bestMove(g, part, pw, maxWeight, conn, u, target);
+                if (target[0] >= 0) candidates.add(new long[] {gain, u});
+            }
+            candidates.sort((a, b) -> a[0] != b[0] ? Long.compare(b[0], a[0]) : Long.compare(a[1], b[1]));
+            for (long[] c : candidates) {
+                if (pw[p] <= maxWeight[p]) break;
+                int u = (int) c[1];
+                bestMove(g, part, pw, maxWeight, conn, u, target);
+                if (target[0] < 0) continue;
+                pw[p] -= g.vwgt[u];
+                pw[target[0]] += g.vwgt[u];
+                part[u] = target[0];
+            }
+        }
+    }
+
+    /**
+     * k-way Fiduccia–Mattheyses: each pass moves unlocked boundary
+     * vertices in order of gain (cut reduction), locking each after its
+     * move, and keeps the best prefix — lowest excess weight, then lowest
+     * cut. Passes repeat until one makes no progress.
+     */
+    private static void refine(Level g, int[] part, int parts, long[] maxWeight) {
+        int n = g.n;
+        long[] pw = partWeights(g, part, parts);
+        int[] conn = new int[parts];
+        int[] target = new int[1];
+        IndexedMaxHeap heap = new IndexedMaxHeap(n);
+        boolean[] locked = new boolean[n];
+        int[] moved = new int[n];
+        int[] from = new int[n];
+
+        for (int pass = 0; pass < MAX_PASSES; pass++) {
+            Arrays.fill(locked, false);
+            heap.clear();
+            for (int u = 0; u < n; u++) {
+                int gain = bestMove(g, part, pw, maxWeight, conn, u, target);
+                if (target[0] >= 0) heap.put(u, gain);
+            }
+
+            long excess = excess(pw, maxWeight);
+            long cutDelta = 0;
+            long bestExcess = excess;
+            long bestDelta = 0;
+            int count = 0;
+            int bestCount = 0;
+            int stall = 0;
+            while (!heap.isEmpty() && stall < STALL_MOVES) {
+                int u = heap.pop();
+                int gain = bestMove(g, part, pw, maxWeight, conn, u, target);
+                if (target[0] < 0) continue;
+                if (!heap.isEmpty() && gain < heap.peekKey()) {
+                    heap.put(u, gain);  // stale key; retry in order
+                    continue;
+                }
+                int p = target[0];
+                int q = part[u];
+                pw[q] -= g.vwgt[u];
+                pw[p] += g.vwgt[u];
+                part[u] = p;
+                locked[u] = true;
+                moved[count] = u;
+                from[count++] = q;
+                cutDelta -= gain;
+                excess = excess(pw, maxWeight);
+                if (excess < bestExcess || (excess == bestExcess && cutDelta < bestDelta)) {
+                    bestExcess = excess;
+                    bestDelta = cutDelta;
+                    bestCount = count;
+                    stall = 0;
+                } else {
+                    stall++;
+                }
+                for (int e = g.xadj[u]; e < g.xadj[u + 1]; e++) {
+                    int v = g.adjncy[e];
+                    if (locked[v]) continue;
+                    int vGain = bestMove(g, part, pw, maxWeight, conn, v, target);
+                    if (target[0] >= 0) heap.put(v, vGain);
+                    else heap.remove(v);
+                }
+            }
+
+            // Roll back past the best prefix
+            for (int i = count - 1; i >= bestCount; i--) {
+                int u = moved[i];
+                pw[part[u]] -= g.vwgt[u];
+                pw[from[i]] += g.vwgt[u];
+                part[u] = from[i];
+            }
+            if (bestCount == 0) break;
+        }
+    }
+
+    /**
+     * Best move for {@code u}: to the adjacent part with the highest
+     * connectivity gain that has room, ties to the lighter part. A vertex
+     * in an overweight part may also move to the lightest part with room.
+     * Sets {@code target[0]} (-1 if no move) and returns the gain.
+     */
+    private static int bestMove(Level g, int[] part, long[] pw, long[] maxWeight, int[] conn,
+                                int u, int[] target) {
+        int own = part[u];
+        int w = g.vwgt[u];
+        boolean boundary = false;
+        for (int e = g.xadj[u]; e < g.xadj[u + 1]; e++) {
+            int p = part[g.adjncy[e]];
+            conn[p] += g.adjwgt[e];
+            if (p != own) boundary = true;
+        }
+        int internal = conn[own];
+        int best = -1;
+        int bestGain = Integer.MIN_VALUE;
+        boolean overweight = pw[own] > maxWeight[own];
+        if (boundary || overweight) {
+            for (int e = g.xadj[u]; e < g.xadj[u + 1]; e++) {
+                int p = part[g.adjncy[e]];
+                if (p == own || pw[p] + w > maxWeight[p]) continue;
+                int gain = conn[p] - internal;
+                if (gain > bestGain || (gain == bestGain && pw[p] < pw[best])) {
+                    best = p;
+                    bestGain = gain;
+                }
+            }
+            if (overweight) {
+                for (int p = 0; p < conn.length; p++) {
+                    if (p == own || pw[p] + w > maxWeight[p]) continue;
+                    int gain = conn[p] - internal;
+                    if (gain > bestGain || (gain == bestGain && pw[p] < pw[best])) {
+                        best = p;
+                        bestGain = gain;
+                    }
+                }
+            }
+        }
+        for (int e = g.xadj[u]; e < g.xadj[u + 1]; e++) conn[part[g.adjncy[e]]] = 0;
+        target[0] = best;
+        return bestGain;
+    }
+
+    /** Gives every empty part one vertex from the heaviest part. */
+    private static void fillEmptyParts(Level g, int[] part, int parts) {
+        long[] pw = partWeights(g, part, parts);
+        for (int p = 0; p < parts; p++) {
+            if (pw[p] > 0) continue;
+            int heaviest = 0;
+            for (int q = 1; q < parts; q++) {
+                if (pw[q] > pw[heaviest]) heaviest = q;
+            }
+            for (int u = 0; u < g.n; u++) {
+                if (part[u] == heaviest) {
+                    part[u] = p;
+                    pw[heaviest] -= g.vwgt[u];
+                    pw[p] += g.vwgt[u];
+                    break;
+                }
+            }
+        }
+    }
+
+    // ── Helpers ─────────────────────────────────────────────────────
+
+    private static long[] partWeights(Level g, int[] part, int parts) {
+        long[] pw = new long[parts];
+        for (int u = 0; u < g.n; u++) pw[part[u]] += g.vwgt[u];
+        return pw;
+    }
+
+    private static long excess(long[] pw, long[] maxWeight) {
+        long e = 0;
+        for (int p = 0; p < pw.length; p++) e += Math.max(0, pw[p] - maxWeight[p]);
+        return e;
+    }
+
+    /** Total weight of edges between different parts. */
+    static long cut(Level g, int[] part) {
+        long cut = 0;
+        for (int u = 0; u < g.n; u++) {
+            for (int e = g.xadj[u]; e < g.xadj[u + 1]; e++) {
+                if (part[g.adjncy[e]] != part[u]) cut += g.adjwgt[e];
+            }
+        }
+        return cut / 2;
+    }
+
+    private static int chunkCount(int n) {
+        return Math.max(1, (n + CHUNK - 1) / CHUNK);
+    }
+
+    /** Runs {@code body} for tasks 0..count-1, forked on the pool when there is one. */
+    private static void forEachChunk(ForkJoinPool pool, int count, IntConsumer body) {
+        if (pool == null || count == 1) {
+            for (int c = 0; c < count; c++) body.accept(c);
+        } else {
+            pool.invoke(new ChunkRange(body, 0, count));
+        }
+    }
+
+    private static final class ChunkRange extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+        private final transient IntConsumer body;
+        private final int lo;
+        private final int hi;
+
+        ChunkRange(IntConsumer body, int lo, int hi) {
+            this.body = body;
+            this.lo = lo;
+            this.hi = hi;
+        }
+
+        @Override
+        protected void compute() {
+            if (hi - lo > 1 && inForkJoinPool()) {
+                int mid = (lo + hi) >>> 1;
+                invokeAll(new ChunkRange(body, lo, mid), new ChunkRange(body, mid, hi));
+                return;
+            }
+            for (int c = lo; c < hi; c++) body.accept(c);
+        }
+    }
+
+    /** Binary max-heap of vertex ids keyed by gain, with in-place key updates. */
+    private static final class IndexedMaxHeap {
+        private final int[] heap;
+        private final int[] key;
+        private final int[] pos;
+        private int size;
+
+        IndexedMaxHeap(int n) {
+            heap = new int[n];
+            key = new int[n];
+            pos = new int[n];
+            Arrays.fill(pos, -1);
+        }
+
+        boolean isEmpty() {
+            return size == 0;
+        }
+
+        int peekKey() {
+            return key[heap[0]];
+        }
+
+        void clear() {
+            for (int i = 0; i < size; i++) pos[heap[i]] = -1;
+            size = 0;
+        }
+
+        /** Inserts v or changes its key. */
+        void put(int v, int k) {
+            if (pos[v] < 0) {
+                heap[size] = v;
+                pos[v] = size++;
+                key[v] = k;
+                up(pos[v]);
+            } else {
+                int old = key[v];
+                key[v] = k;
+                if (k > old) up(pos[v]);
+                else down(pos[v]);
+            }
+        }
+
+        int pop() {
+            int top = heap[0];
+            removeAt(0);
+            return top;
+        }
+
+        void remove(int v) {
+            if (pos[v] >= 0) removeAt(pos[v]);
+        }
+
+        private void removeAt(int i) {
+            int v = heap[i];
+            pos[v] = -1;
+            if (--size == i) return;
+            int last = heap[size];
+            heap[i] = last;
+            pos[last] = i;
+            up(i);
+            if (heap[i] == last) down(i);
+        }
+
+        private void up(int i) {
+            int v = heap[i];
+            while (i > 0) {
+                int parent = (i - 1) >>> 1;
+                if (key[heap[parent]] >= key[v]) break;
+                heap[i] = heap[parent];
+                pos[heap[i]] = i;
+                i = parent;
+            }
+            heap[i] = v;
+            pos[v] = i;
+        }
+
+        private void down(int i) {
+            int v = heap[i];
+            while (true) {
+                int child = 2 * i + 1;
+                if (child >= size) break;
+                if (child + 1 < size && key[heap[child + 1]] > key[heap[child]]) child++;
+                if (key[heap[child]] <= key[v]) break;
+                heap[i] = heap[child];
+                pos[heap[i]] = i;
+                i = child;
+            }
+            heap[i] = v;
+            pos[v] = i;
+        }
+    }
+}
@@ -3,6 +3,8 @@ package gvisual;
 import edu.uci.ics.jung.graph.Graph;
 
 import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
 
 /**
  * Computes pairwise node similarity within a single graph using
@@ -18,6 +20,22 @@ import java.util.*;
  *       have identical connectivity (both connected or both disconnected)</li>
  * </ul>
  *
+ * <h3>Bulk scoring</h3>
+ * <p>{@link #mostSimilar}, {@link #similarPairsAboveThreshold} and
+ * {@link #similarityMatrix} run on an int-indexed CSR snapshot of the
+ * graph. For each source row {@code u} the neighbour lists act as an
+ * inverted index: walking {@code u → w → v} (with {@code v > u})
+ * accumulates the row of A·Aᵀ into a dense per-worker accumulator, giving
+ * the exact common-neighbour count (or Adamic–Adar / cosine weight sum)
+ * for every pair that shares a neighbour. Each metric is then a closed
+ * form of that sum and the two degrees, so only pairs that share a
+ * neighbour are ever touched, and pairs that do not are O(1) when a full
+ * sweep is unavoidable (structural equivalence, non-positive thresholds,
+ * the full matrix). Rows are scored in parallel on a
+ * {@link ForkJoinPool}, each worker keeping its own bounded top-k heap or
+ * result buffer; see {@link #withParallelism(int)}. Ties are broken by
+ * vertex ID, so results do not depend on thread scheduling.</p>
+ *
  * <p>Usage:</p>
  * <pre>
  *   NodeSimilarityAnalyzer nsa = new NodeSimilarityAnalyzer(graph);
@@ -26,6 +44,9 @@ import java.util.*;
  *   Map&lt;String, Double&gt; nearest = nsa.kNearestNeighbors("A", Metric.ADAMIC_ADAR, 5);
  * </pre>
  *
+ * <p>For role similarity (vertices whose neighbours are themselves
+ * similar, rather than shared neighbours), see {@link SimRankIndex}.</p>
+ *
  * @author sauravbhattacharya001
  */
 public class NodeSimilarityAnalyzer {
@@ -66,9 +87,17 @@ public class NodeSimilarityAnalyzer {
         }
     }
 
+    /** Graphs with fewer vertices are scored on the calling thread. */
+    private static final int PARALLEL_THRESHOLD = 2000;
+    /** Source rows per leaf task. */
+    private static final int ROWS_PER_TASK = 64;
+
     private final Graph<String, Edge> graph;
     // Cached neighbor sets for performance
     private final Map<String, Set<String>> neighborCache;
+    /** Lazily built CSR snapshot for bulk scoring. */
+    private Csr csr;
+    private int parallelism = Runtime.getRuntime().availableProcessors();
 
     /**
      * Creates a new NodeSimilarityAnalyzer.
@@ -84,6 +113,21 @@ public class NodeSimilarityAnalyzer {
         this.neighborCache = GraphUtils.buildAdjacencyMap(graph);
     }
 
+    /**
+     * Sets the number of worker threads used by the bulk operations.
+     * Default: number of available processors.
+     *
+     * @param threads worker count (must be positive)
+     * @return this analyzer for chaining
+     */
+    public NodeSimilarityAnalyzer withParallelism(int threads) {
+        if (threads < 1) {
+            throw new IllegalArgumentException("Parallelism must be positive");
+        }
+        this.parallelism = threads;
+        return this;
+    }
+
     // ── Single-pair metrics ─────────────────────────────────────
 
     /**
@@ -249,49 +293,35 @@ public class NodeSimilarityAnalyzer {
 
     /**
      * Find the top-k most similar node pairs in the entire graph.
-     * Uses a min-heap to efficiently track the top-k pairs without
-     * storing all O(n²) scores.
+     * Each worker keeps a bounded min-heap, so memory is O(k) per worker
+     * rather than O(n²).
      *
      * <p><b>Performance:</b> For JACCARD, OVERLAP, ADAMIC_ADAR, and COSINE
      * metrics, similarity is always 0 when two nodes share no common
-     * neighbors. This method exploits that by enumerating only <b>2-hop
-     * pairs</b> (neighbors-of-neighbors) instead of all O(V²) vertex
-     * pairs — reducing work to O(V·Δ²) where Δ is max degree. On sparse
-     * graphs (Δ ≪ V) this is orders of magnitude faster.
+     * neighbors, so only pairs reached through the inverted neighbour
+     * index are scored — O(Σ deg(w)²) work instead of O(V²).
      * STRUCTURAL_EQUIVALENCE can be non-zero for any pair, so it still
-     * uses the O(V²) sweep.</p>
+     * sweeps all pairs, but each is scored in O(1) from the accumulated
+     * common-neighbour count.</p>
      *
      * @param metric the similarity metric to use
      * @param k      maximum number of pairs to return
-     * @return list of scored pairs, sorted by score descending
+     * @return list of scored pairs, sorted by score descending (ties by
+     *         vertex ID)
      */
     public List<ScoredPair> mostSimilar(Metric metric, int k) {
         if (k <= 0) return Collections.emptyList();
-
-        PriorityQueue<ScoredPair> minHeap = new PriorityQueue<ScoredPair>(k + 1,
-            (ScoredPair a, ScoredPair b) -> {
-                    return Double.compare(a.score, b.score); // min-heap by score
-                }
-        );
-
-        if (metric == Metric.STRUCTURAL_EQUIVALENCE) {
-            // SE can be non-zero for any pair — full O(V²) sweep required
-            List<String> vertices = new ArrayList<String>(graph.getVertices());
-            Collections.sort(vertices);
-            for (int i = 0; i < vertices.size(); i++) {
-                for (int j = i + 1; j < vertices.size(); j++) {
-                    double score = structuralEquivalence(vertices.get(i), vertices.get(j));
-                    offerToHeap(minHeap, vertices.get(i), vertices.get(j), score, k);
-                }
-            }
-        } else {
-            // JACCARD, OVERLAP, ADAMIC_ADAR, COSINE: score > 0 only when
-            // nodes share ≥1 common neighbor. Enumerate 2-hop pairs only.
-            enumerate2HopPairs(metric, minHeap, k);
+        Csr g = csr();
+        List<Worker> workers = scanRows(metric, metric == Metric.STRUCTURAL_EQUIVALENCE,
+                k, Double.NEGATIVE_INFINITY);
+        TopKPairs merged = new TopKPairs(k);
+        for (Worker w : workers) merged.offerAll(w.top);
+        int[] order = merged.sortedIndices();
+        List<ScoredPair> result = new ArrayList<ScoredPair>(order.length);
+        for (int i : order) {
+            result.add(new ScoredPair(g.vertices[merged.a[i]], g.vertices[merged.b[i]],
+                    merged.score[i]));
         }
-
-        List<ScoredPair> result = new ArrayList<ScoredPair>(minHeap);
-        Collections.sort(result); // descending by score
         return result;
     }
 
@@ -346,18 +376,19 @@ public class NodeSimilarityAnalyzer {
     /**
      * Compute the full pairwise similarity matrix for all nodes.
      * Returns a map of "nodeA|nodeB" → score (only upper triangle, a &lt; b).
+     * Pairs that share no neighbour are filled in O(1) each.
      *
      * @param metric the similarity metric to use
      * @return pairwise similarity map
      */
     public Map<String, Double> similarityMatrix(Metric metric) {
-        List<String> vertices = new ArrayList<String>(graph.getVertices());
-        Collections.sort(vertices);
+        Csr g = csr();
         Map<String, Double> matrix = new LinkedHashMap<String, Double>();
-        for (int i = 0; i < vertices.size(); i++) {
-            for (int j = i + 1; j < vertices.size(); j++) {
-                String key = vertices.get(i) + "|" + vertices.get(j);
-                matrix.put(key, similarity(vertices.get(i), vertices.get(j), metric));
+        Worker w = new Worker(g, metric, 0, Double.NEGATIVE_INFINITY);
+        for (int u = 0; u < g.n; u++) {
+            w.accumulate(u);
+            for (int v = u + 1; v < g.n; v++) {
+                matrix.put(g.vertices[u] + "|" + g.vertices[v], w.score(u, v));
             }
         }
         return matrix;
@@ -368,54 +399,74 @@ public class NodeSimilarityAnalyzer {
      *
      * <p><b>Performance:</b> For JACCARD, OVERLAP, ADAMIC_ADAR, and COSINE
      * metrics (which are 0 when nodes share no common neighbor), only
-     * 2-hop pairs are evaluated — O(V·Δ²) instead of O(V²). When
-     * threshold > 0 this is both correct and complete since unreachable
-     * pairs always score 0.</p>
+     * pairs sharing a neighbour are evaluated when threshold &gt; 0 — this
+     * is complete since every other pair scores 0. Structural equivalence
+     * and non-positive thresholds need every pair, each scored in O(1).</p>
      *
      * @param metric    the similarity metric to use
      * @param threshold minimum score (inclusive)
-     * @return list of scored pairs above threshold, sorted descending
+     * @return list of scored pairs above threshold, sorted descending (ties
+     *         by vertex ID)
      */
     public List<ScoredPair> similarPairsAboveThreshold(Metric metric, double threshold) {
-        List<ScoredPair> result = new ArrayList<ScoredPair>();
-
-        if (metric != Metric.STRUCTURAL_EQUIVALENCE && threshold > 0) {
-            // 2-hop fast path: only pairs sharing ≥1 common neighbor can score > 0
-            List<String> vertices = new ArrayList<String>(graph.getVertices());
-            Collections.sort(vertices);
-            Map<String, Integer> vertexOrd = new HashMap<String, Integer>(vertices.size() * 2);
-            for (int i = 0; i < vertices.size(); i++) vertexOrd.put(vertices.get(i), i);
-
-            for (String u : vertices) {
-                Set<String> nu = neighbors(u);
-                if (nu.isEmpty()) continue;
-                int uOrd = vertexOrd.get(u);
-                Set<String> seen = new HashSet<String>();
-                for (String w : nu) {
-                    for (String v : neighbors(w)) {
-                        if (vertexOrd.get(v) > uOrd && seen.add(v)) {
-                            double score = similarity(u, v, metric);
-                            if (score >= threshold) {
-                                result.add(new ScoredPair(u, v, score));
-                            }
-                        }
-                    }
-                }
-            }
-        } else {
-            // Full O(V²) sweep needed for SE or threshold <= 0
-            List<String> vertices = new ArrayList<String>(graph.getVertices());
-            Collections.sort(vertices);
-            for (int i = 0; i < vertices.size(); i++) {
-                for (int j = i + 1; j < vertices.size(); j++) {
-                    double score = similarity(vertices.get(i), vertices.get(j), metric);
-                    if (score >= threshold) {
-                        result.add(new ScoredPair(vertices.get(i), vertices.get(j), score));
-                    }
-                }
-            }
+        Csr g = csr();
+        boolean fullSweep = metric == Metric.STRUCTURAL_EQUIVALENCE || threshold <= 0;
+        List<Worker> workers = scanRows(metric, fullSweep, 0, threshold);
+
+        int total = 0;
+        for (Worker w : workers) total += w.found;
+        final double[] score = new double[total];
+        final int[] a = new int[total];
+        final int[] b = new int[total];
+        int c = 0;
+        for (Worker w : workers) {
+            System.arraycopy(w.foundScore, 0, score, c, w.found);
+            System.arraycopy(w.foundA, 0, a, c, w.found);
+            System.arraycopy(w.foundB, 0, b, c, w.found);
+            c += w.found;
+        }
+        Integer[] order = new Integer[total];
+        for (int i = 0; i < total; i++) order[i] = i;
+        Arrays.sort(order, (x, y) -> TopKPairs.compare(score[y], a[y], b[y], score[x], a[x], b[x]));
+
+        List<ScoredPair> result = new ArrayList<ScoredPair>(total);
+        for (int i : order) {
+            result.add(new ScoredPair(g.vertices[a[i]], g.vertices[b[i]], score[i]));
         }
-        Collections.sort(result); // descending
+        return result;
+    }
+
+    /**
+     * Find node pairs with Jaccard similarity above a threshold using a
+     * MinHash LSH index instead of 2-hop candidate generation. Candidates
+     * come from shared band buckets and are verified with the exact
+     * Jaccard coefficient, so every returned pair is correct; recall is
+     * governed by the index's bands and rows (see
+     * {@link MinHashLshIndex#candidateProbability}).
+     *
+     * @param index     an index built over this analyzer's graph
+     * @param threshold minimum Jaccard similarity (inclusive)
+     * @return verified pairs sorted by score descending, then by vertex ID
+     * @throws IllegalArgumentException if index is null or covers a vertex
+     *                                  that is not in this graph
+     */
+    public List<ScoredPair> approximateJaccardPairs(MinHashLshIndex index, double threshold) {
+        if (index == null) {
+            throw new IllegalArgumentException("Index must not be null");
+        }
+        final List<ScoredPair> result = new ArrayList<ScoredPair>();
+        index.forEachCandidatePair((u, v) -> {
+            String a = index.vertexAt(u);
+            String b = index.vertexAt(v);
+            double score = jaccard(a, b);
+            if (score >= threshold) result.add(new ScoredPair(a, b, score));
+        });
+        result.sort((x, y) -> {
+            int c = Double.compare(y.getScore(), x.getScore());
+            if (c != 0) return c;
+            c = x.getNodeA().compareTo(y.getNodeA());
+            return c != 0 ? c : x.getNodeB().compareTo(y.getNodeB());
+        });
         return result;
     }
 
@@ -447,49 +498,256 @@ public class NodeSimilarityAnalyzer {
         return sb.toString();
     }
 
-    // ── 2-hop enumeration ────────────────────────────────────────
+    // ── Sparse scoring engine ────────────────────────────────────
+
+    private Csr csr() {
+        if (csr == null) {
+            csr = new Csr(graph, neighborCache);
+        }
+        return csr;
+    }
 
     /**
-     * Enumerates only vertex pairs that share at least one common neighbor
-     * (2-hop reachable pairs). For each such pair, computes the given
-     * similarity metric and inserts into the min-heap.
-     *
-     * <p>Complexity: O(V·Δ²) where Δ is max degree — compared to O(V²)
-     * for the full enumeration. On sparse graphs where Δ ≪ V this gives
-     * orders-of-magnitude speedup. A per-source seen set deduplicates
-     * pairs, and lexicographic ordering (v > u) prevents evaluating
-     * each pair twice.</p>
+     * Scores every source row and returns the per-worker state. With
+     * {@code k > 0} each worker keeps its top-k pairs; otherwise it
+     * collects pairs scoring at least {@code threshold}.
      */
-    private void enumerate2HopPairs(Metric metric, PriorityQueue<ScoredPair> minHeap, int k) {
-        List<String> vertices = new ArrayList<String>(graph.getVertices());
-        Collections.sort(vertices);
-        Map<String, Integer> vertexOrd = new HashMap<String, Integer>(vertices.size() * 2);
-        for (int i = 0; i < vertices.size(); i++) vertexOrd.put(vertices.get(i), i);
-
-        for (String u : vertices) {
-            Set<String> nu = neighbors(u);
-            if (nu.isEmpty()) continue;
-            int uOrd = vertexOrd.get(u);
-
-            // Walk 2-hop: u -> w -> v where v > u (lexicographic) and v ∉ seen
-            Set<String> seen = new HashSet<String>();
-            for (String w : nu) {
-                for (String v : neighbors(w)) {
-                    if (vertexOrd.get(v) > uOrd && seen.add(v)) {
-                        double score = similarity(u, v, metric);
-                        offerToHeap(minHeap, u, v, score, k);
-                    }
+    private List<Worker> scanRows(Metric metric, boolean fullSweep, int k, double threshold) {
+        final Csr g = csr();
+        final List<Worker> workers = Collections.synchronizedList(new ArrayList<Worker>());
+        RowJob job = new RowJob(metric, fullSweep, ThreadLocal.withInitial(() -> {
+            Worker w = new Worker(g, metric, k, threshold);
+            workers.add(w);
+            return w;
+        }));
+
+        int threads = Math.max(1, parallelism);
+        if (threads == 1 || g.n < PARALLEL_THRESHOLD) {
+            new RowRange(job, 0, g.n).compute();
+        } else {
+            ForkJoinPool pool = new ForkJoinPool(threads);
+            try {
+                pool.invoke(new RowRange(job, 0, g.n));
+            } finally {
+                pool.shutdown();
+            }
+        }
+        return workers;
+    }
+
+    /** Int-indexed snapshot: vertices sorted by ID, CSR neighbour lists. */
+    private static final class Csr {
+        final int n;
+        final String[] vertices;
+        final int[] offsets;
+        final int[] targets;
+        /** Σ deg(w)² over w ∈ N(u) — the squared cosine norm. */
+        final double[] cosineNorm;
+
+        Csr(Graph<String, Edge> graph, Map<String, Set<String>> neighbors) {
+            List<String> sorted = new ArrayList<String>(graph.getVertices());
+            Collections.sort(sorted);
+            n = sorted.size();
+            vertices = sorted.toArray(new String[0]);
+            Map<String, Integer> index = new HashMap<String, Integer>(n * 2);
+            for (int i = 0; i < n; i++) index.put(vertices[i], i);
+
+            offsets = new int[n + 1];
+            for (int i = 0; i < n; i++) {
+                Set<String> nb = neighbors.get(vertices[i]);
+                offsets[i + 1] = offsets[i] + (nb == null ? 0 : nb.size());
+            }
+            targets = new int[offsets[n]];
+            for (int i = 0; i < n; i++) {
+                Set<String> nb = neighbors.get(vertices[i]);
+                if (nb == null) continue;
+                int p = offsets[i];
+                for (String w : nb) targets[p++] = index.get(w);
+                Arrays.sort(targets, offsets[i], offsets[i + 1]);
+            }
+            cosineNorm = new double[n];
+            for (int u = 0; u < n; u++) {
+                double sum = 0;
+                for (int p = offsets[u]; p < offsets[u + 1]; p++) {
+                    double d = degree(targets[p]);
+                    sum += d * d;
                 }
+                cosineNorm[u] = sum;
             }
         }
+
+        int degree(int v) {
+            return offsets[v + 1] - offsets[v];
+        }
     }
 
-    /** Offers a scored pair to a bounded min-heap. */
-    private static void offerToHeap(PriorityQueue<ScoredPair> heap,
-                                     String u, String v, double score, int k) {
-        if (heap.size() < k || score > heap.peek().score) {
-            heap.offer(new ScoredPair(u, v, score));
-            if (heap.size() > k) heap.poll();
+    /** Shared settings for one parallel scan. */
+    private static final class RowJob {
+        final Metric metric;
+        final boolean fullSweep;
+        final ThreadLocal<Worker> worker;
+
+        RowJob(Metric metric, boolean fullSweep, ThreadLocal<Worker> worker) {
+            this.metric = metric;
+            this.fullSweep = fullSweep;
+            this.worker = worker;
+        }
+    }
+
+    /** Splits source rows across the pool. */
+    private static final class RowRange extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+        private final transient RowJob job;
+        private final int lo;
+        private final int hi;
+
+        RowRange(RowJob job, int lo, int hi) {
+            this.job = job;
+            this.lo = lo;
+            this.hi = hi;
+        }
+
+        @Override
+        protected void compute() {
+            if (hi - lo > ROWS_PER_TASK && inForkJoinPool()) {
+                int mid = (lo + hi) >>> 1;
+                invokeAll(new RowRange(job, lo, mid), new RowRange(job, mid, hi));
+                return;
+            }
+            Worker w = job.worker.get();
+            for (int u = lo; u < hi; u++) {
+                w.row(u, job.fullSweep);
+            }
+        }
+    }
+
+    /**
+     * Per-thread scratch: a sparse accumulator for one row of A·Aᵀ plus
+     * either a bounded top-k heap or a result buffer.
+     */
+    private static final class Worker {
+        final Csr g;
+        final Metric metric;
+        final double threshold;
+        final TopKPairs top;
+        final double[] acc;
+        final int[] stamp;
+        final int[] touched;
+        final int[] adjacentTo;
+        int touchedCount;
+        int epoch;
+
+        int found;
+        double[] foundScore = new double[16];
+        int[] foundA = new int[16];
+        int[] foundB = new int[16];
+
+        Worker(Csr g, Metric metric, int k, double threshold) {
+            this.g = g;
+            this.metric = metric;
+            this.threshold = threshold;
+            this.top = k > 0 ? new TopKPairs(k) : null;
+            this.acc = new double[g.n];
+            this.stamp = new int[g.n];
+            this.touched = new int[g.n];
+            this.adjacentTo = new int[g.n];
+        }
+
+        /** Accumulates row u: every v &gt; u sharing a neighbour with u. */
+        void accumulate(int u) {
+            epoch++;
+            touchedCount = 0;
+            int[] off = g.offsets;
+            int[] tgt = g.targets;
+            for (int p = off[u]; p < off[u + 1]; p++) {
+                int w = tgt[p];
+                adjacentTo[w] = u + 1;
+                double weight = weight(w);
+                for (int q = off[w]; q < off[w + 1]; q++) {
+                    int v = tgt[q];
+                    if (v <= u) continue;
+                    if (stamp[v] != epoch) {
+                        stamp[v] = epoch;
+                        acc[v] = 0;
+                        touched[touchedCount++] = v;
+                    }
+                    acc[v] += weight;
+                }
+            }
+        }
+
+        private double weight(int w) {
+            switch (metric) {
+                case ADAMIC_ADAR:
+                    int d = g.degree(w);
+                    return d > 1 ? 1.0 / Math.log(d) : 0.0;
+                case COSINE:
+                    double deg = g.degree(w);
+                    return deg * deg;
+                default:
+                    return 1.0;
+            }
+        }
+
+        /** Score of (u, v) for the row last accumulated for u. */
+        double score(int u, int v) {
+            double sum = stamp[v] == epoch ? acc[v] : 0.0;
+            int du = g.degree(u);
+            int dv = g.degree(v);
+            switch (metric) {
+                case JACCARD:
+                    if (du == 0 && dv == 0) return 1.0;
+                    return sum / (du + dv - sum);
+                case OVERLAP:
+                    if (du == 0 && dv == 0) return 1.0;
+                    if (du == 0 || dv == 0) return 0.0;
+                    return sum / Math.min(du, dv);
+                case ADAMIC_ADAR:
+                    return sum;
+                case COSINE:
+                    if (du == 0 && dv == 0) return 1.0;
+                    if (du == 0 || dv == 0) return 0.0;
+                    return sum / (Math.sqrt(g.cosineNorm[u]) * Math.sqrt(g.cosineNorm[v]));
+                case STRUCTURAL_EQUIVALENCE: {
+                    int total = g.n - 2;
+                    if (total <= 0) return 1.0;
+                    // Neighbours outside {u, v} that only one of them has
+                    int link = adjacentTo[v] == u + 1 ? 1 : 0;
+                    double differ = (du - link) + (dv - link) - 2 * sum;
+                    return (total - differ) / total;
+                }
+                default:
+                    throw new IllegalArgumentException("Unknown metric: " + metric);
+            }
+        }
+
+        void row(int u, boolean fullSweep) {
+            accumulate(u);
+            if (fullSweep) {
+                for (int v = u + 1; v < g.n; v++) emit(u, v, score(u, v));
+            } else {
+                for (int i = 0; i < touchedCount; i++) {
+                    int v = touched[i];
+                    emit(u, v, score(u, v));
+                }
+            }
+        }
+
+        private void emit(int u, int v, double s) {
+            if (top != null) {
+                top.offer(s, u, v);
+            } else if (s >= threshold) {
+                if (found == foundScore.length) {
+                    int cap = found * 2;
+                    foundScore = Arrays.copyOf(foundScore, cap);
+                    foundA = Arrays.copyOf(foundA, cap);
+                    foundB = Arrays.copyOf(foundB, cap);
+                }
+                foundScore[found] = s;
+                foundA[found] = u;
+                foundB[found] = v;
+                found++;
+            }
         }
     }
 
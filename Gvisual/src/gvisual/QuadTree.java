@@ -1,8 +1,12 @@
 package gvisual;
 
+import java.util.Arrays;
+import java.util.function.IntConsumer;
+
 /**
  * Barnes-Hut quadtree for O(V log V) repulsive force approximation
- * in force-directed graph layouts.
+ * in force-directed graph layouts, and a spatial index for point
+ * queries (nearest body, bodies in a rectangle).
  *
  * <p>Divides 2D space into quadrants. Each internal node stores the
  * center of mass and total mass of its children. When computing
@@ -10,9 +14,29 @@ package gvisual;
  * width / distance &lt; theta), the entire quadrant is treated as a
  * single body at its center of mass.</p>
  *
- * <p>Previously an inner class of {@link ForceDirectedLayout}. Extracted
- * to its own file for reusability across other layout algorithms
- * (e.g. spectral, hierarchical) and to improve testability.</p>
+ * <h3>Layout</h3>
+ * <p>The tree is a structure of arrays rather than an object per cell:
+ * node {@code i} has its cell in {@code cellX/cellY/size}, its center of
+ * mass in {@code comX/comY}, its first child in {@code child} (children
+ * are contiguous, {@code -1} marks a leaf) and its bodies as the range
+ * {@code [start, end)} of {@code order}. {@link #rebuild} sorts the bodies
+ * by Morton (Z-order) code of their quantized position, which makes every
+ * cell's bodies contiguous, and then builds all cells top-down by
+ * splitting ranges on successive code digits — no per-body insertion and,
+ * once the arrays have grown to fit, no allocation. A layout keeps one
+ * tree and rebuilds it in place every iteration.</p>
+ *
+ * <p>Leaves hold up to {@value #LEAF_CAPACITY} bodies; cells are not split
+ * below depth {@value #MAX_DEPTH}, so coincident bodies share a leaf
+ * instead of recursing without end.</p>
+ *
+ * <p>Queries only read the tree, so any number of threads may query it
+ * concurrently; rebuilding is single-threaded. The coordinate arrays
+ * passed to {@link #rebuild} are referenced, not copied, and must not
+ * change while the tree is queried. Used by {@link ForceDirectedLayout}
+ * and {@link IncrementalLayoutCache} for repulsion and by
+ * {@link ForceDirectedLayout}, {@link SpectralLayout}
+ * and {@link HierarchicalLayout} for hit-testing.</p>
  *
  * @author sauravbhattacharya001
  */
@@ -20,18 +44,33 @@ final class QuadTree {
 
     private static final double MIN_DIST = 0.01;
     private static final double MIN_DIST_SQ = MIN_DIST * MIN_DIST;
+    /** Bodies per leaf before a cell is split. */
+    static final int LEAF_CAPACITY = 4;
+    /** Maximum cell depth; also the bits per axis of the Morton code. */
+    static final int MAX_DEPTH = 15;
 
-    private double cx, cy;       // center of mass
-    private int mass;            // number of bodies
-    private int bodyIndex = -1;  // leaf: index of single body
-    private double x, y, size;   // bounding region
-    private QuadTree nw, ne, sw, se;
+    // Node arrays
+    private double[] cellX = new double[0];
+    private double[] cellY = new double[0];
+    private double[] size = new double[0];
+    private double[] comX = new double[0];
+    private double[] comY = new double[0];
+    private int[] child = new int[0];
+    private int[] start = new int[0];
+    private int[] end = new int[0];
+    private int nodeCount;
 
-    QuadTree(double x, double y, double size) {
-        this.x = x;
-        this.y = y;
-        this.size = size;
-    }
+    // Body arrays
+    private long[] keys = new long[0];
+    private int[] codes = new int[0];
+    private int[] order = new int[0];
+    private int[] rank = new int[0];
+    private double[] xs;
+    private double[] ys;
+    private int n;
+
+    /** Quadrant boundaries per depth, scratch for {@link #buildNode}. */
+    private final int[][] bounds = new int[MAX_DEPTH][5];
 
     /**
      * Builds a quadtree from the given positions array.
@@ -41,73 +80,182 @@ final class QuadTree {
      * @return root of the quadtree
      */
     static QuadTree build(double[][] pos, int n) {
+        double[] xs = new double[n];
+        double[] ys = new double[n];
+        for (int i = 0; i < n; i++) {
+            xs[i] = pos[i][0];
+            ys[i] = pos[i][1];
+        }
+        return build(xs, ys, n);
+    }
+
+    /**
+     * Builds a quadtree from flat coordinate arrays.
+     *
+     * @param xs x-coordinates
+     * @param ys y-coordinates
+     * @param n  number of bodies (must be &le; xs.length)
+     * @return root of the quadtree
+     */
+    static QuadTree build(double[] xs, double[] ys, int n) {
+        return new QuadTree().rebuild(xs, ys, n);
+    }
+
+    /**
+     * Rebuilds this tree in place over new positions, reusing its arrays.
+     *
+     * @param xs x-coordinates (referenced, not copied)
+     * @param ys y-coordinates (referenced, not copied)
+     * @param n  number of bodies (must be &le; xs.length)
+     * @return this tree
+     */
+    QuadTree rebuild(double[] xs, double[] ys, int n) {
+        this.xs = xs;
+        this.ys = ys;
+        this.n = n;
+        nodeCount = 0;
+        if (n == 0) return this;
+
         double minX = Double.MAX_VALUE, minY = Double.MAX_VALUE;
         double maxX = -Double.MAX_VALUE, maxY = -Double.MAX_VALUE;
         for (int i = 0; i < n; i++) {
-            if (pos[i][0] < minX) minX = pos[i][0];
-            if (pos[i][0] > maxX) maxX = pos[i][0];
-            if (pos[i][1] < minY) minY = pos[i][1];
-            if (pos[i][1] > maxY) maxY = pos[i][1];
+            if (xs[i] < minX) minX = xs[i];
+            if (xs[i] > maxX) maxX = xs[i];
+            if (ys[i] < minY) minY = ys[i];
+            if (ys[i] > maxY) maxY = ys[i];
         }
-        double sz = Math.max(maxX - minX, maxY - minY) + 1.0;
-        QuadTree root = new QuadTree(minX - 0.5, minY - 0.5, sz + 1.0);
+        double sz = Math.max(maxX - minX, maxY - minY) + 2.0;
+        double x0 = minX - 0.5;
+        double y0 = minY - 0.5;
 
+        // Morton-sort the bodies; the index in the low word breaks ties
+        if (keys.length < n) {
+            keys = new long[n];
+            codes = new int[n];
+            order = new int[n];
+            rank = new int[n];
+        }
+        double scale = (1 << MAX_DEPTH) / sz;
+        int maxCell = (1 << MAX_DEPTH) - 1;
         for (int i = 0; i < n; i++) {
-            root.insert(i, pos[i][0], pos[i][1]);
+            int qx = Math.min(maxCell, (int) ((xs[i] - x0) * scale));
+            int qy = Math.min(maxCell, (int) ((ys[i] - y0) * scale));
+            keys[i] = ((long) (spread(qx) | spread(qy) << 1) << 32) | i;
         }
-        return root;
+        Arrays.sort(keys, 0, n);
+        for (int r = 0; r < n; r++) {
+            order[r] = (int) keys[r];
+            codes[r] = (int) (keys[r] >>> 32);
+            rank[order[r]] = r;
+        }
+
+        ensureNodeCapacity(1);
+        nodeCount = 1;
+        buildNode(0, 0, n, 0, x0, y0, sz);
+        return this;
     }
 
-    void insert(int idx, double px, double py) {
-        if (mass == 0) {
-            bodyIndex = idx;
-            cx = px;
-            cy = py;
-            mass = 1;
+    /** Spreads the low 15 bits of {@code v} to the even bit positions. */
+    private static int spread(int v) {
+        v = (v | (v << 8)) & 0x00FF00FF;
+        v = (v | (v << 4)) & 0x0F0F0F0F;
+        v = (v | (v << 2)) & 0x33333333;
+        return (v | (v << 1)) & 0x55555555;
+    }
+
+    private void buildNode(int node, int lo, int hi, int depth,
+                           double x, double y, double s) {
+        cellX[node] = x;
+        cellY[node] = y;
+        size[node] = s;
+        start[node] = lo;
+        end[node] = hi;
+
+        if (hi - lo <= LEAF_CAPACITY || depth == MAX_DEPTH) {
+            child[node] = -1;
+            double sx = 0, sy = 0;
+            for (int r = lo; r < hi; r++) {
+                sx += xs[order[r]];
+                sy += ys[order[r]];
+            }
+            comX[node] = sx / (hi - lo);
+            comY[node] = sy / (hi - lo);
             return;
         }
 
-        if (bodyIndex >= 0) {
-            int existing = bodyIndex;
-            double ex = cx, ey = cy;
-            bodyIndex = -1;
-            putInChild(existing, ex, ey);
+        // Split [lo, hi) on the quadrant digit at this depth: bit 0 is
+        // the x half, bit 1 the y half
+        int shift = 2 * (MAX_DEPTH - 1 - depth);
+        int[] b = bounds[depth];
+        b[0] = lo;
+        int r = lo;
+        int children = 0;
+        for (int q = 0; q < 4; q++) {
+            while (r < hi && ((codes[r] >>> shift) & 3) == q) r++;
+            b[q + 1] = r;
+            if (b[q + 1] > b[q]) children++;
         }
 
-        putInChild(idx, px, py);
+        ensureNodeCapacity(nodeCount + children);
+        int first = nodeCount;
+        nodeCount += children;
+        child[node] = first;
 
-        cx = (cx * mass + px) / (mass + 1);
-        cy = (cy * mass + py) / (mass + 1);
-        mass++;
+        double half = s / 2.0;
+        double sx = 0, sy = 0;
+        int c = first;
+        for (int q = 0; q < 4; q++) {
+            int qlo = b[q];
+            int qhi = b[q + 1];
+            if (qhi == qlo) continue;
+            buildNode(c, qlo, qhi, depth + 1,
+                    x + ((q & 1) != 0 ? half : 0), y + ((q & 2) != 0 ? half : 0), half);
+            sx += comX[c] * (qhi - qlo);
+            sy += comY[c] * (qhi - qlo);
+            c++;
+        }
+        comX[node] = sx / (hi - lo);
+        comY[node] = sy / (hi - lo);
     }
 
-    private void putInChild(int idx, double px, double py) {
-        double half = size / 2.0;
-        double midX = x + half;
-        double midY = y + half;
-
-        if (px <= midX) {
-            if (py <= midY) {
-                if (nw == null) nw = new QuadTree(x, y, half);
-                nw.insert(idx, px, py);
-            } else {
-                if (sw == null) sw = new QuadTree(x, midY, half);
-                sw.insert(idx, px, py);
-            }
-        } else {
-            if (py <= midY) {
-                if (ne == null) ne = new QuadTree(midX, y, half);
-                ne.insert(idx, px, py);
-            } else {
-                if (se == null) se = new QuadTree(midX, midY, half);
-                se.insert(idx, px, py);
-            }
-        }
+    private void ensureNodeCapacity(int capacity) {
+        if (capacity <= child.length) return;
+        int grown = Math.max(capacity, Math.max(16, child.length * 2));
+        cellX = Arrays.copyOf(cellX, grown);
+        cellY = Arrays.copyOf(cellY, grown);
+        size = Arrays.copyOf(size, grown);
+        comX = Arrays.copyOf(comX, grown);
+        comY = Arrays.copyOf(comY, grown);
+        child = Arrays.copyOf(child, grown);
+        start = Arrays.copyOf(start, grown);
+        end = Arrays.copyOf(end, grown);
+    }
+
+    /** Number of bodies in the tree. */
+    int size() {
+        return n;
     }
 
     /**
-     * Computes repulsive force on body {@code i} at (px, py) from this
-     * quadtree node, accumulating into disp[0] (dx) and disp[1] (dy).
+     * The body at position {@code r} of the Morton order. Visiting bodies
+     * in this order keeps consecutive queries on nearby cells.
+     */
+    int bodyAt(int r) {
+        return order[r];
+    }
+
+    /** Number of cells in the tree. */
+    int nodeCount() {
+        return nodeCount;
+    }
+
+    // ── Barnes-Hut repulsion ────────────────────────────────────────
+
+    /**
+     * Computes repulsive force on body {@code i} at (px, py) from all
+     * other bodies, accumulating into disp[0] (dx) and disp[1] (dy).
+     * Cells containing body {@code i} are always opened, so a body never
+     * repels itself through an aggregate.
      *
      * @param i       index of the body (skip self)
      * @param px      x-position of body i
@@ -118,36 +266,122 @@ final class QuadTree {
      */
     void applyRepulsion(int i, double px, double py,
                         double kSq, double[] disp, double thetaSq) {
-        if (mass == 0) return;
-
-        double dx = px - cx;
-        double dy = py - cy;
-        double distSq = dx * dx + dy * dy;
-
-        if (mass == 1 && bodyIndex >= 0) {
-            if (bodyIndex == i) return;
-            if (distSq < MIN_DIST_SQ) distSq = MIN_DIST_SQ;
-            // force = k² / dist; fx = (dx/dist)*force = dx * k² / dist²
-            double f = kSq / distSq;
-            disp[0] += dx * f;
-            disp[1] += dy * f;
+        if (nodeCount == 0) return;
+        int self = i >= 0 && i < n ? rank[i] : -1;
+        repel(0, self, px, py, kSq, disp, thetaSq);
+    }
+
+    private void repel(int node, int self, double px, double py,
+                       double kSq, double[] disp, double thetaSq) {
+        if (self < start[node] || self >= end[node]) {
+            // Barnes-Hut check: size/dist < theta  ⟺  size²/distSq < theta²
+            // Avoids Math.sqrt in the common "far enough" case.
+            double dx = px - comX[node];
+            double dy = py - comY[node];
+            double distSq = dx * dx + dy * dy;
+            double sizeSq = size[node] * size[node];
+            if (sizeSq < thetaSq * distSq) {
+                if (distSq < MIN_DIST_SQ) distSq = MIN_DIST_SQ;
+                double f = kSq * (end[node] - start[node]) / distSq;
+                disp[0] += dx * f;
+                disp[1] += dy * f;
+                return;
+            }
+        }
+
+        int first = child[node];
+        if (first < 0) {
+            for (int r = start[node]; r < end[node]; r++) {
+                if (r == self) continue;
+                int j = order[r];
+                double dx = px - xs[j];
+                double dy = py - ys[j];
+                double distSq = dx * dx + dy * dy;
+                if (distSq < MIN_DIST_SQ) distSq = MIN_DIST_SQ;
+                // force = k² / dist; fx = (dx/dist)*force = dx * k² / dist²
+                double f = kSq / distSq;
+                disp[0] += dx * f;
+                disp[1] += dy * f;
+            }
             return;
         }
+        for (int c = first, covered = start[node]; covered < end[node]; c++) {
+            repel(c, self, px, py, kSq, disp, thetaSq);
+            covered = end[c];
+        }
+    }
+
+    // ── Point queries ───────────────────────────────────────────────
 
-        // Barnes-Hut check: size/dist < theta  ⟺  size²/distSq < theta²
-        // Avoids Math.sqrt in the common "far enough" case.
-        double sizeSq = size * size;
-        if (sizeSq < thetaSq * distSq) {
-            if (distSq < MIN_DIST_SQ) distSq = MIN_DIST_SQ;
-            double f = kSq * mass / distSq;
-            disp[0] += dx * f;
-            disp[1] += dy * f;
+    /**
+     * Finds the body nearest to (px, py) within {@code maxDist}; ties go
+     * to the lower index.
+     *
+     * @return the body index, or -1 if no body is that close
+     */
+    int nearest(double px, double py, double maxDist) {
+        if (nodeCount == 0 || !(maxDist >= 0)) return -1;
+        double[] best = {maxDist * maxDist, -1};
+        nearest(0, px, py, best);
+        return (int) best[1];
+    }
+
+    private void nearest(int node, double px, double py, double[] best) {
+        double gx = Math.max(0, Math.max(cellX[node] - px, px - (cellX[node] + size[node])));
+        double gy = Math.max(0, Math.max(cellY[node] - py, py - (cellY[node] + size[node])));
+        if (gx * gx + gy * gy > best[0]) return;
+
+        int first = child[node];
+        if (first < 0) {
+            for (int r = start[node]; r < end[node]; r++) {
+                int j = order[r];
+                double dx = px - xs[j];
+                double dy = py - ys[j];
+                double d = dx * dx + dy * dy;
+                if (d < best[0] || (d == best[0] && (best[1] < 0 || j < best[1]))) {
+                    best[0] = d;
+                    best[1] = j;
+                }
+            }
             return;
         }
+        for (int c = first, covered = start[node]; covered < end[node]; c++) {
+            nearest(c, px, py, best);
+            covered = end[c];
+        }
+    }
+
+    /**
+     * Calls {@code action} with the index of every body inside the
+     * rectangle [minX, maxX] × [minY, maxY]. Fully covered cells report
+     * their bodies without testing them.
+     */
+    void forEachInRect(double minX, double minY, double maxX, double maxY,
+                       IntConsumer action) {
+        if (nodeCount == 0) return;
+        forEachInRect(0, minX, minY, maxX, maxY, action);
+    }
+
+    private void forEachInRect(int node, double minX, double minY,
+                               double maxX, double maxY, IntConsumer action) {
+        double x = cellX[node], y = cellY[node], s = size[node];
+        if (x > maxX || y > maxY || x + s < minX || y + s < minY) return;
 
-        if (nw != null) nw.applyRepulsion(i, px, py, kSq, disp, thetaSq);
-        if (ne != null) ne.applyRepulsion(i, px, py, kSq, disp, thetaSq);
-        if (sw != null) sw.applyRepulsion(i, px, py, kSq, disp, thetaSq);
-        if (se != null) se.applyRepulsion(i, px, py, kSq, disp, thetaSq);
+        int first = child[node];
+        if (x >= minX && y >= minY && x + s <= maxX && y + s <= maxY) {
+            for (int r = start[node]; r < end[node]; r++) action.accept(order[r]);
+        } else if (first < 0) {
+            for (int r = start[node]; r < end[node]; r++) {
+                int j = order[r];
+                if (xs[j] >= minX && xs[j] <= maxX && ys[j] >= minY && ys[j] <= maxY) {
+                    action.accept(j);
+                }
+            }
+        } else {
+            for (int c = first, covered = start[node]; covered < end[node]; c++) {
+                forEachInRect(c, minX, minY, maxX, maxY, action);
+                covered = end[c];
+            }
+        }
     }
 }
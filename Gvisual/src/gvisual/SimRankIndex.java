@@ -0,0 +1,519 @@
+package gvisual;
+
+import edu.uci.ics.jung.graph.Graph;
+
+import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Monte Carlo fingerprint index for SimRank role similarity.
+ *
+ * <p>SimRank scores two vertices as similar when their in-neighbours are
+ * similar: {@code s(u,u) = 1} and
+ * {@code s(u,v) = c / (|I(u)|·|I(v)|) · Σ s(a,b)} over in-neighbours
+ * {@code a ∈ I(u)}, {@code b ∈ I(v)}. Equivalently, if two random walks
+ * start at {@code u} and {@code v} and repeatedly step to a uniformly
+ * random in-neighbour, {@code s(u,v) = E[c^τ]} where {@code τ} is the first
+ * step at which they stand on the same vertex. Iterating the definition
+ * directly costs O(V²) memory and more per round; this index estimates the
+ * expectation instead.</p>
+ *
+ * <h3>Fingerprints</h3>
+ * <p>A fingerprint is one set of <em>coupled</em> reverse walks, one walk
+ * per vertex, truncated after {@code walkLength} steps. The in-neighbour
+ * chosen at step {@code t} from vertex {@code x} is a hash of
+ * (seed, fingerprint, t, x), so walks that meet move together from then
+ * on, while walks that have not met step independently — exactly the
+ * coupling the estimator needs. Because meeting is permanent, the walks of
+ * one fingerprint coalesce into a hierarchy: ordering the vertices so that
+ * every coalesced group is contiguous, the meeting time of any two
+ * vertices is the largest "gap" time between neighbours in that order.
+ * Each fingerprint therefore costs one {@code int} order slot, one
+ * {@code int} rank and one {@code byte} gap per vertex — about
+ * {@code 9·V} bytes — and the whole index {@code 9·V·fingerprints} bytes,
+ * checked against {@link Builder#maxIndexBytes(long)} before anything is
+ * allocated. Fingerprints are independent and built in parallel.</p>
+ *
+ * <h3>Queries</h3>
+ * <ul>
+ *   <li>{@link #similarity(String, String)} replays the two walks of every
+ *       fingerprint from the hash — O(fingerprints × walkLength), with no
+ *       index access at all.</li>
+ *   <li>{@link #singleSource(String)} scans outward from the source's slot
+ *       in each fingerprint order while the running gap stays within the
+ *       walk length, so the cost is proportional to the number of
+ *       vertices whose walks actually meet the source's.</li>
+ * </ul>
+ * <p>Both are the same estimator over the same walks, so they agree
+ * exactly. The standard error of an estimate is at most
+ * {@code 1/(2√fingerprints)}; truncation biases it down by at most
+ * {@code c^(walkLength+1)}.</p>
+ *
+ * <h3>Usage</h3>
+ * <pre>
+ *   SimRankIndex index = SimRankIndex.builder(graph)
+ *           .decay(0.6)
+ *           .fingerprints(200)
+ *           .build();
+ *   double s = index.similarity("A", "B");
+ *   List&lt;ScoredPair&gt; roles = index.mostSimilar("A", 10);
+ * </pre>
+ *
+ * @author sauravbhattacharya001
+ * @see NodeSimilarityAnalyzer
+ */
+public final class SimRankIndex {
+
+    /** Largest supported walk length; gap times are stored in a byte. */
+    private static final int MAX_WALK_LENGTH = 120;
+    /** Gap value for neighbours in the order whose walks never meet. */
+    private static final byte NEVER = Byte.MAX_VALUE;
+    private static final long GOLDEN = 0x9E3779B97F4A7C15L;
+    private static final int PARALLEL_THRESHOLD = 2000;
+
+    private final double decay;
+    private final int walkLength;
+    private final int fingerprints;
+    private final long seed;
+    private final String[] vertices;
+    private final Map<String, Integer> index;
+    /** In-neighbour CSR, rows sorted. */
+    private final int[] inOffsets;
+    private final int[] inTargets;
+    /** c^t for t = 0..walkLength. */
+    private final double[] decayPow;
+    /** Per fingerprint f, slot i at {@code f * n + i}: vertex in coalescence order. */
+    private final int[] order;
+    /** Per fingerprint f, vertex v at {@code f * n + v}: slot of v in the order. */
+    private final int[] rank;
+    /** Per fingerprint f: meeting time of slots i and i + 1, or {@link #NEVER}. */
+    private final byte[] gaps;
+
+    private SimRankIndex(Builder b) {
+        this.decay = b.decay;
+        this.walkLength = b.walkLength;
+        this.fingerprints = b.fingerprints;
+        this.seed = b.seed;
+
+        List<String> sorted = new ArrayList<String>(b.graph.getVertices());
+        Collections.sort(sorted);
+        int n = sorted.size();
+        long slots = (long) n * fingerprints;
+        long bytes = slots * 9;
+        if (slots > Integer.MAX_VALUE - 8 || bytes > b.maxIndexBytes) {
+            throw new IllegalArgumentException("SimRank index would need " + bytes
+                    + " bytes (" + n + " vertices × " + fingerprints
+                    + " fingerprints), limit is " + b.maxIndexBytes);
+        }
+        vertices = sorted.toArray(new String[0]);
+        index = new HashMap<String, Integer>(n * 2);
+        for (int i = 0; i < n; i++) index.put(vertices[i], i);
+
+        inOffsets = new int[n + 1];
+        for (int i = 0; i < n; i++) {
+            Collection<String> in = b.graph.getPredecessors(vertices[i]);
+            inOffsets[i + 1] = inOffsets[i] + (in == null ? 0 : in.size());
+        }
+        inTargets = new int[inOffsets[n]];
+        for (int i = 0; i < n; i++) {
+            Collection<String> in = b.graph.getPredecessors(vertices[i]);
+            if (in == null) continue;
+            int p = inOffsets[i];
+            for (String w : in) inTargets[p++] = index.get(w);
+            Arrays.sort(inTargets, inOffsets[i], inOffsets[i + 1]);
+        }
+
+        decayPow = new double[walkLength + 1];
+        decayPow[0] = 1.0;
+        for (int t = 1; t <= walkLength; t++) decayPow[t] = decayPow[t - 1] * decay;
+
+        order = new int[(int) slots];
+        rank = new int[(int) slots];
+        gaps = new byte[(int) slots];
+        if (n == 0) return;
+
+        ThreadLocal<Walker> local = ThreadLocal.withInitial(() -> new Walker(n));
+        int threads = Math.max(1, b.parallelism);
+        if (threads == 1 || n < PARALLEL_THRESHOLD || fingerprints == 1) {
+            new FingerprintRange(local, 0, fingerprints).compute();
+        } else {
+            ForkJoinPool pool = new ForkJoinPool(threads);
+            try {
+                pool.invoke(new FingerprintRange(local, 0, fingerprints));
+            } finally {
+                pool.shutdown();
+            }
+        }
+    }
+
+    /**
+     * Creates a builder for an index over the given graph.
+     *
+     * @param graph the graph (must not be null)
+     * @return a new builder
+     * @throws IllegalArgumentException if graph is null
+     */
+    public static Builder builder(Graph<String, Edge> graph) {
+        return new Builder(graph);
+    }
+
+    // ── Queries ─────────────────────────────────────────────────
+
+    /** Returns the decay factor {@code c}. */
+    public double getDecay() {
+        return decay;
+    }
+
+    /** Returns the number of steps after which walks are truncated. */
+    public int getWalkLength() {
+        return walkLength;
+    }
+
+    /** Returns the number of fingerprints (coupled walk sets). */
+    public int getFingerprints() {
+        return fingerprints;
+    }
+
+    /** Returns the number of indexed vertices. */
+    public int getVertexCount() {
+        return vertices.length;
+    }
+
+    /** Returns the size of the fingerprint arrays in bytes. */
+    public long getIndexBytes() {
+        return 9L * vertices.length * fingerprints;
+    }
+
+    /**
+     * Estimates the SimRank score of two vertices by replaying their
+     * coupled walks in every fingerprint.
+     *
+     * @param u first vertex
+     * @param v second vertex
+     * @return estimated SimRank in [0, 1]; exactly 1 when {@code u == v}
+     * @throws IllegalArgumentException if either vertex is not indexed
+     */
+    public double similarity(String u, String v) {
+        int a0 = indexOf(u);
+        int b0 = indexOf(v);
+        if (a0 == b0) return 1.0;
+        double sum = 0;
+        for (int f = 0; f < fingerprints; f++) {
+            int a = a0;
+            int b = b0;
+            for (int t = 1; t <= walkLength; t++) {
+                a = step(f, t, a);
+                b = step(f, t, b);
+                if (a < 0 || b < 0) break;
+                if (a == b) {
+                    sum += decayPow[t];
+                    break;
+                }
+            }
+        }
+        return sum / fingerprints;
+    }
+
+    /**
+     * Estimates the SimRank score of every vertex against a source.
+     *
+     * @param source the query vertex
+     * @return vertex → estimated SimRank for every other vertex with a
+     *         non-zero estimate, sorted by score descending, then by ID
+     * @throws IllegalArgumentException if the vertex is not indexed
+     */
+    public LinkedHashMap<String, Double> singleSource(String source) {
+        int[] found = new int[16];
+        double[] scores = scoreFrom(indexOf(source));
+        int count = 0;
+        for (int v = 0; v < scores.length; v++) {
+            if (scores[v] > 0) {
+                if (count == found.length) found = Arrays.copyOf(found, count * 2);
+                found[count++] = v;
+            }
+        }
+        Integer[] sorted = new Integer[count];
+        for (int i = 0; i < count; i++) sorted[i] = found[i];
+        Arrays.sort(sorted, (x, y) -> scores[x] != scores[y]
+                ? Double.compare(scores[y], scores[x]) : Integer.compare(x, y));
+        LinkedHashMap<String, Double> result = new LinkedHashMap<String, Double>(count * 2);
+        for (int v : sorted) result.put(vertices[v], scores[v]);
+        return result;
+    }
+
+    /**
+     * Returns the {@code k} vertices with the highest estimated SimRank
+     * against a source.
+     *
+     * @param source the query vertex
+     * @param k      maximum number of results
+     * @return pairs (source, other) sorted by score descending, then by ID
+     * @throws IllegalArgumentException if the vertex is not indexed
+     */
+    public List<NodeSimilarityAnalyzer.ScoredPair> mostSimilar(String source, int k) {
+        int u = indexOf(source);
+        if (k <= 0) return new ArrayList<NodeSimilarityAnalyzer.ScoredPair>();
+        double[] scores = scoreFrom(u);
+        TopKPairs top = new TopKPairs(k);
+        for (int v = 0; v < scores.length; v++) {
+            if (scores[v] > 0) top.offer(scores[v], u, v);
+        }
+        List<NodeSimilarityAnalyzer.ScoredPair> result =
+                new ArrayList<NodeSimilarityAnalyzer.ScoredPair>(top.size);
+        for (int i : top.sortedIndices()) {
+            result.add(new NodeSimilarityAnalyzer.ScoredPair(
+                    source, vertices[top.b[i]], top.score[i]));
+        }
+        return result;
+    }
+
+    // ── Internals ───────────────────────────────────────────────
+
+    int indexOf(String vertex) {
+        Integer i = vertex == null ? null : index.get(vertex);
+        if (i == null) {
+            throw new IllegalArgumentException("Vertex not indexed: " + vertex);
+        }
+        return i;
+    }
+
+    /**
+     * Summed estimates from one source over all fingerprints: walk out
+     * from the source's slot in each direction, tracking the largest gap
+     * crossed, until a never-met gap is reached.
+     */
+    private double[] scoreFrom(int u) {
+        int n = vertices.length;
+        double[] scores = new double[n];
+        double weight = 1.0 / fingerprints;
+        for (int f = 0; f < fingerprints; f++) {
+            int base = f * n;
+            int p = rank[base + u];
+            int meet = 0;
+            for (int i = p - 1; i >= 0; i--) {
+                meet = Math.max(meet, gaps[base + i]);
+                if (meet == NEVER) break;
+                scores[order[base + i]] += decayPow[meet] * weight;
+            }
+            meet = 0;
+            for (int i = p + 1; i < n; i++) {
+                meet = Math.max(meet, gaps[base + i - 1]);
+                if (meet == NEVER) break;
+                scores[order[base + i]] += decayPow[meet] * weight;
+            }
+        }
+        scores[u] = 0;
+        return scores;
+    }
+
+    /** In-neighbour chosen from {@code x} at step {@code t} of fingerprint {@code f}, or -1. */
+    private int step(int f, int t, int x) {
+        int lo = inOffsets[x];
+        int d = inOffsets[x + 1] - lo;
+        if (d == 0) return -1;
+        long h = mix(mix(seed + ((long) f * (MAX_WALK_LENGTH + 1) + t) * GOLDEN) ^ x);
+        return inTargets[lo + (int) ((h >>> 1) % d)];
+    }
+
+    /**
+     * Per-thread scratch for building one fingerprint: the surviving
+     * groups of coalesced walks, each a linked list of its vertices in
+     * order, with the position its walk currently occupies.
+     */
+    private final class Walker {
+        final int[] position;
+        final int[] head;
+        final int[] tail;
+        final int[] next;
+        final byte[] gapAfter;
+        final int[] owner;
+        final int[] stamp;
+        final boolean[] merged;
+        int[] active;
+        int[] survivors;
+        int epoch;
+
+        Walker(int n) {
+            position = new int[n];
+            head = new int[n];
+            tail = new int[n];
+            next = new int[n];
+            gapAfter = new byte[n];
+            owner = new int[n];
+            stamp = new int[n];
+            merged = new boolean[n];
+            active = new int[n];
+            survivors = new int[n];
+        }
+
+        void build(int f) {
+            int n = vertices.length;
+            for (int v = 0; v < n; v++) {
+                position[v] = v;
+                head[v] = v;
+                tail[v] = v;
+                next[v] = -1;
+                gapAfter[v] = NEVER;
+                merged[v] = false;
+                active[v] = v;
+            }
+            int live = n;
+            for (int t = 1; t <= walkLength && live > 1; t++) {
+                int e = ++epoch;
+                int kept = 0;
+                for (int i = 0; i < live; i++) {
+                    int g = active[i];
+                    int to = step(f, t, position[g]);
+                    if (to < 0) continue;
+                    if (stamp[to] == e) {
+                        // Walks meet at step t: append g's list to the owner's
+                        int o = owner[to];
+                        next[tail[o]] = head[g];
+                        gapAfter[tail[o]] = (byte) t;
+                        tail[o] = tail[g];
+                        merged[g] = true;
+                    } else {
+                        stamp[to] = e;
+                        owner[to] = g;
+                        position[g] = to;
+                        survivors[kept++] = g;
+                    }
+                }
+                int[] swap = active;
+                active = survivors;
+                survivors = swap;
+                live = kept;
+            }
+
+            // Lay the groups end to end; gaps between groups stay NEVER
+            int base = f * n;
+            int slot = 0;
+            for (int g = 0; g < n; g++) {
+                if (merged[g]) continue;
+                for (int v = head[g]; v >= 0; v = next[v]) {
+                    order[base + slot] = v;
+                    rank[base + v] = slot;
+                    gaps[base + slot] = gapAfter[v];
+                    slot++;
+                }
+            }
+        }
+    }
+
+    /** Splits fingerprints across the pool. */
+    private static final class FingerprintRange extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+        private final transient ThreadLocal<Walker> local;
+        private final int lo;
+        private final int hi;
+
+        FingerprintRange(ThreadLocal<Walker> local, int lo, int hi) {
+            this.local = local;
+            this.lo = lo;
+            this.hi = hi;
+        }
+
+        @Override
+        protected void compute() {
+            if (hi - lo > 1 && inForkJoinPool()) {
+                int mid = (lo + hi) >>> 1;
+                invokeAll(new FingerprintRange(local, lo, mid), new FingerprintRange(local, mid, hi));
+                return;
+            }
+            Walker w = local.get();
+            for (int f = lo; f < hi; f++) {
+                w.build(f);
+            }
+        }
+    }
+
+    /** SplitMix64 finalizer. */
+    private static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+
+    // ── Builder ─────────────────────────────────────────────────
+
+    /** Builder for {@link SimRankIndex}. */
+    public static final class Builder {
+        private final Graph<String, Edge> graph;
+        private double decay = 0.6;
+        private int walkLength = 10;
+        private int fingerprints = 100;
+        private long seed = 42L;
+        private long maxIndexBytes = 256L << 20;
+        private int parallelism = Runtime.getRuntime().availableProcessors();
+
+        private Builder(Graph<String, Edge> graph) {
+            if (graph == null) {
+                throw new IllegalArgumentException("Graph must not be null");
+            }
+            this.graph = graph;
+        }
+
+        /** Decay factor {@code c} in (0, 1) (default 0.6). */
+        public Builder decay(double decay) {
+            if (!(decay > 0.0 && decay < 1.0)) {
+                throw new IllegalArgumentException("Decay must be in (0, 1), got: " + decay);
+            }
+            this.decay = decay;
+            return this;
+        }
+
+        /** Steps after which walks are truncated (default 10, at most 120). */
+        public Builder walkLength(int walkLength) {
+            if (walkLength < 1 || walkLength > MAX_WALK_LENGTH) {
+                throw new IllegalArgumentException("Walk length must be in [1, "
+                        + MAX_WALK_LENGTH + "], got: " + walkLength);
+            }
+            this.walkLength = walkLength;
+            return this;
+        }
+
+        /** Number of fingerprints (default 100). More lower the variance. */
+        public Builder fingerprints(int fingerprints) {
+            if (fingerprints < 1) {
+                throw new IllegalArgumentException("Fingerprints must be positive");
+            }
+            this.fingerprints = fingerprints;
+            return this;
+        }
+
+        /** Seed of the walk hash (default 42). */
+        public Builder seed(long seed) {
+            this.seed = seed;
+            return this;
+        }
+
+        /** Upper bound on the fingerprint arrays in bytes (default 256 MiB). */
+        public Builder maxIndexBytes(long maxIndexBytes) {
+            if (maxIndexBytes < 0) {
+                throw new IllegalArgumentException("Memory bound must be non-negative");
+            }
+            this.maxIndexBytes = maxIndexBytes;
+            return this;
+        }
+
+        /** Worker threads for the fingerprint build (default: processors). */
+        public Builder parallelism(int threads) {
+            if (threads < 1) {
+                throw new IllegalArgumentException("Parallelism must be positive");
+            }
+            this.parallelism = threads;
+            return this;
+        }
+
+        /**
+         * Builds the fingerprints.
+         *
+         * @throws IllegalArgumentException if the index would exceed the
+         *         memory bound
+         */
+        public SimRankIndex build() {
+            return new SimRankIndex(this);
+        }
+    }
+}
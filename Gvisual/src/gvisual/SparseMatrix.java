@@ -0,0 +1,99 @@
+package gvisual;
+
+import java.util.Arrays;
+
+/**
+ * An immutable n×n real matrix in compressed sparse row (CSR) form.
+ *
+ * <p>Row {@code i} owns the slots {@code rowPtr[i] .. rowPtr[i+1]-1} of the
+ * parallel {@code colIdx}/{@code values} arrays, with column indices
+ * strictly ascending and only non-zero entries stored. A graph matrix with
+ * V rows and E edges therefore takes O(V + E) memory instead of the O(V²)
+ * of a {@code double[][]}, and a matrix–vector product costs O(V + E).</p>
+ *
+ * <p>Instances are built by {@link LaplacianBuilder}; the class is also a
+ * {@link LinearOperator}, so a sparse Laplacian can be handed straight to
+ * {@link LanczosEigensolver}.</p>
+ *
+ * @author sauravbhattacharya001
+ */
+public final class SparseMatrix implements LinearOperator {
+
+    final int n;
+    final int[] rowPtr;
+    final int[] colIdx;
+    final double[] values;
+
+    SparseMatrix(int n, int[] rowPtr, int[] colIdx, double[] values) {
+        this.n = n;
+        this.rowPtr = rowPtr;
+        this.colIdx = colIdx;
+        this.values = values;
+    }
+
+    @Override
+    public int dimension() {
+        return n;
+    }
+
+    /**
+     * Returns the number of stored (non-zero) entries.
+     *
+     * @return nnz
+     */
+    public int nonZeroCount() {
+        return rowPtr[n];
+    }
+
+    /**
+     * Returns entry (i, j), found by binary search within row i.
+     *
+     * @param i row index
+     * @param j column index
+     * @return the entry, or 0 if it is not stored
+     * @throws IndexOutOfBoundsException if i or j is out of range
+     */
+    public double get(int i, int j) {
+        if (i < 0 || i >= n || j < 0 || j >= n) {
+            throw new IndexOutOfBoundsException("(" + i + ", " + j + ") outside " + n + "×" + n);
+        }
+        int k = Arrays.binarySearch(colIdx, rowPtr[i], rowPtr[i + 1], j);
+        return k >= 0 ? values[k] : 0.0;
+    }
+
+    @Override
+    public void multiply(double[] x, double[] y) {
+        for (int i = 0; i < n; i++) {
+            double s = 0;
+            for (int k = rowPtr[i], end = rowPtr[i + 1]; k < end; k++) {
+                s += values[k] * x[colIdx[k]];
+            }
+            y[i] = s;
+        }
+    }
+
+    /**
+     * Expands row i into a caller-supplied dense buffer, so a matrix can
+     * be written out one row at a time without materializing all n² entries.
+     *
+     * @param i   row index
+     * @param row buffer of length at least n; fully overwritten
+     */
+    public void copyRow(int i, double[] row) {
+        Arrays.fill(row, 0, n, 0.0);
+        for (int k = rowPtr[i], end = rowPtr[i + 1]; k < end; k++) {
+            row[colIdx[k]] = values[k];
+        }
+    }
+
+    /**
+     * Expands the matrix into a dense array. Only sensible for small n.
+     *
+     * @return a new n×n array
+     */
+    public double[][] toDense() {
+        double[][] dense = new double[n][n];
+        for (int i = 0; i < n; i++) copyRow(i, dense[i]);
+        return dense;
+    }
+}
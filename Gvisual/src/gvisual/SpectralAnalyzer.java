@@ -34,23 +34,62 @@ import java.util.*;
  * </ul>
  *
  * <h3>Algorithm</h3>
- * <p>Uses the <b>Jacobi eigenvalue algorithm</b> for symmetric matrices —
- * a classical, numerically stable iterative method that applies Givens
- * rotations to diagonalise the matrix.  No external linear algebra
- * libraries are required.</p>
+ * <p>Graphs with up to {@link #withDenseLimit(int) denseLimit} vertices
+ * (default {@value #DEFAULT_DENSE_LIMIT}) get the full adjacency and
+ * Laplacian spectra from {@link DenseEigensolver} — O(n³), exact, and
+ * needed for energy and the spanning-tree count.</p>
  *
- * <p>Complexity: O(n³) per sweep, typically converges in O(n) sweeps for
- * well-conditioned matrices. Suitable for graphs up to ~1000 nodes.</p>
+ * <p>Larger graphs are analysed on sparse matrix-free operators with
+ * {@link LanczosEigensolver}, in O(V + E) memory: the two largest and the
+ * smallest adjacency eigenvalues, and λ₂ with its Fiedler vector (the
+ * smallest Laplacian eigenpair once the constant vector is deflated).
+ * Connectivity and bipartiteness are then decided exactly by graph
+ * search, and the spectrum getters return only the extremal eigenvalues
+ * that were computed. A solve that does not converge is retried once with
+ * a larger basis and restart budget; if it still fails,
+ * {@link #isConverged()} is false and the summary says so.</p>
+ *
+ * <p>Energy and the spanning-tree count are sums over every eigenvalue,
+ * so on the sparse path they are estimated by stochastic Lanczos
+ * quadrature ({@link StochasticTraceEstimator}, configurable through
+ * {@link #withTraceEstimator}): energy as {@code tr |A|}, and the
+ * spanning-tree count through {@code log τ = log det(L + J/n) − log n},
+ * where adding {@code J/n} (applied matrix-free as the vector mean)
+ * lifts the zero eigenvalue of a connected graph's Laplacian to 1 and
+ * leaves the others unchanged. {@link #getEnergyEstimate()} and
+ * {@link #getLogSpanningTreeEstimate()} report the confidence intervals;
+ * on the dense path they hold the exact values. A disconnected graph has
+ * 0 spanning trees on either path.</p>
+ *
+ * <p>Before estimating, the sparse path peels degree-1 vertices down to
+ * the 2-core, which has the same spanning trees; trees therefore get
+ * exactly 1, and a core within the dense limit is solved exactly. The
+ * quadrature error of {@code log det} is not in the confidence interval
+ * and grows with {@code λmax/λ₂}, so the number of Lanczos steps is
+ * raised to match; when the core is too ill-conditioned for
+ * {@value StochasticTraceEstimator#MAX_ADAPTIVE_STEPS} steps (long
+ * cycles, large meshes) the estimate is unavailable and the count is
+ * NaN rather than a wrong number.</p>
  *
  * @author sauravbhattacharya001
  */
 public class SpectralAnalyzer {
 
+    /** Largest graph analysed with the dense full-spectrum solver. */
+    public static final int DEFAULT_DENSE_LIMIT = 1000;
+
     private static final double EPSILON = 1e-10;
-    private static final int MAX_SWEEPS = 100;
+    /** Lanczos basis size for the retry of an unconverged solve. */
+    private static final int RETRY_BASIS_SIZE = 96;
+    /** Thick restarts allowed on the retry. */
+    private static final int RETRY_MAX_RESTARTS = 2000;
+    /** Cap on retry basis entries (basis size × n), about 128 MB of doubles. */
+    private static final long MAX_BASIS_ENTRIES = 1L << 24;
 
     private final Graph<String, Edge> graph;
     private boolean computed;
+    private int denseLimit = DEFAULT_DENSE_LIMIT;
+    private StochasticTraceEstimator traceEstimator = new StochasticTraceEstimator();
 
     // Ordered vertex list (defines row/column mapping)
     private List<String> vertexList;
@@ -66,9 +105,13 @@ public class SpectralAnalyzer {
     private List<String> partitionB;
     private double energy;
     private double spanningTreeCount;
+    private StochasticTraceEstimator.Estimate energyEstimate;
+    private StochasticTraceEstimator.Estimate logSpanningTreeEstimate;
     private boolean bipartiteLikely;
     private boolean connectedSpectrally;
     private String classification;
+    private boolean sparse;
+    private boolean converged;
 
     /**
      * Creates a new SpectralAnalyzer for the given graph.
@@ -86,6 +129,37 @@ public class SpectralAnalyzer {
         this.partitionB = new ArrayList<String>();
     }
 
+    /**
+     * Sets the largest vertex count analysed with the dense solver; larger
+     * graphs use the sparse Lanczos path (see the class documentation).
+     *
+     * @param limit vertex count (must be non-negative)
+     * @return this analyzer for chaining
+     */
+    public SpectralAnalyzer withDenseLimit(int limit) {
+        if (limit < 0) {
+            throw new IllegalArgumentException("Dense limit must be non-negative");
+        }
+        this.denseLimit = limit;
+        return this;
+    }
+
+    /**
+     * Sets the estimator used for energy and the spanning-tree count on
+     * the sparse path (default: a {@link StochasticTraceEstimator} with
+     * its default probes and confidence level).
+     *
+     * @param estimator the estimator
+     * @return this analyzer for chaining
+     */
+    public SpectralAnalyzer withTraceEstimator(StochasticTraceEstimator estimator) {
+        if (estimator == null) {
+            throw new IllegalArgumentException("Trace estimator must not be null");
+        }
+        this.traceEstimator = estimator;
+        return this;
+    }
+
     // ═══════════════════════════════════════════════════════════════
     //  Computation
     // ═══════════════════════════════════════════════════════════════
@@ -97,6 +171,8 @@ public class SpectralAnalyzer {
      */
     public SpectralAnalyzer compute() {
         if (computed) return this;
+        sparse = false;
+        converged = true;
 
         Collection<String> vertices = graph.getVertices();
         int n = vertices.size();
@@ -110,6 +186,8 @@ public class SpectralAnalyzer {
             algebraicConnectivity = 0.0;
             energy = 0.0;
             spanningTreeCount = 0.0;
+            energyEstimate = StochasticTraceEstimator.Estimate.exact(0.0);
+            logSpanningTreeEstimate = StochasticTraceEstimator.Estimate.exact(Double.NEGATIVE_INFINITY);
             bipartiteLikely = true;
             connectedSpectrally = false;
             classification = "Empty";
@@ -126,6 +204,8 @@ public class SpectralAnalyzer {
             algebraicConnectivity = 0.0;
             energy = 0.0;
             spanningTreeCount = 0.0;
+            energyEstimate = StochasticTraceEstimator.Estimate.exact(0.0);
+            logSpanningTreeEstimate = StochasticTraceEstimator.Estimate.exact(Double.NEGATIVE_INFINITY);
             bipartiteLikely = true;
             connectedSpectrally = false;
             classification = "Trivial";
@@ -137,22 +217,46 @@ public class SpectralAnalyzer {
         vertexList = new ArrayList<String>(vertices);
         Collections.sort(vertexList);
 
+        if (n > denseLimit) {
+            sparse = true;
+            computeSparse(n);
+        } else {
+            computeDense(n);
+        }
+
+        // ── Spectral partitioning ──────────────────────────────────
+        partitionA = new ArrayList<String>();
+        partitionB = new ArrayList<String>();
+        for (int i = 0; i < n; i++) {
+            if (fiedlerVector[i] >= 0) {
+                partitionA.add(vertexList.get(i));
+            } else {
+                partitionB.add(vertexList.get(i));
+            }
+        }
+
+        // ── Classification ─────────────────────────────────────────
+        classification = classify(n);
+
+        computed = true;
+        return this;
+    }
+
+    /** Full dense spectra of A and L. */
+    private void computeDense(int n) {
         // Build adjacency matrix
         double[][] A = buildAdjacencyMatrix(n);
 
         // Build Laplacian matrix L = D - A
         double[][] L = buildLaplacianMatrix(A, n);
 
-        // Compute eigenvalues + eigenvectors of A
-        EigenResult adjResult = jacobiEigen(A, n);
-        adjacencyEigenvalues = adjResult.eigenvalues.clone();
-        Arrays.sort(adjacencyEigenvalues);
+        // Compute eigenvalues of A
+        adjacencyEigenvalues = DenseEigensolver.eigenvalues(A);
         reverse(adjacencyEigenvalues);  // descending
 
-        // Compute eigenvalues + eigenvectors of L
-        EigenResult lapResult = jacobiEigen(L, n);
-        laplacianEigenvalues = lapResult.eigenvalues.clone();
-        Arrays.sort(laplacianEigenvalues);  // ascending
+        // Compute eigenvalues + eigenvectors of L (ascending)
+        Eigenpairs lapResult = DenseEigensolver.decompose(L);
+        laplacianEigenvalues = lapResult.getValues();
 
         // Clamp near-zero Laplacian eigenvalues (numerical noise)
         for (int i = 0; i < laplacianEigenvalues.length; i++) {
@@ -183,26 +287,10 @@ public class SpectralAnalyzer {
         connectedSpectrally = zeroCount == 1;
 
         // ── Fiedler vector ─────────────────────────────────────────
-        // Find the eigenvector corresponding to λ₂
+        // Eigenvector for λ₂, the first non-zero Laplacian eigenvalue
         fiedlerVector = new double[n];
         if (n >= 2 && connectedSpectrally) {
-            // Find which column of lapResult.eigenvectors corresponds
-            // to the second-smallest eigenvalue
-            int fiedlerIdx = findFiedlerIndex(lapResult.eigenvalues);
-            for (int i = 0; i < n; i++) {
-                fiedlerVector[i] = lapResult.eigenvectors[i][fiedlerIdx];
-            }
-        }
-
-        // ── Spectral partitioning ──────────────────────────────────
-        partitionA = new ArrayList<String>();
-        partitionB = new ArrayList<String>();
-        for (int i = 0; i < n; i++) {
-            if (fiedlerVector[i] >= 0) {
-                partitionA.add(vertexList.get(i));
-            } else {
-                partitionB.add(vertexList.get(i));
-            }
+            fiedlerVector = lapResult.getVector(findFiedlerIndex(laplacianEigenvalues));
         }
 
         // ── Energy ─────────────────────────────────────────────────
@@ -210,143 +298,210 @@ public class SpectralAnalyzer {
         for (double ev : adjacencyEigenvalues) {
             energy += Math.abs(ev);
         }
+        energyEstimate = StochasticTraceEstimator.Estimate.exact(energy);
 
         // ── Spanning tree count (Kirchhoff's theorem) ──────────────
         // Product of non-zero Laplacian eigenvalues / n
         if (n >= 2 && connectedSpectrally) {
             double product = 1.0;
+            double logSum = 0.0;
             for (double lam : laplacianEigenvalues) {
                 if (lam > EPSILON) {
                     product *= lam;
+                    logSum += Math.log(lam);
                 }
             }
             spanningTreeCount = product / n;
+            logSpanningTreeEstimate = StochasticTraceEstimator.Estimate.exact(logSum - Math.log(n));
         } else {
             spanningTreeCount = 0.0;
+            logSpanningTreeEstimate = StochasticTraceEstimator.Estimate.exact(Double.NEGATIVE_INFINITY);
         }
 
         // ── Bipartite test ─────────────────────────────────────────
         // A graph is bipartite iff its adjacency spectrum is symmetric
         // about zero: for each eigenvalue λ, -λ is also an eigenvalue
         bipartiteLikely = checkBipartite(adjacencyEigenvalues);
-
-        // ── Classification ─────────────────────────────────────────
-        classification = classify(n);
-
-        computed = true;
-        return this;
     }
 
-    // ═══════════════════════════════════════════════════════════════
-    //  Matrix builders
-    // ═══════════════════════════════════════════════════════════════
-
-    private double[][] buildAdjacencyMatrix(int n) {
-        return LaplacianBuilder.buildAdjacencyMatrix(graph, vertexList);
-    }
+    /**
+     * Extremal eigenpairs by Lanczos on sparse operators; connectivity
+     * and bipartiteness by graph search.
+     */
+    private void computeSparse(int n) {
+        SparseMatrix adjacency = LaplacianBuilder.buildSparseAdjacency(graph, vertexList);
+        LinearOperator laplacian = LaplacianBuilder.laplacianOperator(graph, vertexList);
+        int[] rowPtr = adjacency.rowPtr;
+        int[] nbr = adjacency.colIdx;
+
+        Eigenpairs top = solve(adjacency, 2, true);
+        Eigenpairs bottom = solve(adjacency, 1, false);
+        adjacencyEigenvalues = new double[] {top.getValue(0), top.getValue(1), bottom.getValue(0)};
+        energyEstimate = traceEstimator.trace(adjacency, Math::abs);
+        energy = energyEstimate.getValue();
+        spectralRadius = adjacencyEigenvalues[0];
+        spectralGap = adjacencyEigenvalues[0] - adjacencyEigenvalues[1];
+
+        // Components and 2-colouring in one breadth-first pass
+        int[] colour = new int[n];
+        Arrays.fill(colour, -1);
+        int[] queue = new int[n];
+        int components = 0;
+        boolean bipartite = true;
+        for (int s = 0; s < n; s++) {
+            if (colour[s] >= 0) continue;
+            components++;
+            colour[s] = 0;
+            int head = 0;
+            int tail = 0;
+            queue[tail++] = s;
+            while (head < tail) {
+                int u = queue[head++];
+                for (int k = rowPtr[u]; k < rowPtr[u + 1]; k++) {
+                    int w = nbr[k];
+                    if (colour[w] < 0) {
+                        colour[w] = 1 - colour[u];
+                        queue[tail++] = w;
+                    } else if (colour[w] == colour[u]) {
+                        bipartite = false;
+                    }
+                }
+            }
+        }
+        connectedSpectrally = components == 1;
+        bipartiteLikely = bipartite;
 
-    private double[][] buildLaplacianMatrix(double[][] A, int n) {
-        return LaplacianBuilder.buildLaplacian(A, n);
+        fiedlerVector = new double[n];
+        if (connectedSpectrally) {
+            double[] ones = new double[n];
+            Arrays.fill(ones, 1.0);
+            Eigenpairs fiedler = solve(laplacian, 1, false, ones);
+            algebraicConnectivity = fiedler.getValue(0);
+            fiedlerVector = fiedler.getVector(0);
+            laplacianEigenvalues = new double[] {0.0, algebraicConnectivity};
+            logSpanningTreeEstimate = logSpanningTrees(rowPtr, nbr, laplacian);
+            spanningTreeCount = Math.exp(logSpanningTreeEstimate.getValue());
+        } else {
+            algebraicConnectivity = 0.0;
+            laplacianEigenvalues = new double[components];
+            spanningTreeCount = 0.0;
+            logSpanningTreeEstimate = StochasticTraceEstimator.Estimate.exact(Double.NEGATIVE_INFINITY);
+        }
     }
 
-    // ═══════════════════════════════════════════════════════════════
-    //  Jacobi eigenvalue algorithm for symmetric matrices
-    // ═══════════════════════════════════════════════════════════════
-
-    private static class EigenResult {
-        double[] eigenvalues;
-        double[][] eigenvectors;
-
-        EigenResult(double[] eigenvalues, double[][] eigenvectors) {
-            this.eigenvalues = eigenvalues;
-            this.eigenvectors = eigenvectors;
-        }
+    /**
+     * Runs Lanczos with the default budget and, if that does not converge,
+     * once more with a larger basis (capped by memory) and more restarts.
+     * Clears {@link #converged} when the retry fails too.
+     */
+    private Eigenpairs solve(LinearOperator op, int k, boolean largest, double[]... deflate) {
+        Eigenpairs pairs = largest
+                ? new LanczosEigensolver().largest(op, k, deflate)
+                : new LanczosEigensolver().smallest(op, k, deflate);
+        if (pairs.isConverged()) return pairs;
+        int basis = (int) Math.min(RETRY_BASIS_SIZE, MAX_BASIS_ENTRIES / op.dimension());
+        LanczosEigensolver retry = new LanczosEigensolver()
+                .withBasisSize(Math.max(basis, 2 * k + 8))
+                .withMaxRestarts(RETRY_MAX_RESTARTS);
+        pairs = largest ? retry.largest(op, k, deflate) : retry.smallest(op, k, deflate);
+        if (!pairs.isConverged()) converged = false;
+        return pairs;
     }
 
     /**
-     * Computes all eigenvalues and eigenvectors of a symmetric matrix
-     * using the Jacobi rotation method.
+     * Log spanning-tree count of a connected graph. Leaves lie on every
+     * spanning tree, so peeling them down to the 2-core leaves the count
+     * unchanged: a tree has exactly one. A core of at most
+     * {@link #denseLimit} vertices is solved exactly; a larger one by
+     * quadrature with a step count matched to its condition number,
+     * unavailable when that would take too many steps.
      */
-    private EigenResult jacobiEigen(double[][] matrix, int n) {
-        // Work on a copy
-        double[][] A = new double[n][n];
+    private StochasticTraceEstimator.Estimate logSpanningTrees(int[] rowPtr, int[] nbr,
+                                                               LinearOperator laplacian) {
+        int n = rowPtr.length - 1;
+        int[] degree = new int[n];
+        int[] stack = new int[n];
+        int top = 0;
         for (int i = 0; i < n; i++) {
-            System.arraycopy(matrix[i], 0, A[i], 0, n);
+            degree[i] = rowPtr[i + 1] - rowPtr[i];
+            if (degree[i] <= 1) stack[top++] = i;
+        }
+        boolean[] peeled = new boolean[n];
+        int remaining = n;
+        while (top > 0) {
+            int u = stack[--top];
+            if (peeled[u]) continue;
+            peeled[u] = true;
+            remaining--;
+            for (int k = rowPtr[u]; k < rowPtr[u + 1]; k++) {
+                int w = nbr[k];
+                if (!peeled[w] && --degree[w] == 1) stack[top++] = w;
+            }
+        }
+        if (remaining == 0) return StochasticTraceEstimator.Estimate.exact(0.0);
+
+        List<String> core = new ArrayList<String>(remaining);
+        int maxEdgeDegree = 0;
+        for (int u = 0; u < n; u++) {
+            if (peeled[u]) continue;
+            core.add(vertexList.get(u));
+            for (int k = rowPtr[u]; k < rowPtr[u + 1]; k++) {
+                int w = nbr[k];
+                if (!peeled[w]) maxEdgeDegree = Math.max(maxEdgeDegree, degree[u] + degree[w]);
+            }
+        }
+        if (remaining <= denseLimit) {
+            double[] lambda = DenseEigensolver.eigenvalues(LaplacianBuilder.buildLaplacian(graph, core));
+            double logSum = 0.0;
+            for (int i = 1; i < lambda.length; i++) logSum += Math.log(lambda[i]);
+            return StochasticTraceEstimator.Estimate.exact(logSum - Math.log(remaining));
         }
 
-        // Eigenvector matrix (starts as identity)
-        double[][] V = new double[n][n];
-        for (int i = 0; i < n; i++) {
-            V[i][i] = 1.0;
+        // L_core + J/c has spectrum {1} ∪ [λ₂, λmax], λmax ≤ max over edges of d_u + d_v
+        LinearOperator coreLaplacian = remaining == n
+                ? laplacian : LaplacianBuilder.laplacianOperator(graph, core);
+        double lambda2 = algebraicConnectivity;
+        if (remaining < n) {
+            double[] ones = new double[remaining];
+            Arrays.fill(ones, 1.0);
+            lambda2 = solve(coreLaplacian, 1, false, ones).getValue(0);
         }
+        if (!(lambda2 > 0)) return StochasticTraceEstimator.Estimate.unavailable();
+        return traceEstimator
+                .logDeterminant(meanShifted(coreLaplacian), Math.min(1.0, lambda2),
+                        Math.max(1.0, maxEdgeDegree))
+                .affine(1.0, -Math.log(remaining));
+    }
 
-        for (int sweep = 0; sweep < MAX_SWEEPS; sweep++) {
-            // Check convergence: sum of squares of off-diagonal elements
-            double offDiag = 0.0;
-            for (int i = 0; i < n; i++) {
-                for (int j = i + 1; j < n; j++) {
-                    offDiag += A[i][j] * A[i][j];
-                }
+    /** {@code L + J/n}: adds the mean of x to every entry of Lx. */
+    private static LinearOperator meanShifted(LinearOperator laplacian) {
+        return new LinearOperator() {
+            @Override
+            public int dimension() {
+                return laplacian.dimension();
             }
-            if (offDiag < EPSILON * EPSILON) break;
-
-            for (int p = 0; p < n - 1; p++) {
-                for (int q = p + 1; q < n; q++) {
-                    if (Math.abs(A[p][q]) < EPSILON / n) continue;
-
-                    double theta;
-                    if (Math.abs(A[p][p] - A[q][q]) < EPSILON) {
-                        theta = Math.PI / 4.0;
-                    } else {
-                        theta = 0.5 * Math.atan2(2.0 * A[p][q],
-                                A[p][p] - A[q][q]);
-                    }
 
-                    double c = Math.cos(theta);
-                    double s = Math.sin(theta);
-
-                    // Apply Givens rotation
-                    applyRotation(A, V, p, q, c, s, n);
-                }
+            @Override
+            public void multiply(double[] x, double[] y) {
+                laplacian.multiply(x, y);
+                double mean = 0;
+                for (double v : x) mean += v;
+                mean /= x.length;
+                for (int i = 0; i < y.length; i++) y[i] += mean;
             }
-        }
+        };
+    }
 
-        double[] eigenvalues = new double[n];
-        for (int i = 0; i < n; i++) {
-            eigenvalues[i] = A[i][i];
-        }
+    // ═══════════════════════════════════════════════════════════════
+    //  Matrix builders
+    // ═══════════════════════════════════════════════════════════════
 
-        return new EigenResult(eigenvalues, V);
+    private double[][] buildAdjacencyMatrix(int n) {
+        return LaplacianBuilder.buildAdjacencyMatrix(graph, vertexList);
     }
 
-    private void applyRotation(double[][] A, double[][] V,
-                               int p, int q, double c, double s, int n) {
-        // Rotate columns p, q of A
-        for (int i = 0; i < n; i++) {
-            if (i == p || i == q) continue;
-            double aip = A[i][p];
-            double aiq = A[i][q];
-            A[i][p] = c * aip + s * aiq;
-            A[p][i] = A[i][p];
-            A[i][q] = -s * aip + c * aiq;
-            A[q][i] = A[i][q];
-        }
-
-        double app = A[p][p];
-        double aqq = A[q][q];
-        double apq = A[p][q];
-        A[p][p] = c * c * app + 2 * s * c * apq + s * s * aqq;
-        A[q][q] = s * s * app - 2 * s * c * apq + c * c * aqq;
-        A[p][q] = 0.0;
-        A[q][p] = 0.0;
-
-        // Accumulate eigenvectors
-        for (int i = 0; i < n; i++) {
-            double vip = V[i][p];
-            double viq = V[i][q];
-            V[i][p] = c * vip + s * viq;
-            V[i][q] = -s * vip + c * viq;
-        }
+    private double[][] buildLaplacianMatrix(double[][] A, int n) {
+        return LaplacianBuilder.buildLaplacian(A, n);
     }
 
     // ═══════════════════════════════════════════════════════════════
@@ -365,27 +520,15 @@ public class SpectralAnalyzer {
     }
 
     /**
-     * Find the index in the raw (unsorted) eigenvalue array that
-     * corresponds to the second-smallest eigenvalue.
+     * Index of the first non-zero eigenvalue in an ascending spectrum.
      */
-    private int findFiedlerIndex(double[] rawEigenvalues) {
-        int n = rawEigenvalues.length;
-        // Find indices sorted by eigenvalue ascending
-        Integer[] indices = new Integer[n];
-        for (int i = 0; i < n; i++) indices[i] = i;
-
-        final double[] vals = rawEigenvalues;
-        Arrays.sort(indices, (Integer a, Integer b) -> {
-                return Double.compare(vals[a], vals[b]);
-            });
-
-        // Skip zero eigenvalues, return index of first non-zero
-        for (int i = 0; i < n; i++) {
-            if (Math.abs(vals[indices[i]]) > EPSILON) {
-                return indices[i];
+    private int findFiedlerIndex(double[] sortedEigenvalues) {
+        for (int i = 0; i < sortedEigenvalues.length; i++) {
+            if (Math.abs(sortedEigenvalues[i]) > EPSILON) {
+                return i;
             }
         }
-        return indices.length > 1 ? indices[1] : 0;
+        return sortedEigenvalues.length > 1 ? 1 : 0;
     }
 
     private boolean checkBipartite(double[] eigenvalues) {
@@ -471,13 +614,19 @@ public class SpectralAnalyzer {
         }
     }
 
-    /** Adjacency eigenvalues in descending order. */
+    /**
+     * Adjacency eigenvalues in descending order — the full spectrum for
+     * dense analysis, the two largest and the smallest otherwise.
+     */
     public double[] getAdjacencyEigenvalues() {
         ensureComputed();
         return adjacencyEigenvalues.clone();
     }
 
-    /** Laplacian eigenvalues in ascending order. */
+    /**
+     * Laplacian eigenvalues in ascending order — the full spectrum for
+     * dense analysis, otherwise 0 and λ₂ (or one 0 per component).
+     */
     public double[] getLaplacianEigenvalues() {
         ensureComputed();
         return laplacianEigenvalues.clone();
@@ -519,18 +668,53 @@ public class SpectralAnalyzer {
         return Collections.unmodifiableList(partitionB);
     }
 
-    /** Sum of absolute adjacency eigenvalues. */
+    /** Sum of absolute adjacency eigenvalues (estimated for sparse analysis). */
     public double getEnergy() {
         ensureComputed();
         return energy;
     }
 
-    /** Number of spanning trees (Kirchhoff's theorem). */
+    /**
+     * Number of spanning trees (Kirchhoff's theorem; estimated for sparse
+     * analysis, NaN when the estimate is unavailable).
+     */
     public double getSpanningTreeCount() {
         ensureComputed();
         return spanningTreeCount;
     }
 
+    /**
+     * Energy with its confidence interval — exact on the dense path, a
+     * stochastic Lanczos quadrature estimate on the sparse path.
+     */
+    public StochasticTraceEstimator.Estimate getEnergyEstimate() {
+        ensureComputed();
+        return energyEstimate;
+    }
+
+    /**
+     * Natural logarithm of the spanning-tree count with its confidence
+     * interval ({@code -∞} when there are none, unavailable when the
+     * sparse quadrature could not be trusted). Large graphs have more
+     * spanning trees than a {@code double} can hold, so this stays finite
+     * where {@link #getSpanningTreeCount()} overflows to infinity.
+     */
+    public StochasticTraceEstimator.Estimate getLogSpanningTreeEstimate() {
+        ensureComputed();
+        return logSpanningTreeEstimate;
+    }
+
+    /**
+     * Whether every Lanczos solve on the sparse path converged, after
+     * retrying with a larger budget. When false the extremal eigenvalues
+     * and the Fiedler vector are approximations. Always true for dense
+     * analysis.
+     */
+    public boolean isConverged() {
+        ensureComputed();
+        return converged;
+    }
+
     /** True if the adjacency spectrum is symmetric (bipartite indicator). */
     public boolean isBipartiteLikely() {
         ensureComputed();
@@ -566,7 +750,7 @@ public class SpectralAnalyzer {
      */
     public String getSummary() {
         ensureComputed();
-        int n = adjacencyEigenvalues.length;
+        int n = graph.getVertexCount();
 
         StringBuilder sb = new StringBuilder();
         sb.append("=== Spectral Analysis ===\n");
@@ -575,23 +759,38 @@ public class SpectralAnalyzer {
         sb.append(String.format("Spectral gap: %.6f\n", spectralGap));
         sb.append(String.format("Algebraic connectivity (λ₂): %.6f\n",
                 algebraicConnectivity));
-        sb.append(String.format("Energy: %.6f\n", energy));
-        sb.append(String.format("Spanning trees: %.0f\n", spanningTreeCount));
+        sb.append(String.format("Energy: %s\n", energyEstimate));
+        if (!logSpanningTreeEstimate.isAvailable()) {
+            sb.append("Spanning trees: unavailable (Laplacian too ill-conditioned to estimate)\n");
+        } else if (logSpanningTreeEstimate.isExact()) {
+            sb.append(String.format("Spanning trees: %.0f\n", spanningTreeCount));
+        } else {
+            sb.append(String.format("Spanning trees: exp(%s)\n", logSpanningTreeEstimate));
+        }
         sb.append(String.format("Connected (spectrally): %s\n",
                 connectedSpectrally ? "yes" : "no"));
         sb.append(String.format("Bipartite (spectral test): %s\n",
                 bipartiteLikely ? "likely" : "unlikely"));
         sb.append(String.format("Classification: %s\n", classification));
 
-        sb.append("\nAdjacency eigenvalues (top 5): ");
-        for (int i = 0; i < Math.min(5, n); i++) {
-            if (i > 0) sb.append(", ");
-            sb.append(String.format("%.4f", adjacencyEigenvalues[i]));
+        if (sparse) {
+            sb.append(String.format("Eigensolver: Lanczos, %s\n",
+                    converged ? "converged" : "NOT converged (values are approximate)"));
+            sb.append(String.format("\nAdjacency eigenvalues (largest 2): %.4f, %.4f\n",
+                    adjacencyEigenvalues[0], adjacencyEigenvalues[1]));
+            sb.append(String.format("Adjacency eigenvalue (smallest): %.4f\n",
+                    adjacencyEigenvalues[2]));
+        } else {
+            sb.append("\nAdjacency eigenvalues (top 5): ");
+            for (int i = 0; i < Math.min(5, adjacencyEigenvalues.length); i++) {
+                if (i > 0) sb.append(", ");
+                sb.append(String.format("%.4f", adjacencyEigenvalues[i]));
+            }
+            sb.append("\n");
         }
-        sb.append("\n");
 
         sb.append("Laplacian eigenvalues (bottom 5): ");
-        for (int i = 0; i < Math.min(5, n); i++) {
+        for (int i = 0; i < Math.min(5, laplacianEigenvalues.length); i++) {
             if (i > 0) sb.append(", ");
             sb.append(String.format("%.4f", laplacianEigenvalues[i]));
         }
@@ -618,9 +817,11 @@ public class SpectralAnalyzer {
         map.put("algebraicConnectivity", algebraicConnectivity);
         map.put("energy", energy);
         map.put("spanningTreeCount", spanningTreeCount);
+        map.put("logSpanningTreeCount", logSpanningTreeEstimate.getValue());
         map.put("connectedSpectrally", connectedSpectrally);
         map.put("bipartiteLikely", bipartiteLikely);
         map.put("classification", classification);
+        map.put("converged", converged);
         map.put("partitionA", new ArrayList<String>(partitionA));
         map.put("partitionB", new ArrayList<String>(partitionB));
 
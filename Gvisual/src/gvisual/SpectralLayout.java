@@ -10,11 +10,16 @@ import java.util.*;
  * <h3>Algorithm</h3>
  * <p>Uses the algebraic structure of the graph to determine node positions:</p>
  * <ol>
- *   <li><b>Build Laplacian</b> — constructs L = D − A from the graph's
- *       adjacency and degree matrices via {@link LaplacianBuilder}.</li>
+ *   <li><b>Build Laplacian</b> — a matrix-free L = D − A operator from
+ *       {@link LaplacianBuilder}, O(V + E) memory.</li>
  *   <li><b>Compute eigenvectors</b> — finds the 2nd and 3rd smallest
- *       eigenvectors of L (the Fiedler vector and its companion) using
- *       power iteration on (L − λ_max·I)^{-1} (inverse iteration).</li>
+ *       eigenvectors of L (the Fiedler vector and its companion) together
+ *       with block LOBPCG, Jacobi-preconditioned and deflating the
+ *       constant vector, so no dense matrix is ever formed. Graphs it
+ *       cannot settle from a random start within a short budget (meshes,
+ *       long chains) are re-solved with a
+ *       {@link #multilevel(boolean) multilevel} warm start from a
+ *       coarsened graph.</li>
  *   <li><b>Assign coordinates</b> — the 2nd eigenvector gives X positions,
  *       the 3rd eigenvector gives Y positions.</li>
  *   <li><b>Normalize</b> — scales positions to fit the target viewport.</li>
@@ -36,7 +41,7 @@ import java.util.*;
  *   <li>Revealing hidden structure or clusters in a graph</li>
  *   <li>Graphs with strong algebraic properties (regular, symmetric)</li>
  *   <li>As a starting layout that can be refined by force-directed methods</li>
- *   <li>Small-to-medium graphs (up to ~500 nodes)</li>
+ *   <li>Large sparse graphs, including meshes and long chains</li>
  * </ul>
  *
  * @author sauravbhattacharya001
@@ -47,11 +52,34 @@ public class SpectralLayout {
     //  Configuration
     // ═════════════════════════════════════════════════════════════════
 
+    /** Eigenvectors solved for: the X and Y axes. */
+    private static final int AXES = 2;
+    /** LOBPCG iteration cap on the finest (and coarsest) level. */
+    private static final int MAX_ITERATIONS = 1000;
+    /** Cold-start iterations before falling back to the multilevel warm start. */
+    private static final int COLD_ITERATIONS = 100;
+    /** LOBPCG iterations on each intermediate multilevel level. */
+    private static final int LEVEL_ITERATIONS = 30;
+    /**
+     * Converged when every residual ‖Lx − θx‖ is below this fraction of the
+     * largest wanted eigenvalue. That eigenvalue stands in for the spectral
+     * gap, so the vectors are accurate to about this fraction — far below
+     * what a drawing can show.
+     */
+    private static final double RESIDUAL_TOLERANCE = 1e-2;
+    /** Absolute residual floor, as a fraction of ‖L‖ (disconnected graphs have θ = 0). */
+    private static final double RESIDUAL_FLOOR = 1e-10;
+    /** Multilevel coarsening stops at this many vertices. */
+    private static final int COARSEST_VERTICES = 100;
+    /** A level shrinking by less than this fraction ends coarsening. */
+    private static final double MIN_LEVEL_SHRINK = 0.05;
+
     private double canvasWidth  = 800;
     private double canvasHeight = 600;
     private double padding      = 40;
     private boolean jitterEnabled = true;
     private long seed = 42;
+    private boolean multilevel;
 
     // ═════════════════════════════════════════════════════════════════
     //  Result
@@ -61,6 +89,12 @@ public class SpectralLayout {
     private final Map<String, Double> xPositions = new LinkedHashMap<>();
     /** Computed Y positions keyed by vertex name. */
     private final Map<String, Double> yPositions = new LinkedHashMap<>();
+    /** Spatial index over the positions, built on the first hit-test. */
+    private QuadTree hitIndex;
+    private String[] hitVertices;
+    private int iterationsUsed;
+    private int levelCount;
+    private boolean converged;
 
     // ═════════════════════════════════════════════════════════════════
     //  Builder-style setters
@@ -72,6 +106,24 @@ public class SpectralLayout {
     public SpectralLayout jitter(boolean j)      { this.jitterEnabled = j; return this; }
     public SpectralLayout seed(long s)           { this.seed = s; return this; }
 
+    /**
+     * Uses the multilevel warm start from the outset: the graph is
+     * coarsened by heavy-edge matching (shared with
+     * {@link MultilevelPartitioner}) down to about
+     * {@value #COARSEST_VERTICES} vertices, the eigenvectors are solved
+     * there, and each finer level starts from the coarse vectors spread
+     * over its clusters. This pays off on graphs with a small spectral
+     * gap — meshes, long chains, road networks — where a cold solve needs
+     * many iterations; well-connected random graphs converge quickly
+     * anyway and only pay for the coarsening.
+     *
+     * <p>When off (the default), a cold solve is tried first and the warm
+     * start is used only if it has not converged after
+     * {@value #COLD_ITERATIONS} iterations. Turning it on skips that
+     * attempt for graphs known to need it.</p>
+     */
+    public SpectralLayout multilevel(boolean m)  { this.multilevel = m; return this; }
+
     // ═════════════════════════════════════════════════════════════════
     //  Getters
     // ═════════════════════════════════════════════════════════════════
@@ -82,6 +134,45 @@ public class SpectralLayout {
     public double getX(String vertex) { return xPositions.getOrDefault(vertex, 0.0); }
     public double getY(String vertex) { return yPositions.getOrDefault(vertex, 0.0); }
 
+    /** LOBPCG iterations on the original graph in the last compute, cold attempt included. */
+    public int getIterationsUsed() { return iterationsUsed; }
+
+    /**
+     * Whether the last compute met the residual tolerance on the original
+     * graph. False means the iteration cap was hit and the axes are the
+     * best approximation found.
+     */
+    public boolean isConverged() { return converged; }
+
+    /** Graph levels solved in the last compute: 1 unless multilevel coarsened the graph. */
+    public int getLevelCount() { return levelCount; }
+
+    /**
+     * Hit-tests the layout: finds the vertex nearest to (x, y) within
+     * {@code radius}, e.g. under the mouse pointer. The first call indexes
+     * the positions in a {@link QuadTree}, so each query is O(log V).
+     *
+     * @param x      x-coordinate in layout space
+     * @param y      y-coordinate in layout space
+     * @param radius maximum distance to the vertex
+     * @return the nearest vertex, or null if none lies within radius
+     */
+    public String vertexAt(double x, double y, double radius) {
+        if (hitIndex == null) {
+            int n = xPositions.size();
+            hitVertices = xPositions.keySet().toArray(new String[0]);
+            double[] xs = new double[n];
+            double[] ys = new double[n];
+            for (int i = 0; i < n; i++) {
+                xs[i] = xPositions.get(hitVertices[i]);
+                ys[i] = yPositions.get(hitVertices[i]);
+            }
+            hitIndex = QuadTree.build(xs, ys, n);
+        }
+        int i = hitIndex.nearest(x, y, radius);
+        return i < 0 ? null : hitVertices[i];
+    }
+
     // ═════════════════════════════════════════════════════════════════
     //  Core: compute layout
     // ═════════════════════════════════════════════════════════════════
@@ -95,6 +186,10 @@ public class SpectralLayout {
     public SpectralLayout compute(Graph<String, Edge> graph) {
         xPositions.clear();
         yPositions.clear();
+        hitIndex = null;
+        iterationsUsed = 0;
+        levelCount = 0;
+        converged = false;
 
         List<String> vertices = new ArrayList<>(graph.getVertices());
         Collections.sort(vertices);
@@ -116,12 +211,10 @@ public class SpectralLayout {
             return this;
         }
 
-        // Build Laplacian
-        double[][] L = LaplacianBuilder.buildLaplacian(graph, vertices);
-
-        // Compute 2nd and 3rd smallest eigenvectors via inverse iteration
-        double[] ev2 = computeSmallestNonTrivialEigenvector(L, n, null);
-        double[] ev3 = computeSmallestNonTrivialEigenvector(L, n, ev2);
+        // Compute 2nd and 3rd smallest Laplacian eigenvectors
+        double[][] axes = computeAxes(graph, vertices);
+        double[] ev2 = axes[0];
+        double[] ev3 = axes[1];
 
         // Apply jitter if needed (handles degenerate cases)
         Random rng = new Random(seed);
@@ -146,136 +239,331 @@ public class SpectralLayout {
     }
 
     // ═════════════════════════════════════════════════════════════════
-    //  Eigenvector computation — inverse iteration
+    //  Eigenvector computation — LOBPCG
     // ═════════════════════════════════════════════════════════════════
 
     /**
-     * Computes the smallest non-trivial eigenvector of L using inverse
-     * iteration with a small shift.  If {@code deflate} is non-null, the
-     * result is orthogonalized against it (to get the 3rd eigenvector).
+     * Computes the {@value #AXES} smallest eigenvectors of the Laplacian
+     * orthogonal to the constant vector: cold for small graphs and ones
+     * that converge within {@value #COLD_ITERATIONS} iterations,
+     * coarse-to-fine otherwise or when multilevel is enabled.
      */
-    private double[] computeSmallestNonTrivialEigenvector(double[][] L, int n,
-                                                           double[] deflate) {
-        // Shift L so we target the smallest non-zero eigenvalue
-        // Use shifted matrix: M = L + shift * I  (shift makes trivial eigenvalue large)
-        double shift = 0.01;
-        double[][] M = new double[n][n];
-        for (int i = 0; i < n; i++) {
-            for (int j = 0; j < n; j++) {
-                M[i][j] = L[i][j];
+    private double[][] computeAxes(Graph<String, Edge> graph, List<String> vertices) {
+        int n = vertices.size();
+        LinearOperator laplacian = LaplacianBuilder.laplacianOperator(graph, vertices);
+        MultilevelPartitioner.Level finest = MultilevelPartitioner.of(graph, vertices);
+        double[] degree = new double[n];
+        for (int i = 0; i < n; i++) degree[i] = finest.xadj[i + 1] - finest.xadj[i];
+
+        double[] constant = new double[n];
+        Arrays.fill(constant, 1 / Math.sqrt(n));
+
+        Random rng = new Random(seed);
+        levelCount = 1;
+        if (n <= COARSEST_VERTICES) {
+            double[][] x = randomBlock(n, rng);
+            iterationsUsed = lobpcg(laplacian, degree, constant, x, MAX_ITERATIONS, rng);
+            converged = iterationsUsed < MAX_ITERATIONS;
+            return x;
+        }
+        if (!multilevel) {
+            double[][] x = randomBlock(n, rng);
+            iterationsUsed = lobpcg(laplacian, degree, constant, x, COLD_ITERATIONS, rng);
+            if (iterationsUsed < COLD_ITERATIONS) {
+                converged = true;
+                return x;
             }
-            M[i][i] += shift;
+            // Small spectral gap: start over from the coarse solution,
+            // seeded exactly as an explicit multilevel run
+            rng = new Random(seed);
         }
 
-        // We want the eigenvector for the smallest eigenvalue of L (excluding 0).
-        // Strategy: power iteration on M^{-1} finds the largest eigenvalue of M^{-1},
-        // which corresponds to the smallest eigenvalue of M.
-        // Since L's smallest eigenvalue is 0 (constant vector), the shift pushes it
-        // to 'shift', and the Fiedler value λ2 becomes λ2 + shift.
-        // We then deflate the constant vector and optionally the 2nd eigenvector.
-
-        Random rng = new Random(seed + (deflate == null ? 0 : 1));
-        double[] v = new double[n];
-        for (int i = 0; i < n; i++) v[i] = rng.nextGaussian();
-
-        // Remove constant component
-        removeComponent(v, constantVector(n));
-        if (deflate != null) removeComponent(v, deflate);
-        normalizeUnit(v);
-
-        int maxIter = 300;
-        for (int iter = 0; iter < maxIter; iter++) {
-            // Solve M * w = v  (via Gaussian elimination each step)
-            double[] w = solveLinearSystem(M, v);
-
-            // Deflate
-            removeComponent(w, constantVector(n));
-            if (deflate != null) removeComponent(w, deflate);
-
-            double norm = norm(w);
-            if (norm < 1e-15) {
-                // Degenerate — restart with new random
-                for (int i = 0; i < n; i++) w[i] = rng.nextGaussian();
-                removeComponent(w, constantVector(n));
-                if (deflate != null) removeComponent(w, deflate);
-                norm = norm(w);
+        // Coarsen by heavy-edge matching until the graph is small
+        List<MultilevelPartitioner.Level> levels = new ArrayList<>();
+        levels.add(finest);
+        MultilevelPartitioner.Level current = finest;
+        while (current.n > COARSEST_VERTICES) {
+            MultilevelPartitioner.Level coarse = MultilevelPartitioner.coarsen(
+                    current, Integer.MAX_VALUE, rng.nextLong(), null);
+            if (coarse.n > (1 - MIN_LEVEL_SHRINK) * current.n) {
+                current.cmap = null;
+                break;
+            }
+            levels.add(coarse);
+            current = coarse;
+        }
+        levelCount = levels.size();
+
+        // Solve the coarsest level from scratch, then prolong and refine.
+        // Level vectors live in mass-scaled form y = M^½ x, see ScaledLaplacian.
+        double[][] y = randomBlock(current.n, rng);
+        for (int l = levels.size() - 1; l > 0; l--) {
+            ScaledLaplacian op = new ScaledLaplacian(levels.get(l));
+            lobpcg(op, op.diagonal(), op.nullVector(), y,
+                    l == levels.size() - 1 ? MAX_ITERATIONS : LEVEL_ITERATIONS, rng);
+            MultilevelPartitioner.Level fineLevel = levels.get(l - 1);
+            int[] cmap = fineLevel.cmap;
+            double[][] fine = new double[AXES][fineLevel.n];
+            for (int a = 0; a < AXES; a++) {
+                for (int v = 0; v < fineLevel.n; v++) {
+                    int c = cmap[v];
+                    fine[a][v] = y[a][c] / op.scale[c] * Math.sqrt(fineLevel.vwgt[v]);
+                }
             }
-            for (int i = 0; i < n; i++) v[i] = w[i] / norm;
+            y = fine;
         }
-        return v;
+        int fineIterations = lobpcg(laplacian, degree, constant, y, MAX_ITERATIONS, rng);
+        iterationsUsed += fineIterations;
+        converged = fineIterations < MAX_ITERATIONS;
+        return y;
     }
 
-    // ═════════════════════════════════════════════════════════════════
-    //  Linear algebra helpers
-    // ═════════════════════════════════════════════════════════════════
-
-    /** Solves Ax = b via Gaussian elimination with partial pivoting. */
-    private double[] solveLinearSystem(double[][] A, double[] b) {
-        int n = b.length;
-        // Augmented matrix
-        double[][] aug = new double[n][n + 1];
-        for (int i = 0; i < n; i++) {
-            System.arraycopy(A[i], 0, aug[i], 0, n);
-            aug[i][n] = b[i];
+    /**
+     * Locally optimal block preconditioned conjugate gradient (Knyazev)
+     * for the smallest eigenpairs of a graph Laplacian, deflating its
+     * null vector. Each step does a Rayleigh–Ritz projection onto
+     * [X, W, P] — current vectors, Jacobi-preconditioned residuals and the
+     * previous search directions — so the only work on the full graph is
+     * one Laplacian product per vector. Products for X and P are carried
+     * along as linear combinations rather than recomputed.
+     *
+     * @param x start vectors, replaced by the Ritz vectors in ascending
+     *          eigenvalue order
+     * @return iterations used
+     */
+    private static int lobpcg(LinearOperator op, double[] diag, double[] nullVector,
+                              double[][] x, int maxIterations, Random rng) {
+        int n = diag.length;
+        int k = x.length;
+        double normBound = 0;
+        for (double d : diag) normBound = Math.max(normBound, 2 * d);
+        double floor = RESIDUAL_FLOOR * Math.max(normBound, 1);
+
+        // Orthonormal start block, with matching products
+        double[][] s = new double[3 * k][];
+        double[][] as = new double[3 * k][];
+        int m = 0;
+        for (int a = 0; a < k; a++) {
+            deflate(x[a], nullVector);
+            s[m] = x[a];
+            if (orthonormalize(s, as, m, false)) {
+                m++;
+            } else {
+                // Degenerate start vector: replace it with a random one
+                for (int i = 0; i < n; i++) x[a][i] = rng.nextGaussian();
+                a--;
+            }
+        }
+        double[][] ax = new double[k][n];
+        double[] theta = new double[k];
+        for (int a = 0; a < k; a++) {
+            op.multiply(x[a], ax[a]);
+            theta[a] = dot(x[a], ax[a]);
         }
 
-        // Forward elimination
-        for (int col = 0; col < n; col++) {
-            // Partial pivot
-            int maxRow = col;
-            for (int row = col + 1; row < n; row++) {
-                if (Math.abs(aug[row][col]) > Math.abs(aug[maxRow][col])) {
-                    maxRow = row;
+        double[][] p = null;
+        double[][] ap = null;
+        int iter = 0;
+        for (; iter < maxIterations; iter++) {
+            // Residuals and Jacobi-preconditioned search directions
+            double[][] w = new double[k][n];
+            double maxResidual = 0;
+            for (int a = 0; a < k; a++) {
+                double rr = 0;
+                for (int i = 0; i < n; i++) {
+                    double r = ax[a][i] - theta[a] * x[a][i];
+                    rr += r * r;
+                    w[a][i] = r / Math.max(diag[i], 1);
                 }
+                maxResidual = Math.max(maxResidual, Math.sqrt(rr));
+                deflate(w[a], nullVector);
             }
-            double[] tmp = aug[col]; aug[col] = aug[maxRow]; aug[maxRow] = tmp;
+            if (maxResidual < Math.max(floor, RESIDUAL_TOLERANCE * theta[k - 1])) break;
+
+            // Basis [X, W, P], orthonormalized with products tracked
+            m = 0;
+            for (int a = 0; a < k; a++) {
+                s[m] = x[a].clone();
+                as[m] = ax[a].clone();
+                if (orthonormalize(s, as, m, true)) m++;
+            }
+            int xCols = m;
+            for (int a = 0; a < k; a++) {
+                s[m] = w[a];
+                as[m] = new double[n];
+                op.multiply(w[a], as[m]);
+                if (orthonormalize(s, as, m, true)) m++;
+            }
+            if (p != null) {
+                for (int a = 0; a < k; a++) {
+                    s[m] = p[a];
+                    as[m] = ap[a];
+                    if (orthonormalize(s, as, m, true)) m++;
+                }
+            }
+            if (m < k) break;
+
+            // Rayleigh–Ritz on the projected m × m matrix
+            double[][] gram = new double[m][m];
+            for (int i = 0; i < m; i++) {
+                for (int j = i; j < m; j++) {
+                    double g = (dot(s[i], as[j]) + dot(s[j], as[i])) / 2;
+                    gram[i][j] = g;
+                    gram[j][i] = g;
+                }
+            }
+            Eigenpairs ritz = DenseEigensolver.decompose(gram, 1);
+
+            double[][] nextP = new double[k][n];
+            double[][] nextAp = new double[k][n];
+            for (int a = 0; a < k; a++) {
+                double[] c = ritz.getVector(a);
+                double[] xa = x[a];
+                double[] axa = ax[a];
+                Arrays.fill(xa, 0);
+                Arrays.fill(axa, 0);
+                for (int j = 0; j < m; j++) {
+                    double cj = c[j];
+                    double[] sj = s[j];
+                    double[] asj = as[j];
+                    double[] pa = j < xCols ? xa : nextP[a];
+                    double[] apa = j < xCols ? axa : nextAp[a];
+                    for (int i = 0; i < n; i++) {
+                        pa[i] += cj * sj[i];
+                        apa[i] += cj * asj[i];
+                    }
+                }
+                for (int i = 0; i < n; i++) {
+                    xa[i] += nextP[a][i];
+                    axa[i] += nextAp[a][i];
+                }
+                theta[a] = ritz.getValue(a);
+            }
+            p = nextP;
+            ap = nextAp;
+        }
 
-            double pivot = aug[col][col];
-            if (Math.abs(pivot) < 1e-14) continue; // singular column
+        // Reproducible sign: largest-magnitude entry positive
+        for (double[] v : x) {
+            int arg = 0;
+            for (int i = 1; i < n; i++) {
+                if (Math.abs(v[i]) > Math.abs(v[arg])) arg = i;
+            }
+            if (v[arg] < 0) for (int i = 0; i < n; i++) v[i] = -v[i];
+        }
+        return iter;
+    }
 
-            for (int row = col + 1; row < n; row++) {
-                double factor = aug[row][col] / pivot;
-                for (int j = col; j <= n; j++) {
-                    aug[row][j] -= factor * aug[col][j];
+    /**
+     * Orthonormalizes {@code s[m]} against {@code s[0..m)} (Gram–Schmidt,
+     * twice), applying the same combination to {@code as[m]} when
+     * {@code withProducts}.
+     *
+     * @return false if the vector was (numerically) in their span
+     */
+    private static boolean orthonormalize(double[][] s, double[][] as, int m,
+                                          boolean withProducts) {
+        double[] v = s[m];
+        double before = norm(v);
+        if (before < 1e-300) return false;
+        for (int pass = 0; pass < 2; pass++) {
+            for (int j = 0; j < m; j++) {
+                double c = dot(s[j], v);
+                for (int i = 0; i < v.length; i++) v[i] -= c * s[j][i];
+                if (withProducts) {
+                    for (int i = 0; i < v.length; i++) as[m][i] -= c * as[j][i];
                 }
             }
         }
+        double after = norm(v);
+        if (after < 1e-10 * before) return false;
+        for (int i = 0; i < v.length; i++) v[i] /= after;
+        if (withProducts) {
+            for (int i = 0; i < v.length; i++) as[m][i] /= after;
+        }
+        return true;
+    }
 
-        // Back substitution
-        double[] x = new double[n];
-        for (int i = n - 1; i >= 0; i--) {
-            double sum = aug[i][n];
-            for (int j = i + 1; j < n; j++) {
-                sum -= aug[i][j] * x[j];
-            }
-            double diag = aug[i][i];
-            x[i] = Math.abs(diag) < 1e-14 ? 0 : sum / diag;
+    private static double[][] randomBlock(int n, Random rng) {
+        double[][] x = new double[AXES][n];
+        for (double[] v : x) {
+            for (int i = 0; i < n; i++) v[i] = rng.nextGaussian();
         }
         return x;
     }
 
-    private double[] constantVector(int n) {
-        double val = 1.0 / Math.sqrt(n);
-        double[] v = new double[n];
-        Arrays.fill(v, val);
-        return v;
-    }
+    /**
+     * Laplacian of a coarsened level, symmetrically scaled by its cluster
+     * sizes: M^-½ L M^-½ with M = diag(vertex weights). Its eigenvectors
+     * are M^½ times those of the generalized problem L x = λ M x, which is
+     * what the fine Laplacian reduces to on vectors constant per cluster,
+     * so coarse solutions are good fine start vectors. The null vector is
+     * M^½ 1 rather than the constant.
+     */
+    private static final class ScaledLaplacian implements LinearOperator {
+        private final MultilevelPartitioner.Level level;
+        /** sqrt(vertex weight) per coarse vertex. */
+        final double[] scale;
+
+        ScaledLaplacian(MultilevelPartitioner.Level level) {
+            this.level = level;
+            this.scale = new double[level.n];
+            for (int i = 0; i < level.n; i++) scale[i] = Math.sqrt(level.vwgt[i]);
+        }
+
+        double[] diagonal() {
+            double[] diag = new double[level.n];
+            for (int i = 0; i < level.n; i++) {
+                for (int e = level.xadj[i]; e < level.xadj[i + 1]; e++) diag[i] += level.adjwgt[e];
+                diag[i] /= level.vwgt[i];
+            }
+            return diag;
+        }
+
+        double[] nullVector() {
+            double[] z = scale.clone();
+            double length = norm(z);
+            for (int i = 0; i < z.length; i++) z[i] /= length;
+            return z;
+        }
+
+        @Override
+        public int dimension() {
+            return level.n;
+        }
 
-    private void removeComponent(double[] v, double[] basis) {
-        double dot = 0;
-        for (int i = 0; i < v.length; i++) dot += v[i] * basis[i];
-        for (int i = 0; i < v.length; i++) v[i] -= dot * basis[i];
+        @Override
+        public void multiply(double[] x, double[] y) {
+            for (int i = 0; i < level.n; i++) {
+                double xi = x[i] / scale[i];
+                double sum = 0;
+                for (int e = level.xadj[i]; e < level.xadj[i + 1]; e++) {
+                    int j = level.adjncy[e];
+                    sum += level.adjwgt[e] * (xi - x[j] / scale[j]);
+                }
+                y[i] = sum / scale[i];
+            }
+        }
     }
 
-    private double norm(double[] v) {
+    // ═════════════════════════════════════════════════════════════════
+    //  Linear algebra helpers
+    // ═════════════════════════════════════════════════════════════════
+
+    private static double dot(double[] a, double[] b) {
         double s = 0;
-        for (double x : v) s += x * x;
-        return Math.sqrt(s);
+        for (int i = 0; i < a.length; i++) s += a[i] * b[i];
+        return s;
+    }
+
+    /** Removes the component along the unit vector z. */
+    private static void deflate(double[] v, double[] z) {
+        double c = dot(v, z);
+        for (int i = 0; i < v.length; i++) v[i] -= c * z[i];
     }
 
-    private void normalizeUnit(double[] v) {
-        double n = norm(v);
-        if (n > 1e-15) for (int i = 0; i < v.length; i++) v[i] /= n;
+    private static double norm(double[] v) {
+        return Math.sqrt(dot(v, v));
     }
 
     private void normalize(double[] values, double min, double max) {
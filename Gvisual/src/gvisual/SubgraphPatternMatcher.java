@@ -4,6 +4,10 @@ import edu.uci.ics.jung.graph.Graph;
 import edu.uci.ics.jung.graph.UndirectedSparseGraph;
 
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.stream.Collectors;
 
 /**
@@ -21,9 +25,8 @@ import java.util.stream.Collectors;
  *       house, etc.) and find all matches</li>
  *   <li><b>Built-in patterns:</b> 8 common patterns available via factory
  *       methods (triangle, square, star-3/4, path-3/4, diamond, bowtie)</li>
- *   <li><b>Degree-constrained matching:</b> optionally require that matched
- *       nodes have at least the same degree in the target as in the pattern
- *       (exact structural role matching)</li>
+ *   <li><b>Degree pruning:</b> matched nodes always have at least the same
+ *       degree in the (filtered) target as in the pattern</li>
  *   <li><b>Edge-type filtering:</b> optionally restrict matches to edges of
  *       a specific type</li>
  *   <li><b>Match limit:</b> stop early after finding N matches (for large
@@ -35,16 +38,30 @@ import java.util.stream.Collectors;
  * </ul>
  *
  * <h3>Algorithm</h3>
- * <p>Uses a backtracking search with feasibility pruning inspired by the
- * VF2 algorithm. Candidates are ordered by descending degree in the pattern
- * graph (most constrained first) for faster pruning. For each pattern node,
- * the algorithm tries all compatible target nodes, checking degree
- * consistency, neighbor consistency, and optional Edge-type constraints.</p>
+ * <p>Backtracking subgraph monomorphism in the style of VF2++, run over an
+ * integer-indexed copy of the target:</p>
+ * <ol>
+ *   <li><b>Candidate indexing:</b> each pattern node gets a candidate set
+ *       of target nodes with sufficient degree, a dominating
+ *       neighbourhood-degree signature (the k-th largest neighbour degree
+ *       in the target is at least the k-th largest in the pattern) and,
+ *       with {@link Builder#matchEdgeTypes(boolean)}, enough incident edges
+ *       of each required type.</li>
+ *   <li><b>Matching order:</b> start from the rarest pattern node, then
+ *       follow BFS levels, taking the node with the most already-matched
+ *       neighbours first.</li>
+ *   <li><b>Search:</b> candidates for each later node are drawn from the
+ *       adjacency of an already-matched neighbour rather than the whole
+ *       target, and filtered through the candidate set.</li>
+ *   <li><b>Parallelism:</b> the candidates for the first node are
+ *       partitioned across a fork-join pool; {@code maxMatches} is enforced
+ *       globally across workers.</li>
+ * </ol>
  *
  * <h3>Complexity</h3>
- * <p>Worst-case exponential in pattern size, but practical for patterns up
- * to ~10-15 nodes in graphs up to ~10,000 nodes due to aggressive
- * pruning.</p>
+ * <p>Worst-case exponential in pattern size. Because search never scans
+ * the full target below the first level, small motifs (triangles, houses,
+ * diamonds) scale to targets with hundreds of thousands of nodes.</p>
  *
  * @author sauravbhattacharya001
  */
@@ -52,9 +69,10 @@ public class SubgraphPatternMatcher {
 
     private final Graph<String, Edge> target;
     private final Graph<String, Edge> pattern;
-    private final boolean degreeConstrained;
     private final String edgeTypeFilter;
     private final int maxMatches;
+    private final boolean matchEdgeTypes;
+    private final int parallelism;
 
     // ── Builder ─────────────────────────────────────────────────
 
@@ -64,9 +82,10 @@ public class SubgraphPatternMatcher {
     public static class Builder {
         private final Graph<String, Edge> target;
         private final Graph<String, Edge> pattern;
-        private boolean degreeConstrained = false;
         private String edgeTypeFilter = null;
         private int maxMatches = 10_000;
+        private boolean matchEdgeTypes = false;
+        private int parallelism = Runtime.getRuntime().availableProcessors();
 
         /**
          * Create a builder with target and pattern graphs.
@@ -94,11 +113,11 @@ public class SubgraphPatternMatcher {
         }
 
         /**
-         * When enabled, a target node can only match a pattern node if its
-         * degree in the target is ≥ its degree in the pattern.
+         * No-op, kept for source compatibility. A target node can never
+         * match a pattern node of higher degree, so candidates are always
+         * pruned by degree in the (filtered) target.
          */
         public Builder degreeConstrained(boolean dc) {
-            this.degreeConstrained = dc;
             return this;
         }
 
@@ -123,6 +142,26 @@ public class SubgraphPatternMatcher {
             return this;
         }
 
+        /**
+         * When enabled, pattern edges that carry a type may only map onto
+         * target edges of the same type. Untyped pattern edges match any
+         * target edge. Default: false (pattern edge types are ignored).
+         */
+        public Builder matchEdgeTypes(boolean match) {
+            this.matchEdgeTypes = match;
+            return this;
+        }
+
+        /**
+         * Number of worker threads for the search. Default: available
+         * processors. Small targets are always searched on the calling
+         * thread.
+         */
+        public Builder parallelism(int threads) {
+            this.parallelism = threads;
+            return this;
+        }
+
         public SubgraphPatternMatcher build() {
             return new SubgraphPatternMatcher(this);
         }
@@ -131,9 +170,10 @@ public class SubgraphPatternMatcher {
     private SubgraphPatternMatcher(Builder b) {
         this.target = b.target;
         this.pattern = b.pattern;
-        this.degreeConstrained = b.degreeConstrained;
         this.edgeTypeFilter = b.edgeTypeFilter;
         this.maxMatches = b.maxMatches;
+        this.matchEdgeTypes = b.matchEdgeTypes;
+        this.parallelism = b.parallelism;
     }
 
     // ── Result classes ──────────────────────────────────────────
@@ -326,9 +366,19 @@ public class SubgraphPatternMatcher {
 
     // ── Search engine ───────────────────────────────────────────
 
+    /** Root candidates per leaf task; work stealing rebalances hubs. */
+    private static final int ROOTS_PER_TASK = 32;
+    /** Targets smaller than this are searched on the calling thread. */
+    private static final int PARALLEL_THRESHOLD = 2_000;
+
     /**
      * Find all occurrences of the pattern in the target graph.
      *
+     * <p>Matches are deduplicated by target node set. When the search
+     * completes without hitting {@code maxMatches}, the result is identical
+     * regardless of parallelism: matches are listed in order of the target
+     * vertex assigned to the first pattern vertex in the matching order.</p>
+     *
      * @return MatchResult with all found matches and statistics
      */
     public MatchResult findMatches() {
@@ -341,156 +391,522 @@ public class SubgraphPatternMatcher {
                     target.getVertexCount(), target.getEdgeCount(), false);
         }
 
-        // Build adjacency for filtered target
-        Map<String, Set<String>> targetAdj = buildTargetAdjacency();
-        Map<String, Set<String>> patternAdj = buildPatternAdjacency();
-
-        // Order pattern nodes by descending degree (most constrained first)
-        List<String> patternOrder = new ArrayList<>(pattern.getVertices());
-        patternOrder.sort((a, b) ->
-                Integer.compare(patternAdj.getOrDefault(b, Collections.emptySet()).size(),
-                        patternAdj.getOrDefault(a, Collections.emptySet()).size()));
-
-        // Compute degree map for target (with Edge-type filter)
-        Map<String, Integer> targetDegree = new HashMap<>();
-        for (String v : target.getVertices()) {
-            targetDegree.put(v, targetAdj.getOrDefault(v, Collections.emptySet()).size());
+        TargetIndex t = new TargetIndex();
+        PatternPlan plan = new PatternPlan(t);
+        int[] roots = plan.candidates[plan.order[0]];
+
+        List<List<int[]>> perRoot = new ArrayList<>(Collections.nCopies(roots.length, null));
+        SearchState state = new SearchState(t, plan, roots, perRoot);
+
+        if (roots.length > 0) {
+            int workers = Math.max(1, parallelism);
+            if (workers == 1 || t.n < PARALLEL_THRESHOLD) {
+                new RootRange(state, 0, roots.length).compute();
+            } else {
+                ForkJoinPool pool = new ForkJoinPool(workers);
+                try {
+                    pool.invoke(new RootRange(state, 0, roots.length));
+                } finally {
+                    pool.shutdown();
+                }
+            }
         }
 
-        // Compute degree map for pattern
-        Map<String, Integer> patternDegree = new HashMap<>();
-        for (String v : pattern.getVertices()) {
-            patternDegree.put(v, patternAdj.getOrDefault(v, Collections.emptySet()).size());
+        // Merge in root order so output does not depend on scheduling
+        Set<IntKey> seen = new HashSet<>();
+        List<String> patternLabels = new ArrayList<>(pattern.getVertices());
+        outer:
+        for (List<int[]> found : perRoot) {
+            if (found == null) continue;
+            for (int[] byPattern : found) {
+                if (matches.size() >= maxMatches) break outer;
+                if (!seen.add(IntKey.sortedOf(byPattern))) continue;
+                Map<String, String> mapping = new LinkedHashMap<>();
+                for (int i = 0; i < byPattern.length; i++) {
+                    mapping.put(patternLabels.get(i), t.labels[byPattern[i]]);
+                }
+                matches.add(new Match(mapping));
+            }
         }
 
-        // Backtracking search
-        Set<Set<String>> seen = new HashSet<>();  // deduplicate by target node set
-        Map<String, String> currentMapping = new LinkedHashMap<>();
-        Set<String> usedTargetNodes = new HashSet<>();
-
-        backtrack(patternOrder, 0, currentMapping, usedTargetNodes,
-                patternAdj, targetAdj, patternDegree, targetDegree,
-                matches, seen);
-
         return new MatchResult(matches,
                 pattern.getVertexCount(), pattern.getEdgeCount(),
                 target.getVertexCount(), target.getEdgeCount(),
                 matches.size() >= maxMatches);
     }
 
-    private void backtrack(List<String> patternOrder, int depth,
-                           Map<String, String> mapping,
-                           Set<String> usedTargetNodes,
-                           Map<String, Set<String>> patternAdj,
-                           Map<String, Set<String>> targetAdj,
-                           Map<String, Integer> patternDegree,
-                           Map<String, Integer> targetDegree,
-                           List<Match> matches,
-                           Set<Set<String>> seen) {
-
-        if (matches.size() >= maxMatches) return;
-
-        if (depth == patternOrder.size()) {
-            // Complete match found
-            Set<String> targetSet = new HashSet<>(mapping.values());
-            if (seen.add(targetSet)) {
-                matches.add(new Match(mapping));
+    /**
+     * Integer-indexed view of the (edge-type filtered) target: sorted
+     * neighbour arrays, so adjacency tests are binary searches rather than
+     * hash lookups. Every distinct edge type between a pair is kept, since
+     * parallel edges may carry different types: the types of
+     * {@code nbrs[v][j]} are {@code types[v][typeStart[v][j] ..
+     * typeStart[v][j + 1])}.
+     */
+    private final class TargetIndex {
+        final int n;
+        final String[] labels;
+        final int[][] nbrs;
+        final int[][] typeStart;
+        final int[][] types;
+        final Map<String, Integer> typeIds = new HashMap<>();
+
+        TargetIndex() {
+            Collection<String> vertices = target.getVertices();
+            n = vertices.size();
+            labels = vertices.toArray(new String[0]);
+            Map<String, Integer> index = new HashMap<>(n * 2);
+            for (int i = 0; i < n; i++) index.put(labels[i], i);
+
+            // Pack (neighbour, type) into longs so one sort orders and dedups
+            long[][] packed = new long[n][];
+            int[] count = new int[n];
+            for (Edge e : target.getEdges()) {
+                if (edgeTypeFilter != null && !edgeTypeFilter.equals(e.getType())) {
+                    continue;
+                }
+                Integer a = e.getVertex1() == null ? null : index.get(e.getVertex1());
+                Integer b = e.getVertex2() == null ? null : index.get(e.getVertex2());
+                if (a == null || b == null || a.equals(b)) continue;
+                long type = typeId(e.getType()) + 1L;
+                append(packed, count, a, ((long) b << 32) | type);
+                append(packed, count, b, ((long) a << 32) | type);
+            }
+
+            nbrs = new int[n][];
+            typeStart = new int[n][];
+            types = new int[n][];
+            for (int v = 0; v < n; v++) {
+                long[] list = packed[v];
+                int c = count[v];
+                if (c == 0) {
+                    nbrs[v] = new int[0];
+                    typeStart[v] = new int[1];
+                    types[v] = new int[0];
+                    continue;
+                }
+                Arrays.sort(list, 0, c);
+                int[] nb = new int[c];
+                int[] start = new int[c + 1];
+                int[] ty = new int[c];
+                int m = 0;
+                int tc = 0;
+                for (int i = 0; i < c; i++) {
+                    if (i > 0 && list[i] == list[i - 1]) continue;
+                    int u = (int) (list[i] >>> 32);
+                    if (m == 0 || nb[m - 1] != u) {
+                        start[m] = tc;
+                        nb[m++] = u;
+                    }
+                    ty[tc++] = (int) (list[i] & 0xffffffffL) - 1;
+                }
+                start[m] = tc;
+                nbrs[v] = m == c ? nb : Arrays.copyOf(nb, m);
+                typeStart[v] = Arrays.copyOf(start, m + 1);
+                types[v] = tc == c ? ty : Arrays.copyOf(ty, tc);
             }
-            return;
         }
 
-        String patternNode = patternOrder.get(depth);
-        int requiredDegree = patternDegree.getOrDefault(patternNode, 0);
+        /** Type id for a target edge type; -1 for null. */
+        int typeId(String type) {
+            if (type == null) return -1;
+            Integer id = typeIds.get(type);
+            if (id == null) {
+                id = typeIds.size();
+                typeIds.put(type, id);
+            }
+            return id;
+        }
 
-        // Get candidates: target nodes not yet used
-        for (String candidate : target.getVertices()) {
-            if (usedTargetNodes.contains(candidate)) continue;
+        /** Whether u and v are joined by an edge of type id {@code type} (-1 = any type). */
+        boolean adjacent(int u, int v, int type) {
+            if (nbrs[u].length > nbrs[v].length) {
+                int tmp = u; u = v; v = tmp;
+            }
+            int j = Arrays.binarySearch(nbrs[u], v);
+            if (j < 0) return false;
+            if (type < 0) return true;
+            for (int k = typeStart[u][j]; k < typeStart[u][j + 1]; k++) {
+                if (types[u][k] == type) return true;
+            }
+            return false;
+        }
 
-            // Degree pruning
-            int candDegree = targetDegree.getOrDefault(candidate, 0);
-            if (degreeConstrained && candDegree < requiredDegree) continue;
-            // Even without degreeConstrained, adjacency degree in filtered
-            // target must be >= pattern degree for the match to succeed
-            int filteredDegree = targetAdj.getOrDefault(candidate,
-                    Collections.emptySet()).size();
-            if (filteredDegree < requiredDegree) continue;
+        private void append(long[][] packed, int[] count, int v, long value) {
+            long[] list = packed[v];
+            if (list == null) {
+                packed[v] = list = new long[4];
+            } else if (count[v] == list.length) {
+                packed[v] = list = Arrays.copyOf(list, list.length * 2);
+            }
+            list[count[v]++] = value;
+        }
+    }
+
+    /**
+     * Pattern-side preprocessing: per-node candidate sets filtered by
+     * degree, neighbourhood-degree signature and (optionally) incident edge
+     * types, plus a VF2++-style matching order.
+     */
+    private final class PatternPlan {
+        final int p;
+        /** Pattern vertex → index in pattern iteration order. */
+        final Map<String, Integer> index = new HashMap<>();
+        final boolean[][] adjacent;
+        /** Required target edge type id, -1 = any. */
+        final int[][] requiredType;
+        final int[] degree;
+        /** Sorted candidate target ids per pattern node. */
+        final int[][] candidates;
+        final BitSet[] candidateSet;
+        /** Pattern nodes in matching order. */
+        final int[] order;
+        /** For each order position, earlier positions adjacent to it. */
+        final int[][] back;
+        /** Whether the pattern cannot match at all (unknown edge type). */
+        boolean impossible;
+
+        PatternPlan(TargetIndex t) {
+            List<String> labels = new ArrayList<>(pattern.getVertices());
+            p = labels.size();
+            for (int i = 0; i < p; i++) index.put(labels.get(i), i);
+            adjacent = new boolean[p][p];
+            requiredType = new int[p][p];
+            for (int[] row : requiredType) Arrays.fill(row, -1);
+            degree = new int[p];
+
+            for (Edge e : pattern.getEdges()) {
+                Integer a = e.getVertex1() == null ? null : index.get(e.getVertex1());
+                Integer b = e.getVertex2() == null ? null : index.get(e.getVertex2());
+                if (a == null || b == null || a.equals(b) || adjacent[a][b]) continue;
+                adjacent[a][b] = adjacent[b][a] = true;
+                degree[a]++;
+                degree[b]++;
+                if (matchEdgeTypes && e.getType() != null) {
+                    Integer id = t.typeIds.get(e.getType());
+                    if (id == null) impossible = true;
+                    else requiredType[a][b] = requiredType[b][a] = id;
+                }
+            }
 
-            // Neighbor consistency: for every already-mapped neighbor of
-            // patternNode, the candidate must be adjacent to its mapped
-            // counterpart in the target
-            if (isConsistent(patternNode, candidate, mapping,
-                    patternAdj, targetAdj)) {
-                mapping.put(patternNode, candidate);
-                usedTargetNodes.add(candidate);
+            candidates = new int[p][];
+            candidateSet = new BitSet[p];
+            for (int q = 0; q < p; q++) {
+                candidateSet[q] = new BitSet(t.n);
+                if (impossible) {
+                    candidates[q] = new int[0];
+                    continue;
+                }
+                int[] nbrDegrees = neighbourDegrees(q);
+                Map<Integer, Integer> typeNeeds = typeNeeds(q);
+                int[] buf = new int[nbrDegrees.length];
+                int c = 0;
+                int[] list = new int[16];
+                for (int v = 0; v < t.n; v++) {
+                    if (!feasible(t, v, q, nbrDegrees, typeNeeds, buf)) continue;
+                    candidateSet[q].set(v);
+                    if (c == list.length) list = Arrays.copyOf(list, c * 2);
+                    list[c++] = v;
+                }
+                candidates[q] = Arrays.copyOf(list, c);
+            }
 
-                backtrack(patternOrder, depth + 1, mapping,
-                        usedTargetNodes, patternAdj, targetAdj,
-                        patternDegree, targetDegree, matches, seen);
+            order = matchingOrder();
+            back = new int[p][];
+            for (int i = 0; i < p; i++) {
+                int[] earlier = new int[i];
+                int c = 0;
+                for (int j = 0; j < i; j++) {
+                    if (adjacent[order[i]][order[j]]) earlier[c++] = j;
+                }
+                back[i] = Arrays.copyOf(earlier, c);
+            }
+        }
 
-                mapping.remove(patternNode);
-                usedTargetNodes.remove(candidate);
+        /** Pattern neighbour degrees of q, descending. */
+        private int[] neighbourDegrees(int q) {
+            int[] d = new int[degree[q]];
+            int c = 0;
+            for (int r = 0; r < p; r++) {
+                if (adjacent[q][r]) d[c++] = degree[r];
+            }
+            Arrays.sort(d);
+            for (int i = 0, j = d.length - 1; i < j; i++, j--) {
+                int tmp = d[i]; d[i] = d[j]; d[j] = tmp;
             }
+            return d;
         }
-    }
 
-    private boolean isConsistent(String patternNode, String candidate,
-                                 Map<String, String> mapping,
-                                 Map<String, Set<String>> patternAdj,
-                                 Map<String, Set<String>> targetAdj) {
-        Set<String> patternNeighbors = patternAdj.getOrDefault(patternNode,
-                Collections.emptySet());
-        Set<String> candidateNeighbors = targetAdj.getOrDefault(candidate,
-                Collections.emptySet());
-
-        for (String pn : patternNeighbors) {
-            String mappedTarget = mapping.get(pn);
-            if (mappedTarget != null) {
-                // The mapped node must be a neighbor of candidate
-                if (!candidateNeighbors.contains(mappedTarget)) {
-                    return false;
+        private Map<Integer, Integer> typeNeeds(int q) {
+            Map<Integer, Integer> needs = new HashMap<>();
+            for (int r = 0; r < p; r++) {
+                if (adjacent[q][r] && requiredType[q][r] >= 0) {
+                    needs.merge(requiredType[q][r], 1, Integer::sum);
                 }
             }
+            return needs;
+        }
+
+        /**
+         * Necessary conditions for mapping pattern node q onto target v:
+         * enough neighbours, neighbours of high enough degree (the k-th
+         * largest target neighbour degree must dominate the k-th largest
+         * pattern neighbour degree), and enough incident edges of each
+         * required type.
+         */
+        private boolean feasible(TargetIndex t, int v, int q, int[] nbrDegrees,
+                                 Map<Integer, Integer> typeNeeds, int[] top) {
+            int[] nb = t.nbrs[v];
+            if (nb.length < degree[q]) return false;
+
+            // Keep the k largest neighbour degrees (k = pattern degree)
+            int k = nbrDegrees.length;
+            int filled = 0;
+            for (int u : nb) {
+                int du = t.nbrs[u].length;
+                if (filled < k) {
+                    int i = filled++;
+                    while (i > 0 && top[i - 1] < du) { top[i] = top[i - 1]; i--; }
+                    top[i] = du;
+                } else if (k > 0 && du > top[k - 1]) {
+                    int i = k - 1;
+                    while (i > 0 && top[i - 1] < du) { top[i] = top[i - 1]; i--; }
+                    top[i] = du;
+                }
+            }
+            for (int i = 0; i < k; i++) {
+                if (top[i] < nbrDegrees[i]) return false;
+            }
+
+            if (!typeNeeds.isEmpty()) {
+                for (Map.Entry<Integer, Integer> need : typeNeeds.entrySet()) {
+                    int have = 0;
+                    for (int ty : t.types[v]) {
+                        if (ty == need.getKey()) have++;
+                    }
+                    if (have < need.getValue()) return false;
+                }
+            }
+            return true;
+        }
+
+        /**
+         * VF2++ ordering: start from the rarest node (fewest candidates,
+         * then highest degree), then walk BFS levels; within a level
+         * repeatedly take the node with the most already-ordered neighbours,
+         * breaking ties by degree and then rarity. Disconnected patterns
+         * restart from the rarest remaining node.
+         */
+        private int[] matchingOrder() {
+            int[] result = new int[p];
+            boolean[] placed = new boolean[p];
+            int[] conn = new int[p];
+            int size = 0;
+            while (size < p) {
+                int root = -1;
+                for (int q = 0; q < p; q++) {
+                    if (placed[q]) continue;
+                    if (root < 0 || rarer(q, root)) root = q;
+                }
+                boolean[] queued = new boolean[p];
+                List<Integer> level = new ArrayList<>();
+                level.add(root);
+                queued[root] = true;
+                while (!level.isEmpty()) {
+                    List<Integer> next = new ArrayList<>();
+                    List<Integer> pending = new ArrayList<>(level);
+                    while (!pending.isEmpty()) {
+                        int bestIdx = 0;
+                        for (int i = 1; i < pending.size(); i++) {
+                            int a = pending.get(i);
+                            int b = pending.get(bestIdx);
+                            if (conn[a] != conn[b] ? conn[a] > conn[b]
+                                    : degree[a] != degree[b] ? degree[a] > degree[b]
+                                    : rarer(a, b)) {
+                                bestIdx = i;
+                            }
+                        }
+                        int q = pending.remove(bestIdx);
+                        placed[q] = true;
+                        result[size++] = q;
+                        for (int r = 0; r < p; r++) {
+                            if (!adjacent[q][r]) continue;
+                            conn[r]++;
+                            if (!placed[r] && !queued[r]) {
+                                queued[r] = true;
+                                next.add(r);
+                            }
+                        }
+                    }
+                    level = next;
+                }
+            }
+            return result;
+        }
+
+        private boolean rarer(int a, int b) {
+            if (candidates[a].length != candidates[b].length) {
+                return candidates[a].length < candidates[b].length;
+            }
+            return degree[a] > degree[b];
         }
-        return true;
     }
 
-    // ── Adjacency helpers ───────────────────────────────────────
+    /** Shared state for one {@link #findMatches()} run. */
+    private final class SearchState {
+        final TargetIndex t;
+        final PatternPlan plan;
+        final int[] roots;
+        /** Matches per root, written at distinct indices by the workers. */
+        final List<List<int[]>> perRoot;
+        final Set<IntKey> globalSeen = ConcurrentHashMap.newKeySet();
+        final AtomicInteger unique = new AtomicInteger();
+        final int limit = maxMatches;
+        volatile boolean stop;
+
+        SearchState(TargetIndex t, PatternPlan plan, int[] roots, List<List<int[]>> perRoot) {
+            this.t = t;
+            this.plan = plan;
+            this.roots = roots;
+            this.perRoot = perRoot;
+        }
+    }
 
-    private Map<String, Set<String>> buildTargetAdjacency() {
-        Map<String, Set<String>> adj = new HashMap<>();
-        for (String v : target.getVertices()) {
-            adj.put(v, new HashSet<>());
+    /** Fork-join partition of the search over first-vertex candidates. */
+    private static final class RootRange extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+        private final transient SearchState state;
+        private final int lo;
+        private final int hi;
+
+        RootRange(SearchState state, int lo, int hi) {
+            this.state = state;
+            this.lo = lo;
+            this.hi = hi;
         }
-        for (Edge e : target.getEdges()) {
-            if (edgeTypeFilter != null &&
-                    !edgeTypeFilter.equals(e.getType())) {
-                continue;
+
+        @Override
+        protected void compute() {
+            if (hi - lo > ROOTS_PER_TASK && inForkJoinPool()) {
+                int mid = (lo + hi) >>> 1;
+                invokeAll(new RootRange(state, lo, mid), new RootRange(state, mid, hi));
+                return;
             }
-            String v1 = e.getVertex1();
-            String v2 = e.getVertex2();
-            if (v1 != null && v2 != null &&
-                    adj.containsKey(v1) && adj.containsKey(v2)) {
-                adj.get(v1).add(v2);
-                adj.get(v2).add(v1);
+            Worker w = new Worker(state);
+            for (int i = lo; i < hi && !state.stop; i++) {
+                w.searchFrom(i);
             }
         }
-        return adj;
     }
 
-    private Map<String, Set<String>> buildPatternAdjacency() {
-        Map<String, Set<String>> adj = new HashMap<>();
-        for (String v : pattern.getVertices()) {
-            adj.put(v, new HashSet<>());
+    /** Per-task backtracking state in integer space. */
+    private static final class Worker {
+        private final SearchState s;
+        private final TargetIndex t;
+        private final PatternPlan plan;
+        private final int[] mapped;
+        private List<int[]> out;
+        private Set<IntKey> localSeen;
+
+        Worker(SearchState s) {
+            this.s = s;
+            this.t = s.t;
+            this.plan = s.plan;
+            this.mapped = new int[plan.p];
+        }
+
+        void searchFrom(int rootIdx) {
+            out = null;
+            localSeen = null;
+            mapped[0] = s.roots[rootIdx];
+            extend(1);
+            if (out != null) s.perRoot.set(rootIdx, out);
+        }
+
+        private void extend(int pos) {
+            if (s.stop) return;
+            if (pos == plan.p) {
+                record();
+                return;
+            }
+            int q = plan.order[pos];
+            int[] back = plan.back[pos];
+            BitSet allowed = plan.candidateSet[q];
+
+            if (back.length == 0) {
+                for (int v : plan.candidates[q]) {
+                    tryExtend(pos, v, back);
+                    if (s.stop) return;
+                }
+                return;
+            }
+
+            // Candidates come from the smallest mapped neighbour's adjacency
+            int anchor = mapped[back[0]];
+            for (int i = 1; i < back.length; i++) {
+                int m = mapped[back[i]];
+                if (t.nbrs[m].length < t.nbrs[anchor].length) anchor = m;
+            }
+            for (int v : t.nbrs[anchor]) {
+                if (!allowed.get(v)) continue;
+                tryExtend(pos, v, back);
+                if (s.stop) return;
+            }
         }
-        for (Edge e : pattern.getEdges()) {
-            String v1 = e.getVertex1();
-            String v2 = e.getVertex2();
-            if (v1 != null && v2 != null) {
-                adj.get(v1).add(v2);
-                adj.get(v2).add(v1);
+
+        private void tryExtend(int pos, int v, int[] back) {
+            for (int i = 0; i < pos; i++) {
+                if (mapped[i] == v) return;
+            }
+            int q = plan.order[pos];
+            for (int b : back) {
+                if (!t.adjacent(v, mapped[b], plan.requiredType[q][plan.order[b]])) return;
             }
+            mapped[pos] = v;
+            extend(pos + 1);
+        }
+
+        private void record() {
+            IntKey key = IntKey.sortedOf(mapped);
+            if (localSeen == null) localSeen = new HashSet<>();
+            if (!localSeen.add(key)) return;
+
+            int[] byPattern = new int[plan.p];
+            for (int i = 0; i < plan.p; i++) byPattern[plan.order[i]] = mapped[i];
+            if (out == null) out = new ArrayList<>();
+            out.add(byPattern);
+
+            if (s.globalSeen.add(key) && s.unique.incrementAndGet() >= s.limit) {
+                s.stop = true;
+            }
+        }
+    }
+
+    /** Hashable sorted int tuple used to deduplicate by target node set. */
+    private static final class IntKey {
+        private final int[] values;
+        private final int hash;
+
+        private IntKey(int[] values) {
+            this.values = values;
+            this.hash = Arrays.hashCode(values);
+        }
+
+        static IntKey sortedOf(int[] values) {
+            int[] copy = values.clone();
+            Arrays.sort(copy);
+            return new IntKey(copy);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof IntKey && Arrays.equals(values, ((IntKey) o).values);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
         }
-        return adj;
     }
 
     // ── Built-in pattern factories ──────────────────────────────
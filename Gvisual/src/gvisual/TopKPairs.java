@@ -0,0 +1,121 @@
+package gvisual;
+
+import java.util.Arrays;
+
+/**
+ * Bounded min-heap of (score, a, b) vertex-pair triples on primitive
+ * arrays, used by the bulk pair-scoring engines to keep the best k pairs
+ * per worker without allocating an object per candidate.
+ *
+ * <p>Pairs are ranked by score descending, then by {@code a} and {@code b}
+ * ascending (vertex indices in a fixed order), so merging per-worker heaps
+ * gives the same result regardless of how rows were split across
+ * threads. The root is the worst retained pair.</p>
+ *
+ * @author sauravbhattacharya001
+ */
+final class TopKPairs {
+
+    final int capacity;
+    double[] score;
+    int[] a;
+    int[] b;
+    int size;
+
+    TopKPairs(int capacity) {
+        this.capacity = capacity;
+        int cap = Math.min(capacity, 1 << 16);
+        score = new double[cap];
+        a = new int[cap];
+        b = new int[cap];
+    }
+
+    /** Positive if (s1, a1, b1) ranks above (s2, a2, b2). */
+    static int compare(double s1, int a1, int b1, double s2, int a2, int b2) {
+        int c = Double.compare(s1, s2);
+        if (c != 0) return c;
+        if (a1 != a2) return a1 < a2 ? 1 : -1;
+        return b1 == b2 ? 0 : (b1 < b2 ? 1 : -1);
+    }
+
+    /** Whether k pairs are held, so {@link #worstScore()} is a bar to beat. */
+    boolean isFull() {
+        return size == capacity;
+    }
+
+    /** Score of the worst retained pair. */
+    double worstScore() {
+        return score[0];
+    }
+
+    void offer(double s, int u, int v) {
+        if (capacity == 0) return;
+        if (size < capacity) {
+            if (size == score.length) grow();
+            int i = size++;
+            set(i, s, u, v);
+            siftUp(i);
+        } else if (compare(s, u, v, score[0], a[0], b[0]) > 0) {
+            set(0, s, u, v);
+            siftDown(0);
+        }
+    }
+
+    /** Offers every pair held by another heap. */
+    void offerAll(TopKPairs other) {
+        for (int i = 0; i < other.size; i++) offer(other.score[i], other.a[i], other.b[i]);
+    }
+
+    /** Indices ordered best first. */
+    int[] sortedIndices() {
+        Integer[] idx = new Integer[size];
+        for (int i = 0; i < size; i++) idx[i] = i;
+        Arrays.sort(idx, (x, y) -> compare(score[y], a[y], b[y], score[x], a[x], b[x]));
+        int[] out = new int[size];
+        for (int i = 0; i < size; i++) out[i] = idx[i];
+        return out;
+    }
+
+    private void grow() {
+        int cap = (int) Math.min((long) capacity, score.length * 2L);
+        score = Arrays.copyOf(score, cap);
+        a = Arrays.copyOf(a, cap);
+        b = Arrays.copyOf(b, cap);
+    }
+
+    private boolean worse(int i, int j) {
+        return compare(score[i], a[i], b[i], score[j], a[j], b[j]) < 0;
+    }
+
+    private void siftUp(int i) {
+        while (i > 0) {
+            int p = (i - 1) >>> 1;
+            if (!worse(i, p)) break;
+            swap(i, p);
+            i = p;
+        }
+    }
+
+    private void siftDown(int i) {
+        while (true) {
+            int l = 2 * i + 1;
+            if (l >= size) return;
+            int m = l + 1 < size && worse(l + 1, l) ? l + 1 : l;
+            if (!worse(m, i)) return;
+            swap(i, m);
+            i = m;
+        }
+    }
+
+    private void set(int i, double s, int u, int v) {
+        score[i] = s;
+        a[i] = u;
+        b[i] = v;
+    }
+
+    private void swap(int i, int j) {
+        double s = score[i]; score[i] = score[j]; score[j] = s;
+        int t = a[i]; a[i] = a[j]; a[j] = t;
+        t = b[i]; b[i] = b[j]; b[j] = t;
+    }
+}
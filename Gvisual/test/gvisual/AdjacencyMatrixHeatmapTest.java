@@ -0,0 +1,135 @@
+package gvisual;
+
+import edu.uci.ics.jung.graph.Graph;
+import edu.uci.ics.jung.graph.UndirectedSparseGraph;
+import org.junit.Test;
+
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.*;
+
+/**
+ * Unit tests for {@link AdjacencyMatrixHeatmap}.
+ */
+public class AdjacencyMatrixHeatmapTest {
+
+    private static final int BG = 0xFF1E1E1E;
+
+    private final Graph<String, Edge> graph = new UndirectedSparseGraph<String, Edge>();
+    private final Map<String, Map<String, Edge>> adjacency = new HashMap<>();
+    private final List<String> order = new ArrayList<>();
+
+    private void addVertices(int n) {
+        for (int i = 0; i < n; i++) {
+            graph.addVertex("v" + i);
+            order.add("v" + i);
+        }
+    }
+
+    private void addEdge(int a, int b) {
+        Edge e = new Edge("f", "v" + a, "v" + b);
+        graph.addEdge(e, "v" + a, "v" + b);
+        adjacency.computeIfAbsent("v" + a, k -> new HashMap<>()).put("v" + b, e);
+        adjacency.computeIfAbsent("v" + b, k -> new HashMap<>()).put("v" + a, e);
+    }
+
+    private AdjacencyMatrixHeatmap.Matrix matrix() {
+        return AdjacencyMatrixHeatmap.Matrix.build(order, graph, adjacency);
+    }
+
+    @Test
+    public void testMatrixRowsAreSortedAndIncludeDiagonal() {
+        addVertices(4);
+        addEdge(0, 3);
+        addEdge(0, 1);
+        AdjacencyMatrixHeatmap.Matrix m = matrix();
+        assertEquals(4, m.n);
+        // Row 0: diagonal, then columns 1 and 3
+        assertEquals(0, m.rowStart[0]);
+        assertEquals(3, m.rowStart[1]);
+        assertArrayEquals(new int[]{0, 1, 3}, Arrays.copyOfRange(m.cols, 0, 3));
+        // Row 2 has only its diagonal
+        assertEquals(1, m.rowStart[3] - m.rowStart[2]);
+    }
+
+    @Test
+    public void testTileAtFullResolutionPaintsCellBlocks() {
+        addVertices(3);
+        addEdge(0, 2);
+        BufferedImage tile = matrix().renderTile(0, 0, 30, 30, 10,
+                1, AdjacencyMatrixHeatmap.BlockMode.SUM);
+        // Empty cell (0,1) is background; edge cell (row 0, col 2) is not
+        assertEquals(BG, tile.getRGB(15, 5));
+        assertNotEquals(BG, tile.getRGB(25, 5));
+        assertEquals(tile.getRGB(20, 0), tile.getRGB(29, 9));
+        assertNotEquals(BG, tile.getRGB(5, 25));
+    }
+
+    @Test
+    public void testTileCapacityCoversVisibleTiles() {
+        assertEquals(AdjacencyMatrixHeatmap.MIN_CACHED_TILES,
+                AdjacencyMatrixHeatmap.tileCapacity(0, 0));
+        assertEquals(AdjacencyMatrixHeatmap.MIN_CACHED_TILES,
+                AdjacencyMatrixHeatmap.tileCapacity(600, 600));
+        // A maximized 4K view touches up to 16 × 10 tiles
+        int visible = (3840 / AdjacencyMatrixHeatmap.TILE_SIZE + 1)
+                * ((2160 + AdjacencyMatrixHeatmap.TILE_SIZE - 1) / AdjacencyMatrixHeatmap.TILE_SIZE + 1);
+        assertEquals(2 * visible, AdjacencyMatrixHeatmap.tileCapacity(3840, 2160));
+    }
+
+    @Test
+    public void testTileOffsetSelectsCells() {
+        addVertices(3);
+        addEdge(0, 2);
+        AdjacencyMatrixHeatmap.Matrix m = matrix();
+        BufferedImage full = m.renderTile(0, 0, 30, 30, 10, 1, AdjacencyMatrixHeatmap.BlockMode.SUM);
+        BufferedImage part = m.renderTile(20, 0, 10, 10, 10, 1, AdjacencyMatrixHeatmap.BlockMode.SUM);
+        assertEquals(full.getRGB(25, 5), part.getRGB(5, 5));
+    }
+
+    @Test
+    public void testAggregationModes() {
+        addVertices(12);
+        addEdge(0, 11);
+        AdjacencyMatrixHeatmap.Matrix m = matrix();
+        // 4 × 4 cells per pixel: block (rows 0-3, cols 8-11) holds one edge
+        BufferedImage max = m.renderTile(0, 0, 3, 3, 1, 4, AdjacencyMatrixHeatmap.BlockMode.MAX);
+        BufferedImage sum = m.renderTile(0, 0, 3, 3, 1, 4, AdjacencyMatrixHeatmap.BlockMode.SUM);
+        BufferedImage cell = m.renderTile(11, 0, 1, 1, 1, 1, AdjacencyMatrixHeatmap.BlockMode.SUM);
+        assertEquals(cell.getRGB(0, 0), max.getRGB(2, 0));
+        assertEquals(max.getRGB(2, 0), max.getRGB(0, 2));
+        int sumGreen = (sum.getRGB(2, 0) >> 8) & 0xFF;
+        int maxGreen = (max.getRGB(2, 0) >> 8) & 0xFF;
+        int bgGreen = (BG >> 8) & 0xFF;
+        assertTrue(sumGreen > bgGreen && sumGreen < maxGreen);
+        assertEquals(BG, max.getRGB(1, 0));
+        assertEquals(BG, sum.getRGB(1, 0));
+    }
+
+    @Test
+    public void testPaintIsSafeForLargeSparseGraph() {
+        addVertices(5000);
+        for (int i = 1; i < 5000; i++) addEdge(i - 1, i);
+        AdjacencyMatrixHeatmap heatmap = new AdjacencyMatrixHeatmap(graph);
+        heatmap.setSize(600, 600);
+        BufferedImage img = new BufferedImage(600, 600, BufferedImage.TYPE_INT_ARGB);
+        Graphics2D g = img.createGraphics();
+        try {
+            heatmap.paint(g);
+        } finally {
+            g.dispose();
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testNullBlockModeThrows() {
+        addVertices(1);
+        new AdjacencyMatrixHeatmap(graph).setBlockMode(null);
+    }
+}
@@ -0,0 +1,49 @@
+package gvisual;
+
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+/**
+ * Tests for BlockRange -- every block runs exactly once.
+ */
+public class BlockRangeTest {
+
+    private static AtomicIntegerArray run(ForkJoinPool pool, int count) {
+        AtomicIntegerArray hits = new AtomicIntegerArray(count);
+        BlockRange.forEachBlock(pool, count, hits::incrementAndGet);
+        return hits;
+    }
+
+    @Test
+    public void testSequentialVisitsEveryBlockOnce() {
+        AtomicIntegerArray hits = run(null, 7);
+        for (int b = 0; b < 7; b++) assertEquals(1, hits.get(b));
+    }
+
+    @Test
+    public void testPooledVisitsEveryBlockOnce() {
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            for (int count : new int[] {1, 2, 5, 64}) {
+                AtomicIntegerArray hits = run(pool, count);
+                for (int b = 0; b < count; b++) assertEquals(1, hits.get(b));
+            }
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    public void testZeroBlocksIsANoOp() {
+        assertEquals(0, run(null, 0).length());
+        ForkJoinPool pool = new ForkJoinPool(2);
+        try {
+            assertEquals(0, run(pool, 0).length());
+        } finally {
+            pool.shutdown();
+        }
+    }
+}
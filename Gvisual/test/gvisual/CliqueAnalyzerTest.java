@@ -782,4 +782,124 @@ public class CliqueAnalyzerTest {
         Map<Integer, Set<Integer>> cg = ca.getCliqueGraph(1);
         assertTrue(cg.isEmpty());
     }
+
+    // ═══════════════════════════════════════
+    // Parallel search, streaming, limits
+    // ═══════════════════════════════════════
+
+    private void randomGraph(int n, double p, long seed) {
+        Random rnd = new Random(seed);
+        for (int i = 0; i < n; i++) graph.addVertex("v" + i);
+        for (int i = 0; i < n; i++) {
+            for (int j = i + 1; j < n; j++) {
+                if (rnd.nextDouble() < p) addEdge("v" + i, "v" + j);
+            }
+        }
+    }
+
+    @Test
+    public void testParallelMatchesSequential() {
+        randomGraph(700, 0.04, 11);
+        List<Set<String>> seq = new CliqueAnalyzer(graph).withParallelism(1)
+                .compute().getCliques();
+        List<Set<String>> par = new CliqueAnalyzer(graph).withParallelism(4)
+                .compute().getCliques();
+        assertEquals(seq, par);
+        for (Set<String> clique : par) {
+            for (String a : clique) {
+                for (String b : clique) {
+                    if (!a.equals(b)) assertNotNull(graph.findEdge(a, b));
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testDenseGraphCliqueCount() {
+        // Complete 4-partite graph K(3,3,3,3): 3^4 maximal cliques of size 4
+        String[][] parts = new String[4][3];
+        for (int p = 0; p < 4; p++) {
+            for (int i = 0; i < 3; i++) parts[p][i] = "p" + p + "_" + i;
+        }
+        for (int p = 0; p < 4; p++) {
+            for (int q = p + 1; q < 4; q++) {
+                for (String a : parts[p]) {
+                    for (String b : parts[q]) addEdge(a, b);
+                }
+            }
+        }
+        CliqueAnalyzer ca = new CliqueAnalyzer(graph).compute();
+        assertEquals(81, ca.getCliqueCount());
+        assertEquals(4, ca.getCliqueNumber());
+        assertFalse(ca.wasTruncated());
+    }
+
+    @Test
+    public void testForEachCliqueStreamsAll() {
+        randomGraph(600, 0.03, 5);
+        CliqueAnalyzer ca = new CliqueAnalyzer(graph);
+        final List<Set<String>> streamed = new ArrayList<Set<String>>();
+        int count = ca.forEachClique(c -> streamed.add(c));
+        assertEquals(streamed.size(), count);
+        assertEquals(new HashSet<Set<String>>(ca.compute().getCliques()),
+                new HashSet<Set<String>>(streamed));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testForEachCliqueNullConsumer() {
+        new CliqueAnalyzer(graph).forEachClique(null);
+    }
+
+    @Test
+    public void testMaxCliquesTruncates() {
+        randomGraph(80, 0.2, 3);
+        CliqueAnalyzer ca = new CliqueAnalyzer(graph).withMaxCliques(10).compute();
+        assertEquals(10, ca.getCliqueCount());
+        assertTrue(ca.wasTruncated());
+    }
+
+    @Test
+    public void testMaxCliquesExactNotTruncated() {
+        makeComplete("A", "B", "C");
+        addEdge("C", "D");
+        CliqueAnalyzer ca = new CliqueAnalyzer(graph).withMaxCliques(2).compute();
+        assertEquals(2, ca.getCliqueCount());
+        assertFalse(ca.wasTruncated());
+    }
+
+    @Test
+    public void testMaxDepthTruncates() {
+        makeComplete("A", "B", "C", "D", "E");
+        CliqueAnalyzer ca = new CliqueAnalyzer(graph).withMaxDepth(3).compute();
+        assertTrue(ca.wasTruncated());
+    }
+
+    @Test
+    public void testHighDegreeHubWithTriangles() {
+        // The hub is last in degeneracy order: P is empty and X holds all
+        // 30000 leaves, which a square bitset over N(hub) could not afford
+        int pairs = 15000;
+        for (int i = 0; i < pairs; i++) {
+            addEdge("H", "a" + i);
+            addEdge("H", "b" + i);
+            addEdge("a" + i, "b" + i);
+        }
+        CliqueAnalyzer ca = new CliqueAnalyzer(graph).withParallelism(1);
+        int[] triangles = new int[1];
+        int count = ca.forEachClique(c -> {
+            if (c.size() == 3 && c.contains("H")) triangles[0]++;
+        });
+        assertEquals(pairs, count);
+        assertEquals(pairs, triangles[0]);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testZeroParallelismThrows() {
+        new CliqueAnalyzer(graph).withParallelism(0);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testNegativeParallelismThrows() {
+        new CliqueAnalyzer(graph).withParallelism(-2);
+    }
 }
@@ -0,0 +1,152 @@
+package gvisual;
+
+import edu.uci.ics.jung.graph.Graph;
+import edu.uci.ics.jung.graph.UndirectedSparseGraph;
+import org.junit.Test;
+
+import java.util.*;
+
+import static org.junit.Assert.*;
+
+/**
+ * Unit tests for {@link ColorRefinement}.
+ */
+public class ColorRefinementTest {
+
+    private static void addEdge(Graph<String, Edge> g, String a, String b) {
+        if (!g.containsVertex(a)) g.addVertex(a);
+        if (!g.containsVertex(b)) g.addVertex(b);
+        g.addEdge(new Edge("f", a, b), a, b);
+    }
+
+    private static Graph<String, Edge> randomGraph(int n, int m, long seed, String prefix) {
+        Random rnd = new Random(seed);
+        Graph<String, Edge> g = new UndirectedSparseGraph<String, Edge>();
+        for (int i = 0; i < n; i++) g.addVertex(prefix + i);
+        while (g.getEdgeCount() < m) {
+            int a = rnd.nextInt(n);
+            int b = rnd.nextInt(n);
+            if (a != b && g.findEdge(prefix + a, prefix + b) == null) {
+                addEdge(g, prefix + a, prefix + b);
+            }
+        }
+        return g;
+    }
+
+    /** Relabels vertices through a random permutation. */
+    private static Graph<String, Edge> permuted(Graph<String, Edge> g, long seed) {
+        List<String> vs = new ArrayList<String>(g.getVertices());
+        List<String> shuffled = new ArrayList<String>(vs);
+        Collections.shuffle(shuffled, new Random(seed));
+        Map<String, String> rename = new HashMap<String, String>();
+        for (int i = 0; i < vs.size(); i++) rename.put(vs.get(i), "x" + shuffled.get(i));
+        Graph<String, Edge> h = new UndirectedSparseGraph<String, Edge>();
+        for (String v : vs) h.addVertex(rename.get(v));
+        for (Edge e : g.getEdges()) {
+            addEdge(h, rename.get(e.getVertex1()), rename.get(e.getVertex2()));
+        }
+        return h;
+    }
+
+    private static Graph<String, Edge> cycle(int n, String prefix) {
+        Graph<String, Edge> g = new UndirectedSparseGraph<String, Edge>();
+        for (int i = 0; i < n; i++) addEdge(g, prefix + i, prefix + ((i + 1) % n));
+        return g;
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testFingerprintNullGraph() {
+        ColorRefinement.fingerprint(null);
+    }
+
+    @Test
+    public void testFingerprintInvariantUnderRelabeling() {
+        Graph<String, Edge> g = randomGraph(200, 600, 1, "v");
+        assertEquals(ColorRefinement.fingerprint(g),
+                ColorRefinement.fingerprint(permuted(g, 99)));
+    }
+
+    @Test
+    public void testFingerprintDistinguishesStructures() {
+        Graph<String, Edge> path = new UndirectedSparseGraph<String, Edge>();
+        addEdge(path, "A", "B");
+        addEdge(path, "B", "C");
+        addEdge(path, "C", "D");
+        Graph<String, Edge> star = new UndirectedSparseGraph<String, Edge>();
+        addEdge(star, "H", "A");
+        addEdge(star, "H", "B");
+        addEdge(star, "H", "C");
+        assertNotEquals(ColorRefinement.fingerprint(path), ColorRefinement.fingerprint(star));
+    }
+
+    @Test
+    public void testRefinementSplitsBeyondDegree() {
+        // Path A-B-C-D-E: B and D have degree 2 like C, but differ from C
+        Graph<String, Edge> g = new UndirectedSparseGraph<String, Edge>();
+        addEdge(g, "A", "B");
+        addEdge(g, "B", "C");
+        addEdge(g, "C", "D");
+        addEdge(g, "D", "E");
+        Map<String, Long> colors = ColorRefinement.vertexColors(g);
+        assertEquals(colors.get("A"), colors.get("E"));
+        assertEquals(colors.get("B"), colors.get("D"));
+        assertNotEquals(colors.get("B"), colors.get("C"));
+    }
+
+    @Test
+    public void testRegularGraphsIndistinguishable() {
+        // C6 and two triangles: 1-WL cannot tell them apart
+        Graph<String, Edge> c6 = cycle(6, "c");
+        Graph<String, Edge> twoTriangles = new UndirectedSparseGraph<String, Edge>();
+        addEdge(twoTriangles, "a", "b");
+        addEdge(twoTriangles, "b", "c");
+        addEdge(twoTriangles, "c", "a");
+        addEdge(twoTriangles, "d", "e");
+        addEdge(twoTriangles, "e", "f");
+        addEdge(twoTriangles, "f", "d");
+        assertEquals(ColorRefinement.fingerprint(c6), ColorRefinement.fingerprint(twoTriangles));
+    }
+
+    @Test
+    public void testIsomorphismClassesSplitsFingerprintCollisions() {
+        Graph<String, Edge> c6 = cycle(6, "c");
+        Graph<String, Edge> twoTriangles = new UndirectedSparseGraph<String, Edge>();
+        addEdge(twoTriangles, "a", "b");
+        addEdge(twoTriangles, "b", "c");
+        addEdge(twoTriangles, "c", "a");
+        addEdge(twoTriangles, "d", "e");
+        addEdge(twoTriangles, "e", "f");
+        addEdge(twoTriangles, "f", "d");
+
+        Map<String, Graph<String, Edge>> snapshots = new LinkedHashMap<String, Graph<String, Edge>>();
+        snapshots.put("day1", c6);
+        snapshots.put("day2", twoTriangles);
+        snapshots.put("day3", permuted(c6, 3));
+        snapshots.put("day4", permuted(twoTriangles, 4));
+        snapshots.put("day5", cycle(5, "p"));
+
+        List<List<String>> classes = ColorRefinement.isomorphismClasses(snapshots);
+        assertEquals(3, classes.size());
+        assertEquals(Arrays.asList("day1", "day3"), classes.get(0));
+        assertEquals(Arrays.asList("day2", "day4"), classes.get(1));
+        assertEquals(Collections.singletonList("day5"), classes.get(2));
+    }
+
+    @Test
+    public void testJointColorsRejectDifferentHistograms() {
+        int[][] path = {{1}, {0, 2}, {1, 3}, {2}};
+        int[][] star = {{1, 2, 3}, {0}, {0}, {0}};
+        assertNull(ColorRefinement.jointStableColors(path, star));
+        long[][] same = ColorRefinement.jointStableColors(path, path);
+        assertNotNull(same);
+        assertArrayEquals(same[0], same[1]);
+    }
+
+    @Test
+    public void testEmptyGraph() {
+        Graph<String, Edge> empty = new UndirectedSparseGraph<String, Edge>();
+        assertTrue(ColorRefinement.vertexColors(empty).isEmpty());
+        assertEquals(ColorRefinement.fingerprint(empty),
+                ColorRefinement.fingerprint(new UndirectedSparseGraph<String, Edge>()));
+    }
+}
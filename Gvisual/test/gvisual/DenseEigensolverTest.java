@@ -0,0 +1,135 @@
+package gvisual;
+
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+/**
+ * Unit tests for {@link DenseEigensolver}.
+ */
+public class DenseEigensolverTest {
+
+    private static double[][] randomSymmetric(int n, long seed) {
+        Random rnd = new Random(seed);
+        double[][] a = new double[n][n];
+        for (int i = 0; i < n; i++) {
+            for (int j = i; j < n; j++) {
+                a[i][j] = rnd.nextGaussian();
+                a[j][i] = a[i][j];
+            }
+        }
+        return a;
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testNullMatrix() {
+        DenseEigensolver.decompose(null);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testNonSquareMatrix() {
+        DenseEigensolver.eigenvalues(new double[][] {{1, 2}});
+    }
+
+    @Test
+    public void testEmptyAndSingleton() {
+        assertEquals(0, DenseEigensolver.decompose(new double[0][0]).size());
+        Eigenpairs one = DenseEigensolver.decompose(new double[][] {{-3}});
+        assertEquals(-3.0, one.getValue(0), 0.0);
+        assertArrayEquals(new double[] {1.0}, one.getVector(0), 0.0);
+    }
+
+    @Test
+    public void testPathLaplacianSpectrum() {
+        // P4 Laplacian eigenvalues: 2 − 2cos(kπ/4), k = 0..3
+        double[][] l = {
+            {1, -1, 0, 0}, {-1, 2, -1, 0}, {0, -1, 2, -1}, {0, 0, -1, 1}
+        };
+        double[] ev = DenseEigensolver.eigenvalues(l);
+        for (int k = 0; k < 4; k++) {
+            assertEquals(2 - 2 * Math.cos(k * Math.PI / 4), ev[k], 1e-12);
+        }
+    }
+
+    @Test
+    public void testDecompositionReconstructs() {
+        int n = 40;
+        double[][] a = randomSymmetric(n, 5);
+        Eigenpairs p = DenseEigensolver.decompose(a);
+        for (int i = 1; i < n; i++) assertTrue(p.getValue(i) >= p.getValue(i - 1));
+        for (int r = 0; r < n; r++) {
+            for (int c = 0; c < n; c++) {
+                double s = 0;
+                for (int k = 0; k < n; k++) s += p.vectors[k][r] * p.getValue(k) * p.vectors[k][c];
+                assertEquals(a[r][c], s, 1e-10);
+            }
+        }
+        for (int k = 0; k < n; k++) {
+            double[] v = p.getVector(k);
+            double max = 0;
+            for (double x : v) if (Math.abs(x) > Math.abs(max)) max = x;
+            assertTrue(max > 0);
+        }
+    }
+
+    @Test
+    public void testInputNotModified() {
+        double[][] a = randomSymmetric(10, 6);
+        double[][] copy = new double[10][];
+        for (int i = 0; i < 10; i++) copy[i] = a[i].clone();
+        DenseEigensolver.decompose(a);
+        for (int i = 0; i < 10; i++) assertArrayEquals(copy[i], a[i], 0.0);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testInvalidParallelism() {
+        DenseEigensolver.eigenvalues(new double[][] {{1}}, 0);
+    }
+
+    @Test
+    public void testRepeatedEigenvaluesGiveOrthonormalVectors() {
+        // Star K_{1,n-1} Laplacian: spectrum {0, 1 × (n−2), n}
+        int n = 60;
+        double[][] l = new double[n][n];
+        l[0][0] = n - 1;
+        for (int i = 1; i < n; i++) {
+            l[i][i] = 1;
+            l[0][i] = -1;
+            l[i][0] = -1;
+        }
+        Eigenpairs p = DenseEigensolver.decompose(l);
+        assertEquals(0.0, p.getValue(0), 1e-12);
+        for (int i = 1; i < n - 1; i++) assertEquals(1.0, p.getValue(i), 1e-12);
+        assertEquals(n, p.getValue(n - 1), 1e-12);
+        for (int a = 0; a < n; a++) {
+            for (int b = a; b < n; b++) {
+                double dot = 0;
+                for (int k = 0; k < n; k++) dot += p.vectors[a][k] * p.vectors[b][k];
+                assertEquals(a == b ? 1.0 : 0.0, dot, 1e-12);
+            }
+        }
+    }
+
+    @Test
+    public void testParallelMatchesSequential() {
+        // Large enough to take the blocked, forked path
+        int n = 300;
+        double[][] a = randomSymmetric(n, 7);
+        Eigenpairs seq = DenseEigensolver.decompose(a, 1);
+        Eigenpairs par = DenseEigensolver.decompose(a, 3);
+        assertTrue(par.isConverged());
+        assertArrayEquals(seq.getValues(), par.getValues(), 1e-10);
+        assertArrayEquals(seq.getValues(), DenseEigensolver.eigenvalues(a, 3), 1e-10);
+        for (int k = 0; k < n; k += 37) {
+            assertArrayEquals(seq.getVector(k), par.getVector(k), 1e-8);
+            double[] v = par.getVector(k);
+            for (int r = 0; r < n; r++) {
+                double s = 0;
+                for (int c = 0; c < n; c++) s += a[r][c] * v[c];
+                assertEquals(par.getValue(k) * v[r], s, 1e-9);
+            }
+        }
+    }
+}
@@ -0,0 +1,167 @@
+package gvisual;
+
+import org.junit.Test;
+
+import java.awt.geom.Line2D;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+/**
+ * Unit tests for {@link EdgeCrossingCounter}.
+ */
+public class EdgeCrossingCounterTest {
+
+    private double[] x1, y1, x2, y2;
+    private int[] u, v;
+    private int m;
+
+    private void segments(int capacity) {
+        x1 = new double[capacity];
+        y1 = new double[capacity];
+        x2 = new double[capacity];
+        y2 = new double[capacity];
+        u = new int[capacity];
+        v = new int[capacity];
+        m = 0;
+    }
+
+    private void add(double ax, double ay, double bx, double by, int a, int b) {
+        x1[m] = ax;
+        y1[m] = ay;
+        x2[m] = bx;
+        y2[m] = by;
+        u[m] = a;
+        v[m] = b;
+        m++;
+    }
+
+    private long count(int parallelism) {
+        return new EdgeCrossingCounter(parallelism)
+                .count(x1, y1, x2, y2, u, v, m, EdgeCrossingCounter.LINE2D);
+    }
+
+    private long bruteForce() {
+        long crossings = 0;
+        for (int i = 0; i < m; i++) {
+            if (x1[i] == x2[i] && y1[i] == y2[i]) continue;
+            for (int j = i + 1; j < m; j++) {
+                if (x1[j] == x2[j] && y1[j] == y2[j]) continue;
+                if (u[i] == u[j] || u[i] == v[j] || v[i] == u[j] || v[i] == v[j]) continue;
+                if (Line2D.linesIntersect(x1[i], y1[i], x2[i], y2[i], x1[j], y1[j], x2[j], y2[j])) {
+                    crossings++;
+                }
+            }
+        }
+        return crossings;
+    }
+
+    /** Random graph on n vertices in a 1000 × 1000 box, edges mostly local. */
+    private void randomLayout(int n, int edges, double maxLength, long seed) {
+        Random rnd = new Random(seed);
+        double[] px = new double[n];
+        double[] py = new double[n];
+        for (int i = 0; i < n; i++) {
+            px[i] = rnd.nextDouble() * 1000;
+            py[i] = rnd.nextDouble() * 1000;
+        }
+        segments(edges);
+        while (m < edges) {
+            int a = rnd.nextInt(n);
+            int b = rnd.nextInt(n);
+            if (a == b || Math.hypot(px[a] - px[b], py[a] - py[b]) > maxLength) continue;
+            add(px[a], py[a], px[b], py[b], a, b);
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testZeroParallelismThrows() {
+        new EdgeCrossingCounter(0);
+    }
+
+    @Test
+    public void testFewerThanTwoSegments() {
+        segments(1);
+        assertEquals(0, count(1));
+        add(0, 0, 10, 10, 0, 1);
+        assertEquals(0, count(1));
+    }
+
+    @Test
+    public void testSingleCrossing() {
+        segments(2);
+        add(0, 0, 10, 10, 0, 1);
+        add(0, 10, 10, 0, 2, 3);
+        assertEquals(1, count(1));
+    }
+
+    @Test
+    public void testSharedEndpointIsNotACrossing() {
+        segments(2);
+        add(0, 0, 10, 10, 0, 1);
+        add(10, 10, 20, 0, 1, 2);
+        assertEquals(0, count(1));
+    }
+
+    @Test
+    public void testTouchingAndCollinearOverlapFollowThePredicate() {
+        segments(3);
+        add(0, 0, 10, 0, 0, 1);
+        add(5, 0, 5, 10, 2, 3);      // T-junction on the first segment
+        add(8, 0, 20, 0, 4, 5);      // collinear overlap with the first
+        assertEquals(bruteForce(), count(1));
+        assertEquals(2, count(1));
+    }
+
+    @Test
+    public void testZeroLengthSegmentsAreIgnored() {
+        segments(5);
+        add(0, 0, 10, 10, 0, 1);
+        add(0, 10, 10, 0, 2, 3);
+        add(3, 8, 3, 8, 4, 4);       // self-loop inside both bounding boxes
+        add(5, 5, 5, 5, 5, 6);       // coincident vertices on the crossing
+        add(20, 20, 20, 20, 7, 7);   // on the first segment's line, beyond it
+        assertEquals(1, count(1));
+        assertEquals(bruteForce(), count(1));
+        // Line2D alone reports any two points as intersecting
+        assertTrue(Line2D.linesIntersect(3, 8, 3, 8, 20, 20, 20, 20));
+    }
+
+    @Test
+    public void testLongEdgesSpanningManyCellsCountOnce() {
+        segments(202);
+        for (int i = 0; i < 100; i++) add(i * 10, 0, i * 10 + 5, 5, 2 * i, 2 * i + 1);
+        add(0, 2.5, 1000, 2.5, 1000, 1001);
+        add(500, -500, 500, 500, 1002, 1003);
+        assertEquals(bruteForce(), count(1));
+    }
+
+    @Test
+    public void testMatchesBruteForceOnRandomLayouts() {
+        for (long seed = 1; seed <= 5; seed++) {
+            randomLayout(300, 600, seed * 80, seed);
+            assertEquals("seed " + seed, bruteForce(), count(1));
+        }
+    }
+
+    @Test
+    public void testAxisAlignedGridHasNoCrossings() {
+        int side = 30;
+        segments(2 * side * side);
+        for (int r = 0; r < side; r++) {
+            for (int c = 0; c < side; c++) {
+                if (c > 0) add(c - 1, r, c, r, r * side + c - 1, r * side + c);
+                if (r > 0) add(c, r - 1, c, r, (r - 1) * side + c, r * side + c);
+            }
+        }
+        assertEquals(0, count(1));
+    }
+
+    @Test
+    public void testParallelMatchesSequential() {
+        randomLayout(3000, 8000, 120, 42);
+        long sequential = count(1);
+        assertEquals(sequential, count(4));
+        assertEquals(bruteForce(), sequential);
+    }
+}
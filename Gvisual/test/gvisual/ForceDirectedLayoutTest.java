@@ -569,4 +569,138 @@ public class ForceDirectedLayoutTest {
             assertEquals("y should match for " + v, p1[1], p2[1], 0.001);
         }
     }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testInvalidParallelismThrows() {
+        buildTriangle();
+        new ForceDirectedLayout(graph).withParallelism(0);
+    }
+
+    @Test
+    public void testParallelIterationMatchesSequential() {
+        // Large enough for the worker pool and striped attraction buffers
+        for (int i = 0; i < 5000; i++) {
+            graph.addVertex("N" + i);
+        }
+        Random rng = new Random(13);
+        for (int i = 1; i < 5000; i++) {
+            addEdge("N" + rng.nextInt(i), "N" + i);
+        }
+        for (int i = 0; i < 15000; i++) {
+            String v1 = "N" + rng.nextInt(5000);
+            String v2 = "N" + rng.nextInt(5000);
+            if (!v1.equals(v2) && graph.findEdge(v1, v2) == null) {
+                addEdge(v1, v2);
+            }
+        }
+
+        ForceDirectedLayout seq = new ForceDirectedLayout(
+                graph, 20, 800, 600, 0.1, true, 42L).withParallelism(1).compute();
+        ForceDirectedLayout par = new ForceDirectedLayout(
+                graph, 20, 800, 600, 0.1, true, 42L).withParallelism(3).compute();
+
+        assertEquals(seq.getIterationsUsed(), par.getIterationsUsed());
+        assertEquals(seq.getFinalEnergy(), par.getFinalEnergy(), 0.0);
+        for (String v : graph.getVertices()) {
+            assertArrayEquals(seq.getPosition(v), par.getPosition(v), 0.0);
+        }
+    }
+
+    @Test
+    public void testVertexAtMatchesBruteForceNearest() {
+        buildPath(300);
+        ForceDirectedLayout layout = new ForceDirectedLayout(graph).compute();
+        Map<String, double[]> positions = layout.getPositions();
+        Random rng = new Random(5);
+        for (int q = 0; q < 200; q++) {
+            double x = rng.nextDouble() * 800;
+            double y = rng.nextDouble() * 600;
+            String expected = null;
+            double best = 30 * 30;
+            for (Map.Entry<String, double[]> e : positions.entrySet()) {
+                double dx = e.getValue()[0] - x;
+                double dy = e.getValue()[1] - y;
+                if (dx * dx + dy * dy < best) {
+                    best = dx * dx + dy * dy;
+                    expected = e.getKey();
+                }
+            }
+            assertEquals(expected, layout.vertexAt(x, y, 30));
+        }
+    }
+
+    // ── Multilevel ───────────────────────────────────────────────
+
+    private void buildGrid(int side) {
+        for (int r = 0; r < side; r++) {
+            for (int c = 0; c < side; c++) {
+                if (c > 0) addEdge("G" + r + "_" + (c - 1), "G" + r + "_" + c);
+                if (r > 0) addEdge("G" + (r - 1) + "_" + c, "G" + r + "_" + c);
+            }
+        }
+    }
+
+    @Test
+    public void testMultilevelIgnoredForSmallGraphs() {
+        buildPath(20);
+        ForceDirectedLayout layout = new ForceDirectedLayout(graph)
+                .withMultilevel(true).compute();
+        assertEquals(1, layout.getLevelCount());
+        assertFalse(layout.getSummary().contains("multilevel"));
+    }
+
+    @Test
+    public void testMultilevelBeatsSingleLevelOnSameBudget() {
+        buildGrid(30);
+        ForceDirectedLayout single = new ForceDirectedLayout(
+                graph, 40, 800, 800, 0.1, false, 42L).compute();
+        ForceDirectedLayout multi = new ForceDirectedLayout(
+                graph, 40, 800, 800, 0.1, false, 42L).withMultilevel(true).compute();
+
+        assertTrue(multi.getLevelCount() > 2);
+        assertTrue(multi.getIterationsUsed() <= 10);
+        assertTrue(multi.getSummary().contains("multilevel"));
+        assertTrue("multilevel stress " + multi.computeStress()
+                        + " vs single-level " + single.computeStress(),
+                multi.computeStress() < single.computeStress());
+        for (double[] p : multi.getPositions().values()) {
+            assertTrue(p[0] >= 0 && p[0] <= 800);
+            assertTrue(p[1] >= 0 && p[1] <= 800);
+        }
+    }
+
+    @Test
+    public void testMultilevelIsDeterministic() {
+        buildGrid(15);
+        ForceDirectedLayout a = new ForceDirectedLayout(graph).withMultilevel(true).compute();
+        ForceDirectedLayout b = new ForceDirectedLayout(graph).withMultilevel(true).compute();
+        for (String v : graph.getVertices()) {
+            assertArrayEquals(a.getPosition(v), b.getPosition(v), 0.0);
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testNegativeTimeBudgetThrows() {
+        new ForceDirectedLayout(graph).withTimeBudget(-1);
+    }
+
+    @Test
+    public void testTimeBudgetStopsEarlyWithUsablePositions() {
+        buildGrid(40);
+        ForceDirectedLayout layout = new ForceDirectedLayout(graph, 100000, 800, 600,
+                0.1, true, 42L).withTimeBudget(50).compute();
+        assertTrue(layout.isTimedOut());
+        assertFalse(layout.converged());
+        assertTrue(layout.getIterationsUsed() < 100000);
+        for (String v : graph.getVertices()) {
+            double[] p = layout.getPosition(v);
+            assertTrue(Double.isFinite(p[0]) && Double.isFinite(p[1]));
+        }
+    }
+
+    @Test
+    public void testUnlimitedBudgetNeverTimesOut() {
+        buildGrid(5);
+        assertFalse(new ForceDirectedLayout(graph).compute().isTimedOut());
+    }
 }
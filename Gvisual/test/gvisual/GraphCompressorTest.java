@@ -211,6 +211,32 @@ public class GraphCompressorTest {
         assertEquals(4, r.getCompressedNodeCount());
     }
 
+    @Test
+    public void neighborhoodSimilarityWithLshMatchesExactOnClearCases() {
+        // Hubs H1..H3 share the same 6 leaves; K1, K2 share 6 other leaves
+        for (int i = 0; i < 6; i++) {
+            addEdge("H1", "a" + i);
+            addEdge("H2", "a" + i);
+            addEdge("H3", "a" + i);
+            addEdge("K1", "b" + i);
+            addEdge("K2", "b" + i);
+        }
+        MinHashLshIndex index = MinHashLshIndex.builder(graph).bands(16).rows(2).build();
+        GraphCompressor compressor = new GraphCompressor(graph);
+        GraphCompressor.CompressionResult exact = compressor.byNeighborhoodSimilarity(0.9);
+        GraphCompressor.CompressionResult lsh = compressor.byNeighborhoodSimilarity(0.9, index);
+        assertEquals(exact.getCompressedNodeCount(), lsh.getCompressedNodeCount());
+        assertEquals(lsh.getSupernodeOf("H1"), lsh.getSupernodeOf("H3"));
+        assertNotEquals(lsh.getSupernodeOf("H1"), lsh.getSupernodeOf("K1"));
+        assertTrue(lsh.getStrategy().contains("lsh"));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void neighborhoodSimilarityWithNullIndexRejected() {
+        addEdge("A", "B");
+        new GraphCompressor(graph).byNeighborhoodSimilarity(0.5, null);
+    }
+
     // ── Degree binning ───────────────────────────────────────────────
 
     @Test
@@ -0,0 +1,99 @@
+package gvisual;
+
+import edu.uci.ics.jung.graph.Graph;
+import edu.uci.ics.jung.graph.UndirectedSparseMultigraph;
+import org.junit.Before;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+import java.awt.geom.Point2D;
+import java.util.*;
+
+/**
+ * Tests for GraphDrawingQualityAnalyzer -- edge crossing counts.
+ */
+public class GraphDrawingQualityAnalyzerTest {
+
+    private Graph<String, Edge> graph;
+    private Map<String, Point2D> positions;
+
+    @Before
+    public void setUp() {
+        graph = new UndirectedSparseMultigraph<String, Edge>();
+        positions = new HashMap<String, Point2D>();
+    }
+
+    // ── Helper methods ──────────────────────────────────────────
+
+    private void place(String v, double x, double y) {
+        graph.addVertex(v);
+        positions.put(v, new Point2D.Double(x, y));
+    }
+
+    private void addEdge(String v1, String v2) {
+        graph.addEdge(new Edge("f", v1, v2), v1, v2);
+    }
+
+    private int crossings(int parallelism) {
+        return new GraphDrawingQualityAnalyzer(graph, positions)
+                .withParallelism(parallelism).getEdgeCrossings();
+    }
+
+    // ── Edge crossings ──────────────────────────────────────────
+
+    @Test
+    public void testSingleCrossing() {
+        place("A", 0, 0);
+        place("B", 10, 10);
+        place("C", 0, 10);
+        place("D", 10, 0);
+        addEdge("A", "B");
+        addEdge("C", "D");
+        assertEquals(1, crossings(1));
+    }
+
+    @Test
+    public void testSharedEndpointIsNotACrossing() {
+        place("A", 0, 0);
+        place("B", 10, 10);
+        place("C", 20, 0);
+        addEdge("A", "B");
+        addEdge("B", "C");
+        assertEquals(0, crossings(1));
+    }
+
+    @Test
+    public void testZeroLengthEdgesNeverCross() {
+        place("A", 0, 0);
+        place("B", 10, 10);
+        place("C", 0, 10);
+        place("D", 10, 0);
+        addEdge("A", "B");
+        addEdge("C", "D");
+        // Self-loops inside the diagonals' bounding box and far outside it
+        place("S", 3, 8);
+        addEdge("S", "S");
+        place("T", 20, 20);
+        addEdge("T", "T");
+        // Two distinct vertices drawn at the same point
+        place("P", 5, 1);
+        place("Q", 5, 1);
+        addEdge("P", "Q");
+        assertEquals(1, crossings(1));
+        assertEquals(1, crossings(4));
+    }
+
+    @Test
+    public void testDistantSelfLoopsDoNotCross() {
+        place("S", 0, 0);
+        place("T", 5, 5);
+        addEdge("S", "S");
+        addEdge("T", "T");
+        assertEquals(0, crossings(1));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testZeroParallelismThrows() {
+        new GraphDrawingQualityAnalyzer(graph, positions).withParallelism(0);
+    }
+}
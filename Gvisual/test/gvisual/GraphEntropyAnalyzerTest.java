@@ -226,6 +226,30 @@ public class GraphEntropyAnalyzerTest {
         assertTrue(aComplete.getVonNeumannEntropy() >= aPath.getVonNeumannEntropy() - 0.01);
     }
 
+    @Test(expected = IllegalArgumentException.class)
+    public void testNegativeDenseLimitThrows() {
+        new GraphEntropyAnalyzer(graph).withDenseLimit(-1);
+    }
+
+    @Test
+    public void testVonNeumannEstimateMatchesExact() {
+        Graph<String, Edge> g = pathGraph(200);
+        java.util.Random rnd = new java.util.Random(9);
+        for (int k = 0; k < 300; k++) {
+            String a = "N" + (1 + rnd.nextInt(200));
+            String b = "N" + (1 + rnd.nextInt(200));
+            if (!a.equals(b) && g.findEdge(a, b) == null) g.addEdge(new Edge("f", a, b), a, b);
+        }
+        GraphEntropyAnalyzer exact = new GraphEntropyAnalyzer(g);
+        GraphEntropyAnalyzer estimated = new GraphEntropyAnalyzer(g).withDenseLimit(0);
+        assertTrue(exact.getVonNeumannEntropyEstimate().isExact());
+        StochasticTraceEstimator.Estimate e = estimated.getVonNeumannEntropyEstimate();
+        assertFalse(e.isExact());
+        assertEquals(exact.getVonNeumannEntropy(), e.getValue(), 0.01);
+        assertEquals(e.getValue(), estimated.getVonNeumannEntropy(), 0.0);
+        assertTrue(e.getLowerBound() <= e.getValue() && e.getValue() <= e.getUpperBound());
+    }
+
     // ═══════════════════════════════════════════════════════════════
     // Neighbourhood Entropy
     // ═══════════════════════════════════════════════════════════════
@@ -4,7 +4,7 @@ import edu.uci.ics.jung.graph.Graph;
 import edu.uci.ics.jung.graph.UndirectedSparseGraph;
 import org.junit.Test;
 import static org.junit.Assert.*;
-import java.util.Map;
+import java.util.*;
 
 /**
  * Tests for {@link GraphIsomorphismChecker}.
@@ -132,4 +132,77 @@ public class GraphIsomorphismCheckerTest {
         GraphIsomorphismChecker checker = new GraphIsomorphismChecker(a, b);
         checker.isIsomorphic(); // should throw
     }
+
+    private Graph<String, Edge> randomGraph(int n, int m, long seed) {
+        Random rnd = new Random(seed);
+        Graph<String, Edge> g = new UndirectedSparseGraph<String, Edge>();
+        for (int i = 0; i < n; i++) g.addVertex("v" + i);
+        while (g.getEdgeCount() < m) {
+            String a = "v" + rnd.nextInt(n);
+            String b = "v" + rnd.nextInt(n);
+            if (!a.equals(b) && g.findEdge(a, b) == null) {
+                g.addEdge(new Edge("e", a, b), a, b);
+            }
+        }
+        return g;
+    }
+
+    private Graph<String, Edge> relabel(Graph<String, Edge> g, long seed) {
+        List<String> vs = new ArrayList<String>(g.getVertices());
+        List<String> shuffled = new ArrayList<String>(vs);
+        Collections.shuffle(shuffled, new Random(seed));
+        Map<String, String> rename = new HashMap<String, String>();
+        for (int i = 0; i < vs.size(); i++) rename.put(vs.get(i), "x" + shuffled.get(i));
+        Graph<String, Edge> h = new UndirectedSparseGraph<String, Edge>();
+        for (String v : vs) h.addVertex(rename.get(v));
+        for (Edge e : g.getEdges()) {
+            String a = rename.get(e.getVertex1());
+            String b = rename.get(e.getVertex2());
+            h.addEdge(new Edge("e", a, b), a, b);
+        }
+        return h;
+    }
+
+    @Test
+    public void testLargeRelabeledGraphIsomorphic() {
+        Graph<String, Edge> a = randomGraph(3000, 9000, 5);
+        Graph<String, Edge> b = relabel(a, 6);
+        GraphIsomorphismChecker checker = new GraphIsomorphismChecker(a, b);
+        checker.compute();
+        assertTrue(checker.isIsomorphic());
+        Map<String, String> mapping = checker.getMapping();
+        for (Edge e : a.getEdges()) {
+            assertNotNull(b.findEdge(mapping.get(e.getVertex1()), mapping.get(e.getVertex2())));
+        }
+    }
+
+    @Test
+    public void testColourRefinementRejectsSameDegreeSequence() {
+        // P4 + triangle vs P7: both have degrees [1,1,2,2,2,2,2], but the
+        // second refinement round separates triangle vertices
+        Graph<String, Edge> a = buildGraph(new String[][]{
+            {"A", "B"}, {"B", "C"}, {"C", "D"}, {"E", "F"}, {"F", "G"}, {"G", "E"}
+        });
+        Graph<String, Edge> b = buildGraph(new String[][]{
+            {"P", "Q"}, {"Q", "R"}, {"R", "S"}, {"S", "T"}, {"T", "U"}, {"U", "V"}
+        });
+        GraphIsomorphismChecker checker = new GraphIsomorphismChecker(a, b);
+        checker.compute();
+        assertFalse(checker.isIsomorphic());
+        assertEquals("Colour refinement mismatch", checker.getRejectionReason());
+    }
+
+    @Test
+    public void testRegularNonIsomorphicFallsBackToSearch() {
+        Graph<String, Edge> c6 = buildGraph(new String[][]{
+            {"A", "B"}, {"B", "C"}, {"C", "D"}, {"D", "E"}, {"E", "F"}, {"F", "A"}
+        });
+        Graph<String, Edge> twoTriangles = buildGraph(new String[][]{
+            {"X", "Y"}, {"Y", "Z"}, {"Z", "X"}, {"P", "Q"}, {"Q", "R"}, {"R", "P"}
+        });
+        GraphIsomorphismChecker checker = new GraphIsomorphismChecker(c6, twoTriangles);
+        checker.compute();
+        assertFalse(checker.isIsomorphic());
+        assertEquals("No valid mapping found", checker.getRejectionReason());
+    }
 }
@@ -0,0 +1,116 @@
+package gvisual;
+
+import edu.uci.ics.jung.graph.Graph;
+import edu.uci.ics.jung.graph.UndirectedSparseGraph;
+import org.junit.Test;
+
+import java.util.Map;
+
+import static org.junit.Assert.*;
+
+/**
+ * Unit tests for {@link GraphLayoutComparer}.
+ */
+public class GraphLayoutComparerTest {
+
+    /** Star with {@code leaves} leaves around "hub", plus a chain between leaves. */
+    private static Graph<String, Edge> star(int leaves) {
+        Graph<String, Edge> g = new UndirectedSparseGraph<String, Edge>();
+        g.addVertex("hub");
+        for (int i = 0; i < leaves; i++) {
+            g.addVertex("l" + i);
+            g.addEdge(new Edge("f", "hub", "l" + i), "hub", "l" + i);
+        }
+        for (int i = 1; i < leaves; i += 2) {
+            g.addEdge(new Edge("c", "l" + (i - 1), "l" + i), "l" + (i - 1), "l" + i);
+        }
+        return g;
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testNonPositiveBudgetThrows() {
+        new GraphLayoutComparer(star(3)).setTimeBudget(0);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testZeroParallelismThrows() {
+        new GraphLayoutComparer(star(3)).setParallelism(0);
+    }
+
+    @Test
+    public void testSnapshotOrdersByDegreeAndTypesNodes() {
+        GraphLayoutComparer.Snapshot s = GraphLayoutComparer.Snapshot.build(star(6));
+        assertEquals(7, s.n);
+        assertEquals(9, s.m);
+        assertEquals("hub", s.ids[s.byDegree[0]]);
+        for (int i = 1; i < s.n; i++) {
+            assertTrue(s.degree[s.byDegree[i - 1]] >= s.degree[s.byDegree[i]]);
+        }
+    }
+
+    @Test
+    public void testEveryLayoutCoversEveryVertexInUnitBox() {
+        Graph<String, Edge> g = star(20);
+        GraphLayoutComparer comparer = new GraphLayoutComparer(g);
+        Map<String, double[]> layouts = comparer.computeLayouts(GraphLayoutComparer.Snapshot.build(g));
+        assertArrayEquals(GraphLayoutComparer.LAYOUTS, layouts.keySet().toArray());
+        for (Map.Entry<String, double[]> e : layouts.entrySet()) {
+            double[] xy = e.getValue();
+            assertEquals(2 * g.getVertexCount(), xy.length);
+            for (double c : xy) {
+                assertTrue(e.getKey() + " " + c, c >= -1e-9 && c <= 1 + 1e-9);
+            }
+        }
+    }
+
+    @Test
+    public void testRadialPutsHubInTheMiddle() {
+        GraphLayoutComparer.Snapshot s = GraphLayoutComparer.Snapshot.build(star(12));
+        double[] xy = GraphLayoutComparer.normalize(GraphLayoutComparer.radialLayout(s));
+        int hub = s.byDegree[0];
+        assertEquals(0.5, xy[2 * hub], 0.2);
+        assertEquals(0.5, xy[2 * hub + 1], 0.2);
+    }
+
+    @Test
+    public void testSequentialAndParallelAgree() {
+        Graph<String, Edge> g = star(30);
+        GraphLayoutComparer.Snapshot s = GraphLayoutComparer.Snapshot.build(g);
+        GraphLayoutComparer sequential = new GraphLayoutComparer(g);
+        sequential.setParallelism(1);
+        GraphLayoutComparer parallel = new GraphLayoutComparer(g);
+        parallel.setParallelism(4);
+        Map<String, double[]> a = sequential.computeLayouts(s);
+        Map<String, double[]> b = parallel.computeLayouts(s);
+        for (String id : GraphLayoutComparer.LAYOUTS) {
+            assertArrayEquals(id, a.get(id), b.get(id), 0.0);
+        }
+    }
+
+    @Test
+    public void testTimeBudgetBoundsLargeExport() {
+        Graph<String, Edge> g = new UndirectedSparseGraph<String, Edge>();
+        for (int i = 0; i < 20000; i++) g.addVertex("v" + i);
+        for (int i = 1; i < 20000; i++) {
+            g.addEdge(new Edge("f", "v" + (i / 2), "v" + i), "v" + (i / 2), "v" + i);
+        }
+        GraphLayoutComparer comparer = new GraphLayoutComparer(g);
+        comparer.setTimeBudget(200);
+        long start = System.currentTimeMillis();
+        String html = comparer.exportToString();
+        long elapsed = System.currentTimeMillis() - start;
+        assertTrue("took " + elapsed + "ms", elapsed < 10000);
+        assertTrue(html.contains("const layouts={\"force\":["));
+    }
+
+    @Test
+    public void testExportEmbedsPositionsAndEscapesIds() {
+        Graph<String, Edge> g = star(3);
+        g.addVertex("q\"uote");
+        String html = new GraphLayoutComparer(g).exportToString();
+        assertTrue(html.contains("const layouts="));
+        assertTrue(html.contains("\"radial\":["));
+        assertTrue(html.contains("q\\\"uote"));
+        assertFalse(html.contains("forceSimulation"));
+    }
+}
@@ -7,7 +7,7 @@ import static org.junit.Assert.*;
 
 import java.io.File;
 import java.util.Arrays;
-import java.util.Collection;
+import java.util.List;
 
 /**
  * Tests for {@link GraphMatrixExporter}.
@@ -15,7 +15,7 @@ import java.util.Collection;
 public class GraphMatrixExporterTest {
 
     private UndirectedSparseGraph<String, Edge> graph;
-    private Collection<Edge> edges;
+    private List<Edge> edges;
 
     @Before
     public void setUp() {
@@ -99,4 +99,28 @@ public class GraphMatrixExporterTest {
         exporter.exportAdjacencyCsv(tmp);
         assertTrue(tmp.length() > 0);
     }
+
+    @Test
+    public void testLaplacianStreamedFromSparseMatrix() {
+        GraphMatrixExporter exporter = new GraphMatrixExporter(graph, edges);
+        SparseMatrix sparse = exporter.buildSparseLaplacian();
+        assertEquals(7, sparse.nonZeroCount());
+        assertEquals(
+                ",A,B,C\n"
+                + "A,1,-1,0\n"
+                + "B,-1,2,-1\n"
+                + "C,0,-1,1\n",
+                exporter.laplacianCsvToString());
+        String latex = exporter.laplacianLatexToString();
+        assertTrue(latex.contains("-1 & 2 & -1 \\\\"));
+    }
+
+    @Test
+    public void testLaplacianUsesOnlyGivenEdges() {
+        GraphMatrixExporter exporter = new GraphMatrixExporter(graph, edges.subList(0, 1));
+        int[][] lap = exporter.buildLaplacianMatrix();
+        assertEquals(1, lap[1][1]);
+        assertEquals(0, lap[2][2]);
+        assertEquals(0, lap[1][2]);
+    }
 }
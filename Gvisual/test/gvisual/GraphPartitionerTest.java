@@ -462,4 +462,101 @@ public class GraphPartitionerTest {
             }
         }
     }
+
+    // =========================================================================
+    // Multilevel
+    // =========================================================================
+
+    private void buildGrid(int rows, int cols) {
+        for (int r = 0; r < rows; r++) {
+            for (int c = 0; c < cols; c++) {
+                graph.addVertex("G" + r + "_" + c);
+                if (c > 0) addEdge("G" + r + "_" + (c - 1), "G" + r + "_" + c);
+                if (r > 0) addEdge("G" + (r - 1) + "_" + c, "G" + r + "_" + c);
+            }
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testNegativeImbalanceToleranceThrows() {
+        new GraphPartitioner(graph).withImbalanceTolerance(-0.1);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testInvalidParallelismThrows() {
+        new GraphPartitioner(graph).withParallelism(0);
+    }
+
+    @Test
+    public void testMultilevelTwoCliques() {
+        buildTwoCliques(6, 6, 1);
+        GraphPartitioner.PartitionResult result =
+            new GraphPartitioner(graph).partition(2, GraphPartitioner.Strategy.MULTILEVEL);
+        assertValidPartition(result, 2);
+        assertEquals(1, result.getEdgeCuts());
+        assertEquals(1.0, result.getImbalanceRatio(), 1e-9);
+    }
+
+    @Test
+    public void testMultilevelGridIsBalancedWithSmallCut() {
+        // 64x64 grid: the optimal 4-way cut is two straight lines, 128 edges
+        buildGrid(64, 64);
+        GraphPartitioner.PartitionResult result = new GraphPartitioner(graph)
+            .withImbalanceTolerance(0.03)
+            .partition(4, GraphPartitioner.Strategy.MULTILEVEL);
+        assertValidPartition(result, 4);
+        assertTrue("imbalance " + result.getImbalanceRatio(), result.getImbalanceRatio() <= 1.03 + 1e-9);
+        assertTrue("cut " + result.getEdgeCuts(), result.getEdgeCuts() <= 200);
+    }
+
+    @Test
+    public void testMultilevelZeroToleranceIsPerfectlyBalanced() {
+        buildGrid(30, 30);
+        GraphPartitioner.PartitionResult result = new GraphPartitioner(graph)
+            .withImbalanceTolerance(0)
+            .partition(6, GraphPartitioner.Strategy.MULTILEVEL);
+        assertValidPartition(result, 6);
+        assertEquals(1.0, result.getImbalanceRatio(), 1e-9);
+    }
+
+    @Test
+    public void testMultilevelIndependentOfThreadCount() {
+        // Large enough for the parallel matching and contraction paths
+        buildGrid(100, 120);
+        Random rnd = new Random(3);
+        for (int i = 0; i < 2000; i++) {
+            String a = "G" + rnd.nextInt(100) + "_" + rnd.nextInt(120);
+            String b = "G" + rnd.nextInt(100) + "_" + rnd.nextInt(120);
+            if (!a.equals(b) && graph.findEdge(a, b) == null) addEdge(a, b);
+        }
+        GraphPartitioner.PartitionResult seq = new GraphPartitioner(graph)
+            .withParallelism(1).partition(8, GraphPartitioner.Strategy.MULTILEVEL);
+        GraphPartitioner.PartitionResult par = new GraphPartitioner(graph)
+            .withParallelism(3).partition(8, GraphPartitioner.Strategy.MULTILEVEL);
+        assertValidPartition(par, 8);
+        assertEquals(seq.getAssignment(), par.getAssignment());
+        assertTrue(par.getImbalanceRatio() <= 1.03 + 1e-9);
+    }
+
+    @Test
+    public void testMultilevelDisconnectedGraph() {
+        for (int i = 0; i < 50; i++) graph.addVertex("I" + i);
+        buildPath(30);
+        GraphPartitioner.PartitionResult result =
+            new GraphPartitioner(graph).partition(4, GraphPartitioner.Strategy.MULTILEVEL);
+        assertValidPartition(result, 4);
+        for (GraphPartitioner.PartitionInfo pi : result.getPartitions()) {
+            assertTrue(pi.getSize() > 0);
+        }
+        assertTrue(result.getImbalanceRatio() <= 1.05 + 1e-9);
+    }
+
+    @Test
+    public void testMultilevelKEqualsVertexCount() {
+        buildTriangle();
+        GraphPartitioner.PartitionResult result =
+            new GraphPartitioner(graph).partition(3, GraphPartitioner.Strategy.MULTILEVEL);
+        assertValidPartition(result, 3);
+        assertEquals(3, result.getEdgeCuts());
+    }
 }
@@ -773,4 +773,123 @@ public class GraphSpectralClusteringEngineTest {
         GraphSpectralClusteringEngine.SpectralClusteringReport r = e.analyze(twoCliquesGraph());
         assertTrue(r.eigengap.maxGapRatio >= 0);
     }
+
+    // ── Large graphs (Lanczos path) ─────────────────────────────────
+
+    @Test
+    public void testLargeGraphUsesPartialSpectrum() {
+        // Two sparse random communities of 200 joined by three bridges
+        UndirectedSparseGraph<String, Edge> g = new UndirectedSparseGraph<>();
+        Random rnd = new Random(5);
+        for (int c = 0; c < 2; c++) {
+            for (int i = 0; i < 200; i++) g.addVertex(c + "_" + i);
+            for (int i = 0; i < 200; i++) {
+                String a = c + "_" + i;
+                String b = c + "_" + ((i + 1) % 200);
+                g.addEdge(new Edge("c", a, b), a, b);
+                for (int k = 0; k < 3; k++) {
+                    String d = c + "_" + rnd.nextInt(200);
+                    if (!d.equals(a) && g.findEdge(a, d) == null) g.addEdge(new Edge("c", a, d), a, d);
+                }
+            }
+        }
+        for (int k = 0; k < 3; k++) g.addEdge(new Edge("c", "0_" + k, "1_" + k), "0_" + k, "1_" + k);
+
+        GraphSpectralClusteringEngine.SpectralClusteringReport r =
+                new GraphSpectralClusteringEngine().setMaxK(5).analyze(g);
+        assertEquals(6, r.eigengap.eigenvalues.length);
+        assertEquals(0.0, r.eigengap.eigenvalues[0], 1e-8);
+        assertEquals(2, r.kUsed);
+        Set<Integer> side0 = new HashSet<>();
+        for (int i = 0; i < 200; i++) side0.add(r.bisection.assignment.get("0_" + i));
+        assertEquals(1, side0.size());
+    }
+
+    @Test
+    public void testLargeGraphCountsEveryComponent() {
+        // Four disjoint circulant components (offsets 1, 2) plus two
+        // isolated vertices: 402 vertices, so the sparse path is used
+        UndirectedSparseGraph<String, Edge> g = new UndirectedSparseGraph<>();
+        for (int c = 0; c < 4; c++) {
+            for (int i = 0; i < 100; i++) g.addVertex(c + "_" + i);
+            for (int i = 0; i < 100; i++) {
+                for (int d = 1; d <= 2; d++) {
+                    String a = c + "_" + i, b = c + "_" + ((i + d) % 100);
+                    g.addEdge(new Edge("c", a, b), a, b);
+                }
+            }
+        }
+        g.addVertex("lone1");
+        g.addVertex("lone2");
+
+        GraphSpectralClusteringEngine.SpectralClusteringReport r = engine().setMaxK(8).analyze(g);
+        assertEquals(9, r.eigengap.eigenvalues.length);
+        for (int i = 0; i < 6; i++) assertEquals(0.0, r.eigengap.eigenvalues[i], 1e-12);
+        assertTrue(r.eigengap.eigenvalues[6] > 1e-4);
+        assertEquals(6, r.kUsed);
+        Set<Integer> labels = new HashSet<>();
+        for (int c = 0; c < 4; c++) {
+            Set<Integer> own = new HashSet<>();
+            for (int i = 0; i < 100; i++) own.add(r.kWayAssignment.get(c + "_" + i));
+            assertEquals(1, own.size());
+            labels.addAll(own);
+        }
+        assertEquals(4, labels.size());
+
+        GraphSpectralClusteringEngine.SpectralClusteringReport few = engine().setMaxK(3).analyze(g);
+        assertEquals(4, few.eigengap.eigenvalues.length);
+        for (double v : few.eigengap.eigenvalues) assertEquals(0.0, v, 1e-12);
+    }
+
+    private static Graph<String, Edge> plantedCommunities(int communities, int size, long seed) {
+        UndirectedSparseGraph<String, Edge> g = new UndirectedSparseGraph<>();
+        Random rnd = new Random(seed);
+        for (int c = 0; c < communities; c++) {
+            for (int i = 0; i < size; i++) g.addVertex(c + "_" + i);
+        }
+        for (int c = 0; c < communities; c++) {
+            for (int i = 0; i < size; i++) {
+                String a = c + "_" + i;
+                for (int k = 0; k < 4; k++) {
+                    String b = c + "_" + rnd.nextInt(size);
+                    if (!a.equals(b) && g.findEdge(a, b) == null) g.addEdge(new Edge("c", a, b), a, b);
+                }
+                if (rnd.nextInt(50) == 0) {
+                    String b = rnd.nextInt(communities) + "_" + rnd.nextInt(size);
+                    if (!a.equals(b) && g.findEdge(a, b) == null) g.addEdge(new Edge("c", a, b), a, b);
+                }
+            }
+        }
+        return g;
+    }
+
+    @Test
+    public void testSetMiniBatchSizeAndParallelism() {
+        GraphSpectralClusteringEngine e = new GraphSpectralClusteringEngine()
+                .setMiniBatchSize(0).setParallelism(0);
+        assertEquals(2, e.analyze(twoCliquesGraph()).kUsed);
+    }
+
+    @Test
+    public void testMiniBatchPathRecoversCommunitiesForAnyThreadCount() {
+        // Above MINI_BATCH_THRESHOLD: mini-batch Lloyd, sampled silhouette
+        int size = GraphSpectralClusteringEngine.MINI_BATCH_THRESHOLD / 3 + 1;
+        Graph<String, Edge> g = plantedCommunities(3, size, 8);
+        GraphSpectralClusteringEngine.SpectralClusteringReport seq =
+                new GraphSpectralClusteringEngine().setParallelism(1).analyze(g);
+        GraphSpectralClusteringEngine.SpectralClusteringReport par =
+                new GraphSpectralClusteringEngine().setParallelism(3).analyze(g);
+
+        assertEquals(3, seq.kUsed);
+        for (int c = 0; c < 3; c++) {
+            Set<Integer> labels = new HashSet<>();
+            for (int i = 0; i < size; i++) labels.add(seq.kWayAssignment.get(c + "_" + i));
+            assertEquals(1, labels.size());
+        }
+        assertEquals(seq.kWayAssignment, par.kWayAssignment);
+        assertEquals(seq.modularity, par.modularity, 1e-12);
+        assertEquals(seq.avgSilhouette, par.avgSilhouette, 1e-12);
+        assertTrue(seq.avgSilhouette > 0.7);
+        assertTrue(seq.modularity > 0.6);
+    }
 }
@@ -576,4 +576,128 @@ public class GraphSymmetryAnalyzerTest {
         assertEquals(a.isVertexTransitive(), a.isVertexTransitive());
         assertEquals(a.getSymmetryFactor(), a.getSymmetryFactor(), 0.0);
     }
+
+    // ═══════════════════════════════════════
+    // Exact automorphism group
+    // ═══════════════════════════════════════
+
+    @Test
+    public void cycleAndTriangles_splitBeyondColourRefinement() {
+        // 2-regular everywhere: colour refinement sees one class
+        for (int i = 0; i < 6; i++) addEdge("c" + i, "c" + ((i + 1) % 6));
+        addEdge("a0", "a1"); addEdge("a1", "a2"); addEdge("a2", "a0");
+        addEdge("b0", "b1"); addEdge("b1", "b2"); addEdge("b2", "b0");
+        GraphSymmetryAnalyzer a = new GraphSymmetryAnalyzer(graph);
+        assertEquals(2, a.getVertexOrbitCount());
+        assertEquals(new HashSet<>(Arrays.asList("c0", "c1", "c2", "c3", "c4", "c5")),
+                a.getOrbitOf("c3"));
+        assertEquals(2, a.getEdgeOrbitCount());
+        // D6 (12) × (S3 ≀ S2 = 72)
+        assertEquals(java.math.BigInteger.valueOf(12 * 72), a.getAutomorphismGroupSize());
+        assertTrue(a.isExact());
+    }
+
+    @Test
+    public void groupSizes_knownGraphs() {
+        buildComplete(4);
+        assertEquals(24, new GraphSymmetryAnalyzer(graph).getAutomorphismGroupSize().intValue());
+        setUp();
+        buildCycle(5);
+        assertEquals(10, new GraphSymmetryAnalyzer(graph).getAutomorphismGroupSize().intValue());
+        setUp();
+        buildPetersen();
+        assertEquals(120, new GraphSymmetryAnalyzer(graph).getAutomorphismGroupSize().intValue());
+        setUp();
+        buildPath(5);
+        assertEquals(2, new GraphSymmetryAnalyzer(graph).getAutomorphismGroupSize().intValue());
+        setUp();
+        buildStar(4);
+        assertEquals(24, new GraphSymmetryAnalyzer(graph).getAutomorphismGroupSize().intValue());
+    }
+
+    @Test
+    public void isolatedVertices_factorialGroup() {
+        for (int i = 0; i < 30; i++) graph.addVertex("v" + i);
+        GraphSymmetryAnalyzer a = new GraphSymmetryAnalyzer(graph);
+        java.math.BigInteger fact = java.math.BigInteger.ONE;
+        for (int i = 2; i <= 30; i++) fact = fact.multiply(java.math.BigInteger.valueOf(i));
+        assertEquals(fact, a.getAutomorphismGroupSize());
+        assertEquals(1, a.getVertexOrbitCount());
+    }
+
+    @Test
+    public void generators_areAutomorphisms() {
+        buildPetersen();
+        GraphSymmetryAnalyzer a = new GraphSymmetryAnalyzer(graph);
+        List<Map<String, String>> gens = a.getAutomorphismGenerators();
+        assertFalse(gens.isEmpty());
+        for (Map<String, String> g : gens) {
+            for (Edge e : graph.getEdges()) {
+                String u = g.getOrDefault(e.getVertex1(), e.getVertex1());
+                String v = g.getOrDefault(e.getVertex2(), e.getVertex2());
+                assertNotNull(graph.findEdge(u, v));
+            }
+        }
+    }
+
+    @Test
+    public void asymmetricTree_trivialGroup() {
+        // Smallest asymmetric tree (7 vertices)
+        addEdge("0", "1"); addEdge("1", "2"); addEdge("2", "3");
+        addEdge("3", "4"); addEdge("4", "5"); addEdge("2", "6");
+        addEdge("6", "7");
+        GraphSymmetryAnalyzer a = new GraphSymmetryAnalyzer(graph);
+        // 2 has branches of length 2, 3 and 2: swapping the two length-2 branches
+        assertEquals(2, a.getAutomorphismGroupSize().intValue());
+        graph.removeEdge(graph.findEdge("6", "7"));
+        graph.removeVertex("7");
+        a = new GraphSymmetryAnalyzer(graph);
+        assertEquals(1, a.getAutomorphismGroupSize().intValue());
+        assertTrue(a.isAsymmetric());
+        assertTrue(a.getAutomorphismGenerators().isEmpty());
+    }
+
+    @Test
+    public void randomRelabeledGraph_orbitsMatchBruteForce() {
+        // Small graphs: compare against every permutation
+        Random rnd = new Random(11);
+        for (int trial = 0; trial < 20; trial++) {
+            setUp();
+            int n = 7;
+            for (int i = 0; i < n; i++) graph.addVertex(String.valueOf(i));
+            for (int i = 0; i < n; i++)
+                for (int j = i + 1; j < n; j++)
+                    if (rnd.nextInt(3) == 0) addEdge(String.valueOf(i), String.valueOf(j));
+            int[] perm = new int[n];
+            for (int i = 0; i < n; i++) perm[i] = i;
+            int count = 0;
+            do {
+                boolean ok = true;
+                for (Edge e : graph.getEdges()) {
+                    int u = perm[Integer.parseInt(e.getVertex1())];
+                    int v = perm[Integer.parseInt(e.getVertex2())];
+                    if (graph.findEdge(String.valueOf(u), String.valueOf(v)) == null) {
+                        ok = false;
+                        break;
+                    }
+                }
+                if (ok) count++;
+            } while (nextPermutation(perm));
+            assertEquals(count, new GraphSymmetryAnalyzer(graph)
+                    .getAutomorphismGroupSize().intValue());
+        }
+    }
+
+    private static boolean nextPermutation(int[] a) {
+        int i = a.length - 2;
+        while (i >= 0 && a[i] >= a[i + 1]) i--;
+        if (i < 0) return false;
+        int j = a.length - 1;
+        while (a[j] <= a[i]) j--;
+        int t = a[i]; a[i] = a[j]; a[j] = t;
+        for (int l = i + 1, r = a.length - 1; l < r; l++, r--) {
+            t = a[l]; a[l] = a[r]; a[r] = t;
+        }
+        return true;
+    }
 }
@@ -66,6 +66,21 @@ public class HierarchicalLayoutTest {
         return g;
     }
 
+    /** Random layered DAG: {@code layers} × {@code width}, two parents per vertex. */
+    private Graph<String, Edge> layeredDAG(int layers, int width, long seed) {
+        Graph<String, Edge> g = new DirectedSparseGraph<String, Edge>();
+        Random rng = new Random(seed);
+        for (int i = 0; i < layers * width; i++) g.addVertex("v" + i);
+        for (int i = width; i < layers * width; i++) {
+            for (int k = 0; k < 2; k++) {
+                String from = "v" + ((i / width - 1) * width + rng.nextInt(width));
+                String to = "v" + i;
+                if (g.findEdge(from, to) == null) g.addEdge(new Edge("d", from, to), from, to);
+            }
+        }
+        return g;
+    }
+
     // ── Constructor validation ───────────────────────────────────────
 
     @Test(expected = IllegalArgumentException.class)
@@ -556,4 +571,115 @@ public class HierarchicalLayoutTest {
         assertTrue("Should complete in <5s, took " + elapsed + "ms",
                 elapsed < 5000);
     }
+
+    @Test
+    public void testVertexAtHitsEveryVertex() {
+        HierarchicalLayout layout = new HierarchicalLayout(wideDAG(6)).compute();
+        for (Map.Entry<String, double[]> e : layout.getPositions().entrySet()) {
+            double[] p = e.getValue();
+            assertEquals(e.getKey(), layout.vertexAt(p[0] + 1, p[1] - 1, 5));
+        }
+        assertNull(layout.vertexAt(-500, -500, 10));
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testVertexAtBeforeComputeThrows() {
+        new HierarchicalLayout(linearDAG(2)).vertexAt(0, 0, 1);
+    }
+
+    // ── Array-based stages ───────────────────────────────────────────
+
+    @Test(expected = IllegalArgumentException.class)
+    public void withParallelism_zeroThrows() {
+        new HierarchicalLayout(linearDAG(2)).withParallelism(0);
+    }
+
+    @Test
+    public void coordinates_chainIsStraight() {
+        // A root with a long chain and two leaves: the chain forms one block
+        Graph<String, Edge> g = linearDAG(5);
+        g.addVertex("x");
+        g.addVertex("y");
+        g.addEdge(new Edge("d", "n0", "x"), "n0", "x");
+        g.addEdge(new Edge("d", "n0", "y"), "n0", "y");
+        HierarchicalLayout layout = new HierarchicalLayout(g).compute();
+        double x = layout.getPosition("n1")[0];
+        for (int i = 2; i < 5; i++) {
+            assertEquals(x, layout.getPosition("n" + i)[0], 1e-9);
+        }
+    }
+
+    @Test
+    public void coordinates_keepNodeSpacingAndLayerOrder() {
+        HierarchicalLayout layout = new HierarchicalLayout(layeredDAG(6, 40, 7)).compute();
+        for (List<String> layer : layout.getLayers()) {
+            for (int i = 1; i < layer.size(); i++) {
+                double gap = layout.getPosition(layer.get(i))[0]
+                        - layout.getPosition(layer.get(i - 1))[0];
+                assertTrue("gap " + gap, gap >= 80 - 1e-9);
+            }
+        }
+    }
+
+    @Test
+    public void crossingCount_matchesPairwiseCount() {
+        Graph<String, Edge> g = layeredDAG(5, 30, 11);
+        HierarchicalLayout layout = new HierarchicalLayout(g).compute();
+        List<List<String>> layers = layout.getLayers();
+        int expected = 0;
+        for (int l = 0; l + 1 < layers.size(); l++) {
+            List<int[]> edges = new ArrayList<int[]>();
+            for (int i = 0; i < layers.get(l).size(); i++) {
+                for (String w : g.getSuccessors(layers.get(l).get(i))) {
+                    int j = layers.get(l + 1).indexOf(w);
+                    if (j >= 0) edges.add(new int[]{i, j});
+                }
+            }
+            for (int a = 0; a < edges.size(); a++) {
+                for (int b = a + 1; b < edges.size(); b++) {
+                    int[] p = edges.get(a), q = edges.get(b);
+                    if ((p[0] < q[0] && p[1] > q[1]) || (p[0] > q[0] && p[1] < q[1])) expected++;
+                }
+            }
+        }
+        assertEquals(expected, layout.getEdgeCrossings());
+    }
+
+    @Test
+    public void crossingReduction_neverWorseThanInitialOrder() {
+        Graph<String, Edge> g = layeredDAG(8, 25, 5);
+        int initial = new HierarchicalLayout(g, 120, 80, 0,
+                HierarchicalLayout.Orientation.TOP_TO_BOTTOM, 1200, 800).compute().getEdgeCrossings();
+        int reduced = new HierarchicalLayout(g).compute().getEdgeCrossings();
+        assertTrue(reduced + " vs " + initial, reduced < initial);
+    }
+
+    @Test
+    public void parallel_matchesSequential() {
+        Graph<String, Edge> g = layeredDAG(10, 300, 3);
+        HierarchicalLayout sequential = new HierarchicalLayout(g).withParallelism(1).compute();
+        HierarchicalLayout parallel = new HierarchicalLayout(g).withParallelism(4).compute();
+        assertEquals(sequential.getEdgeCrossings(), parallel.getEdgeCrossings());
+        for (Map.Entry<String, double[]> e : sequential.getPositions().entrySet()) {
+            assertArrayEquals(e.getValue(), parallel.getPosition(e.getKey()), 0.0);
+        }
+    }
+
+    @Test
+    public void largeGraph_tenThousandNodes() {
+        Graph<String, Edge> g = layeredDAG(20, 500, 1);
+        long start = System.currentTimeMillis();
+        HierarchicalLayout layout = new HierarchicalLayout(g).compute();
+        long elapsed = System.currentTimeMillis() - start;
+        assertEquals(10000, layout.getPositions().size());
+        assertEquals(20, layout.getLayerCount());
+        assertTrue("Should complete in <10s, took " + elapsed + "ms", elapsed < 10000);
+    }
+
+    @Test
+    public void deepChain_noStackOverflow() {
+        HierarchicalLayout layout = new HierarchicalLayout(cycleGraph(20000)).compute();
+        assertEquals(1, layout.getReversedEdges().size());
+        assertEquals(20000, layout.getCriticalPath().size());
+    }
 }
@@ -0,0 +1,129 @@
+package gvisual;
+
+import edu.uci.ics.jung.graph.Graph;
+import edu.uci.ics.jung.graph.UndirectedSparseGraph;
+import org.junit.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.Assert.*;
+
+/**
+ * Unit tests for {@link IncrementalLayoutCache}.
+ */
+public class IncrementalLayoutCacheTest {
+
+    private static Graph<String, Edge> path(int n) {
+        Graph<String, Edge> g = new UndirectedSparseGraph<String, Edge>();
+        for (int i = 0; i < n; i++) g.addVertex("v" + i);
+        for (int i = 1; i < n; i++) g.addEdge(new Edge("f", "v" + (i - 1), "v" + i), "v" + (i - 1), "v" + i);
+        return g;
+    }
+
+    /** Seeds every vertex at the same point, the worst case for overlap. */
+    private static double[] origin(String v) {
+        return new double[]{100, 100};
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testNegativeIterationsThrows() {
+        new IncrementalLayoutCache().withRelaxIterations(-1);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testNonPositiveDistanceThrows() {
+        new IncrementalLayoutCache().withIdealDistance(0);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testNullGraphThrows() {
+        new IncrementalLayoutCache().update(null, v -> 0, IncrementalLayoutCacheTest::origin);
+    }
+
+    @Test
+    public void testFirstSnapshotPlacesEveryVertex() {
+        IncrementalLayoutCache cache = new IncrementalLayoutCache();
+        Set<String> placed = cache.update(path(10), v -> 0, IncrementalLayoutCacheTest::origin);
+        assertEquals(10, placed.size());
+        assertEquals(10, cache.getPlacedCount());
+        assertEquals(0, cache.getReusedCount());
+        assertNull(cache.getPosition("missing"));
+    }
+
+    @Test
+    public void testRelaxationSpreadsCoincidentSeeds() {
+        IncrementalLayoutCache cache = new IncrementalLayoutCache().withIdealDistance(30);
+        cache.update(path(20), v -> 0, IncrementalLayoutCacheTest::origin);
+        double minDist = Double.MAX_VALUE;
+        for (int i = 0; i < 20; i++) {
+            for (int j = i + 1; j < 20; j++) {
+                double[] a = cache.getPosition("v" + i);
+                double[] b = cache.getPosition("v" + j);
+                minDist = Math.min(minDist, Math.hypot(a[0] - b[0], a[1] - b[1]));
+            }
+        }
+        assertTrue("min distance " + minDist, minDist > 5);
+    }
+
+    @Test
+    public void testUnchangedVerticesKeepPosition() {
+        IncrementalLayoutCache cache = new IncrementalLayoutCache();
+        Graph<String, Edge> day1 = path(10);
+        cache.update(day1, v -> 0, IncrementalLayoutCacheTest::origin);
+        Map<String, double[]> before = new HashMap<String, double[]>();
+        for (String v : day1.getVertices()) before.put(v, cache.getPosition(v));
+
+        Graph<String, Edge> day2 = path(12);
+        Set<String> placed = cache.update(day2, v -> 0, IncrementalLayoutCacheTest::origin);
+        assertEquals(2, placed.size());
+        assertTrue(placed.contains("v10") && placed.contains("v11"));
+        assertEquals(10, cache.getReusedCount());
+        for (String v : before.keySet()) {
+            assertArrayEquals(before.get(v), cache.getPosition(v), 0.0);
+        }
+    }
+
+    @Test
+    public void testRegionChangeMovesVertexToItsNewSeed() {
+        IncrementalLayoutCache cache = new IncrementalLayoutCache();
+        cache.update(path(5), v -> 0, IncrementalLayoutCacheTest::origin);
+        Set<String> placed = cache.update(path(5), v -> "v2".equals(v) ? 1 : 0,
+                v -> new double[]{1000, 1000});
+        assertEquals(1, placed.size());
+        double[] p = cache.getPosition("v2");
+        assertEquals(1000, p[0], 60);
+        assertEquals(1000, p[1], 60);
+    }
+
+    @Test
+    public void testAbsentVertexReappearsWhereItWas() {
+        IncrementalLayoutCache cache = new IncrementalLayoutCache();
+        cache.update(path(6), v -> 0, IncrementalLayoutCacheTest::origin);
+        double[] last = cache.getPosition("v5");
+        cache.update(path(3), v -> 0, IncrementalLayoutCacheTest::origin);
+        assertEquals(6, cache.size());
+        cache.update(path(6), v -> 0, IncrementalLayoutCacheTest::origin);
+        assertEquals(6, cache.getReusedCount());
+        assertArrayEquals(last, cache.getPosition("v5"), 0.0);
+    }
+
+    @Test
+    public void testClearForgetsPositions() {
+        IncrementalLayoutCache cache = new IncrementalLayoutCache();
+        cache.update(path(4), v -> 0, IncrementalLayoutCacheTest::origin);
+        cache.clear();
+        assertEquals(0, cache.size());
+        assertEquals(4, cache.update(path(4), v -> 0, IncrementalLayoutCacheTest::origin).size());
+    }
+
+    @Test
+    public void testZeroIterationsKeepsSeedsUpToJitter() {
+        IncrementalLayoutCache cache = new IncrementalLayoutCache().withRelaxIterations(0);
+        cache.update(path(3), v -> 0, v -> new double[]{50, 70});
+        double[] p = cache.getPosition("v1");
+        assertEquals(50, p[0], 3.0);
+        assertEquals(70, p[1], 3.0);
+    }
+}
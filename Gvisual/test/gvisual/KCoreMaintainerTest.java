@@ -0,0 +1,172 @@
+package gvisual;
+
+import edu.uci.ics.jung.graph.Graph;
+import edu.uci.ics.jung.graph.UndirectedSparseGraph;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.*;
+
+import static org.junit.Assert.*;
+
+/**
+ * Unit tests for {@link KCoreMaintainer}.
+ */
+public class KCoreMaintainerTest {
+
+    private Graph<String, Edge> graph;
+
+    @Before
+    public void setUp() {
+        graph = new UndirectedSparseGraph<String, Edge>();
+    }
+
+    private void addEdge(String v1, String v2) {
+        if (!graph.containsVertex(v1)) graph.addVertex(v1);
+        if (!graph.containsVertex(v2)) graph.addVertex(v2);
+        graph.addEdge(new Edge("f", v1, v2), v1, v2);
+    }
+
+    private void assertMatchesFullDecomposition(KCoreMaintainer m) {
+        Map<String, Integer> expected = new KCoreDecomposition(graph).compute().getCoreness();
+        assertEquals(expected, m.getCoreness());
+        int degeneracy = 0;
+        for (int c : expected.values()) degeneracy = Math.max(degeneracy, c);
+        assertEquals(degeneracy, m.getDegeneracy());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testNullGraph() {
+        new KCoreMaintainer(null);
+    }
+
+    @Test
+    public void testSeedMatchesDecomposition() {
+        addEdge("A", "B");
+        addEdge("B", "C");
+        addEdge("C", "A");
+        addEdge("C", "D");
+        graph.addVertex("E");
+        KCoreMaintainer m = new KCoreMaintainer(graph);
+        assertEquals(2, m.getCoreness("A"));
+        assertEquals(1, m.getCoreness("D"));
+        assertEquals(0, m.getCoreness("E"));
+        assertEquals(-1, m.getCoreness("Z"));
+        assertEquals(4, m.getEdgeCount());
+        assertMatchesFullDecomposition(m);
+    }
+
+    @Test
+    public void testInsertClosesTriangle() {
+        KCoreMaintainer m = new KCoreMaintainer();
+        m.insertEdge("A", "B");
+        m.insertEdge("B", "C");
+        assertEquals(1, m.getDegeneracy());
+
+        Set<String> changed = m.insertEdge("C", "A");
+        assertEquals(new HashSet<String>(Arrays.asList("A", "B", "C")), changed);
+        assertEquals(2, m.getDegeneracy());
+        assertEquals(Arrays.asList("A", "B", "C"), m.getKCore(2));
+    }
+
+    @Test
+    public void testDuplicateAndSelfLoopIgnored() {
+        KCoreMaintainer m = new KCoreMaintainer();
+        m.insertEdge("A", "B");
+        assertTrue(m.insertEdge("B", "A").isEmpty());
+        assertTrue(m.insertEdge("A", "A").isEmpty());
+        assertEquals(1, m.getEdgeCount());
+        assertTrue(m.containsEdge("B", "A"));
+    }
+
+    @Test
+    public void testRemoveEdgeBreaksCore() {
+        addEdge("A", "B");
+        addEdge("B", "C");
+        addEdge("C", "D");
+        addEdge("D", "A");
+        KCoreMaintainer m = new KCoreMaintainer(graph);
+        assertEquals(2, m.getDegeneracy());
+
+        Set<String> changed = m.removeEdge("A", "B");
+        assertEquals(4, changed.size());
+        assertEquals(1, m.getDegeneracy());
+        assertTrue(m.removeEdge("A", "B").isEmpty());
+    }
+
+    @Test
+    public void testRemoveVertex() {
+        addEdge("A", "B");
+        addEdge("B", "C");
+        addEdge("C", "A");
+        addEdge("A", "D");
+        KCoreMaintainer m = new KCoreMaintainer(graph);
+
+        Set<String> changed = m.removeVertex("A");
+        assertEquals(new HashSet<String>(Arrays.asList("B", "C", "D")), changed);
+        assertEquals(-1, m.getCoreness("A"));
+        assertEquals(0, m.getCoreness("D"));
+        assertEquals(3, m.getVertexCount());
+        assertEquals(1, m.getEdgeCount());
+    }
+
+    @Test
+    public void testRandomUpdatesMatchRecompute() {
+        Random rnd = new Random(42);
+        int n = 40;
+        KCoreMaintainer m = new KCoreMaintainer();
+        for (int i = 0; i < n; i++) {
+            graph.addVertex("v" + i);
+            m.addVertex("v" + i);
+        }
+        for (int step = 0; step < 1500; step++) {
+            String u = "v" + rnd.nextInt(n);
+            String v = "v" + rnd.nextInt(n);
+            if (u.equals(v)) continue;
+            Edge e = graph.findEdge(u, v);
+            if (e != null && rnd.nextInt(3) == 0) {
+                graph.removeEdge(e);
+                m.removeEdge(u, v);
+            } else if (e == null) {
+                graph.addEdge(new Edge("f", u, v), u, v);
+                m.insertEdge(u, v);
+            }
+            if (step % 50 == 0) assertMatchesFullDecomposition(m);
+        }
+        assertMatchesFullDecomposition(m);
+    }
+
+    @Test
+    public void testRandomVertexRemovalMatchesRecompute() {
+        Random rnd = new Random(7);
+        for (int i = 0; i < 300; i++) {
+            String u = "v" + rnd.nextInt(60);
+            String v = "v" + rnd.nextInt(60);
+            if (!u.equals(v) && (!graph.containsVertex(u) || !graph.containsVertex(v)
+                    || graph.findEdge(u, v) == null)) {
+                addEdge(u, v);
+            }
+        }
+        KCoreMaintainer m = new KCoreMaintainer(graph);
+        List<String> vertices = new ArrayList<String>(graph.getVertices());
+        Collections.shuffle(vertices, rnd);
+        for (String v : vertices.subList(0, 30)) {
+            graph.removeVertex(v);
+            m.removeVertex(v);
+            assertMatchesFullDecomposition(m);
+        }
+    }
+
+    @Test
+    public void testGrowsBeyondInitialCapacity() {
+        KCoreMaintainer m = new KCoreMaintainer();
+        for (int i = 0; i < 100; i++) {
+            for (int j = i + 1; j < Math.min(100, i + 4); j++) {
+                m.insertEdge("n" + i, "n" + j);
+                addEdge("n" + i, "n" + j);
+            }
+        }
+        assertEquals(100, m.getVertexCount());
+        assertMatchesFullDecomposition(m);
+    }
+}
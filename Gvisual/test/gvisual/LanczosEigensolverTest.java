@@ -0,0 +1,204 @@
+package gvisual;
+
+import org.junit.Test;
+
+import java.util.*;
+
+import static org.junit.Assert.*;
+
+/**
+ * Unit tests for {@link LanczosEigensolver}.
+ */
+public class LanczosEigensolverTest {
+
+    /** Laplacian of a random sparse graph as a matrix-free operator. */
+    private static final class GraphLaplacian implements LinearOperator {
+        final int[][] adj;
+
+        GraphLaplacian(int n, int m, long seed) {
+            Random rnd = new Random(seed);
+            List<Set<Integer>> sets = new ArrayList<Set<Integer>>();
+            for (int i = 0; i < n; i++) sets.add(new TreeSet<Integer>());
+            // A path keeps the graph connected
+            for (int i = 0; i + 1 < n; i++) {
+                sets.get(i).add(i + 1);
+                sets.get(i + 1).add(i);
+            }
+            for (int e = 0; e < m; e++) {
+                int a = rnd.nextInt(n);
+                int b = rnd.nextInt(n);
+                if (a == b) continue;
+                sets.get(a).add(b);
+                sets.get(b).add(a);
+            }
+            adj = new int[n][];
+            for (int i = 0; i < n; i++) {
+                adj[i] = new int[sets.get(i).size()];
+                int c = 0;
+                for (int j : sets.get(i)) adj[i][c++] = j;
+            }
+        }
+
+        double[][] dense() {
+            int n = adj.length;
+            double[][] l = new double[n][n];
+            for (int i = 0; i < n; i++) {
+                l[i][i] = adj[i].length;
+                for (int j : adj[i]) l[i][j] = -1;
+            }
+            return l;
+        }
+
+        @Override
+        public int dimension() {
+            return adj.length;
+        }
+
+        @Override
+        public void multiply(double[] x, double[] y) {
+            for (int i = 0; i < adj.length; i++) {
+                double s = adj[i].length * x[i];
+                for (int j : adj[i]) s -= x[j];
+                y[i] = s;
+            }
+        }
+    }
+
+    private static double residual(LinearOperator op, double value, double[] vector) {
+        double[] y = new double[vector.length];
+        op.multiply(vector, y);
+        double r = 0;
+        for (int i = 0; i < y.length; i++) {
+            double d = y[i] - value * vector[i];
+            r += d * d;
+        }
+        return Math.sqrt(r);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testNullOperator() {
+        new LanczosEigensolver().smallest(null, 1);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testInvalidTolerance() {
+        new LanczosEigensolver().withTolerance(0);
+    }
+
+    @Test
+    public void testMatchesDenseSolver() {
+        GraphLaplacian op = new GraphLaplacian(150, 300, 1);
+        double[] all = DenseEigensolver.eigenvalues(op.dense());
+        Eigenpairs low = new LanczosEigensolver().smallest(op, 4);
+        Eigenpairs high = new LanczosEigensolver().largest(op, 3);
+        assertTrue(low.isConverged());
+        assertTrue(high.isConverged());
+        for (int i = 0; i < 4; i++) {
+            assertEquals(all[i], low.getValue(i), 1e-8);
+            assertTrue(residual(op, low.getValue(i), low.getVector(i)) < 1e-6);
+        }
+        for (int i = 0; i < 3; i++) {
+            assertEquals(all[all.length - 1 - i], high.getValue(i), 1e-8);
+        }
+    }
+
+    @Test
+    public void testDeflatedFiedlerPair() {
+        GraphLaplacian op = new GraphLaplacian(2000, 6000, 2);
+        double[] ones = new double[2000];
+        Arrays.fill(ones, 1.0);
+        Eigenpairs fiedler = new LanczosEigensolver().smallest(op, 1, ones);
+        assertTrue(fiedler.isConverged());
+        double lambda2 = fiedler.getValue(0);
+        assertTrue(lambda2 > 1e-6);
+        double[] x = fiedler.getVector(0);
+        double sum = 0;
+        for (double xi : x) sum += xi;
+        assertEquals(0.0, sum, 1e-8);
+        assertTrue(residual(op, lambda2, x) < 1e-6 * 20);
+    }
+
+    @Test
+    public void testRepeatedEigenvaluesFound() {
+        // Complete graph K8: Laplacian spectrum {0, 8 × 7}
+        int n = 8;
+        double[][] l = new double[n][n];
+        for (int i = 0; i < n; i++) {
+            for (int j = 0; j < n; j++) l[i][j] = i == j ? n - 1 : -1;
+        }
+        Eigenpairs top = new LanczosEigensolver().largest(LinearOperator.ofDense(l), 5);
+        assertEquals(5, top.size());
+        for (int i = 0; i < 5; i++) assertEquals(8.0, top.getValue(i), 1e-9);
+        Eigenpairs bottom = new LanczosEigensolver().smallest(LinearOperator.ofDense(l), 2);
+        assertEquals(0.0, bottom.getValue(0), 1e-9);
+        assertEquals(8.0, bottom.getValue(1), 1e-9);
+    }
+
+    @Test
+    public void testMultiplicityOfDisconnectedGraph() {
+        // Four disjoint 500-cycles: eigenvalue 0 has multiplicity 4, and
+        // every non-zero cycle eigenvalue appears 8 times (twice per cycle)
+        int cycles = 4;
+        int len = 500;
+        int n = cycles * len;
+        LinearOperator op = new LinearOperator() {
+            @Override
+            public int dimension() {
+                return n;
+            }
+
+            @Override
+            public void multiply(double[] x, double[] y) {
+                for (int i = 0; i < n; i++) {
+                    int base = i - i % len;
+                    int prev = base + (i - base + len - 1) % len;
+                    int next = base + (i - base + 1) % len;
+                    y[i] = 2 * x[i] - x[prev] - x[next];
+                }
+            }
+        };
+        Eigenpairs p = new LanczosEigensolver().smallest(op, 6);
+        assertTrue(p.isConverged());
+        assertEquals(6, p.size());
+        double lambda1 = 2 - 2 * Math.cos(2 * Math.PI / len);
+        for (int i = 0; i < 4; i++) assertEquals(0.0, p.getValue(i), 1e-9);
+        for (int i = 4; i < 6; i++) assertEquals(lambda1, p.getValue(i), 1e-9);
+        for (int i = 0; i < 6; i++) {
+            assertTrue(residual(op, p.getValue(i), p.getVector(i)) < 1e-6);
+            for (int j = 0; j < i; j++) {
+                double d = 0;
+                for (int r = 0; r < n; r++) d += p.getVector(i)[r] * p.getVector(j)[r];
+                assertEquals(0.0, d, 1e-8);
+            }
+        }
+    }
+
+    @Test
+    public void testKCappedAtDimension() {
+        double[][] d = {{2, 0}, {0, 5}};
+        Eigenpairs all = new LanczosEigensolver().smallest(LinearOperator.ofDense(d), 10);
+        assertEquals(2, all.size());
+        assertEquals(2.0, all.getValue(0), 1e-12);
+        assertEquals(5.0, all.getValue(1), 1e-12);
+        assertArrayEquals(new double[] {1, 0}, all.getVector(0), 1e-12);
+        assertEquals(0, new LanczosEigensolver().smallest(LinearOperator.ofDense(d), 0).size());
+    }
+
+    @Test
+    public void testDeterministicForSeed() {
+        GraphLaplacian op = new GraphLaplacian(500, 1500, 3);
+        Eigenpairs a = new LanczosEigensolver().withSeed(7).smallest(op, 3);
+        Eigenpairs b = new LanczosEigensolver().withSeed(7).smallest(op, 3);
+        assertArrayEquals(a.getValues(), b.getValues(), 0.0);
+        assertArrayEquals(a.getVector(2), b.getVector(2), 0.0);
+    }
+
+    @Test
+    public void testRestartLimitReportsNotConverged() {
+        GraphLaplacian op = new GraphLaplacian(3000, 3000, 4);
+        Eigenpairs p = new LanczosEigensolver().withMaxRestarts(0).withBasisSize(10)
+                .withTolerance(1e-14).smallest(op, 3);
+        assertFalse(p.isConverged());
+        assertEquals(3, p.size());
+    }
+}
@@ -2,6 +2,7 @@ package gvisual;
 
 import edu.uci.ics.jung.graph.Graph;
 import edu.uci.ics.jung.graph.UndirectedSparseGraph;
+import edu.uci.ics.jung.graph.UndirectedSparseMultigraph;
 import org.junit.Before;
 import org.junit.Test;
 
@@ -248,4 +249,114 @@ public class LaplacianBuilderTest {
         assertEquals(-0.5, Lrw[0][1], 1e-10);
         assertEquals(-0.5, Lrw[0][2], 1e-10);
     }
+
+    // ── Sparse & matrix-free Laplacians ────────────────────────────
+
+    private void addRandomGraph(int n, int m, long seed) {
+        Random rnd = new Random(seed);
+        for (int i = 0; i < n; i++) graph.addVertex("v" + i);
+        for (int e = 0; e < m; e++) {
+            String a = "v" + rnd.nextInt(n);
+            String b = "v" + rnd.nextInt(n);
+            if (!a.equals(b) && graph.findEdge(a, b) == null) addEdge(a, b);
+        }
+    }
+
+    private static void assertSameMatrix(double[][] expected, double[][] actual) {
+        assertEquals(expected.length, actual.length);
+        for (int i = 0; i < expected.length; i++) {
+            assertArrayEquals(expected[i], actual[i], 1e-12);
+        }
+    }
+
+    private static double[][] applyToBasis(LinearOperator op) {
+        int n = op.dimension();
+        double[][] columns = new double[n][n];
+        double[] e = new double[n];
+        double[] y = new double[n];
+        for (int j = 0; j < n; j++) {
+            e[j] = 1.0;
+            op.multiply(e, y);
+            for (int i = 0; i < n; i++) columns[i][j] = y[i];
+            e[j] = 0.0;
+        }
+        return columns;
+    }
+
+    @Test
+    public void testSparseLaplacians_matchDense() {
+        addRandomGraph(40, 90, 1);
+        graph.addVertex("isolated");
+        List<String> verts = new ArrayList<>(graph.getVertices());
+        Collections.sort(verts);
+
+        assertSameMatrix(LaplacianBuilder.buildAdjacencyMatrix(graph, verts),
+                LaplacianBuilder.buildSparseAdjacency(graph, verts).toDense());
+        assertSameMatrix(LaplacianBuilder.buildLaplacian(graph, verts),
+                LaplacianBuilder.buildSparseLaplacian(graph, verts).toDense());
+        assertSameMatrix(LaplacianBuilder.buildNormalizedLaplacian(graph, verts),
+                LaplacianBuilder.buildSparseNormalizedLaplacian(graph, verts).toDense());
+        assertSameMatrix(LaplacianBuilder.buildRandomWalkLaplacian(graph, verts),
+                LaplacianBuilder.buildSparseRandomWalkLaplacian(graph, verts).toDense());
+    }
+
+    @Test
+    public void testLaplacianOperators_matchDense() {
+        addRandomGraph(30, 60, 2);
+        graph.addVertex("isolated");
+        List<String> verts = new ArrayList<>(graph.getVertices());
+        Collections.sort(verts);
+
+        assertSameMatrix(LaplacianBuilder.buildLaplacian(graph, verts),
+                applyToBasis(LaplacianBuilder.laplacianOperator(graph, verts)));
+        assertSameMatrix(LaplacianBuilder.buildNormalizedLaplacian(graph, verts),
+                applyToBasis(LaplacianBuilder.normalizedLaplacianOperator(graph, verts)));
+        assertSameMatrix(LaplacianBuilder.buildRandomWalkLaplacian(graph, verts),
+                applyToBasis(LaplacianBuilder.randomWalkLaplacianOperator(graph, verts)));
+    }
+
+    @Test
+    public void testSparseLaplacian_subsetIsInducedSubgraph() {
+        addEdge("A", "B"); addEdge("B", "C"); addEdge("C", "D"); addEdge("A", "D");
+        List<String> subset = Arrays.asList("D", "A", "B");
+        assertSameMatrix(LaplacianBuilder.buildSubgraphLaplacian(graph, subset),
+                LaplacianBuilder.buildSparseLaplacian(graph, subset).toDense());
+    }
+
+    @Test
+    public void testSparseLaplacian_ignoresParallelEdgesAndSelfLoops() {
+        Graph<String, Edge> multi = new UndirectedSparseMultigraph<>();
+        multi.addVertex("A");
+        multi.addVertex("B");
+        multi.addEdge(new Edge("f", "A", "B"), "A", "B");
+        multi.addEdge(new Edge("f", "B", "A"), "B", "A");
+        multi.addEdge(new Edge("f", "A", "A"), "A", "A");
+        SparseMatrix L = LaplacianBuilder.buildSparseLaplacian(multi, Arrays.asList("A", "B"));
+        assertEquals(4, L.nonZeroCount());
+        assertEquals(1.0, L.get(0, 0), 0.0);
+        assertEquals(-1.0, L.get(0, 1), 0.0);
+        assertEquals(1.0, L.get(1, 1), 0.0);
+    }
+
+    @Test
+    public void testSparseLaplacian_storesOnlyNonZeros() {
+        // A 50,000-vertex path: 3n − 2 non-zeros rather than n² dense entries
+        int n = 50000;
+        List<String> verts = new ArrayList<>(n);
+        for (int i = 0; i < n; i++) {
+            verts.add("v" + i);
+            graph.addVertex("v" + i);
+        }
+        for (int i = 0; i + 1 < n; i++) addEdge("v" + i, "v" + (i + 1));
+        SparseMatrix L = LaplacianBuilder.buildSparseLaplacian(graph, verts);
+        assertEquals(3 * n - 2, L.nonZeroCount());
+        assertEquals(2.0, L.get(n / 2, n / 2), 0.0);
+        assertEquals(0.0, L.get(0, n - 1), 0.0);
+
+        double[] x = new double[n];
+        double[] y = new double[n];
+        Arrays.fill(x, 1.0);
+        LaplacianBuilder.laplacianOperator(graph, verts).multiply(x, y);
+        for (double yi : y) assertEquals(0.0, yi, 0.0);
+    }
 }
@@ -0,0 +1,168 @@
+package gvisual;
+
+import edu.uci.ics.jung.algorithms.layout.StaticLayout;
+import edu.uci.ics.jung.graph.Graph;
+import edu.uci.ics.jung.graph.UndirectedSparseGraph;
+import edu.uci.ics.jung.visualization.Layer;
+import edu.uci.ics.jung.visualization.VisualizationViewer;
+import org.junit.Test;
+
+import java.awt.Dimension;
+import java.awt.Graphics2D;
+import java.awt.geom.Ellipse2D;
+import java.awt.geom.Point2D;
+import java.awt.image.BufferedImage;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.Assert.*;
+
+/**
+ * Unit tests for {@link LevelOfDetailRenderer}.
+ */
+public class LevelOfDetailRendererTest {
+
+    private static final int SIDE = 80;
+    private static final double SPACING = 10;
+
+    /** SIDE × SIDE grid: 6400 vertices, 12640 edges, SPACING apart. */
+    private static StaticLayout<String, Edge> gridLayout() {
+        Graph<String, Edge> g = new UndirectedSparseGraph<String, Edge>();
+        for (int r = 0; r < SIDE; r++) {
+            for (int c = 0; c < SIDE; c++) {
+                String v = r + "_" + c;
+                g.addVertex(v);
+                if (c > 0) g.addEdge(new Edge("f", r + "_" + (c - 1), v), r + "_" + (c - 1), v);
+                if (r > 0) g.addEdge(new Edge("c", (r - 1) + "_" + c, v), (r - 1) + "_" + c, v);
+            }
+        }
+        StaticLayout<String, Edge> layout = new StaticLayout<String, Edge>(g);
+        for (int r = 0; r < SIDE; r++) {
+            for (int c = 0; c < SIDE; c++) {
+                layout.setLocation(r + "_" + c, new Point2D.Double(c * SPACING, r * SPACING));
+            }
+        }
+        return layout;
+    }
+
+    private static VisualizationViewer<String, Edge> viewer(StaticLayout<String, Edge> layout,
+                                                           LevelOfDetailRenderer renderer) {
+        VisualizationViewer<String, Edge> vv = new VisualizationViewer<String, Edge>(layout);
+        vv.setDoubleBuffered(false);
+        vv.setSize(new Dimension(400, 400));
+        vv.getRenderContext().setVertexLabelTransformer(v -> v);
+        vv.setRenderer(renderer);
+        return vv;
+    }
+
+    private static void paint(VisualizationViewer<String, Edge> vv) {
+        BufferedImage img = new BufferedImage(400, 400, BufferedImage.TYPE_INT_ARGB);
+        Graphics2D g = img.createGraphics();
+        try {
+            vv.paint(g);
+        } finally {
+            g.dispose();
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testNullVersionThrows() {
+        new LevelOfDetailRenderer(null);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testNegativeThresholdThrows() {
+        new LevelOfDetailRenderer().withEdgeThreshold(-1);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testZeroTileSizeThrows() {
+        new LevelOfDetailRenderer().withTileSize(0);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testNaNLabelScaleThrows() {
+        new LevelOfDetailRenderer().withLabelScale(Double.NaN);
+    }
+
+    @Test
+    public void testSmallGraphRendersEverything() {
+        StaticLayout<String, Edge> layout = gridLayout();
+        LevelOfDetailRenderer renderer = new LevelOfDetailRenderer().withEdgeThreshold(100000);
+        paint(viewer(layout, renderer));
+        assertEquals(SIDE * SIDE, renderer.getDrawnVertexCount());
+        assertEquals(layout.getGraph().getEdgeCount(), renderer.getDrawnEdgeCount());
+        assertTrue(renderer.isLabelsDrawn());
+    }
+
+    @Test
+    public void testViewportCullsOffscreenElements() {
+        StaticLayout<String, Edge> layout = gridLayout();
+        LevelOfDetailRenderer renderer = new LevelOfDetailRenderer();
+        paint(viewer(layout, renderer));
+        // 400 px at scale 1 shows about a 40 × 40 corner of the 800 × 800 grid
+        int vertices = renderer.getDrawnVertexCount();
+        assertTrue("drew " + vertices, vertices >= 40 * 40 && vertices < SIDE * SIDE / 2);
+        assertTrue(renderer.getDrawnEdgeCount() < layout.getGraph().getEdgeCount() / 2);
+        assertEquals(0, renderer.getTiledEdgeCount());
+        assertEquals(0, renderer.getDottedVertexCount());
+        assertTrue(renderer.isLabelsDrawn());
+    }
+
+    @Test
+    public void testZoomedOutTilesEdgesAndHidesLabels() {
+        StaticLayout<String, Edge> layout = gridLayout();
+        LevelOfDetailRenderer renderer = new LevelOfDetailRenderer();
+        VisualizationViewer<String, Edge> vv = viewer(layout, renderer);
+        vv.getRenderContext().getMultiLayerTransformer().getTransformer(Layer.VIEW)
+                .scale(0.1, 0.1, new Point2D.Double(0, 0));
+        vv.getRenderContext().setVertexShapeTransformer(v -> new Ellipse2D.Double(-5, -5, 10, 10));
+        paint(vv);
+        // Every edge is 1 px long on screen, below the 2 px default
+        assertEquals(0, renderer.getDrawnEdgeCount());
+        assertEquals(layout.getGraph().getEdgeCount(), renderer.getTiledEdgeCount());
+        assertEquals(SIDE * SIDE, renderer.getDrawnVertexCount());
+        // 10 px shapes are 1 px across at this zoom
+        assertEquals(SIDE * SIDE, renderer.getDottedVertexCount());
+        assertFalse(renderer.isLabelsDrawn());
+    }
+
+    @Test
+    public void testEdgeLayerIsReusedUntilSomethingChanges() {
+        StaticLayout<String, Edge> layout = gridLayout();
+        AtomicLong version = new AtomicLong();
+        LevelOfDetailRenderer renderer = new LevelOfDetailRenderer(version::get);
+        VisualizationViewer<String, Edge> vv = viewer(layout, renderer);
+
+        paint(vv);
+        assertEquals(0, renderer.getEdgeLayerHits());
+        paint(vv);
+        assertEquals(1, renderer.getEdgeLayerHits());
+
+        version.incrementAndGet();
+        paint(vv);
+        assertEquals(1, renderer.getEdgeLayerHits());
+
+        layout.setLocation("0_0", new Point2D.Double(5, 5));
+        paint(vv);
+        assertEquals(1, renderer.getEdgeLayerHits());
+
+        vv.getRenderContext().getMultiLayerTransformer().getTransformer(Layer.LAYOUT).translate(-50, 0);
+        paint(vv);
+        assertEquals(1, renderer.getEdgeLayerHits());
+
+        renderer.invalidate();
+        paint(vv);
+        assertEquals(1, renderer.getEdgeLayerHits());
+        paint(vv);
+        assertEquals(2, renderer.getEdgeLayerHits());
+    }
+
+    @Test
+    public void testGraphRenderersVersionChangesOnEverySetter() {
+        GraphRenderers renderers = new GraphRenderers();
+        long before = renderers.getVersion();
+        renderers.setMstState(false, null);
+        renderers.setOldVertices(null);
+        assertEquals(before + 2, renderers.getVersion());
+    }
+}
@@ -628,4 +628,112 @@ public class LinkPredictionAnalyzerTest {
 
         result.getPredictions().clear();
     }
+
+    // ── Candidate streaming ─────────────────────────────────────
+
+    private static Graph<String, Edge> randomGraph(int n, int m, long seed) {
+        Random rnd = new Random(seed);
+        Graph<String, Edge> g = new UndirectedSparseGraph<String, Edge>();
+        for (int i = 0; i < n; i++) g.addVertex("v" + i);
+        while (g.getEdgeCount() < m) {
+            String a = "v" + rnd.nextInt(n);
+            String b = "v" + rnd.nextInt(n);
+            if (!a.equals(b) && g.findEdge(a, b) == null) {
+                g.addEdge(new Edge("f", a, b), a, b);
+            }
+        }
+        return g;
+    }
+
+    private static List<String> keys(LinkPredictionAnalyzer.PredictionResult r) {
+        List<String> out = new ArrayList<String>();
+        for (LinkPredictionAnalyzer.PredictedLink l : r.getPredictions()) {
+            out.add(l.getVertex1() + "-" + l.getVertex2() + ":" + l.getScore());
+        }
+        return out;
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testParallelismMustBePositive() {
+        new LinkPredictionAnalyzer(graph).withParallelism(0);
+    }
+
+    @Test
+    public void testParallelMatchesSequential() {
+        Graph<String, Edge> g = randomGraph(3000, 9000, 7);
+        for (LinkPredictionAnalyzer.Method m : LinkPredictionAnalyzer.Method.values()) {
+            LinkPredictionAnalyzer.PredictionResult seq = m == LinkPredictionAnalyzer.Method.ENSEMBLE
+                    ? new LinkPredictionAnalyzer(g).withParallelism(1).predictEnsemble(25)
+                    : new LinkPredictionAnalyzer(g).withParallelism(1).predict(m, 25);
+            LinkPredictionAnalyzer.PredictionResult par = m == LinkPredictionAnalyzer.Method.ENSEMBLE
+                    ? new LinkPredictionAnalyzer(g).withParallelism(4).predictEnsemble(25)
+                    : new LinkPredictionAnalyzer(g).withParallelism(4).predict(m, 25);
+            assertEquals(m.name(), keys(seq), keys(par));
+            assertEquals(seq.getCandidatesEvaluated(), par.getCandidatesEvaluated());
+        }
+    }
+
+    @Test
+    public void testTopScoresMatchBruteForce() {
+        Graph<String, Edge> g = randomGraph(60, 150, 11);
+        List<String> vs = new ArrayList<String>(g.getVertices());
+        LinkPredictionAnalyzer analyzer = new LinkPredictionAnalyzer(g);
+        for (LinkPredictionAnalyzer.Method m : new LinkPredictionAnalyzer.Method[] {
+                LinkPredictionAnalyzer.Method.COMMON_NEIGHBORS,
+                LinkPredictionAnalyzer.Method.JACCARD,
+                LinkPredictionAnalyzer.Method.ADAMIC_ADAR,
+                LinkPredictionAnalyzer.Method.PREFERENTIAL_ATTACHMENT}) {
+            List<Double> expected = new ArrayList<Double>();
+            int nonAdjacent = 0;
+            for (int i = 0; i < vs.size(); i++) {
+                for (int j = i + 1; j < vs.size(); j++) {
+                    String a = vs.get(i);
+                    String b = vs.get(j);
+                    if (g.isNeighbor(a, b)) continue;
+                    Set<String> common = new HashSet<String>(g.getNeighbors(a));
+                    common.retainAll(g.getNeighbors(b));
+                    int da = g.degree(a);
+                    int db = g.degree(b);
+                    double score;
+                    switch (m) {
+                        case COMMON_NEIGHBORS: score = common.size(); break;
+                        case JACCARD: score = (double) common.size() / (da + db - common.size()); break;
+                        case ADAMIC_ADAR:
+                            score = 0;
+                            for (String w : common) {
+                                if (g.degree(w) > 1) score += 1.0 / Math.log(g.degree(w));
+                            }
+                            break;
+                        default: score = (double) da * db;
+                    }
+                    if (da > 0 && db > 0) nonAdjacent++;
+                    if (score > 0) expected.add(score);
+                }
+            }
+            Collections.sort(expected, Collections.reverseOrder());
+            LinkPredictionAnalyzer.PredictionResult r = analyzer.predict(m, 20);
+            assertEquals(m.name(), Math.min(20, expected.size()), r.getPredictions().size());
+            for (int i = 0; i < r.getPredictions().size(); i++) {
+                LinkPredictionAnalyzer.PredictedLink l = r.getPredictions().get(i);
+                assertEquals(m.name(), expected.get(i), l.getScore(), 1e-9);
+                assertFalse(g.isNeighbor(l.getVertex1(), l.getVertex2()));
+            }
+            if (m == LinkPredictionAnalyzer.Method.PREFERENTIAL_ATTACHMENT) {
+                assertEquals(nonAdjacent, r.getCandidatesEvaluated());
+            }
+        }
+    }
+
+    @Test
+    public void testCommonNeighborsMaterializedForReturnedLinks() {
+        Graph<String, Edge> g = randomGraph(80, 240, 5);
+        LinkPredictionAnalyzer.PredictionResult r = new LinkPredictionAnalyzer(g)
+                .predict(LinkPredictionAnalyzer.Method.COMMON_NEIGHBORS, 10);
+        for (LinkPredictionAnalyzer.PredictedLink l : r.getPredictions()) {
+            Set<String> common = new HashSet<String>(g.getNeighbors(l.getVertex1()));
+            common.retainAll(g.getNeighbors(l.getVertex2()));
+            assertEquals(common, l.getCommonNeighbors());
+            assertEquals(common.size(), l.getScore(), 0.0);
+        }
+    }
 }
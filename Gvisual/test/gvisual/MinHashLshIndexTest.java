@@ -0,0 +1,177 @@
+package gvisual;
+
+import edu.uci.ics.jung.graph.Graph;
+import edu.uci.ics.jung.graph.UndirectedSparseGraph;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.*;
+
+import static org.junit.Assert.*;
+
+/**
+ * Unit tests for {@link MinHashLshIndex}.
+ */
+public class MinHashLshIndexTest {
+
+    private Graph<String, Edge> graph;
+
+    @Before
+    public void setUp() {
+        graph = new UndirectedSparseGraph<String, Edge>();
+    }
+
+    private void addEdge(String a, String b) {
+        if (!graph.containsVertex(a)) graph.addVertex(a);
+        if (!graph.containsVertex(b)) graph.addVertex(b);
+        graph.addEdge(new Edge("f", a, b), a, b);
+    }
+
+    /** u gets leaves 0..a-1, v gets leaves (a-shared)..(2a-shared-1). */
+    private void buildOverlap(int size, int shared) {
+        for (int i = 0; i < size; i++) addEdge("u", "L" + i);
+        for (int i = size - shared; i < 2 * size - shared; i++) addEdge("v", "L" + i);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testNullGraph() {
+        MinHashLshIndex.builder(null);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testInvalidBands() {
+        MinHashLshIndex.builder(graph).bands(0);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testUnknownVertex() {
+        addEdge("A", "B");
+        MinHashLshIndex.builder(graph).build().candidates("Z");
+    }
+
+    @Test
+    public void testIdenticalNeighbourhoodsCollide() {
+        for (int i = 0; i < 10; i++) {
+            addEdge("A", "n" + i);
+            addEdge("B", "n" + i);
+        }
+        MinHashLshIndex index = MinHashLshIndex.builder(graph).build();
+        assertEquals(1.0, index.estimateJaccard("A", "B"), 0.0);
+        assertTrue(index.candidates("A").contains("B"));
+        assertFalse(index.candidates("A").contains("A"));
+    }
+
+    @Test
+    public void testEstimateTracksJaccard() {
+        buildOverlap(100, 67); // J = 67 / 133 ≈ 0.504
+        MinHashLshIndex index = MinHashLshIndex.builder(graph).bands(64).rows(4).build();
+        assertEquals(256, index.getSignatureLength());
+        assertEquals(67.0 / 133.0, index.estimateJaccard("u", "v"), 0.1);
+    }
+
+    @Test
+    public void testDisjointNeighbourhoodsAreNotCandidates() {
+        buildOverlap(50, 0);
+        MinHashLshIndex index = MinHashLshIndex.builder(graph).bands(8).rows(4).build();
+        assertEquals(0.0, index.estimateJaccard("u", "v"), 0.05);
+        assertFalse(index.candidates("u").contains("v"));
+    }
+
+    @Test
+    public void testIsolatedVerticesEstimateOne() {
+        graph.addVertex("X");
+        graph.addVertex("Y");
+        addEdge("A", "B");
+        MinHashLshIndex index = MinHashLshIndex.builder(graph).build();
+        assertEquals(1.0, index.estimateJaccard("X", "Y"), 0.0);
+        assertEquals(0.0, index.estimateJaccard("X", "A"), 0.0);
+    }
+
+    @Test
+    public void testCandidateProbabilityCurve() {
+        assertEquals(0.0, MinHashLshIndex.candidateProbability(0.0, 20, 5), 1e-12);
+        assertEquals(1.0, MinHashLshIndex.candidateProbability(1.0, 20, 5), 1e-12);
+        double low = MinHashLshIndex.candidateProbability(0.3, 20, 5);
+        double high = MinHashLshIndex.candidateProbability(0.8, 20, 5);
+        assertTrue(low < 0.05);
+        assertTrue(high > 0.99);
+    }
+
+    @Test
+    public void testForThresholdFitsSignatureLength() {
+        addEdge("A", "B");
+        MinHashLshIndex index = MinHashLshIndex.builder(graph).forThreshold(0.8, 100).build();
+        assertTrue(index.getSignatureLength() <= 100);
+        double midpoint = Math.pow(1.0 / index.getBands(), 1.0 / index.getRows());
+        assertEquals(0.8, midpoint, 0.05);
+    }
+
+    @Test
+    public void testSimilarPairsFindsPlantedDuplicates() {
+        Random rnd = new Random(4);
+        int n = 500;
+        for (int i = 0; i < n; i++) graph.addVertex("v" + i);
+        while (graph.getEdgeCount() < 2500) {
+            int a = rnd.nextInt(n);
+            int b = rnd.nextInt(n);
+            if (a != b && graph.findEdge("v" + a, "v" + b) == null) addEdge("v" + a, "v" + b);
+        }
+        for (int d = 0; d < 5; d++) {
+            String copy = "copy" + d;
+            graph.addVertex(copy);
+            for (String w : new ArrayList<String>(graph.getNeighbors("v" + d))) addEdge(copy, w);
+        }
+        List<NodeSimilarityAnalyzer.ScoredPair> pairs =
+                MinHashLshIndex.builder(graph).bands(25).rows(4).build().similarPairs(0.9);
+        Set<String> found = new HashSet<String>();
+        for (NodeSimilarityAnalyzer.ScoredPair p : pairs) {
+            found.add(p.getNodeA() + "|" + p.getNodeB());
+        }
+        for (int d = 0; d < 5; d++) {
+            assertTrue(found.contains("copy" + d + "|v" + d));
+        }
+        for (int i = 1; i < pairs.size(); i++) {
+            assertTrue(pairs.get(i - 1).getScore() >= pairs.get(i).getScore());
+        }
+    }
+
+    @Test
+    public void testParallelBuildMatchesSequential() {
+        Random rnd = new Random(8);
+        int n = 6000;
+        for (int i = 0; i < n; i++) graph.addVertex("v" + i);
+        while (graph.getEdgeCount() < 18000) {
+            int a = rnd.nextInt(n);
+            int b = rnd.nextInt(n);
+            if (a != b && graph.findEdge("v" + a, "v" + b) == null) addEdge("v" + a, "v" + b);
+        }
+        MinHashLshIndex seq = MinHashLshIndex.builder(graph).parallelism(1).build();
+        MinHashLshIndex par = MinHashLshIndex.builder(graph).parallelism(4).build();
+        for (int i = 0; i < 100; i++) {
+            String v = "v" + i;
+            assertEquals(seq.candidates(v), par.candidates(v));
+            assertEquals(seq.estimateJaccard(v, "v" + (i + 1)), par.estimateJaccard(v, "v" + (i + 1)), 0.0);
+        }
+    }
+
+    @Test
+    public void testCandidatePairsAreVisitedOnce() {
+        // Near-identical neighbourhoods collide in many bands at once
+        for (int c = 0; c < 20; c++) {
+            for (int i = 0; i < 30; i++) addEdge("c" + c, "L" + (i + c));
+        }
+        MinHashLshIndex index = MinHashLshIndex.builder(graph).bands(16).rows(2).build();
+        Set<Long> visited = new HashSet<Long>();
+        index.forEachCandidatePair((u, v) -> {
+            assertTrue(u < v);
+            assertTrue("pair visited twice: " + u + "," + v, visited.add(((long) u << 32) | v));
+        });
+        Set<Long> expected = new HashSet<Long>();
+        for (int u = 0; u < index.getVertexCount(); u++) {
+            for (int v : index.candidateIndices(u)) {
+                if (u < v) expected.add(((long) u << 32) | v);
+            }
+        }
+        assertEquals(expected, visited);
+    }
+}
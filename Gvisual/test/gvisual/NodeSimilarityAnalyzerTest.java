@@ -406,4 +406,111 @@ public class NodeSimilarityAnalyzerTest {
         NodeSimilarityAnalyzer.ScoredPair b = new NodeSimilarityAnalyzer.ScoredPair("C", "D", 0.3);
         assertTrue(a.compareTo(b) < 0); // a should come first (higher score)
     }
+
+    // ── Sparse bulk engine ──────────────────────────────────────
+
+    private void buildRandom(int n, int m, long seed) {
+        Random rnd = new Random(seed);
+        for (int i = 0; i < n; i++) graph.addVertex("v" + i);
+        while (graph.getEdgeCount() < m) {
+            String a = "v" + rnd.nextInt(n);
+            String b = "v" + rnd.nextInt(n);
+            if (!a.equals(b) && graph.findEdge(a, b) == null) addEdge(a, b, "f");
+        }
+    }
+
+    @Test
+    public void testMatrixMatchesPairwiseMetrics() {
+        buildRandom(30, 60, 5);
+        graph.addVertex("iso1");
+        graph.addVertex("iso2");
+        NodeSimilarityAnalyzer nsa = new NodeSimilarityAnalyzer(graph);
+        for (NodeSimilarityAnalyzer.Metric m : NodeSimilarityAnalyzer.Metric.values()) {
+            Map<String, Double> matrix = nsa.similarityMatrix(m);
+            assertEquals(32 * 31 / 2, matrix.size());
+            for (Map.Entry<String, Double> e : matrix.entrySet()) {
+                String[] pair = e.getKey().split("\\|");
+                assertEquals(m + " " + e.getKey(), nsa.similarity(pair[0], pair[1], m),
+                        e.getValue(), 1e-9);
+            }
+        }
+    }
+
+    @Test
+    public void testThresholdPairsMatchBruteForce() {
+        buildRandom(60, 150, 9);
+        NodeSimilarityAnalyzer nsa = new NodeSimilarityAnalyzer(graph);
+        List<String> vs = new ArrayList<String>(graph.getVertices());
+        Collections.sort(vs);
+        for (NodeSimilarityAnalyzer.Metric m : NodeSimilarityAnalyzer.Metric.values()) {
+            double threshold = m == NodeSimilarityAnalyzer.Metric.STRUCTURAL_EQUIVALENCE ? 0.95 : 0.2;
+            int expected = 0;
+            for (int i = 0; i < vs.size(); i++)
+                for (int j = i + 1; j < vs.size(); j++)
+                    if (nsa.similarity(vs.get(i), vs.get(j), m) >= threshold - 1e-12) expected++;
+            List<NodeSimilarityAnalyzer.ScoredPair> pairs = nsa.similarPairsAboveThreshold(m, threshold);
+            assertEquals(m.toString(), expected, pairs.size());
+            for (int i = 1; i < pairs.size(); i++) {
+                assertTrue(pairs.get(i - 1).getScore() >= pairs.get(i).getScore());
+            }
+        }
+    }
+
+    @Test
+    public void testMostSimilarMatchesBruteForceScores() {
+        buildRandom(50, 120, 3);
+        NodeSimilarityAnalyzer nsa = new NodeSimilarityAnalyzer(graph);
+        List<String> vs = new ArrayList<String>(graph.getVertices());
+        for (NodeSimilarityAnalyzer.Metric m : NodeSimilarityAnalyzer.Metric.values()) {
+            List<Double> all = new ArrayList<Double>();
+            for (int i = 0; i < vs.size(); i++)
+                for (int j = i + 1; j < vs.size(); j++) {
+                    boolean shares = m == NodeSimilarityAnalyzer.Metric.STRUCTURAL_EQUIVALENCE
+                            || nsa.jaccard(vs.get(i), vs.get(j)) > 0;
+                    if (shares) all.add(nsa.similarity(vs.get(i), vs.get(j), m));
+                }
+            Collections.sort(all, Collections.reverseOrder());
+            List<NodeSimilarityAnalyzer.ScoredPair> top = nsa.mostSimilar(m, 15);
+            assertEquals(15, top.size());
+            for (int i = 0; i < 15; i++) {
+                assertEquals(m.toString(), all.get(i), top.get(i).getScore(), 1e-9);
+            }
+        }
+    }
+
+    @Test
+    public void testParallelMatchesSequential() {
+        buildRandom(3000, 9000, 17);
+        NodeSimilarityAnalyzer seq = new NodeSimilarityAnalyzer(graph).withParallelism(1);
+        NodeSimilarityAnalyzer par = new NodeSimilarityAnalyzer(graph).withParallelism(4);
+        List<NodeSimilarityAnalyzer.ScoredPair> a = seq.mostSimilar(NodeSimilarityAnalyzer.Metric.ADAMIC_ADAR, 50);
+        List<NodeSimilarityAnalyzer.ScoredPair> b = par.mostSimilar(NodeSimilarityAnalyzer.Metric.ADAMIC_ADAR, 50);
+        assertEquals(a.toString(), b.toString());
+        List<NodeSimilarityAnalyzer.ScoredPair> c = seq.similarPairsAboveThreshold(NodeSimilarityAnalyzer.Metric.JACCARD, 0.2);
+        List<NodeSimilarityAnalyzer.ScoredPair> d = par.similarPairsAboveThreshold(NodeSimilarityAnalyzer.Metric.JACCARD, 0.2);
+        assertEquals(c.toString(), d.toString());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testInvalidParallelism() {
+        new NodeSimilarityAnalyzer(graph).withParallelism(0);
+    }
+
+    @Test
+    public void testApproximateJaccardPairsAreExactAndFindDuplicates() {
+        buildRandom(400, 1200, 21);
+        // Plant a near-duplicate: dup copies v0's neighbourhood
+        graph.addVertex("dup");
+        for (String w : new ArrayList<String>(graph.getNeighbors("v0"))) addEdge("dup", w, "f");
+        NodeSimilarityAnalyzer nsa = new NodeSimilarityAnalyzer(graph);
+        MinHashLshIndex index = MinHashLshIndex.builder(graph).bands(20).rows(3).build();
+        List<NodeSimilarityAnalyzer.ScoredPair> pairs = nsa.approximateJaccardPairs(index, 0.8);
+        boolean planted = false;
+        for (NodeSimilarityAnalyzer.ScoredPair p : pairs) {
+            assertEquals(nsa.jaccard(p.getNodeA(), p.getNodeB()), p.getScore(), 1e-12);
+            assertTrue(p.getScore() >= 0.8);
+            if (p.getNodeA().equals("dup") && p.getNodeB().equals("v0")) planted = true;
+        }
+        assertTrue(planted);
+    }
 }
@@ -16,6 +16,8 @@ import static org.junit.Assert.*;
  *   <li>that two distant clusters can be approximated as a single
  *       center-of-mass (Barnes-Hut "far enough" path)</li>
  *   <li>numerical stability when two bodies are coincident</li>
+ *   <li>in-place rebuild, Morton ordering and the point queries
+ *       ({@code nearest}, {@code forEachInRect})</li>
  * </ul>
  */
 public class QuadTreeTest {
@@ -123,4 +125,104 @@ public class QuadTreeTest {
         assertTrue("Probe should be pushed in -y by distant cluster, got " + disp[1],
                 disp[1] < -EPS);
     }
+
+    @Test
+    public void testCoincidentBodiesDoNotOverflow() {
+        // Several bodies clamped to the same point, plus one elsewhere
+        double[] xs = {0.0, 0.0, 0.0, 0.0, 10.0};
+        double[] ys = {0.0, 0.0, 0.0, 0.0, 0.0};
+        QuadTree root = QuadTree.build(xs, ys, 5);
+
+        double[] disp = new double[2];
+        root.applyRepulsion(4, 10.0, 0.0, K_SQ, disp, THETA_SQ);
+        // Four bodies at distance 10 push body 4 in +x with 4·k²/10
+        assertEquals(0.4, disp[0], 1e-6);
+        assertEquals(0.0, disp[1], EPS);
+    }
+
+    @Test
+    public void testBarnesHutCloseToExactSum() {
+        int n = 2000;
+        java.util.Random rnd = new java.util.Random(3);
+        double[] xs = new double[n];
+        double[] ys = new double[n];
+        for (int i = 0; i < n; i++) {
+            xs[i] = rnd.nextDouble() * 1000;
+            ys[i] = rnd.nextDouble() * 1000;
+        }
+        QuadTree tree = QuadTree.build(xs, ys, n);
+        for (int i = 0; i < n; i += 97) {
+            double ex = 0, ey = 0;
+            for (int j = 0; j < n; j++) {
+                if (j == i) continue;
+                double dx = xs[i] - xs[j];
+                double dy = ys[i] - ys[j];
+                double f = K_SQ / Math.max(dx * dx + dy * dy, 1e-4);
+                ex += dx * f;
+                ey += dy * f;
+            }
+            double[] disp = new double[2];
+            tree.applyRepulsion(i, xs[i], ys[i], K_SQ, disp, THETA_SQ);
+            double scale = Math.hypot(ex, ey) + 1e-3;
+            assertEquals(ex, disp[0], 0.05 * scale);
+            assertEquals(ey, disp[1], 0.05 * scale);
+        }
+    }
+
+    @Test
+    public void testRebuildInPlaceReusesTree() {
+        double[] xs = {0, 10, 20, 30, 40, 50, 60, 70};
+        double[] ys = {0, 10, 20, 30, 40, 50, 60, 70};
+        QuadTree tree = new QuadTree().rebuild(xs, ys, 8);
+        assertEquals(8, tree.size());
+        assertEquals(3, tree.nearest(31, 29, 5));
+
+        double[] moved = {70, 60, 50, 40, 30, 20, 10, 0};
+        assertSame(tree, tree.rebuild(moved, ys, 8));
+        assertEquals(4, tree.nearest(31, 39, 5));
+        assertEquals(-1, tree.nearest(31, 29, 5));
+
+        tree.rebuild(xs, ys, 0);
+        assertEquals(0, tree.size());
+        assertEquals(-1, tree.nearest(0, 0, 100));
+    }
+
+    @Test
+    public void testMortonOrderIsPermutation() {
+        int n = 500;
+        java.util.Random rnd = new java.util.Random(8);
+        double[] xs = new double[n];
+        double[] ys = new double[n];
+        for (int i = 0; i < n; i++) {
+            xs[i] = rnd.nextDouble();
+            ys[i] = rnd.nextDouble();
+        }
+        QuadTree tree = QuadTree.build(xs, ys, n);
+        boolean[] seen = new boolean[n];
+        for (int r = 0; r < n; r++) {
+            assertFalse(seen[tree.bodyAt(r)]);
+            seen[tree.bodyAt(r)] = true;
+        }
+        assertTrue(tree.nodeCount() > 1);
+    }
+
+    @Test
+    public void testForEachInRectMatchesScan() {
+        int n = 3000;
+        java.util.Random rnd = new java.util.Random(4);
+        double[] xs = new double[n];
+        double[] ys = new double[n];
+        for (int i = 0; i < n; i++) {
+            xs[i] = rnd.nextGaussian() * 100;
+            ys[i] = rnd.nextGaussian() * 100;
+        }
+        QuadTree tree = QuadTree.build(xs, ys, n);
+        java.util.Set<Integer> found = new java.util.TreeSet<Integer>();
+        tree.forEachInRect(-50, -20, 80, 60, found::add);
+        java.util.Set<Integer> expected = new java.util.TreeSet<Integer>();
+        for (int i = 0; i < n; i++) {
+            if (xs[i] >= -50 && xs[i] <= 80 && ys[i] >= -20 && ys[i] <= 60) expected.add(i);
+        }
+        assertEquals(expected, found);
+    }
 }
@@ -0,0 +1,182 @@
+package gvisual;
+
+import edu.uci.ics.jung.graph.DirectedSparseGraph;
+import edu.uci.ics.jung.graph.Graph;
+import edu.uci.ics.jung.graph.UndirectedSparseGraph;
+import org.junit.Test;
+
+import java.util.*;
+
+import static org.junit.Assert.*;
+
+/**
+ * Unit tests for {@link SimRankIndex}.
+ */
+public class SimRankIndexTest {
+
+    private static void addEdge(Graph<String, Edge> g, String a, String b) {
+        if (!g.containsVertex(a)) g.addVertex(a);
+        if (!g.containsVertex(b)) g.addVertex(b);
+        g.addEdge(new Edge("f", a, b), a, b);
+    }
+
+    private static Graph<String, Edge> randomGraph(int n, int m, long seed) {
+        Random rnd = new Random(seed);
+        Graph<String, Edge> g = new UndirectedSparseGraph<String, Edge>();
+        for (int i = 0; i < n; i++) g.addVertex("v" + i);
+        while (g.getEdgeCount() < m) {
+            int a = rnd.nextInt(n);
+            int b = rnd.nextInt(n);
+            if (a != b && g.findEdge("v" + a, "v" + b) == null) addEdge(g, "v" + a, "v" + b);
+        }
+        return g;
+    }
+
+    /** Naive SimRank iteration, {@code rounds} rounds. */
+    private static Map<String, Map<String, Double>> exactSimRank(
+            Graph<String, Edge> g, double c, int rounds) {
+        List<String> vs = new ArrayList<String>(g.getVertices());
+        Map<String, Map<String, Double>> s = new HashMap<String, Map<String, Double>>();
+        for (String a : vs) {
+            Map<String, Double> row = new HashMap<String, Double>();
+            for (String b : vs) row.put(b, a.equals(b) ? 1.0 : 0.0);
+            s.put(a, row);
+        }
+        for (int r = 0; r < rounds; r++) {
+            Map<String, Map<String, Double>> next = new HashMap<String, Map<String, Double>>();
+            for (String a : vs) {
+                Map<String, Double> row = new HashMap<String, Double>();
+                for (String b : vs) {
+                    if (a.equals(b)) {
+                        row.put(b, 1.0);
+                        continue;
+                    }
+                    Collection<String> ia = g.getPredecessors(a);
+                    Collection<String> ib = g.getPredecessors(b);
+                    double sum = 0;
+                    for (String x : ia) {
+                        for (String y : ib) sum += s.get(x).get(y);
+                    }
+                    row.put(b, ia.isEmpty() || ib.isEmpty() ? 0.0 : c * sum / (ia.size() * ib.size()));
+                }
+                next.put(a, row);
+            }
+            s = next;
+        }
+        return s;
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testNullGraph() {
+        SimRankIndex.builder(null);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testInvalidDecay() {
+        SimRankIndex.builder(randomGraph(5, 4, 1)).decay(1.0);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testInvalidWalkLength() {
+        SimRankIndex.builder(randomGraph(5, 4, 1)).walkLength(0);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testMemoryBoundEnforced() {
+        SimRankIndex.builder(randomGraph(1000, 2000, 1))
+                .fingerprints(100).maxIndexBytes(100000).build();
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testUnknownVertex() {
+        SimRankIndex.builder(randomGraph(5, 4, 1)).build().similarity("v0", "nope");
+    }
+
+    @Test
+    public void testStarLeavesMeetAtHub() {
+        Graph<String, Edge> star = new UndirectedSparseGraph<String, Edge>();
+        for (int i = 0; i < 5; i++) addEdge(star, "H", "L" + i);
+        SimRankIndex index = SimRankIndex.builder(star).decay(0.8).fingerprints(50).build();
+        assertEquals(1.0, index.similarity("L0", "L0"), 0.0);
+        assertEquals(0.8, index.similarity("L0", "L3"), 1e-12);
+        assertEquals(0.8, index.singleSource("L1").get("L4"), 1e-12);
+    }
+
+    @Test
+    public void testMatchesExactSimRank() {
+        Graph<String, Edge> g = randomGraph(25, 50, 3);
+        Map<String, Map<String, Double>> exact = exactSimRank(g, 0.6, 10);
+        SimRankIndex index = SimRankIndex.builder(g)
+                .decay(0.6).walkLength(10).fingerprints(4000).build();
+        for (String a : g.getVertices()) {
+            for (String b : g.getVertices()) {
+                assertEquals(a + "," + b, exact.get(a).get(b), index.similarity(a, b), 0.04);
+            }
+        }
+    }
+
+    @Test
+    public void testDirectedUsesInNeighbors() {
+        // a → x, b → x: x has in-neighbour a; y has in-neighbour a too
+        Graph<String, Edge> g = new DirectedSparseGraph<String, Edge>();
+        addEdge(g, "a", "x");
+        addEdge(g, "a", "y");
+        addEdge(g, "b", "z");
+        SimRankIndex index = SimRankIndex.builder(g).fingerprints(20).build();
+        assertEquals(0.6, index.similarity("x", "y"), 1e-12);
+        assertEquals(0.0, index.similarity("x", "z"), 0.0);
+        assertEquals(0.0, index.similarity("a", "b"), 0.0);
+    }
+
+    @Test
+    public void testSingleSourceAgreesWithPairQueries() {
+        Graph<String, Edge> g = randomGraph(300, 700, 9);
+        SimRankIndex index = SimRankIndex.builder(g).fingerprints(64).build();
+        for (String u : new String[] {"v0", "v17", "v123"}) {
+            Map<String, Double> scores = index.singleSource(u);
+            assertFalse(scores.containsKey(u));
+            double prev = Double.MAX_VALUE;
+            for (Map.Entry<String, Double> e : scores.entrySet()) {
+                assertTrue(e.getValue() <= prev);
+                prev = e.getValue();
+            }
+            for (String v : g.getVertices()) {
+                if (v.equals(u)) continue;
+                double expected = index.similarity(u, v);
+                Double got = scores.get(v);
+                assertEquals(u + "," + v, expected, got == null ? 0.0 : got, 1e-9);
+            }
+        }
+    }
+
+    @Test
+    public void testMostSimilarIsPrefixOfSingleSource() {
+        Graph<String, Edge> g = randomGraph(200, 500, 4);
+        SimRankIndex index = SimRankIndex.builder(g).fingerprints(32).build();
+        List<NodeSimilarityAnalyzer.ScoredPair> top = index.mostSimilar("v5", 10);
+        List<Map.Entry<String, Double>> all =
+                new ArrayList<Map.Entry<String, Double>>(index.singleSource("v5").entrySet());
+        assertEquals(Math.min(10, all.size()), top.size());
+        for (int i = 0; i < top.size(); i++) {
+            assertEquals("v5", top.get(i).getNodeA());
+            assertEquals(all.get(i).getKey(), top.get(i).getNodeB());
+            assertEquals(all.get(i).getValue(), top.get(i).getScore(), 0.0);
+        }
+        assertTrue(index.mostSimilar("v5", 0).isEmpty());
+    }
+
+    @Test
+    public void testParallelBuildMatchesSequential() {
+        Graph<String, Edge> g = randomGraph(3000, 9000, 6);
+        SimRankIndex seq = SimRankIndex.builder(g).fingerprints(16).parallelism(1).build();
+        SimRankIndex par = SimRankIndex.builder(g).fingerprints(16).parallelism(4).build();
+        assertEquals(seq.singleSource("v42"), par.singleSource("v42"));
+        assertEquals(9L * 3000 * 16, par.getIndexBytes());
+    }
+
+    @Test
+    public void testEmptyGraph() {
+        SimRankIndex index = SimRankIndex.builder(new UndirectedSparseGraph<String, Edge>()).build();
+        assertEquals(0, index.getVertexCount());
+    }
+}
@@ -7,6 +7,7 @@ import org.junit.Test;
 
 import java.util.List;
 import java.util.Map;
+import java.util.Random;
 
 import static org.junit.Assert.*;
 
@@ -568,4 +569,201 @@ public class SpectralAnalyzerTest {
         fv[0] = 999.0;
         assertNotEquals(999.0, sa.getFiedlerVector()[0], 1e-6);
     }
+
+    // ═══════════════════════════════════════════════════════════════
+    //  Sparse (Lanczos) path
+    // ═══════════════════════════════════════════════════════════════
+
+    private Graph<String, Edge> randomConnectedGraph(int n, int extra, long seed) {
+        Graph<String, Edge> g = pathGraph(n);
+        Random rnd = new Random(seed);
+        for (int k = 0; k < extra; k++) {
+            String a = "N" + (1 + rnd.nextInt(n));
+            String b = "N" + (1 + rnd.nextInt(n));
+            if (!a.equals(b) && g.findEdge(a, b) == null) {
+                g.addEdge(new Edge("f", a, b), a, b);
+            }
+        }
+        return g;
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testNegativeDenseLimitThrows() {
+        new SpectralAnalyzer(graph).withDenseLimit(-1);
+    }
+
+    @Test
+    public void testSparsePathMatchesDense() {
+        Graph<String, Edge> g = randomConnectedGraph(120, 200, 7);
+        SpectralAnalyzer dense = new SpectralAnalyzer(g).compute();
+        SpectralAnalyzer sparse = new SpectralAnalyzer(g).withDenseLimit(0).compute();
+
+        assertEquals(dense.getSpectralRadius(), sparse.getSpectralRadius(), 1e-8);
+        assertEquals(dense.getSpectralGap(), sparse.getSpectralGap(), 1e-8);
+        assertEquals(dense.getAlgebraicConnectivity(), sparse.getAlgebraicConnectivity(), 1e-8);
+        double[] allAdj = dense.getAdjacencyEigenvalues();
+        double[] someAdj = sparse.getAdjacencyEigenvalues();
+        assertEquals(3, someAdj.length);
+        assertEquals(allAdj[allAdj.length - 1], someAdj[2], 1e-8);
+        assertArrayEquals(dense.getFiedlerVector(), sparse.getFiedlerVector(), 1e-6);
+        assertEquals(dense.getPartitionA(), sparse.getPartitionA());
+        assertTrue(sparse.isConnectedSpectrally());
+        assertTrue(dense.getEnergyEstimate().isExact());
+        assertFalse(sparse.getEnergyEstimate().isExact());
+        assertEquals(dense.getEnergy(), sparse.getEnergy(), 0.05 * dense.getEnergy());
+        assertEquals(dense.getLogSpanningTreeEstimate().getValue(),
+                sparse.getLogSpanningTreeEstimate().getValue(),
+                0.02 * dense.getLogSpanningTreeEstimate().getValue());
+        assertEquals(sparse.getLogSpanningTreeEstimate().getValue(),
+                Math.log(sparse.getSpanningTreeCount()), 1e-9);
+        assertTrue(sparse.getSummary().contains("Vertices: 120"));
+    }
+
+    @Test
+    public void testSparsePathBipartiteAndDisconnected() {
+        Graph<String, Edge> g = cycleGraph(10);
+        g.addVertex("X");
+        g.addVertex("Y");
+        g.addEdge(new Edge("f", "X", "Y"), "X", "Y");
+        SpectralAnalyzer sa = new SpectralAnalyzer(g).withDenseLimit(0).compute();
+        assertTrue(sa.isBipartiteLikely());
+        assertFalse(sa.isConnectedSpectrally());
+        assertEquals(0.0, sa.getAlgebraicConnectivity(), 0.0);
+        assertEquals(0.0, sa.getSpanningTreeCount(), 0.0);
+        assertEquals(Double.NEGATIVE_INFINITY, sa.getLogSpanningTreeEstimate().getValue(), 0.0);
+        assertEquals(2.0, sa.getSpectralRadius(), 1e-8);
+        assertTrue(sa.getClassification().contains("Disconnected (2 components)"));
+
+        SpectralAnalyzer odd = new SpectralAnalyzer(cycleGraph(9)).withDenseLimit(0).compute();
+        assertFalse(odd.isBipartiteLikely());
+    }
+
+    @Test
+    public void testSparsePathRepeatedTopEigenvalue() {
+        // Two identical components share the top adjacency eigenvalue
+        Graph<String, Edge> g = new UndirectedSparseGraph<String, Edge>();
+        for (String c : new String[] {"a", "b"}) {
+            for (int i = 0; i < 200; i++) {
+                String u = c + i;
+                String v = c + ((i + 1) % 200);
+                g.addVertex(u);
+                g.addVertex(v);
+                g.addEdge(new Edge("f", u, v), u, v);
+            }
+        }
+        SpectralAnalyzer dense = new SpectralAnalyzer(g).compute();
+        SpectralAnalyzer sparse = new SpectralAnalyzer(g).withDenseLimit(0).compute();
+        assertEquals(0.0, dense.getSpectralGap(), 1e-8);
+        assertEquals(0.0, sparse.getSpectralGap(), 1e-8);
+        assertEquals(2.0, sparse.getSpectralRadius(), 1e-8);
+    }
+
+    @Test
+    public void testSparseLongPathConverges() {
+        // λ₂ ≈ 2.5e-6: the default Lanczos budget runs out, the retry must not
+        int n = 2000;
+        SpectralAnalyzer sa = new SpectralAnalyzer(pathGraph(n)).withDenseLimit(0).compute();
+        assertTrue(sa.isConverged());
+        double lambda2 = 2 - 2 * Math.cos(Math.PI / n);
+        assertEquals(lambda2, sa.getAlgebraicConnectivity(), 1e-6 * lambda2);
+        double gap = 2 * Math.cos(Math.PI / (n + 1)) - 2 * Math.cos(2 * Math.PI / (n + 1));
+        assertEquals(gap, sa.getSpectralGap(), 1e-4 * gap);
+
+        // The Fiedler vector of a path is monotone along it
+        List<String> order = sa.getVertexOrder();
+        double[] fiedler = sa.getFiedlerVector();
+        double[] along = new double[n];
+        for (int i = 0; i < n; i++) along[Integer.parseInt(order.get(i).substring(1)) - 1] = fiedler[i];
+        double sign = Math.signum(along[n - 1] - along[0]);
+        for (int i = 0; i + 1 < n; i++) assertTrue("step " + i, sign * (along[i + 1] - along[i]) > 0);
+
+        String summary = sa.getSummary();
+        assertTrue(summary.contains("Eigensolver: Lanczos, converged"));
+        assertTrue(summary.contains("Adjacency eigenvalues (largest 2)"));
+        assertFalse(summary.contains("top 5"));
+    }
+
+    @Test
+    public void testSparseSpanningTreesOfTreesAreOne() {
+        SpectralAnalyzer path = new SpectralAnalyzer(pathGraph(300)).withDenseLimit(0).compute();
+        assertTrue(path.getLogSpanningTreeEstimate().isExact());
+        assertEquals(1.0, path.getSpanningTreeCount(), 0.0);
+
+        Graph<String, Edge> tree = new UndirectedSparseGraph<String, Edge>();
+        Random rnd = new Random(11);
+        tree.addVertex("T0");
+        for (int i = 1; i < 3000; i++) {
+            String parent = "T" + rnd.nextInt(i);
+            tree.addVertex("T" + i);
+            tree.addEdge(new Edge("f", parent, "T" + i), parent, "T" + i);
+        }
+        SpectralAnalyzer sa = new SpectralAnalyzer(tree).withDenseLimit(0).compute();
+        assertEquals(0.0, sa.getLogSpanningTreeEstimate().getValue(), 0.0);
+        assertEquals(1.0, sa.getSpanningTreeCount(), 0.0);
+        assertTrue(sa.getSummary().contains("Spanning trees: 1\n"));
+
+        // One extra edge closes a single cycle: the 2-core is solved exactly
+        tree.addEdge(new Edge("f", "T5", "T2999"), "T5", "T2999");
+        SpectralAnalyzer cyclic = new SpectralAnalyzer(tree).withDenseLimit(1000).compute();
+        SpectralAnalyzer dense = new SpectralAnalyzer(tree).withDenseLimit(3000).compute();
+        assertTrue(cyclic.getLogSpanningTreeEstimate().isExact());
+        assertEquals(dense.getLogSpanningTreeEstimate().getValue(),
+                cyclic.getLogSpanningTreeEstimate().getValue(), 1e-6);
+    }
+
+    @Test
+    public void testSparseSpanningTreesUnavailableWhenIllConditioned() {
+        // A long cycle is its own 2-core, with λmax/λ₂ ≈ 1e5
+        SpectralAnalyzer sa = new SpectralAnalyzer(cycleGraph(1000)).withDenseLimit(0).compute();
+        assertFalse(sa.getLogSpanningTreeEstimate().isAvailable());
+        assertTrue(Double.isNaN(sa.getSpanningTreeCount()));
+        assertTrue(sa.getSummary().contains("Spanning trees: unavailable"));
+    }
+
+    @Test
+    public void testSparsePathScalesBeyondDenseLimit() {
+        Graph<String, Edge> g = randomConnectedGraph(20000, 40000, 3);
+        SpectralAnalyzer sa = new SpectralAnalyzer(g).compute();
+        assertTrue(sa.isConnectedSpectrally());
+        assertTrue(sa.getAlgebraicConnectivity() > 0);
+        assertEquals(20000, sa.getFiedlerVector().length);
+        assertEquals(20000, sa.getPartitionA().size() + sa.getPartitionB().size());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testNullTraceEstimatorThrows() {
+        new SpectralAnalyzer(graph).withTraceEstimator(null);
+    }
+
+    @Test
+    public void testSparseSpanningTreesOfHypercubeWithinInterval() {
+        // Q_d has 2^(2^d − d − 1) · Π k^C(d,k) spanning trees
+        int d = 9;
+        int n = 1 << d;
+        Graph<String, Edge> g = new UndirectedSparseGraph<String, Edge>();
+        for (int v = 0; v < n; v++) g.addVertex("Q" + v);
+        for (int v = 0; v < n; v++) {
+            for (int b = 0; b < d; b++) {
+                int w = v ^ (1 << b);
+                if (v < w) g.addEdge(new Edge("f", "Q" + v, "Q" + w), "Q" + v, "Q" + w);
+            }
+        }
+        double expected = (n - d - 1) * Math.log(2);
+        double binom = 1;
+        for (int k = 1; k <= d; k++) {
+            binom = binom * (d - k + 1) / k;
+            expected += binom * Math.log(k);
+        }
+
+        SpectralAnalyzer sa = new SpectralAnalyzer(g)
+                .withDenseLimit(0)
+                .withTraceEstimator(new StochasticTraceEstimator().withProbes(40))
+                .compute();
+        StochasticTraceEstimator.Estimate trees = sa.getLogSpanningTreeEstimate();
+        assertEquals(40, trees.getProbes());
+        assertTrue(trees.getLowerBound() <= expected && expected <= trees.getUpperBound());
+        assertEquals(expected, trees.getValue(), 0.01 * expected);
+        assertTrue(Double.isInfinite(sa.getSpanningTreeCount()));
+        assertTrue(sa.getSummary().contains("CI"));
+    }
 }
@@ -153,6 +153,130 @@ public class SpectralLayoutTest {
                 Math.abs(leftCentroid - rightCentroid) > 50.0);
     }
 
+    @Test
+    public void largeSparseGraph_twoCommunitiesSeparate() {
+        // Two 1500-vertex random communities joined by a few edges: large
+        // enough that a dense n×n Laplacian solve would be impractical here.
+        int half = 1500;
+        twoCommunities(half);
+
+        SpectralLayout layout = new SpectralLayout().jitter(false).compute(graph);
+        assertTrue(layout.isConverged());
+        assertEquals(2 * half, layout.getXPositions().size());
+        assertCommunitiesSeparate(layout, half);
+    }
+
+    @Test
+    public void multilevel_twoCommunitiesSeparate() {
+        int half = 1500;
+        twoCommunities(half);
+
+        SpectralLayout layout = new SpectralLayout().jitter(false).multilevel(true).compute(graph);
+        assertTrue("expected coarsening, got " + layout.getLevelCount() + " level(s)",
+                layout.getLevelCount() > 2);
+        assertEquals(2 * half, layout.getXPositions().size());
+        assertCommunitiesSeparate(layout, half);
+    }
+
+    @Test
+    public void multilevel_sameSeedIsDeterministic() {
+        twoCommunities(400);
+        SpectralLayout a = new SpectralLayout().multilevel(true).seed(7).compute(graph);
+        SpectralLayout b = new SpectralLayout().multilevel(true).seed(7).compute(graph);
+        assertEquals(a.getXPositions(), b.getXPositions());
+        assertEquals(a.getYPositions(), b.getYPositions());
+    }
+
+    @Test
+    public void multilevel_warmStartNeedsFewerIterations() {
+        // 120 × 120 grid: tiny spectral gap, slow to converge from random
+        int side = 120;
+        for (int r = 0; r < side; r++) {
+            for (int c = 0; c < side; c++) {
+                if (c > 0) addEdge(r + "_" + (c - 1), r + "_" + c);
+                if (r > 0) addEdge((r - 1) + "_" + c, r + "_" + c);
+            }
+        }
+        SpectralLayout cold = new SpectralLayout().jitter(false).compute(graph);
+        SpectralLayout warm = new SpectralLayout().jitter(false).multilevel(true).compute(graph);
+        assertTrue("warm " + warm.getIterationsUsed() + " vs cold " + cold.getIterationsUsed(),
+                warm.getIterationsUsed() < cold.getIterationsUsed());
+    }
+
+    @Test
+    public void path_fiedlerVectorIsMonotone() {
+        // The Fiedler vector of a path is cos(π(i + ½)/n): strictly monotone
+        int n = 200;
+        for (int i = 0; i + 1 < n; i++) addEdge(String.format("p%03d", i), String.format("p%03d", i + 1));
+        for (boolean multilevel : new boolean[]{false, true}) {
+            SpectralLayout layout = new SpectralLayout().jitter(false).multilevel(multilevel).compute(graph);
+            double first = layout.getX("p000");
+            double last = layout.getX(String.format("p%03d", n - 1));
+            double sign = Math.signum(last - first);
+            for (int i = 0; i + 1 < n; i++) {
+                double step = layout.getX(String.format("p%03d", i + 1)) - layout.getX(String.format("p%03d", i));
+                assertTrue("multilevel=" + multilevel + " step " + i, sign * step > 0);
+            }
+        }
+    }
+
+    @Test
+    public void longPath_defaultFallsBackToWarmStart() {
+        // Too slow to converge cold: the default must switch to multilevel
+        int n = 3000;
+        for (int i = 0; i + 1 < n; i++) addEdge(String.format("p%04d", i), String.format("p%04d", i + 1));
+        SpectralLayout layout = new SpectralLayout().jitter(false).compute(graph);
+        assertTrue("expected warm start, got " + layout.getLevelCount() + " level(s)",
+                layout.getLevelCount() > 1);
+
+        double[] x = new double[n];
+        double mean = 0;
+        for (int i = 0; i < n; i++) {
+            x[i] = layout.getX(String.format("p%04d", i));
+            mean += x[i] / n;
+        }
+        double sign = Math.signum(x[n - 1] - x[0]);
+        double energy = 0;
+        double norm = 0;
+        for (int i = 0; i < n; i++) {
+            if (i + 1 < n) {
+                assertTrue("step " + i, sign * (x[i + 1] - x[i]) > 0);
+                energy += (x[i + 1] - x[i]) * (x[i + 1] - x[i]);
+            }
+            norm += (x[i] - mean) * (x[i] - mean);
+        }
+        // Rayleigh quotient of X against λ₂ = 2 − 2cos(π/n)
+        double lambda2 = 2 - 2 * Math.cos(Math.PI / n);
+        assertEquals(lambda2, energy / norm, 1e-2 * lambda2);
+    }
+
+    /** Two random communities of {@code half} vertices joined by three edges. */
+    private void twoCommunities(int half) {
+        Random rnd = new Random(3);
+        for (int c = 0; c < 2; c++) {
+            for (int i = 0; i + 1 < half; i++) addEdge(c + "_" + i, c + "_" + (i + 1));
+            for (int e = 0; e < 3 * half; e++) {
+                int a = rnd.nextInt(half);
+                int b = rnd.nextInt(half);
+                if (a != b && graph.findEdge(c + "_" + a, c + "_" + b) == null) {
+                    addEdge(c + "_" + a, c + "_" + b);
+                }
+            }
+        }
+        for (int e = 0; e < 3; e++) addEdge("0_" + rnd.nextInt(half), "1_" + rnd.nextInt(half));
+    }
+
+    private static void assertCommunitiesSeparate(SpectralLayout layout, int half) {
+        double left = 0;
+        double right = 0;
+        for (int i = 0; i < half; i++) {
+            left += layout.getX("0_" + i) / half;
+            right += layout.getX("1_" + i) / half;
+        }
+        assertTrue("communities should separate along X, got " + left + " vs " + right,
+                Math.abs(left - right) > 200.0);
+    }
+
     // ── Quality metrics ────────────────────────────────────────────────
 
     @Test
@@ -276,4 +400,17 @@ public class SpectralLayoutTest {
         }
         return count;
     }
+
+    // ── Hit-testing ────────────────────────────────────────────────────
+
+    @Test
+    public void vertexAt_findsNearestVertexWithinRadius() {
+        for (int i = 0; i < 20; i++) addEdge("v" + i, "v" + ((i + 1) % 20));
+        SpectralLayout layout = new SpectralLayout().jitter(false).compute(graph);
+        for (int i = 0; i < 20; i++) {
+            String v = "v" + i;
+            assertEquals(v, layout.vertexAt(layout.getX(v) + 0.5, layout.getY(v), 2.0));
+        }
+        assertNull(layout.vertexAt(-1000, -1000, 5.0));
+    }
 }
@@ -0,0 +1,177 @@
+package gvisual;
+
+import edu.uci.ics.jung.graph.Graph;
+import edu.uci.ics.jung.graph.UndirectedSparseGraph;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+/**
+ * Unit tests for {@link StochasticTraceEstimator}.
+ */
+public class StochasticTraceEstimatorTest {
+
+    private static LinearOperator diagonal(double[] d) {
+        return new LinearOperator() {
+            @Override
+            public int dimension() {
+                return d.length;
+            }
+
+            @Override
+            public void multiply(double[] x, double[] y) {
+                for (int i = 0; i < d.length; i++) y[i] = d[i] * x[i];
+            }
+        };
+    }
+
+    private static Graph<String, Edge> randomGraph(int n, int edges, long seed) {
+        Graph<String, Edge> g = new UndirectedSparseGraph<String, Edge>();
+        for (int i = 0; i < n; i++) g.addVertex("v" + i);
+        for (int i = 1; i < n; i++) g.addEdge(new Edge("f", "v" + (i - 1), "v" + i), "v" + (i - 1), "v" + i);
+        Random rnd = new Random(seed);
+        for (int k = 0; k < edges; k++) {
+            String a = "v" + rnd.nextInt(n);
+            String b = "v" + rnd.nextInt(n);
+            if (!a.equals(b) && g.findEdge(a, b) == null) g.addEdge(new Edge("f", a, b), a, b);
+        }
+        return g;
+    }
+
+    private static List<String> vertices(int n) {
+        List<String> list = new ArrayList<String>();
+        for (int i = 0; i < n; i++) list.add("v" + i);
+        return list;
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testTooFewProbes() {
+        new StochasticTraceEstimator().withProbes(1);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testNonPositiveSteps() {
+        new StochasticTraceEstimator().withLanczosSteps(0);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testConfidenceOutOfRange() {
+        new StochasticTraceEstimator().withConfidence(1.0);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testInvalidParallelism() {
+        new StochasticTraceEstimator().withParallelism(0);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testNullOperator() {
+        new StochasticTraceEstimator().trace(null, Math::abs);
+    }
+
+    @Test
+    public void testEmptyOperatorIsExactZero() {
+        StochasticTraceEstimator.Estimate e = new StochasticTraceEstimator().trace(diagonal(new double[0]), Math::abs);
+        assertTrue(e.isExact());
+        assertEquals(0.0, e.getValue(), 0.0);
+    }
+
+    @Test
+    public void testDiagonalLogDeterminantIsExact() {
+        // ±1 probes see every diagonal entry with weight 1, so there is no variance
+        double[] d = new double[500];
+        double expected = 0;
+        for (int i = 0; i < d.length; i++) {
+            d[i] = 1 + (i % 10);
+            expected += Math.log(d[i]);
+        }
+        StochasticTraceEstimator.Estimate e = new StochasticTraceEstimator().logDeterminant(diagonal(d));
+        assertEquals(expected, e.getValue(), 1e-8);
+        assertEquals(0.0, e.getStandardError(), 1e-8);
+        assertEquals(StochasticTraceEstimator.DEFAULT_PROBES, e.getProbes());
+    }
+
+    @Test
+    public void testAdaptiveStepsCoverIllConditionedLogDeterminant() {
+        // Spectrum spread geometrically over [1e-3, 1]: 40 steps are too few
+        double[] d = new double[500];
+        double expected = 0;
+        for (int i = 0; i < d.length; i++) {
+            d[i] = Math.pow(1e-3, i / (d.length - 1.0));
+            expected += Math.log(d[i]);
+        }
+        StochasticTraceEstimator estimator = new StochasticTraceEstimator().withProbes(2);
+        double fixed = estimator.logDeterminant(diagonal(d)).getValue();
+        StochasticTraceEstimator.Estimate adaptive = estimator.logDeterminant(diagonal(d), 1e-3, 1);
+        assertTrue(adaptive.isAvailable());
+        assertTrue(Math.abs(fixed - expected) > 0.1);
+        assertEquals(expected, adaptive.getValue(), 0.02);
+        assertTrue(StochasticTraceEstimator.stepsForLog(1e3, 500)
+                > StochasticTraceEstimator.DEFAULT_LANCZOS_STEPS);
+    }
+
+    @Test
+    public void testTooIllConditionedLogDeterminantIsUnavailable() {
+        double[] d = {1e-9, 1};
+        StochasticTraceEstimator.Estimate e = new StochasticTraceEstimator().logDeterminant(diagonal(d), 1e-9, 1);
+        assertFalse(e.isAvailable());
+        assertFalse(e.isExact());
+        assertTrue(Double.isNaN(e.getValue()));
+        assertEquals("unavailable", e.toString());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testInvalidSpectrumBounds() {
+        new StochasticTraceEstimator().logDeterminant(diagonal(new double[] {1}), 0, 1);
+    }
+
+    @Test
+    public void testLaplacianHeatTraceMatchesDense() {
+        int n = 300;
+        Graph<String, Edge> g = randomGraph(n, 600, 11);
+        SparseMatrix l = LaplacianBuilder.buildSparseLaplacian(g, vertices(n));
+        double exact = 0;
+        for (double ev : DenseEigensolver.eigenvalues(l.toDense())) exact += Math.exp(-ev);
+
+        StochasticTraceEstimator.Estimate e = new StochasticTraceEstimator()
+                .withProbes(60).trace(l, ev -> Math.exp(-ev));
+        assertTrue(e.getStandardError() > 0);
+        assertTrue(e.getLowerBound() < e.getUpperBound());
+        assertEquals(exact, e.getValue(), 4 * e.getStandardError());
+    }
+
+    @Test
+    public void testWiderIntervalAtHigherConfidence() {
+        SparseMatrix l = LaplacianBuilder.buildSparseLaplacian(randomGraph(100, 150, 3), vertices(100));
+        StochasticTraceEstimator.Estimate e90 = new StochasticTraceEstimator().withConfidence(0.90).trace(l, ev -> ev * ev);
+        StochasticTraceEstimator.Estimate e99 = new StochasticTraceEstimator().withConfidence(0.99).trace(l, ev -> ev * ev);
+        assertEquals(e90.getValue(), e99.getValue(), 1e-12);
+        assertTrue(e99.getUpperBound() - e99.getLowerBound() > e90.getUpperBound() - e90.getLowerBound());
+    }
+
+    @Test
+    public void testParallelMatchesSequential() {
+        int n = 4000;
+        SparseMatrix a = LaplacianBuilder.buildSparseAdjacency(randomGraph(n, 8000, 5), vertices(n));
+        StochasticTraceEstimator.Estimate seq = new StochasticTraceEstimator().withParallelism(1).trace(a, Math::abs);
+        StochasticTraceEstimator.Estimate par = new StochasticTraceEstimator().withParallelism(3).trace(a, Math::abs);
+        assertEquals(seq.getValue(), par.getValue(), 1e-9 * seq.getValue());
+        assertEquals(seq.getStandardError(), par.getStandardError(), 1e-9 * seq.getValue());
+    }
+
+    @Test
+    public void testAffineMapsInterval() {
+        StochasticTraceEstimator.Estimate e = new StochasticTraceEstimator.Estimate(10, 1, 2, 0.95, 30);
+        StochasticTraceEstimator.Estimate m = e.affine(-0.5, 3);
+        assertEquals(-2.0, m.getValue(), 1e-12);
+        assertEquals(0.5, m.getStandardError(), 1e-12);
+        assertEquals(-3.0, m.getLowerBound(), 1e-12);
+        assertEquals(-1.0, m.getUpperBound(), 1e-12);
+        assertTrue(e.toString().contains("95% CI"));
+        assertFalse(StochasticTraceEstimator.Estimate.exact(1).toString().contains("CI"));
+    }
+}
@@ -2,6 +2,7 @@ package gvisual;
 
 import edu.uci.ics.jung.graph.Graph;
 import edu.uci.ics.jung.graph.UndirectedSparseGraph;
+import edu.uci.ics.jung.graph.UndirectedSparseMultigraph;
 import org.junit.Test;
 
 import java.util.*;
@@ -606,4 +607,139 @@ public class SubgraphPatternMatcherTest {
     public void testPathPatternMinLength() {
         SubgraphPatternMatcher.pathPattern(0);
     }
+
+    // ── Candidate indexing and parallel search ──────────────────
+
+    private Graph<String, Edge> randomGraph(int n, int edges, long seed) {
+        Random rnd = new Random(seed);
+        Graph<String, Edge> g = emptyGraph();
+        for (int i = 0; i < n; i++) g.addVertex("v" + i);
+        while (g.getEdgeCount() < edges) {
+            String a = "v" + rnd.nextInt(n);
+            String b = "v" + rnd.nextInt(n);
+            if (!a.equals(b) && g.findEdge(a, b) == null) addEdge(g, a, b);
+        }
+        return g;
+    }
+
+    @Test
+    public void testTriangleCountMatchesBruteForce() {
+        Graph<String, Edge> target = randomGraph(300, 1500, 3);
+        int expected = 0;
+        List<String> vs = new ArrayList<>(target.getVertices());
+        for (int i = 0; i < vs.size(); i++) {
+            for (int j = i + 1; j < vs.size(); j++) {
+                if (target.findEdge(vs.get(i), vs.get(j)) == null) continue;
+                for (int k = j + 1; k < vs.size(); k++) {
+                    if (target.findEdge(vs.get(i), vs.get(k)) != null
+                            && target.findEdge(vs.get(j), vs.get(k)) != null) {
+                        expected++;
+                    }
+                }
+            }
+        }
+        SubgraphPatternMatcher m = new SubgraphPatternMatcher.Builder(
+                target, SubgraphPatternMatcher.trianglePattern()).build();
+        assertEquals(expected, m.findMatches().getMatchCount());
+    }
+
+    @Test
+    public void testParallelMatchesSequential() {
+        Graph<String, Edge> target = randomGraph(5000, 25000, 17);
+        SubgraphPatternMatcher seq = new SubgraphPatternMatcher.Builder(
+                target, SubgraphPatternMatcher.housePattern())
+                .maxMatches(1_000_000).parallelism(1).build();
+        SubgraphPatternMatcher par = new SubgraphPatternMatcher.Builder(
+                target, SubgraphPatternMatcher.housePattern())
+                .maxMatches(1_000_000).parallelism(4).build();
+        List<SubgraphPatternMatcher.Match> a = seq.findMatches().getMatches();
+        List<SubgraphPatternMatcher.Match> b = par.findMatches().getMatches();
+        assertFalse(a.isEmpty());
+        assertEquals(a.size(), b.size());
+        for (int i = 0; i < a.size(); i++) {
+            assertEquals(a.get(i).getMapping(), b.get(i).getMapping());
+        }
+    }
+
+    @Test
+    public void testMatchesRespectPatternEdges() {
+        Graph<String, Edge> target = randomGraph(400, 2400, 9);
+        Graph<String, Edge> pattern = SubgraphPatternMatcher.housePattern();
+        SubgraphPatternMatcher m = new SubgraphPatternMatcher.Builder(
+                target, pattern).build();
+        for (SubgraphPatternMatcher.Match match : m.findMatches().getMatches()) {
+            Map<String, String> map = match.getMapping();
+            assertEquals(5, new HashSet<>(map.values()).size());
+            for (Edge e : pattern.getEdges()) {
+                assertNotNull(target.findEdge(map.get(e.getVertex1()),
+                        map.get(e.getVertex2())));
+            }
+        }
+    }
+
+    @Test
+    public void testParallelMaxMatchesHonoredGlobally() {
+        Graph<String, Edge> target = randomGraph(5000, 30000, 21);
+        SubgraphPatternMatcher m = new SubgraphPatternMatcher.Builder(
+                target, SubgraphPatternMatcher.pathPattern(2))
+                .maxMatches(50).parallelism(4).build();
+        SubgraphPatternMatcher.MatchResult r = m.findMatches();
+        assertEquals(50, r.getMatchCount());
+        assertTrue(r.isHitLimit());
+    }
+
+    @Test
+    public void testMatchEdgeTypes() {
+        Graph<String, Edge> target = emptyGraph();
+        addTypedEdge(target, "A", "B", "friend");
+        addTypedEdge(target, "B", "C", "colleague");
+        addTypedEdge(target, "C", "D", "friend");
+
+        Graph<String, Edge> pattern = emptyGraph();
+        addTypedEdge(pattern, "X", "Y", "friend");
+        addTypedEdge(pattern, "Y", "Z", "colleague");
+
+        SubgraphPatternMatcher typed = new SubgraphPatternMatcher.Builder(
+                target, pattern).matchEdgeTypes(true).build();
+        List<SubgraphPatternMatcher.Match> matches = typed.findMatches().getMatches();
+        assertEquals(2, matches.size());
+        for (SubgraphPatternMatcher.Match match : matches) {
+            String y = match.getMapping().get("Y");
+            assertTrue(y.equals("B") || y.equals("C"));
+        }
+
+        SubgraphPatternMatcher untyped = new SubgraphPatternMatcher.Builder(
+                target, pattern).build();
+        assertEquals(2, untyped.findMatches().getMatchCount());
+    }
+
+    @Test
+    public void testMatchEdgeTypesUnknownType() {
+        Graph<String, Edge> target = makeTriangle("A", "B", "C");
+        Graph<String, Edge> pattern = emptyGraph();
+        addTypedEdge(pattern, "X", "Y", "enemy");
+        SubgraphPatternMatcher m = new SubgraphPatternMatcher.Builder(
+                target, pattern).matchEdgeTypes(true).build();
+        assertEquals(0, m.findMatches().getMatchCount());
+    }
+
+    @Test
+    public void testMatchEdgeTypesOnParallelEdges() {
+        // A–B carries both a "friend" and a "colleague" edge
+        Graph<String, Edge> target = new UndirectedSparseMultigraph<>();
+        addTypedEdge(target, "A", "B", "friend");
+        addTypedEdge(target, "B", "C", "friend");
+        addTypedEdge(target, "A", "B", "colleague");
+
+        Graph<String, Edge> pattern = emptyGraph();
+        addTypedEdge(pattern, "X", "Y", "colleague");
+        addTypedEdge(pattern, "Y", "Z", "friend");
+
+        List<SubgraphPatternMatcher.Match> matches = new SubgraphPatternMatcher.Builder(
+                target, pattern).matchEdgeTypes(true).build().findMatches().getMatches();
+        assertEquals(1, matches.size());
+        assertEquals("A", matches.get(0).getMapping().get("X"));
+        assertEquals("B", matches.get(0).getMapping().get("Y"));
+        assertEquals("C", matches.get(0).getMapping().get("Z"));
+    }
 }